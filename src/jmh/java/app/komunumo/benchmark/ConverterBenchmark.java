@@ -0,0 +1,93 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.benchmark;
+
+import app.komunumo.domain.core.image.control.ContentTypeConverter;
+import app.komunumo.domain.core.image.entity.ContentType;
+import app.komunumo.infra.persistence.jooq.UUIDConverter;
+import app.komunumo.infra.persistence.jooq.ZonedDateTimeConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Measures the jOOQ converters for IDs, timestamps and content types in both directions, as they run for every
+ * column of every row read from or written to the database. The enum converters are covered by
+ * {@link EnumByNameConverterBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+
+    private static final String DATABASE_UUID = "c9fc8b0a-6ff7-4c00-a6f2-d85f5829edff";
+    private static final UUID USER_UUID = UUID.fromString(DATABASE_UUID);
+    private static final LocalDateTime DATABASE_DATE_TIME = LocalDateTime.of(2026, 3, 5, 17, 30);
+    private static final ZonedDateTime USER_DATE_TIME = ZonedDateTime.of(2026, 3, 5, 18, 30, 0, 0, ZoneOffset.ofHours(1));
+    private static final String DATABASE_CONTENT_TYPE = "image/png";
+
+    private final UUIDConverter uuidConverter = new UUIDConverter();
+    private final ZonedDateTimeConverter zonedDateTimeConverter = new ZonedDateTimeConverter();
+    private final ContentTypeConverter contentTypeConverter = new ContentTypeConverter();
+
+    @Benchmark
+    public UUID uuidFrom() {
+        return uuidConverter.from(DATABASE_UUID);
+    }
+
+    @Benchmark
+    public String uuidTo() {
+        return uuidConverter.to(USER_UUID);
+    }
+
+    @Benchmark
+    public ZonedDateTime zonedDateTimeFrom() {
+        return zonedDateTimeConverter.from(DATABASE_DATE_TIME);
+    }
+
+    @Benchmark
+    public LocalDateTime zonedDateTimeTo() {
+        return zonedDateTimeConverter.to(USER_DATE_TIME);
+    }
+
+    @Benchmark
+    public ContentType contentTypeFrom() {
+        return contentTypeConverter.from(DATABASE_CONTENT_TYPE);
+    }
+
+    @Benchmark
+    public String contentTypeTo() {
+        return contentTypeConverter.to(ContentType.IMAGE_PNG);
+    }
+
+}
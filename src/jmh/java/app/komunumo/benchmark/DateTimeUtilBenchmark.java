@@ -0,0 +1,62 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.benchmark;
+
+import app.komunumo.util.DateTimeUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Measures {@code DateTimeUtil.getLocalizedDateTimeString}, which formats the begin of every event shown in the
+ * client time zone and locale. The variant with explicit zone and locale is used, because the others need a UI.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateTimeUtilBenchmark {
+
+    private static final ZonedDateTime DATE_TIME = ZonedDateTime.of(2026, 3, 5, 17, 30, 0, 0, ZoneOffset.UTC);
+    private static final ZoneId ZONE_ID = ZoneId.of("Europe/Zurich");
+
+    @Benchmark
+    public String english() {
+        return DateTimeUtil.getLocalizedDateTimeString(DATE_TIME, ZONE_ID, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String german() {
+        return DateTimeUtil.getLocalizedDateTimeString(DATE_TIME, ZONE_ID, Locale.GERMAN);
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.benchmark;
+
+import app.komunumo.domain.event.control.EventStatusConverter;
+import app.komunumo.domain.event.entity.EventStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Compares the former trim, upper-case and {@code Enum.valueOf} conversion per value with the precomputed lookup
+ * table of {@code EnumByNameConverter}, as it runs for every row fetched from the {@code event} table.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnumByNameConverterBenchmark {
+
+    private static final String[] DATABASE_VALUES = {"DRAFT", "PUBLISHED", "CANCELED", "PUBLISHED"};
+
+    private final EventStatusConverter converter = new EventStatusConverter();
+
+    @Benchmark
+    public void valueOf(final Blackhole blackhole) {
+        for (final var value : DATABASE_VALUES) {
+            blackhole.consume(Enum.valueOf(EventStatus.class, value.trim().toUpperCase(Locale.ROOT)));
+        }
+    }
+
+    @Benchmark
+    public void lookup(final Blackhole blackhole) {
+        for (final var value : DATABASE_VALUES) {
+            blackhole.consume(converter.from(value));
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.benchmark;
+
+import app.komunumo.util.MarkdownUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Measures {@code MarkdownUtil.convertMarkdownToHtml} for short texts like mail bodies and longer texts like event
+ * descriptions and global pages, and {@code MarkdownUtil.convertMarkdownToSafeHtml}, which returns the sanitized HTML
+ * cached when the content was stored.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarkdownUtilBenchmark {
+
+    private static final String SECTION = """
+            ## Agenda
+
+            Join us for an evening of **talks** and *discussions* about [Java](https://openjdk.org/):
+
+            - Welcome and introduction
+            - Talk: What is new in the latest release
+            - Networking with `drinks` and snacks
+
+            > Please register in advance, the number of seats is limited.
+
+            """;
+
+    @Param({"1", "20"})
+    private int sections;
+
+    private String markdown;
+
+    @Setup
+    public void setUp() {
+        markdown = SECTION.repeat(sections);
+    }
+
+    @Benchmark
+    public String convertMarkdownToHtml() {
+        return MarkdownUtil.convertMarkdownToHtml(markdown);
+    }
+
+    @Benchmark
+    public String convertMarkdownToSafeHtml() {
+        return MarkdownUtil.convertMarkdownToSafeHtml(markdown);
+    }
+
+}
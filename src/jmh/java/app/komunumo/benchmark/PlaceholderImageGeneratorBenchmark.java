@@ -0,0 +1,86 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.benchmark;
+
+import app.komunumo.domain.core.image.control.PlaceholderImageGenerator;
+import app.komunumo.infra.config.AppConfig;
+import app.komunumo.infra.config.DatabaseConfig;
+import app.komunumo.infra.config.DemoConfig;
+import app.komunumo.infra.config.FilesConfig;
+import app.komunumo.infra.config.ImporterConfig;
+import app.komunumo.infra.config.InstanceConfig;
+import app.komunumo.infra.config.MailConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Measures {@code PlaceholderImageGenerator.getPlaceholderImage} with a warm cache, as for the repeated card sizes
+ * of the overview pages, and with a cold cache, where every call requests a size not generated before.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlaceholderImageGeneratorBenchmark {
+
+    private PlaceholderImageGenerator generator;
+    private int width;
+
+    @Setup
+    public void setUp() throws IOException {
+        // an empty base directory, so the default logo is used
+        final var basedir = Files.createTempDirectory("komunumo-benchmark");
+        final var appConfig = new AppConfig("0.0.0",
+                new DatabaseConfig(List.of(), Duration.ZERO),
+                new DemoConfig(false, ""),
+                new FilesConfig(basedir),
+                new ImporterConfig(1),
+                new InstanceConfig("admin@example.com"),
+                new MailConfig("noreply@example.com", "support@example.com", 1, 10));
+        generator = new PlaceholderImageGenerator(appConfig);
+    }
+
+    @Benchmark
+    public String warmCache() {
+        return generator.getPlaceholderImage(400, 225);
+    }
+
+    @Benchmark
+    public String coldCache() {
+        // the cache holds the 100 most recent sizes, so a steadily growing width is never cached
+        width = width == Integer.MAX_VALUE ? 1 : width + 1;
+        return generator.getPlaceholderImage(width, 225);
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.benchmark;
+
+import app.komunumo.data.db.tables.records.EventRecord;
+import app.komunumo.data.db.tables.records.ParticipantRecord;
+import app.komunumo.data.db.tables.records.UserRecord;
+import app.komunumo.domain.event.entity.EventDto;
+import app.komunumo.domain.event.entity.EventStatus;
+import app.komunumo.domain.event.entity.EventVisibility;
+import app.komunumo.domain.participant.entity.ParticipantDto;
+import app.komunumo.domain.user.entity.UserDto;
+import app.komunumo.domain.user.entity.UserRole;
+import app.komunumo.domain.user.entity.UserType;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static app.komunumo.data.db.tables.Event.EVENT;
+import static app.komunumo.data.db.tables.Participant.PARTICIPANT;
+import static app.komunumo.data.db.tables.User.USER;
+import static app.komunumo.domain.event.control.EventRecordMapper.EVENT_MAPPER;
+import static app.komunumo.domain.participant.control.ParticipantRecordMapper.PARTICIPANT_MAPPER;
+import static app.komunumo.domain.user.control.UserRecordMapper.USER_MAPPER;
+
+/**
+ * <p>Compares jOOQ's reflective {@code DefaultRecordMapper} ({@code into(Dto.class)}) with the hand-written record
+ * mappers for large event, user and participant lists. Run with {@code -prof gc} (the default of the benchmark
+ * profile) to see the allocation rate per operation.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecordMapperBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private Result<EventRecord> events;
+    private Result<UserRecord> users;
+    private Result<ParticipantRecord> participants;
+
+    @Setup
+    public void setUp() {
+        final var dsl = DSL.using(SQLDialect.MARIADB);
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+
+        events = dsl.newResult(EVENT);
+        users = dsl.newResult(USER);
+        participants = dsl.newResult(PARTICIPANT);
+
+        for (int i = 0; i < size; i++) {
+            final var eventId = UUID.randomUUID();
+            final var userId = UUID.randomUUID();
+
+            final var event = dsl.newRecord(EVENT);
+            event.from(new EventDto(eventId, UUID.randomUUID(), now, now, "Event " + i, "Description " + i,
+                    "Location " + i, now.plusDays(i), now.plusDays(i).plusHours(2), null, true,
+                    EventVisibility.PUBLIC, EventStatus.PUBLISHED));
+            events.add(event);
+
+            final var user = dsl.newRecord(USER);
+            user.from(new UserDto(userId, now, now, "@user" + i, "user" + i + "@example.com", "User " + i, "",
+                    null, UserRole.USER, UserType.LOCAL));
+            users.add(user);
+
+            final var participant = dsl.newRecord(PARTICIPANT);
+            participant.from(new ParticipantDto(eventId, userId, now));
+            participants.add(participant);
+        }
+    }
+
+    @Benchmark
+    public List<EventDto> eventsReflective() {
+        return events.into(EventDto.class);
+    }
+
+    @Benchmark
+    public List<EventDto> eventsMapper() {
+        return events.map(EVENT_MAPPER);
+    }
+
+    @Benchmark
+    public List<UserDto> usersReflective() {
+        return users.into(UserDto.class);
+    }
+
+    @Benchmark
+    public List<UserDto> usersMapper() {
+        return users.map(USER_MAPPER);
+    }
+
+    @Benchmark
+    public List<ParticipantDto> participantsReflective() {
+        return participants.into(ParticipantDto.class);
+    }
+
+    @Benchmark
+    public List<ParticipantDto> participantsMapper() {
+        return participants.map(PARTICIPANT_MAPPER);
+    }
+
+}
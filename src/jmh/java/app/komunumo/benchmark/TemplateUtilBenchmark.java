@@ -0,0 +1,91 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.benchmark;
+
+import app.komunumo.util.CompiledTemplate;
+import app.komunumo.util.TemplateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Measures the rendering of a mail template with the typical number of variables, as it runs for every mail subject
+ * and body sent. The {@code regex} benchmark is the former implementation of {@code TemplateUtil.replaceVariables},
+ * kept as the baseline for the compiled template.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateUtilBenchmark {
+
+    private static final String TEMPLATE = """
+            Hello ${name},
+
+            you have successfully registered for "${eventTitle}" on ${eventDate} in ${eventLocation}.
+
+            If you can no longer attend, please cancel your registration here: ${eventLink}
+
+            See you there!
+            ${instanceName}""";
+
+    private static final Map<String, String> VARIABLES = Map.of(
+            "name", "Anna Bachmann",
+            "eventTitle", "Java Meetup",
+            "eventDate", "Thursday, 5 March 2026, 18:30 CET",
+            "eventLocation", "Zurich",
+            "eventLink", "https://example.com/events/c9fc8b0a-6ff7-4c00-a6f2-d85f5829edff",
+            "instanceName", "Komunumo");
+
+    private static final CompiledTemplate COMPILED_TEMPLATE = TemplateUtil.compile(TEMPLATE);
+
+    @Benchmark
+    public String regex() {
+        String returnValue = TEMPLATE;
+        for (final var entry : VARIABLES.entrySet()) {
+            final var regex = Pattern.quote("${%s}".formatted(entry.getKey()));
+            final var value = Matcher.quoteReplacement(entry.getValue());
+            returnValue = returnValue.replaceAll(regex, value);
+        }
+        return returnValue;
+    }
+
+    @Benchmark
+    public String replaceVariables() {
+        return TemplateUtil.replaceVariables(TEMPLATE, VARIABLES);
+    }
+
+    @Benchmark
+    public String compiled() {
+        return COMPILED_TEMPLATE.render(VARIABLES);
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.benchmark;
+
+import app.komunumo.infra.ui.i18n.TranslationProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Measures {@code TranslationProvider.getTranslation} for plain texts, for texts with positional parameters, and
+ * for ICU plural patterns with named parameters, as they are looked up for every label rendered, and for the labels
+ * of a complete event detail view.</p>
+ *
+ * <p>The cached patterns and compiled formats mainly save allocations, so compare the {@code gc.alloc.rate.norm}
+ * reported by {@code -prof gc} before and after a change, not only the average time.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TranslationProviderBenchmark {
+
+    private static final String PLAIN_KEY = "vaadin.components.LogViewer.downloadButton";
+    private static final String POSITIONAL_KEY = "community.boundary.CommunityDetailView.profileImage";
+    private static final String PLURAL_KEY = "community.boundary.CommunityDetailView.memberCount";
+
+    private static final String EVENT_DETAIL_VIEW = "event.boundary.EventDetailView.";
+
+    private final TranslationProvider translationProvider = new TranslationProvider();
+
+    @Benchmark
+    public String withoutParameters() {
+        return translationProvider.getTranslation(PLAIN_KEY, Locale.GERMAN);
+    }
+
+    @Benchmark
+    public String withPositionalParameter() {
+        return translationProvider.getTranslation(POSITIONAL_KEY, Locale.GERMAN, "Java User Group");
+    }
+
+    @Benchmark
+    public String withIcuPlural() {
+        return translationProvider.getTranslation(PLURAL_KEY, Locale.GERMAN, Map.of("count", 42));
+    }
+
+    @Benchmark
+    public void eventDetailView(final Blackhole blackhole) {
+        blackhole.consume(translationProvider.getTranslation(EVENT_DETAIL_VIEW + "image", Locale.GERMAN, "Java Meetup"));
+        blackhole.consume(translationProvider.getTranslation(EVENT_DETAIL_VIEW + "location", Locale.GERMAN));
+        blackhole.consume(translationProvider.getTranslation(EVENT_DETAIL_VIEW + "beginDate", Locale.GERMAN));
+        blackhole.consume(translationProvider.getTranslation(EVENT_DETAIL_VIEW + "endDate", Locale.GERMAN));
+        blackhole.consume(translationProvider.getTranslation(EVENT_DETAIL_VIEW + "participantCount", Locale.GERMAN, 42));
+        blackhole.consume(translationProvider.getTranslation(EVENT_DETAIL_VIEW + "register", Locale.GERMAN));
+        blackhole.consume(translationProvider.getTranslation(EVENT_DETAIL_VIEW + "announcementButton", Locale.GERMAN));
+    }
+
+}
@@ -17,8 +17,11 @@
  */
 package app.komunumo;
 
+import app.komunumo.domain.announcement.control.AnnouncementService;
 import app.komunumo.domain.core.config.control.ConfigurationService;
 import app.komunumo.domain.core.demo.control.DemoMode;
+import app.komunumo.domain.core.importer.control.ImportJobService;
+import app.komunumo.domain.core.mail.control.MailOutbox;
 import app.komunumo.domain.user.control.UserService;
 import app.komunumo.domain.user.entity.UserDto;
 import app.komunumo.domain.user.entity.UserRole;
@@ -42,32 +45,56 @@ public final class StartupHandler {
     private final @NotNull ConfigurationService configurationService;
     private final @NotNull UserService userService;
     private final @NotNull DemoMode demoMode;
+    private final @NotNull ImportJobService importJobService;
+    private final @NotNull MailOutbox mailOutbox;
+    private final @NotNull AnnouncementService announcementService;
 
     public StartupHandler(final @NotNull AppConfig appConfig,
                           final @NotNull ConfigurationService configurationService,
                           final @NotNull UserService userService,
-                          final @NotNull DemoMode demoMode) {
+                          final @NotNull DemoMode demoMode,
+                          final @NotNull ImportJobService importJobService,
+                          final @NotNull MailOutbox mailOutbox,
+                          final @NotNull AnnouncementService announcementService) {
         this.appConfig = appConfig;
         this.configurationService = configurationService;
         this.userService = userService;
         this.demoMode = demoMode;
+        this.importJobService = importJobService;
+        this.mailOutbox = mailOutbox;
+        this.announcementService = announcementService;
     }
 
     @EventListener(ApplicationReadyEvent.class)
     public void onApplicationReady() {
         importRemoteData();
+        resumeInterruptedImports();
         clearCachedConfiguration();
         createInitialAdmin();
+        startMailOutbox();
+        resumeInterruptedAnnouncements();
     }
 
     private void importRemoteData() {
         demoMode.resetDemoData();
     }
 
+    private void resumeInterruptedImports() {
+        importJobService.resumeInterruptedJobs();
+    }
+
     private void clearCachedConfiguration() {
         configurationService.clearCache();
     }
 
+    private void startMailOutbox() {
+        mailOutbox.start();
+    }
+
+    private void resumeInterruptedAnnouncements() {
+        announcementService.resumeInterruptedAnnouncements();
+    }
+
     private void createInitialAdmin() {
         if (userService.getAdminCount() > 0) {
             LOGGER.info("There are already instance admins. Skipping admin creation.");
@@ -0,0 +1,165 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.announcement.boundary;
+
+import app.komunumo.domain.announcement.control.AnnouncementListener;
+import app.komunumo.domain.announcement.control.AnnouncementService;
+import app.komunumo.domain.announcement.entity.AnnouncementDto;
+import app.komunumo.domain.announcement.entity.AnnouncementStatus;
+import app.komunumo.infra.ui.vaadin.components.MarkdownEditor;
+import com.vaadin.flow.component.ModalityMode;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.icon.Icon;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * <p>Lets an organizer write an announcement and shows the progress while it is sent. Closing
+ * the dialog does not stop sending.</p>
+ */
+public final class AnnouncementDialog extends Dialog {
+
+    private final @NotNull AnnouncementService announcementService;
+    private final @NotNull BiFunction<String, String, AnnouncementDto> announcer;
+
+    private final @NotNull UI ui;
+    private final @NotNull TextField subjectField;
+    private final @NotNull MarkdownEditor messageEditor;
+    private final @NotNull Button sendButton;
+    private final @NotNull Button cancelButton;
+
+    private @NotNull Runnable detachFromAnnouncement = () -> { };
+
+    /**
+     * <p>Creates the dialog.</p>
+     *
+     * @param announcementService the service to attach to the started announcement
+     * @param recipients the description of the recipients shown to the organizer
+     * @param announcer the function starting the announcement with the entered subject and message
+     */
+    public AnnouncementDialog(final @NotNull AnnouncementService announcementService,
+                              final @NotNull String recipients,
+                              final @NotNull BiFunction<String, String, AnnouncementDto> announcer) {
+        super();
+        this.announcementService = announcementService;
+        this.announcer = announcer;
+        this.ui = UI.getCurrent();
+
+        setModality(ModalityMode.STRICT);
+        setCloseOnEsc(true);
+        setCloseOnOutsideClick(false);
+
+        addClassName("announcement-dialog");
+        setHeaderTitle(getTranslation("announcement.boundary.AnnouncementDialog.title"));
+
+        final var closeButton = new Button(new Icon("lumo", "cross"), _ -> close());
+        closeButton.addThemeVariants(ButtonVariant.TERTIARY);
+        closeButton.addClassName("close-button");
+        getHeader().add(closeButton);
+
+        final var recipientsParagraph = new Paragraph(recipients);
+        recipientsParagraph.addClassName("announcement-recipients");
+        add(recipientsParagraph);
+
+        subjectField = new TextField();
+        subjectField.setPlaceholder(getTranslation("announcement.boundary.AnnouncementDialog.subject"));
+        subjectField.setMaxLength(255);
+        subjectField.setValueChangeMode(ValueChangeMode.EAGER);
+        subjectField.setWidthFull();
+        subjectField.addClassName("announcement-subject");
+        add(subjectField);
+
+        messageEditor = new MarkdownEditor(getLocale());
+        messageEditor.setPlaceholder(getTranslation("announcement.boundary.AnnouncementDialog.message"));
+        messageEditor.setValueChangeMode(ValueChangeMode.LAZY);
+        messageEditor.setSizeFull();
+        messageEditor.addClassName("announcement-message");
+        add(messageEditor);
+
+        cancelButton = new Button(getTranslation("announcement.boundary.AnnouncementDialog.cancel"), _ -> close());
+        cancelButton.addClassName("cancel-button");
+        getFooter().add(cancelButton);
+        sendButton = new Button(getTranslation("announcement.boundary.AnnouncementDialog.send"), _ -> send());
+        sendButton.addThemeVariants(ButtonVariant.PRIMARY);
+        sendButton.addClassName("send-button");
+        sendButton.setEnabled(false);
+        getFooter().add(sendButton);
+
+        subjectField.addValueChangeListener(_ -> updateSendButton());
+        messageEditor.addValueChangeListener(_ -> updateSendButton());
+        addDetachListener(_ -> detachFromAnnouncement.run());
+    }
+
+    private void updateSendButton() {
+        sendButton.setEnabled(!subjectField.getValue().isBlank() && !messageEditor.getValue().isBlank());
+    }
+
+    private void send() {
+        final var announcement = announcer.apply(subjectField.getValue().trim(), messageEditor.getValue());
+
+        subjectField.setReadOnly(true);
+        messageEditor.setReadOnly(true);
+        sendButton.setVisible(false);
+        cancelButton.setText(getTranslation("announcement.boundary.AnnouncementDialog.close"));
+
+        final var progressBar = new ProgressBar(0, Math.max(1, announcement.recipientCount()), 0);
+        progressBar.addClassName("announcement-progress");
+        final var progressText = new Paragraph();
+        progressText.addClassName("announcement-progress-text");
+        add(progressBar, progressText);
+
+        detachFromAnnouncement = announcementService.subscribe(announcement.id(), new AnnouncementListener() {
+            @Override
+            public void progress(final @NotNull AnnouncementDto currentAnnouncement) {
+                ui.access(() -> showProgress(currentAnnouncement, progressBar, progressText));
+            }
+
+            @Override
+            public void finished(final @NotNull AnnouncementDto finishedAnnouncement) {
+                ui.access(() -> showProgress(finishedAnnouncement, progressBar, progressText));
+            }
+        });
+    }
+
+    private void showProgress(final @NotNull AnnouncementDto announcement,
+                              final @NotNull ProgressBar progressBar,
+                              final @NotNull Paragraph progressText) {
+        progressBar.setValue(Math.min(announcement.sentCount(), progressBar.getMax()));
+        final var key = switch (announcement.status()) {
+            case RUNNING -> "announcement.boundary.AnnouncementDialog.progress";
+            case COMPLETED -> "announcement.boundary.AnnouncementDialog.completed";
+            case FAILED -> "announcement.boundary.AnnouncementDialog.failed";
+        };
+        progressText.setText(getTranslation(key, Map.of(
+                "sent", announcement.sentCount(),
+                "total", announcement.recipientCount())));
+        if (announcement.status() == AnnouncementStatus.COMPLETED) {
+            progressBar.setValue(progressBar.getMax()); // recipients may have left in the meantime
+        }
+    }
+
+}
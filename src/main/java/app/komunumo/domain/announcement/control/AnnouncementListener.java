@@ -0,0 +1,44 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.announcement.control;
+
+import app.komunumo.domain.announcement.entity.AnnouncementDto;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * <p>Receives the progress of an announcement. The methods are called by the thread sending the
+ * announcement, so user interface updates must be synchronized with the session.</p>
+ */
+public interface AnnouncementListener {
+
+    /**
+     * <p>Called when attaching to the announcement and about once per second while the mails
+     * are being sent.</p>
+     *
+     * @param announcement the current state of the announcement
+     */
+    void progress(@NotNull AnnouncementDto announcement);
+
+    /**
+     * <p>Called once the announcement has completed, failed, or was interrupted by a shutdown.</p>
+     *
+     * @param announcement the announcement in its final state
+     */
+    void finished(@NotNull AnnouncementDto announcement);
+
+}
@@ -0,0 +1,501 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.announcement.control;
+
+import app.komunumo.data.db.tables.records.AnnouncementRecord;
+import app.komunumo.domain.announcement.entity.AnnouncementDto;
+import app.komunumo.domain.announcement.entity.AnnouncementStatus;
+import app.komunumo.domain.announcement.entity.AnnouncementTarget;
+import app.komunumo.domain.community.control.CommunityService;
+import app.komunumo.domain.community.entity.CommunityDto;
+import app.komunumo.domain.core.mail.control.BulkMail;
+import app.komunumo.domain.core.mail.control.MailService;
+import app.komunumo.domain.core.mail.entity.MailFormat;
+import app.komunumo.domain.core.mail.entity.MailTemplateId;
+import app.komunumo.domain.event.control.EventService;
+import app.komunumo.domain.event.entity.EventDto;
+import app.komunumo.infra.ui.i18n.LocaleUtil;
+import jakarta.annotation.PreDestroy;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Record3;
+import org.jooq.SelectConditionStep;
+import org.jooq.exception.DataAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static app.komunumo.data.db.tables.Announcement.ANNOUNCEMENT;
+import static app.komunumo.data.db.tables.Member.MEMBER;
+import static app.komunumo.data.db.tables.Participant.PARTICIPANT;
+import static app.komunumo.data.db.tables.User.USER;
+import static java.util.Objects.requireNonNull;
+import static org.jooq.impl.DSL.noCondition;
+
+/**
+ * <p>Sends announcements of organizers to all members of a community or all participants of an
+ * event in the background, one mail per recipient.</p>
+ *
+ * <p>The recipients are read page by page in the order of their user ID, so an announcement
+ * never holds a database cursor or all recipients in memory. Every mail is added to the outbox
+ * in the same transaction as the progress of the announcement, limited to the rate configured
+ * for bulk mails. Announcements interrupted by a shutdown stay in the state
+ * {@link AnnouncementStatus#RUNNING} and are continued with the next recipient by
+ * {@link #resumeInterruptedAnnouncements()}.</p>
+ *
+ * <p>Every announcement is claimed by the node sending it for a lease of
+ * {@link #LEASE_TIMEOUT}, which the node renews while sending. Another node only takes an
+ * announcement over after its lease has expired, and the progress is only recorded if nobody
+ * else has recorded progress in the meantime, so no recipient receives an announcement twice,
+ * even if several nodes share the database.</p>
+ *
+ * <p>Users do not have a preferred language, so the mails are written in the language of the
+ * organizer; the template is rendered once per announcement and only the name is filled in
+ * for every recipient.</p>
+ */
+@Service
+public class AnnouncementService {
+
+    /**
+     * <p>Time after which an announcement whose lease has not been renewed is taken over by
+     * another node, because the node sending it was stopped.</p>
+     */
+    public static final @NotNull Duration LEASE_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(AnnouncementService.class);
+
+    private static final int PAGE_SIZE = 500;
+    private static final long PROGRESS_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final @NotNull DSLContext dsl;
+    private final @NotNull MailService mailService;
+    private final @NotNull CommunityService communityService;
+    private final @NotNull EventService eventService;
+    private final @NotNull UUID claimId = UUID.randomUUID();
+
+    private final @NotNull ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("announcement-", 1).factory());
+    private final @NotNull Map<UUID, RunningAnnouncement> runningAnnouncements = new ConcurrentHashMap<>();
+
+    public AnnouncementService(final @NotNull DSLContext dsl,
+                               final @NotNull MailService mailService,
+                               final @NotNull CommunityService communityService,
+                               final @NotNull EventService eventService) {
+        this.dsl = dsl;
+        this.mailService = mailService;
+        this.communityService = communityService;
+        this.eventService = eventService;
+    }
+
+    /**
+     * <p>Starts sending an announcement to all members of the community.</p>
+     *
+     * @param community the community
+     * @param subject the subject of the announcement
+     * @param message the Markdown message of the announcement
+     * @param locale the language of the announcement mails
+     * @return the started announcement
+     */
+    public @NotNull AnnouncementDto announceToMembers(final @NotNull CommunityDto community,
+                                                      final @NotNull String subject,
+                                                      final @NotNull String message,
+                                                      final @NotNull Locale locale) {
+        return startAnnouncement(AnnouncementTarget.COMMUNITY, requireNonNull(community.id()), subject, message, locale);
+    }
+
+    /**
+     * <p>Starts sending an announcement to all participants of the event.</p>
+     *
+     * @param event the event
+     * @param subject the subject of the announcement
+     * @param message the Markdown message of the announcement
+     * @param locale the language of the announcement mails
+     * @return the started announcement
+     */
+    public @NotNull AnnouncementDto announceToParticipants(final @NotNull EventDto event,
+                                                           final @NotNull String subject,
+                                                           final @NotNull String message,
+                                                           final @NotNull Locale locale) {
+        return startAnnouncement(AnnouncementTarget.EVENT, requireNonNull(event.id()), subject, message, locale);
+    }
+
+    /**
+     * <p>Returns the announcement with the specified ID.</p>
+     *
+     * @param announcementId the ID of the announcement
+     * @return the announcement, or an empty {@link Optional} if no announcement with that ID exists
+     */
+    public @NotNull Optional<AnnouncementDto> getAnnouncement(final @NotNull UUID announcementId) {
+        return dsl.selectFrom(ANNOUNCEMENT)
+                .where(ANNOUNCEMENT.ID.eq(announcementId))
+                .fetchOptional(AnnouncementService::toDto);
+    }
+
+    /**
+     * <p>Attaches the specified listener to an announcement. The listener is notified about the
+     * current state right away. If the announcement is not being sent on this instance, it is
+     * notified as finished.</p>
+     *
+     * @param announcementId the ID of the announcement
+     * @param listener the listener to attach
+     * @return an action detaching the listener from the announcement again
+     */
+    public @NotNull Runnable subscribe(final @NotNull UUID announcementId,
+                                       final @NotNull AnnouncementListener listener) {
+        final var runningAnnouncement = runningAnnouncements.get(announcementId);
+        if (runningAnnouncement == null) {
+            getAnnouncement(announcementId).ifPresent(listener::finished);
+            return () -> { };
+        }
+        return runningAnnouncement.subscribe(listener);
+    }
+
+    /**
+     * <p>Continues all announcements that were interrupted by a shutdown with their next
+     * recipient, as well as announcements left behind by a stopped node.</p>
+     */
+    public void resumeInterruptedAnnouncements() {
+        resumeAnnouncements(true);
+    }
+
+    /**
+     * <p>Renews the lease of the announcements sent by this node and takes over the
+     * announcements whose lease has expired.</p>
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void renewLeases() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        if (!runningAnnouncements.isEmpty()) {
+            dsl.update(ANNOUNCEMENT)
+                    .set(ANNOUNCEMENT.UPDATED, ZonedDateTime.now(ZoneOffset.UTC))
+                    .where(ANNOUNCEMENT.ID.in(runningAnnouncements.keySet()))
+                    .and(ANNOUNCEMENT.STATUS.eq(AnnouncementStatus.RUNNING.name()))
+                    .and(ANNOUNCEMENT.CLAIM_ID.eq(claimId))
+                    .execute();
+        }
+        resumeAnnouncements(false);
+    }
+
+    /**
+     * <p>Stops sending. Announcements running at that moment are continued on the next start.</p>
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private @NotNull AnnouncementDto startAnnouncement(final @NotNull AnnouncementTarget target,
+                                                       final @NotNull UUID targetId,
+                                                       final @NotNull String subject,
+                                                       final @NotNull String message,
+                                                       final @NotNull Locale locale) {
+        final var announcementId = UUID.randomUUID();
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        dsl.insertInto(ANNOUNCEMENT)
+                .set(ANNOUNCEMENT.ID, announcementId)
+                .set(ANNOUNCEMENT.CREATED, now)
+                .set(ANNOUNCEMENT.UPDATED, now)
+                .set(ANNOUNCEMENT.TARGET, target.name())
+                .set(ANNOUNCEMENT.TARGET_ID, targetId)
+                .set(ANNOUNCEMENT.LANGUAGE, LocaleUtil.getLanguageCode(locale))
+                .set(ANNOUNCEMENT.SUBJECT, subject)
+                .set(ANNOUNCEMENT.MESSAGE, message)
+                .set(ANNOUNCEMENT.STATUS, AnnouncementStatus.RUNNING.name())
+                .set(ANNOUNCEMENT.CLAIM_ID, claimId)
+                .set(ANNOUNCEMENT.RECIPIENT_COUNT, dsl.fetchCount(selectRecipients(target, targetId, null)))
+                .execute();
+        final var announcement = getAnnouncement(announcementId).orElseThrow();
+        LOGGER.info("Announcement {} to {} recipients started.", announcementId, announcement.recipientCount());
+        submit(announcement);
+        return announcement;
+    }
+
+    private void resumeAnnouncements(final boolean includeReleased) {
+        dsl.select(ANNOUNCEMENT.ID)
+                .from(ANNOUNCEMENT)
+                .where(claimable(includeReleased, ZonedDateTime.now(ZoneOffset.UTC)))
+                .orderBy(ANNOUNCEMENT.CREATED)
+                .fetch(ANNOUNCEMENT.ID)
+                .stream()
+                .filter(announcementId -> !runningAnnouncements.containsKey(announcementId))
+                .filter(announcementId -> claim(announcementId, includeReleased))
+                .forEach(announcementId -> {
+                    LOGGER.info("Resuming interrupted announcement {}.", announcementId);
+                    submit(getAnnouncement(announcementId).orElseThrow());
+                });
+    }
+
+    /**
+     * <p>Claims an announcement for this node. The database decides which node wins, so only
+     * one node continues the announcement.</p>
+     *
+     * @return {@code true} if this node sends the announcement
+     */
+    private boolean claim(final @NotNull UUID announcementId, final boolean includeReleased) {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        return dsl.update(ANNOUNCEMENT)
+                .set(ANNOUNCEMENT.CLAIM_ID, claimId)
+                .set(ANNOUNCEMENT.UPDATED, now)
+                .where(ANNOUNCEMENT.ID.eq(announcementId))
+                .and(claimable(includeReleased, now))
+                .execute() > 0;
+    }
+
+    /**
+     * <p>Matches the running announcements whose lease has expired and, if requested, the
+     * announcements released by a node that was shut down.</p>
+     */
+    private static @NotNull Condition claimable(final boolean includeReleased,
+                                                final @NotNull ZonedDateTime now) {
+        final var expired = ANNOUNCEMENT.UPDATED.lt(now.minus(LEASE_TIMEOUT));
+        return ANNOUNCEMENT.STATUS.eq(AnnouncementStatus.RUNNING.name())
+                .and(includeReleased ? expired.or(ANNOUNCEMENT.CLAIM_ID.isNull()) : expired);
+    }
+
+    private void submit(final @NotNull AnnouncementDto announcement) {
+        final var runningAnnouncement = new RunningAnnouncement(announcement);
+        runningAnnouncements.put(announcement.id(), runningAnnouncement);
+        executor.execute(() -> send(announcement, runningAnnouncement));
+    }
+
+    private void send(final @NotNull AnnouncementDto announcement,
+                      final @NotNull RunningAnnouncement runningAnnouncement) {
+        var status = AnnouncementStatus.COMPLETED;
+        try {
+            final var bulkMail = prepareBulkMail(announcement);
+            var lastUserId = announcement.lastUserId();
+            var lastProgress = System.nanoTime();
+            List<Record3<UUID, String, String>> recipients;
+            do {
+                recipients = selectRecipients(announcement.target(), announcement.targetId(), lastUserId)
+                        .orderBy(USER.ID)
+                        .limit(PAGE_SIZE)
+                        .fetch();
+                for (final var recipient : recipients) {
+                    bulkMail.awaitPermit();
+                    sendMail(announcement, bulkMail, lastUserId, recipient.value1(), recipient.value2(), recipient.value3());
+                    lastUserId = recipient.value1();
+                    if (System.nanoTime() - lastProgress >= PROGRESS_INTERVAL_NANOS) {
+                        lastProgress = System.nanoTime();
+                        getAnnouncement(announcement.id()).ifPresent(runningAnnouncement::progress);
+                    }
+                }
+            } while (recipients.size() == PAGE_SIZE);
+        } catch (final InterruptedException _) {
+            LOGGER.warn("Announcement {} was interrupted and will be resumed on the next start.", announcement.id());
+            status = AnnouncementStatus.RUNNING;
+            Thread.currentThread().interrupt();
+        } catch (final RuntimeException e) {
+            if (executor.isShutdown()) {
+                LOGGER.warn("Announcement {} was interrupted and will be resumed on the next start.", announcement.id());
+                status = AnnouncementStatus.RUNNING;
+            } else {
+                LOGGER.error("Announcement {} failed: {}", announcement.id(), e.getMessage());
+                status = AnnouncementStatus.FAILED;
+            }
+        }
+        finish(announcement, status, runningAnnouncement);
+    }
+
+    private @NotNull BulkMail prepareBulkMail(final @NotNull AnnouncementDto announcement) {
+        final var variables = switch (announcement.target()) {
+            case COMMUNITY -> Map.of("communityName", communityService.getCommunity(announcement.targetId())
+                    .orElseThrow(() -> new IllegalStateException("Community not found"))
+                    .name());
+            case EVENT -> Map.of("eventTitle", eventService.getEvent(announcement.targetId())
+                    .orElseThrow(() -> new IllegalStateException("Event not found"))
+                    .title());
+        };
+        final var mailTemplateId = switch (announcement.target()) {
+            case COMMUNITY -> MailTemplateId.COMMUNITY_ANNOUNCEMENT;
+            case EVENT -> MailTemplateId.EVENT_ANNOUNCEMENT;
+        };
+        final var allVariables = new HashMap<>(variables);
+        allVariables.put("subject", announcement.subject());
+        allVariables.put("message", announcement.message());
+        return mailService.prepareBulkMail(mailTemplateId, announcement.language(), MailFormat.MARKDOWN, allVariables);
+    }
+
+    /**
+     * <p>Adds the mail for one recipient to the outbox and records the progress in the same
+     * transaction, so every recipient receives the announcement once, even if sending is
+     * interrupted. If the announcement was taken over or another node has recorded progress in
+     * the meantime, the transaction is rolled back and the mail is not sent.</p>
+     */
+    private void sendMail(final @NotNull AnnouncementDto announcement,
+                          final @NotNull BulkMail bulkMail,
+                          final @Nullable UUID previousUserId,
+                          final @NotNull UUID userId,
+                          final @NotNull String name,
+                          final @NotNull String email) {
+        dsl.transaction(_ -> {
+            final var sent = bulkMail.send(email, Map.of("name", name));
+            final var updated = dsl.update(ANNOUNCEMENT)
+                    .set(ANNOUNCEMENT.SENT_COUNT, sent ? ANNOUNCEMENT.SENT_COUNT.plus(1) : ANNOUNCEMENT.SENT_COUNT)
+                    .set(ANNOUNCEMENT.LAST_USER_ID, userId)
+                    .set(ANNOUNCEMENT.UPDATED, ZonedDateTime.now(ZoneOffset.UTC))
+                    .where(ANNOUNCEMENT.ID.eq(announcement.id()))
+                    .and(ANNOUNCEMENT.CLAIM_ID.eq(claimId))
+                    .and(ANNOUNCEMENT.LAST_USER_ID.isNotDistinctFrom(previousUserId))
+                    .execute();
+            if (updated == 0) {
+                throw new IllegalStateException("Announcement was taken over by another node");
+            }
+        });
+    }
+
+    private @NotNull SelectConditionStep<Record3<UUID, String, String>> selectRecipients(
+            final @NotNull AnnouncementTarget target,
+            final @NotNull UUID targetId,
+            final @Nullable UUID afterUserId) {
+        final var recipients = switch (target) {
+            case COMMUNITY -> dsl.select(USER.ID, USER.NAME, USER.EMAIL)
+                    .from(MEMBER)
+                    .join(USER).on(MEMBER.USER_ID.eq(USER.ID))
+                    .where(MEMBER.COMMUNITY_ID.eq(targetId));
+            case EVENT -> dsl.select(USER.ID, USER.NAME, USER.EMAIL)
+                    .from(PARTICIPANT)
+                    .join(USER).on(PARTICIPANT.USER_ID.eq(USER.ID))
+                    .where(PARTICIPANT.EVENT_ID.eq(targetId));
+        };
+        return recipients
+                .and(USER.EMAIL.isNotNull())
+                .and(afterUserId != null ? USER.ID.gt(afterUserId) : noCondition());
+    }
+
+    private void finish(final @NotNull AnnouncementDto announcement,
+                        final @NotNull AnnouncementStatus status,
+                        final @NotNull RunningAnnouncement runningAnnouncement) {
+        if (status != AnnouncementStatus.RUNNING) {
+            dsl.update(ANNOUNCEMENT)
+                    .set(ANNOUNCEMENT.STATUS, status.name())
+                    .set(ANNOUNCEMENT.UPDATED, ZonedDateTime.now(ZoneOffset.UTC))
+                    .where(ANNOUNCEMENT.ID.eq(announcement.id()))
+                    .and(ANNOUNCEMENT.CLAIM_ID.eq(claimId))
+                    .execute();
+        } else {
+            release(announcement);
+        }
+        runningAnnouncements.remove(announcement.id());
+        // an interrupted announcement is left untouched, the database may already be unavailable
+        final var finished = status == AnnouncementStatus.RUNNING
+                ? announcement
+                : getAnnouncement(announcement.id()).orElseThrow();
+        if (status == AnnouncementStatus.COMPLETED) {
+            LOGGER.info("Announcement {} completed, {} of {} mails sent.",
+                    finished.id(), finished.sentCount(), finished.recipientCount());
+        }
+        runningAnnouncement.finish(finished);
+    }
+
+    /**
+     * <p>Releases an interrupted announcement, so it is continued on the next start without
+     * waiting for its lease to expire.</p>
+     */
+    private void release(final @NotNull AnnouncementDto announcement) {
+        try {
+            dsl.update(ANNOUNCEMENT)
+                    .setNull(ANNOUNCEMENT.CLAIM_ID)
+                    .where(ANNOUNCEMENT.ID.eq(announcement.id()))
+                    .and(ANNOUNCEMENT.CLAIM_ID.eq(claimId))
+                    .execute();
+        } catch (final DataAccessException e) {
+            LOGGER.warn("Unable to release announcement {}, it is continued after {}: {}",
+                    announcement.id(), LEASE_TIMEOUT, e.getMessage());
+        }
+    }
+
+    private static @NotNull AnnouncementDto toDto(final @NotNull AnnouncementRecord announcementRecord) {
+        return new AnnouncementDto(
+                announcementRecord.getId(),
+                announcementRecord.getCreated(),
+                announcementRecord.getUpdated(),
+                AnnouncementTarget.valueOf(announcementRecord.getTarget()),
+                announcementRecord.getTargetId(),
+                Locale.forLanguageTag(announcementRecord.getLanguage()),
+                announcementRecord.getSubject(),
+                announcementRecord.getMessage(),
+                AnnouncementStatus.valueOf(announcementRecord.getStatus()),
+                announcementRecord.getRecipientCount(),
+                announcementRecord.getSentCount(),
+                announcementRecord.getLastUserId());
+    }
+
+    /**
+     * <p>The in-memory state of an announcement sent by this instance: its latest progress and
+     * the attached listeners.</p>
+     */
+    static final class RunningAnnouncement {
+
+        private final @NotNull List<AnnouncementListener> listeners = new ArrayList<>();
+        private @NotNull AnnouncementDto announcement;
+        private boolean finished;
+
+        RunningAnnouncement(final @NotNull AnnouncementDto announcement) {
+            this.announcement = announcement;
+        }
+
+        synchronized @NotNull Runnable subscribe(final @NotNull AnnouncementListener listener) {
+            if (finished) {
+                listener.finished(announcement);
+            } else {
+                listener.progress(announcement);
+                listeners.add(listener);
+            }
+            return () -> unsubscribe(listener);
+        }
+
+        private synchronized void unsubscribe(final @NotNull AnnouncementListener listener) {
+            listeners.remove(listener);
+        }
+
+        synchronized void progress(final @NotNull AnnouncementDto currentAnnouncement) {
+            announcement = currentAnnouncement;
+            listeners.forEach(listener -> listener.progress(currentAnnouncement));
+        }
+
+        synchronized void finish(final @NotNull AnnouncementDto finishedAnnouncement) {
+            announcement = finishedAnnouncement;
+            finished = true;
+            listeners.forEach(listener -> listener.finished(finishedAnnouncement));
+            listeners.clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.announcement.entity;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * <p>The persistent state of an announcement.</p>
+ *
+ * @param id the ID of the announcement
+ * @param created the time the announcement was started
+ * @param updated the time the announcement state was last changed
+ * @param target the group of users receiving the announcement
+ * @param targetId the ID of the community or event
+ * @param language the language of the announcement mails
+ * @param subject the subject entered by the organizer
+ * @param message the Markdown message entered by the organizer
+ * @param status the status of the announcement
+ * @param recipientCount the number of recipients when the announcement was started
+ * @param sentCount the number of mails added to the outbox so far
+ * @param lastUserId the ID of the last user processed, {@code null} if no user has been processed yet
+ */
+public record AnnouncementDto(
+        @NotNull UUID id,
+        @NotNull ZonedDateTime created,
+        @NotNull ZonedDateTime updated,
+        @NotNull AnnouncementTarget target,
+        @NotNull UUID targetId,
+        @NotNull Locale language,
+        @NotNull String subject,
+        @NotNull String message,
+        @NotNull AnnouncementStatus status,
+        int recipientCount,
+        int sentCount,
+        @Nullable UUID lastUserId) { }
@@ -17,6 +17,8 @@
  */
 package app.komunumo.domain.community.boundary;
 
+import app.komunumo.domain.announcement.boundary.AnnouncementDialog;
+import app.komunumo.domain.announcement.control.AnnouncementService;
 import app.komunumo.domain.community.control.CommunityService;
 import app.komunumo.domain.community.entity.CommunityDto;
 import app.komunumo.domain.community.entity.CommunityWithImageDto;
@@ -26,6 +28,7 @@ import app.komunumo.domain.event.boundary.EventGrid;
 import app.komunumo.domain.event.control.EventService;
 import app.komunumo.domain.member.control.MemberService;
 import app.komunumo.domain.user.control.LoginService;
+import app.komunumo.infra.ui.vaadin.components.RenderedMarkdown;
 import app.komunumo.infra.ui.vaadin.layout.AbstractView;
 import app.komunumo.infra.ui.vaadin.layout.WebsiteLayout;
 import app.komunumo.util.ImageUtil;
@@ -39,7 +42,6 @@ import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.html.Paragraph;
-import com.vaadin.flow.component.markdown.Markdown;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.tabs.TabSheet;
 import com.vaadin.flow.router.BeforeEnterEvent;
@@ -70,6 +72,7 @@ public final class CommunityDetailView extends AbstractView implements BeforeEnt
     private final @NotNull MemberService memberService;
     private final @NotNull EventService eventService;
     private final @NotNull LoginService loginService;
+    private final @NotNull AnnouncementService announcementService;
 
     private @NotNull String pageTitle = "";
 
@@ -77,12 +80,14 @@ public final class CommunityDetailView extends AbstractView implements BeforeEnt
                                final @NotNull CommunityService communityService,
                                final @NotNull MemberService memberService,
                                final @NotNull EventService eventService,
-                               final @NotNull LoginService loginService) {
+                               final @NotNull LoginService loginService,
+                               final @NotNull AnnouncementService announcementService) {
         super(configurationService);
         this.communityService = communityService;
         this.memberService = memberService;
         this.eventService = eventService;
         this.loginService = loginService;
+        this.announcementService = announcementService;
         addClassName("community-detail-view");
         add(pageContent);
     }
@@ -133,7 +138,7 @@ public final class CommunityDetailView extends AbstractView implements BeforeEnt
         created.addClassName("community-created");
         pageContent.add(created);
 
-        final var description = new Markdown(community.description());
+        final var description = new RenderedMarkdown(community.description());
         description.addClassName("community-description");
         pageContent.add(description);
 
@@ -183,6 +188,17 @@ public final class CommunityDetailView extends AbstractView implements BeforeEnt
                                     UI.getCurrent().navigate(CreateEventView.class, params);
                                 }));
                             }
+                            if (communityService.hasManagementPermission(community, user)) {
+                                final var announcementButton = new Button(
+                                        getTranslation("community.boundary.CommunityDetailView.announcementButton"),
+                                        _ -> new AnnouncementDialog(announcementService,
+                                                getTranslation("community.boundary.CommunityDetailView.announcementRecipients",
+                                                        Map.of("count", memberCount)),
+                                                (subject, message) -> announcementService.announceToMembers(
+                                                        community, subject, message, locale)).open());
+                                announcementButton.addClassName("announcement-button");
+                                pageContent.add(announcementButton);
+                            }
                         }
                 );
     }
@@ -102,7 +102,7 @@ public class CreateCommunityView extends AbstractView {
 
         final var descriptionField = new MarkdownEditor(getLocale());
         descriptionField.addClassName("description-field");
-        descriptionField.setValueChangeMode(ValueChangeMode.EAGER);
+        descriptionField.setValueChangeMode(ValueChangeMode.LAZY);
         descriptionField.setLabel(getTranslation("community.boundary.CreateCommunityView.label.description"));
         descriptionField.setWidthFull();
 
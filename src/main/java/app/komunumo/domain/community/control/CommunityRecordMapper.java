@@ -0,0 +1,57 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.community.control;
+
+import app.komunumo.domain.community.entity.CommunityDto;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+
+import static app.komunumo.data.db.tables.Community.COMMUNITY;
+
+/**
+ * <p>Maps records containing the columns of the {@code community} table to {@link CommunityDto} instances.</p>
+ *
+ * <p>Unlike {@code into(CommunityDto.class)}, which uses jOOQ's reflective {@code DefaultRecordMapper}, this mapper
+ * reads the typed fields directly and calls the record constructor. This also works for records of joins, as long as
+ * they contain the {@code community} columns.</p>
+ */
+public final class CommunityRecordMapper implements RecordMapper<Record, CommunityDto> {
+
+    /**
+     * <p>The shared, stateless instance of this mapper.</p>
+     */
+    public static final @NotNull CommunityRecordMapper COMMUNITY_MAPPER = new CommunityRecordMapper();
+
+    private CommunityRecordMapper() {
+        super();
+    }
+
+    @Override
+    public @NotNull CommunityDto map(final @NotNull Record record) {
+        return new CommunityDto(
+                record.get(COMMUNITY.ID),
+                record.get(COMMUNITY.PROFILE),
+                record.get(COMMUNITY.CREATED),
+                record.get(COMMUNITY.UPDATED),
+                record.get(COMMUNITY.NAME),
+                record.get(COMMUNITY.DESCRIPTION),
+                record.get(COMMUNITY.IMAGE_ID));
+    }
+
+}
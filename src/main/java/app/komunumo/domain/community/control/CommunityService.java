@@ -21,23 +21,30 @@ import app.komunumo.data.db.Tables;
 import app.komunumo.data.db.tables.records.CommunityRecord;
 import app.komunumo.domain.community.entity.CommunityDto;
 import app.komunumo.domain.community.entity.CommunityWithImageDto;
-import app.komunumo.domain.core.image.entity.ImageDto;
 import app.komunumo.domain.user.entity.UserDto;
+import app.komunumo.domain.user.entity.UserRole;
 import app.komunumo.infra.persistence.jooq.StorageService;
 import app.komunumo.infra.persistence.jooq.UniqueIdGenerator;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
 import org.springframework.stereotype.Service;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static app.komunumo.data.db.Tables.MEMBER;
 import static app.komunumo.data.db.tables.Community.COMMUNITY;
 import static app.komunumo.data.db.tables.Image.IMAGE;
+import static app.komunumo.domain.community.control.CommunityRecordMapper.COMMUNITY_MAPPER;
+import static app.komunumo.domain.core.image.control.ImageRecordMapper.IMAGE_MAPPER;
 import static app.komunumo.domain.member.entity.MemberRole.ORGANIZER;
 import static app.komunumo.domain.member.entity.MemberRole.OWNER;
+import static app.komunumo.infra.persistence.jooq.JooqConfiguration.LAZY_FETCH_SIZE;
+import static org.jooq.impl.DSL.noCondition;
 
 @Service
 public final class CommunityService extends StorageService {
@@ -54,13 +61,22 @@ public final class CommunityService extends StorageService {
         final CommunityRecord communityRecord = dsl.fetchOptional(COMMUNITY, COMMUNITY.ID.eq(community.id()))
                 .orElse(dsl.newRecord(COMMUNITY));
         createOrUpdate(COMMUNITY, community, communityRecord);
-        return communityRecord.into(CommunityDto.class);
+        return COMMUNITY_MAPPER.map(communityRecord);
+    }
+
+    /**
+     * <p>Stores multiple communities in one transaction using batched inserts and updates.</p>
+     *
+     * @param communities the communities to store
+     */
+    public void storeCommunities(final @NotNull List<CommunityDto> communities) {
+        createOrUpdateAll(dsl, COMMUNITY, communities);
     }
 
     public @NotNull Optional<CommunityDto> getCommunity(final @NotNull UUID id) {
         return dsl.selectFrom(COMMUNITY)
                 .where(COMMUNITY.ID.eq(id))
-                .fetchOptionalInto(CommunityDto.class);
+                .fetchOptional(COMMUNITY_MAPPER);
     }
 
     public @NotNull Optional<CommunityWithImageDto> getCommunityWithImage(final @NotNull String profile) {
@@ -70,15 +86,36 @@ public final class CommunityService extends StorageService {
                 .where(COMMUNITY.PROFILE.eq(profile))
                 .fetchOptional()
                 .map(rec -> new CommunityWithImageDto(
-                        rec.into(COMMUNITY).into(CommunityDto.class),
-                        rec.get(IMAGE.ID) != null ? rec.into(IMAGE).into(ImageDto.class) : null
+                        COMMUNITY_MAPPER.map(rec),
+                        rec.get(IMAGE.ID) != null ? IMAGE_MAPPER.map(rec) : null
                 ));
     }
 
     public @NotNull List<@NotNull CommunityDto> getCommunities() {
         return dsl.selectFrom(COMMUNITY)
                 .orderBy(COMMUNITY.NAME)
-                .fetchInto(CommunityDto.class);
+                .fetch(COMMUNITY_MAPPER);
+    }
+
+    /**
+     * <p>Passes all communities to the specified action one by one. The communities are read with a
+     * database cursor, so they are never held in memory all at once.</p>
+     *
+     * <p>If a time is specified, only the communities with an {@code updated} timestamp at or after
+     * that time are included, which are the communities created or changed since then.</p>
+     *
+     * @param changedSince the time from which on changed communities are included, or {@code null} for all communities
+     * @param action the action to perform for every community
+     */
+    public void forEachCommunity(final @Nullable ZonedDateTime changedSince,
+                                 final @NotNull Consumer<CommunityDto> action) {
+        try (var cursor = dsl.selectFrom(COMMUNITY)
+                .where(changedSince != null ? COMMUNITY.UPDATED.ge(changedSince) : noCondition())
+                .orderBy(COMMUNITY.NAME)
+                .fetchSize(LAZY_FETCH_SIZE)
+                .fetchLazy()) {
+            cursor.forEach(record -> action.accept(COMMUNITY_MAPPER.map(record)));
+        }
     }
 
     public @NotNull List<@NotNull CommunityWithImageDto> getCommunitiesWithImage() {
@@ -87,8 +124,8 @@ public final class CommunityService extends StorageService {
                 .leftJoin(IMAGE).on(COMMUNITY.IMAGE_ID.eq(IMAGE.ID))
                 .orderBy(COMMUNITY.NAME.asc())
                 .fetch(rec -> new CommunityWithImageDto(
-                        rec.into(COMMUNITY).into(CommunityDto.class),
-                        rec.get(IMAGE.ID) != null ? rec.into(IMAGE).into(ImageDto.class) : null
+                        COMMUNITY_MAPPER.map(rec),
+                        rec.get(IMAGE.ID) != null ? IMAGE_MAPPER.map(rec) : null
                 ));
     }
 
@@ -99,7 +136,7 @@ public final class CommunityService extends StorageService {
                 .where(MEMBER.USER_ID.eq(user.id())
                         .and(MEMBER.ROLE.in(OWNER.name(), ORGANIZER.name())))
                 .orderBy(COMMUNITY.NAME)
-                .fetchInto(CommunityDto.class);
+                .fetch(COMMUNITY_MAPPER);
     }
 
     public int getCommunityCount() {
@@ -125,7 +162,32 @@ public final class CommunityService extends StorageService {
                 .execute() > 0;
     }
 
+    /**
+     * <p>Deletes all communities including their memberships. Events
+     * referencing the communities must be deleted first.</p>
+     *
+     * @return the number of deleted communities
+     */
+    public int deleteAllCommunities() {
+        dsl.delete(MEMBER).execute();
+        return dsl.delete(COMMUNITY).execute();
+    }
+
     public boolean canCreateNewEvents(final @NotNull UserDto user) {
         return !getCommunitiesForOrganizer(user).isEmpty();
     }
+
+    public boolean hasManagementPermission(final @NotNull CommunityDto community, final @NotNull UserDto user) {
+        if (user.role() == UserRole.ADMIN) {
+            return true;
+        }
+
+        return dsl.fetchExists(
+                dsl.selectOne()
+                        .from(MEMBER)
+                        .where(MEMBER.COMMUNITY_ID.eq(community.id()))
+                        .and(MEMBER.USER_ID.eq(user.id()))
+                        .and(MEMBER.ROLE.in(OWNER.name(), ORGANIZER.name()))
+        );
+    }
 }
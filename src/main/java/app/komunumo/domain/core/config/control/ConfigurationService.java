@@ -18,6 +18,7 @@
 package app.komunumo.domain.core.config.control;
 
 import app.komunumo.domain.core.config.entity.ConfigurationSetting;
+import app.komunumo.domain.core.config.entity.ConfigurationValue;
 import app.komunumo.infra.ui.i18n.LocaleUtil;
 import app.komunumo.infra.ui.vaadin.control.LinkUtil;
 import com.github.benmanes.caffeine.cache.Cache;
@@ -25,8 +26,12 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
+import org.jooq.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 
@@ -42,6 +47,11 @@ import static app.komunumo.data.db.tables.Config.CONFIG;
 @Service
 public class ConfigurationService {
 
+    /**
+     * <p>Logger for configuration related warnings.</p>
+     */
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ConfigurationService.class);
+
     /**
      * <p>jOOQ context used for database access.</p>
      */
@@ -108,7 +118,7 @@ public class ConfigurationService {
      * <p>Returns the configuration value coerced to the requested type for a neutral (no-locale) key.</p>
      *
      * @param setting the configuration setting
-     * @param type the expected return type (String or Boolean)
+     * @param type the expected return type (String, Boolean or Integer)
      * @param <T> the generic type parameter
      * @return the value converted to {@code type}, or the default if not present
      * @throws IllegalArgumentException if {@code type} is not supported
@@ -125,7 +135,7 @@ public class ConfigurationService {
      *
      * @param setting the configuration setting
      * @param locale the desired locale, may be {@code null} for language-independent values
-     * @param type the expected return type (String or Boolean)
+     * @param type the expected return type (String, Boolean or Integer)
      * @param <T> the generic type parameter
      * @return the value converted to {@code type}, or the default if not present
      * @throws IllegalArgumentException if {@code type} is not supported
@@ -147,11 +157,34 @@ public class ConfigurationService {
             return type.cast(value);
         } else if (type == Boolean.class) {
             return type.cast(Boolean.parseBoolean(value));
+        } else if (type == Integer.class) {
+            return type.cast(parseInteger(setting, value));
         } else {
             throw new IllegalArgumentException("Unsupported type: " + type);
         }
     }
 
+    /**
+     * <p>Parses a configuration value as an integer.</p>
+     *
+     * <p>Invalid values are logged and replaced by the setting’s default value, so a typo in the
+     * configuration editor does not break the features depending on the setting.</p>
+     *
+     * @param setting the configuration setting the value belongs to
+     * @param value the value to parse
+     * @return the parsed value or the parsed default value if {@code value} is not a valid integer
+     */
+    private static int parseInteger(final @NotNull ConfigurationSetting setting,
+                                    final @NotNull String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (final NumberFormatException e) {
+            LOGGER.warn("Invalid integer value '{}' for setting '{}', using default value '{}'",
+                    value, setting.setting(), setting.defaultValue());
+            return Integer.parseInt(setting.defaultValue());
+        }
+    }
+
     /**
      * <p>Returns the configuration value for the given setting and locale without applying any
      * fallback logic.</p>
@@ -235,6 +268,27 @@ public class ConfigurationService {
         cache.asMap().keySet().removeIf(cacheKey -> cacheKey.setting().equals(setting));
     }
 
+    /**
+     * <p>Stores multiple configuration values in one transaction using a single batch of upserts.</p>
+     *
+     * <p>After write, all cache entries are invalidated.</p>
+     *
+     * @param values the configuration values to store; must not be empty
+     * @throws IllegalArgumentException if a locale does not match the language dependency of its setting
+     */
+    public void setConfigurations(final @NotNull List<ConfigurationValue> values) {
+        values.forEach(value -> checkLocale(value.setting(), value.locale()));
+        dsl.transaction(_ -> dsl.batch(values.stream()
+                .<Query>map(value -> dsl.insertInto(CONFIG)
+                        .set(CONFIG.SETTING, value.setting().setting())
+                        .set(CONFIG.LANGUAGE, LocaleUtil.getLanguageCode(value.locale()))
+                        .set(CONFIG.VALUE, value.value())
+                        .onDuplicateKeyUpdate()
+                        .set(CONFIG.VALUE, value.value()))
+                .toList()).execute());
+        clearCache();
+    }
+
     /**
      * <p>Clears all cached configuration entries.</p>
      */
@@ -62,7 +62,19 @@ public enum ConfigurationSetting {
     /**
      * <p>Whether to allow account registration or not.</p>
      */
-    INSTANCE_REGISTRATION_ALLOWED("instance.registrationAllowed", false, "true");
+    INSTANCE_REGISTRATION_ALLOWED("instance.registrationAllowed", false, "true"),
+
+    /**
+     * <p>Number of hours before an event begins at which participants receive a reminder email;
+     * {@code 0} disables the reminders.</p>
+     */
+    EVENT_REMINDER_HOURS("event.reminderHours", false, "24"),
+
+    /**
+     * <p>Number of days for which deletions are kept as tombstones for incremental exports;
+     * {@code 0} keeps them forever.</p>
+     */
+    TOMBSTONE_RETENTION_DAYS("tombstone.retentionDays", false, "90");
 
     /**
      * <p>The unique key identifying this configuration setting.</p>
@@ -0,0 +1,219 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.demo.control;
+
+import app.komunumo.KomunumoException;
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.domain.core.importer.control.ImageLoader;
+import app.komunumo.util.DownloadUtil;
+import app.komunumo.util.ImageUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.DigestUtils;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * <p>Keeps the demo dataset and the state of its images between two demo resets.</p>
+ *
+ * <p>The JSON data is revalidated with {@code If-None-Match} and {@code If-Modified-Since}
+ * and only downloaded and parsed again when the server reports a change. Images are
+ * revalidated the same way and compared by their content hash, so unchanged images are
+ * neither downloaded nor written to the image storage again.</p>
+ */
+public final class DemoDataCache implements ImageLoader {
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(DemoDataCache.class);
+
+    private static final @NotNull Pattern HTTP_URL = Pattern.compile("^https?://.*", Pattern.CASE_INSENSITIVE);
+    private static final @NotNull Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final @NotNull Duration REQUEST_TIMEOUT = Duration.ofMinutes(1);
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    private final @NotNull HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    private final @NotNull ObjectMapper objectMapper = new ObjectMapper();
+    private final @NotNull Map<UUID, CachedImage> images = new ConcurrentHashMap<>();
+
+    private @Nullable CachedDataset dataset;
+
+    /**
+     * <p>Returns the parsed demo dataset from the specified location. The cached dataset is
+     * returned if the server confirms that the data has not changed since the last call.</p>
+     *
+     * @param location the URL of the JSON data
+     * @return the parsed JSON data
+     * @throws KomunumoException if the data could not be downloaded or parsed
+     */
+    @SuppressWarnings("java:S2142") // the reset is aborted anyway, nobody waits for the interrupt
+    public synchronized @NotNull JsonNode getDataset(final @NotNull String location) {
+        try {
+            if (!isHttpUrl(location)) {
+                return objectMapper.readTree(DownloadUtil.getString(location));
+            }
+
+            final var cached = dataset != null && dataset.location().equals(location) ? dataset : null;
+            final var response = httpClient.send(
+                    createRequest(location, cached == null ? Map.of() : cached.conditionalHeaders()),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                final var statusCode = response.statusCode();
+                if (statusCode == HTTP_NOT_MODIFIED) {
+                    LOGGER.info("Demo data at '{}' is unchanged, using cached dataset.", location);
+                    return requireNonNull(cached).root();
+                }
+                if (statusCode != HTTP_OK) {
+                    throw new IOException("HTTP status code %d".formatted(statusCode));
+                }
+                final var root = objectMapper.readTree(body);
+                dataset = new CachedDataset(location, getConditionalHeaders(response), root);
+                return root;
+            }
+        } catch (final IOException | InterruptedException | URISyntaxException e) {
+            throw new KomunumoException("Failed to download JSON data from URL: %s".formatted(location), e);
+        }
+    }
+
+    /**
+     * <p>Stores the image file unless the stored file already has the same content.</p>
+     *
+     * @param image the image the file belongs to; must have an ID
+     * @param url the location of the image file, either a remote URL or a {@code data:} URL
+     * @throws IOException if the image file could not be read or stored
+     */
+    @Override
+    public void loadImage(final @NotNull ImageDto image, final @NotNull String url) throws IOException {
+        final var imageId = requireNonNull(image.id(), "ImageDto must have an ID!");
+        final var target = requireNonNull(ImageUtil.resolveImagePath(image));
+
+        final var cachedImage = images.get(imageId);
+        final var current = cachedImage != null && cachedImage.url().equals(url) && Files.exists(target)
+                ? cachedImage : null;
+
+        final Path download;
+        final Map<String, String> conditionalHeaders;
+        if (isHttpUrl(url)) {
+            final var response = fetchImage(url, current == null ? Map.of() : current.conditionalHeaders());
+            if (response == null) {
+                return; // not modified
+            }
+            download = response.body();
+            conditionalHeaders = getConditionalHeaders(response);
+        } else {
+            if (current != null) {
+                return; // inline data is identical if the URL is identical
+            }
+            download = DownloadUtil.downloadFile(url);
+            conditionalHeaders = Map.of();
+        }
+
+        if (Files.exists(target) && contentHash(download).equals(contentHash(target))) {
+            Files.delete(download);
+            LOGGER.info("Image '{}' is unchanged, keeping stored file.", imageId);
+        } else {
+            ImageUtil.storeImage(image, download);
+        }
+        images.put(imageId, new CachedImage(url, conditionalHeaders));
+    }
+
+    @SuppressWarnings("java:S2142") // the image is skipped anyway, nobody waits for the interrupt
+    private @Nullable HttpResponse<Path> fetchImage(final @NotNull String url,
+                                                    final @NotNull Map<String, String> conditionalHeaders)
+            throws IOException {
+        final var tempFile = Files.createTempFile("download-", ".tmp");
+        tempFile.toFile().deleteOnExit();
+        try {
+            final var response = httpClient.send(createRequest(url, conditionalHeaders),
+                    HttpResponse.BodyHandlers.ofFile(tempFile));
+            final var statusCode = response.statusCode();
+            if (statusCode == HTTP_OK) {
+                return response;
+            }
+            Files.delete(tempFile);
+            if (statusCode == HTTP_NOT_MODIFIED) {
+                return null;
+            }
+            throw new KomunumoException("Failed to download file from '%s': HTTP status code %s"
+                    .formatted(url, statusCode));
+        } catch (final InterruptedException | URISyntaxException e) {
+            Files.deleteIfExists(tempFile);
+            throw new KomunumoException("Failed to download file from '%s': %s"
+                    .formatted(url, e.getMessage()), e);
+        }
+    }
+
+    private static @NotNull HttpRequest createRequest(final @NotNull String location,
+                                                      final @NotNull Map<String, String> conditionalHeaders)
+            throws URISyntaxException {
+        final var builder = HttpRequest.newBuilder(new URI(location))
+                .timeout(REQUEST_TIMEOUT)
+                .GET();
+        conditionalHeaders.forEach(builder::header);
+        return builder.build();
+    }
+
+    private static @NotNull Map<String, String> getConditionalHeaders(final @NotNull HttpResponse<?> response) {
+        final var conditionalHeaders = new HashMap<String, String>();
+        final var headers = response.headers();
+        headers.firstValue("ETag").ifPresent(etag -> conditionalHeaders.put("If-None-Match", etag));
+        headers.firstValue("Last-Modified").ifPresent(date -> conditionalHeaders.put("If-Modified-Since", date));
+        return Map.copyOf(conditionalHeaders);
+    }
+
+    private static boolean isHttpUrl(final @NotNull String location) {
+        return HTTP_URL.matcher(location).matches();
+    }
+
+    @SuppressWarnings("java:S4790") // the hash only detects changed content, it is not used for security
+    private static @NotNull String contentHash(final @NotNull Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return DigestUtils.md5DigestAsHex(in);
+        }
+    }
+
+    private record CachedDataset(@NotNull String location,
+                                 @NotNull Map<String, String> conditionalHeaders,
+                                 @NotNull JsonNode root) { }
+
+    private record CachedImage(@NotNull String url,
+                               @NotNull Map<String, String> conditionalHeaders) { }
+
+}
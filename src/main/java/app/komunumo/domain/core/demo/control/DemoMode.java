@@ -23,6 +23,7 @@ import app.komunumo.domain.core.image.control.ImageService;
 import app.komunumo.domain.core.importer.control.ImporterLog;
 import app.komunumo.domain.core.importer.control.JSONImporter;
 import app.komunumo.domain.core.mail.control.MailService;
+import app.komunumo.domain.core.tombstone.control.TombstoneService;
 import app.komunumo.domain.event.control.EventService;
 import app.komunumo.domain.member.control.MemberService;
 import app.komunumo.domain.page.control.GlobalPageService;
@@ -31,6 +32,7 @@ import app.komunumo.domain.user.control.UserService;
 import app.komunumo.infra.config.AppConfig;
 import app.komunumo.util.ImageUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -41,6 +43,7 @@ public final class DemoMode {
 
     private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(DemoMode.class);
 
+    private final @NotNull DSLContext dsl;
     private final @NotNull ConfigurationService configurationService;
     private final @NotNull UserService userService;
     private final @NotNull ImageService imageService;
@@ -50,12 +53,17 @@ public final class DemoMode {
     private final @NotNull ParticipantService participantService;
     private final @NotNull GlobalPageService globalPageService;
     private final @NotNull MailService mailService;
+    private final @NotNull TombstoneService tombstoneService;
+
+    private final @NotNull DemoDataCache demoDataCache = new DemoDataCache();
 
     private final boolean enabled;
     private final @NotNull String jsonDataUrl;
+    private final int imageParallelism;
 
     @SuppressWarnings("checkstyle:ParameterNumber") // constructor injection
     public DemoMode(final @NotNull AppConfig appConfig,
+                    final @NotNull DSLContext dsl,
                     final @NotNull ConfigurationService configurationService,
                     final @NotNull UserService userService,
                     final @NotNull ImageService imageService,
@@ -64,7 +72,9 @@ public final class DemoMode {
                     final @NotNull MemberService memberService,
                     final @NotNull ParticipantService participantService,
                     final @NotNull GlobalPageService globalPageService,
-                    final @NotNull MailService mailService) {
+                    final @NotNull MailService mailService,
+                    final @NotNull TombstoneService tombstoneService) {
+        this.dsl = dsl;
         this.configurationService = configurationService;
         this.userService = userService;
         this.imageService = imageService;
@@ -74,10 +84,12 @@ public final class DemoMode {
         this.participantService = participantService;
         this.globalPageService = globalPageService;
         this.mailService = mailService;
+        this.tombstoneService = tombstoneService;
 
         final var demoConfig = appConfig.demo();
         this.enabled = demoConfig.enabled();
         this.jsonDataUrl = demoConfig.json();
+        this.imageParallelism = appConfig.importer().imageParallelism();
     }
 
     @Scheduled(cron = "0 0 * * * *")
@@ -92,29 +104,41 @@ public final class DemoMode {
             return;
         }
 
-        LOGGER.info("Deleting existing data...");
-        configurationService.deleteAllConfigurations();
-        participantService.getAllParticipants().forEach(participantService::deleteParticipant);
-        eventService.getEvents().forEach(eventService::deleteEvent);
-        memberService.getMembers().forEach(memberService::deleteMember);
-        communityService.getCommunities().forEach(communityService::deleteCommunity);
-        userService.getAllUsers().forEach(userService::deleteUser);
-        imageService.getImages().forEach(imageService::deleteImage);
-        globalPageService.getAllGlobalPages().forEach(globalPageService::deleteGlobalPage);
-        LOGGER.info("Existing data deleted.");
+        // load the demo data first, so that a failing download leaves the current data untouched
+        try (var demoDataImporter = new JSONImporter(new ImporterLog(null),
+                demoDataCache.getDataset(jsonDataUrl), demoDataCache)) {
+            // delete and restore in a single transaction, so visitors never see a half empty instance
+            dsl.transaction(_ -> {
+                LOGGER.info("Deleting existing data...");
+                configurationService.deleteAllConfigurations();
+                participantService.deleteAllParticipants();
+                eventService.deleteAllEvents();
+                memberService.deleteAllMembers();
+                communityService.deleteAllCommunities();
+                userService.deleteAllUsers();
+                imageService.deleteAllImages();
+                globalPageService.deleteAllGlobalPages();
+                // the demo data is replaced as a whole, its deletions must not pile up as tombstones
+                tombstoneService.deleteAllTombstones();
+                LOGGER.info("Existing data deleted.");
+
+                LOGGER.info("Importing demo data...");
+                demoDataImporter.importSettings(configurationService);
+                demoDataImporter.importImages(imageService, imageParallelism);
+                demoDataImporter.importUsers(userService);
+                demoDataImporter.importCommunities(communityService);
+                demoDataImporter.importMembers(memberService);
+                demoDataImporter.importEvents(eventService);
+                demoDataImporter.importParticipants(participantService);
+                demoDataImporter.importGlobalPages(globalPageService);
+                demoDataImporter.importMailTemplates(mailService);
+                LOGGER.info("Demo data imported.");
+            });
+        }
 
-        LOGGER.info("Importing demo data...");
-        final var demoDataImporter = new JSONImporter(new ImporterLog(null), jsonDataUrl);
-        demoDataImporter.importSettings(configurationService);
-        demoDataImporter.importImages(imageService);
-        demoDataImporter.importUsers(userService);
-        demoDataImporter.importCommunities(communityService);
-        demoDataImporter.importMembers(memberService);
-        demoDataImporter.importEvents(eventService);
-        demoDataImporter.importParticipants(participantService);
-        demoDataImporter.importGlobalPages(globalPageService);
-        demoDataImporter.importMailTemplates(mailService);
-        LOGGER.info("Demo data imported.");
+        // settings and mail templates read by other threads during the transaction may have been cached
+        configurationService.clearCache();
+        mailService.clearCache();
 
         LOGGER.info("Cleaning up orphaned image files...");
         ImageUtil.cleanupOrphanedImageFiles(imageService);
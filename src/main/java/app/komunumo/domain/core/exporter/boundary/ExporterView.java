@@ -20,40 +20,42 @@ package app.komunumo.domain.core.exporter.boundary;
 import app.komunumo.KomunumoException;
 import app.komunumo.domain.community.control.CommunityService;
 import app.komunumo.domain.core.config.control.ConfigurationService;
+import app.komunumo.domain.core.exporter.control.ArchiveExporter;
 import app.komunumo.domain.core.exporter.control.JSONExporter;
 import app.komunumo.domain.core.image.control.ImageService;
 import app.komunumo.domain.core.mail.control.MailService;
+import app.komunumo.domain.core.tombstone.control.TombstoneService;
 import app.komunumo.domain.event.control.EventService;
 import app.komunumo.domain.member.control.MemberService;
 import app.komunumo.domain.page.control.GlobalPageService;
 import app.komunumo.domain.participant.control.ParticipantService;
 import app.komunumo.domain.user.control.UserService;
 import app.komunumo.infra.ui.i18n.TranslationProvider;
+import app.komunumo.infra.ui.vaadin.components.LogViewer;
 import app.komunumo.infra.ui.vaadin.layout.AbstractView;
 import app.komunumo.infra.ui.vaadin.layout.WebsiteLayout;
 import app.komunumo.util.NotificationUtil;
-import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H3;
-import com.vaadin.flow.component.html.ListItem;
-import com.vaadin.flow.component.html.UnorderedList;
 import com.vaadin.flow.component.notification.NotificationVariant;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.Route;
-import com.vaadin.flow.server.streams.DownloadHandler;
-import com.vaadin.flow.server.streams.DownloadResponse;
-import com.vaadin.flow.server.streams.InputStreamDownloadHandler;
+import com.vaadin.flow.server.streams.DownloadEvent;
 import jakarta.annotation.security.RolesAllowed;
 import org.jetbrains.annotations.NotNull;
-import org.jspecify.annotations.NonNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 @RolesAllowed("ADMIN")
 @Route(value = "admin/export", layout = WebsiteLayout.class)
@@ -61,6 +63,11 @@ public final class ExporterView extends AbstractView {
 
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmssXXX");
 
+    /**
+     * <p>The maximum number of log messages shown; the downloaded log contains all messages.</p>
+     */
+    private static final int MAX_LOG_ENTRIES = 1_000;
+
     private final @NotNull ConfigurationService configurationService;
     private final @NotNull ImageService imageService;
     private final @NotNull UserService userService;
@@ -70,13 +77,19 @@ public final class ExporterView extends AbstractView {
     private final @NotNull ParticipantService participantService;
     private final @NotNull GlobalPageService globalPageService;
     private final @NotNull MailService mailService;
+    private final @NotNull TombstoneService tombstoneService;
     private final @NotNull TranslationProvider translationProvider;
 
-    private final @NotNull UI ui;
-    private final @NotNull UnorderedList exportLog;
+    private final @NotNull LogViewer exportLog;
     private final @NotNull VerticalLayout exportFieldsContainer;
     private final @NotNull VerticalLayout exportLogContainer;
 
+    /**
+     * <p>The time from which on changes are exported, or {@code null} to export all data. It is
+     * updated by the UI and read by the download request, which does not hold the session lock.</p>
+     */
+    private volatile @Nullable ZonedDateTime changedSince;
+
     @SuppressWarnings("checkstyle:ParameterNumber") // constructor injection
     public ExporterView(final @NotNull ConfigurationService configurationService,
                         final @NotNull ImageService imageService,
@@ -87,6 +100,7 @@ public final class ExporterView extends AbstractView {
                         final @NotNull ParticipantService participantService,
                         final @NotNull GlobalPageService globalPageService,
                         final @NotNull MailService mailService,
+                        final @NotNull TombstoneService tombstoneService,
                         final @NotNull TranslationProvider translationProvider) {
         super(configurationService);
 
@@ -99,16 +113,48 @@ public final class ExporterView extends AbstractView {
         this.participantService = participantService;
         this.globalPageService = globalPageService;
         this.mailService = mailService;
+        this.tombstoneService = tombstoneService;
         this.translationProvider = translationProvider;
-        this.ui = UI.getCurrent();
 
-        final var exportButton = new Button(getTranslation("core.exporter.boundary.ExporterView.startExportButton"));
-        exportButton.setEnabled(true);
-        exportButton.addClassName("start-export-button");
-        exportButton.addClickListener(_ -> processExport());
+        final var jsonDownloadLink = createDownloadLink(
+                getTranslation("core.exporter.boundary.ExporterView.startExportButton"),
+                "start-export-button", ".json", "application/json",
+                outputStream -> new JSONExporter().exportAll(outputStream, changedSince,
+                        configurationService, imageService, userService, communityService, memberService,
+                        eventService, participantService, globalPageService, mailService, tombstoneService,
+                        translationProvider));
+        final var archiveDownloadLink = createDownloadLink(
+                getTranslation("core.exporter.boundary.ExporterView.startArchiveExportButton"),
+                "start-archive-export-button", ".zip", "application/zip",
+                outputStream -> new ArchiveExporter().exportAll(outputStream, changedSince,
+                        configurationService, imageService, userService, communityService, memberService,
+                        eventService, participantService, globalPageService, mailService, tombstoneService,
+                        translationProvider));
+
+        final var downloadLinks = new HorizontalLayout(jsonDownloadLink, archiveDownloadLink);
+
+        final var changedSinceField = new TextField(
+                getTranslation("core.exporter.boundary.ExporterView.changedSinceLabel"));
+        changedSinceField.addClassName("changed-since-field");
+        changedSinceField.setPlaceholder("2025-01-01T00:00:00Z");
+        changedSinceField.setHelperText(getTranslation("core.exporter.boundary.ExporterView.changedSinceHelper"));
+        changedSinceField.setErrorMessage(getTranslation("core.exporter.boundary.ExporterView.changedSinceInvalid"));
+        changedSinceField.setValueChangeMode(ValueChangeMode.EAGER);
+        changedSinceField.setWidthFull();
+        changedSinceField.addValueChangeListener(event -> {
+            final var value = event.getValue().trim();
+            try {
+                changedSince = value.isEmpty() ? null : ZonedDateTime.parse(value);
+                changedSinceField.setInvalid(false);
+            } catch (final DateTimeParseException _) {
+                changedSince = null;
+                changedSinceField.setInvalid(true);
+            }
+            downloadLinks.setEnabled(!changedSinceField.isInvalid());
+        });
 
         final var exportLogTitle = new H3(getTranslation("core.exporter.boundary.ExporterView.exportLogTitle"));
-        exportLog = new UnorderedList();
+        exportLog = new LogViewer("komunumo-export-log.txt", MAX_LOG_ENTRIES);
         exportLog.addClassName("export-log");
 
         addClassName("exporter-view");
@@ -116,7 +162,8 @@ public final class ExporterView extends AbstractView {
 
         exportFieldsContainer = new VerticalLayout();
         exportFieldsContainer.setId("export-fields-container");
-        exportFieldsContainer.add(exportButton);
+        exportFieldsContainer.add(changedSinceField);
+        exportFieldsContainer.add(downloadLinks);
         add(exportFieldsContainer);
 
         exportLogContainer = new VerticalLayout();
@@ -127,56 +174,62 @@ public final class ExporterView extends AbstractView {
         add(exportLogContainer);
     }
 
-    private void processExport() {
-        exportFieldsContainer.setEnabled(false);
-        exportLogContainer.setVisible(true);
-        exportLog.add(new ListItem(getTranslation("core.exporter.boundary.ExporterView.exportStarted")));
+    private @NotNull Anchor createDownloadLink(final @NotNull String label,
+                                               final @NotNull String className,
+                                               final @NotNull String fileExtension,
+                                               final @NotNull String contentType,
+                                               final @NotNull Export export) {
+        final var exportButton = new Button(label);
+        exportButton.setEnabled(true);
+        exportButton.addClassName(className);
+
+        final var downloadLink = new Anchor(
+                event -> processExport(event, fileExtension, contentType, export), "");
+        downloadLink.addClassName("export-download-link");
+        downloadLink.add(exportButton);
+        return downloadLink;
+    }
+
+    /**
+     * <p>Writes the export directly into the response of the download request. The export log
+     * is updated through the UI of the request, so the progress is visible while the browser
+     * is already receiving the data.</p>
+     *
+     * @param event the download event providing the response stream
+     * @param fileExtension the extension of the downloaded file
+     * @param contentType the content type of the downloaded file
+     * @param export writes the export to the response stream
+     * @throws IOException if the export fails; the browser then aborts the download
+     */
+    private void processExport(final @NotNull DownloadEvent event,
+                               final @NotNull String fileExtension,
+                               final @NotNull String contentType,
+                               final @NotNull Export export) throws IOException {
+        final var ui = event.getUI();
         ui.access(() -> {
-            try {
-                final var jsonExporter = new JSONExporter();
-                final String json = jsonExporter.exportAll(
-                        configurationService,
-                        imageService,
-                        userService,
-                        communityService,
-                        memberService,
-                        eventService,
-                        participantService,
-                        globalPageService,
-                        mailService,
-                        translationProvider
-                );
-
-                final String timestamp = ZonedDateTime.now(ZoneOffset.UTC).format(TIMESTAMP_FORMAT);
-                final String fileName = "komunumo-export-" + timestamp + ".json";
-
-                final var downloadLink = new Anchor(
-                        getDownloadHandler(json, fileName),
-                        getTranslation("core.exporter.boundary.ExporterView.downloadLink"));
-
-                downloadLink.addClassName("export-download-link");
-                exportFieldsContainer.add(downloadLink);
-
-                exportLog.add(new ListItem(getTranslation("core.exporter.boundary.ExporterView.exportSuccess")));
-            } catch (final KomunumoException e) {
-                exportLog.add(new ListItem(getTranslation("core.exporter.boundary.ExporterView.exportFailed")
-                        + ": " + e.getMessage()));
+            exportFieldsContainer.setEnabled(false);
+            exportLogContainer.setVisible(true);
+            exportLog.log(getTranslation("core.exporter.boundary.ExporterView.exportStarted"));
+        });
+
+        final String timestamp = ZonedDateTime.now(ZoneOffset.UTC).format(TIMESTAMP_FORMAT);
+        event.setFileName("komunumo-export-" + timestamp + fileExtension);
+        event.setContentType(contentType);
+
+        try {
+            export.writeTo(event.getOutputStream());
+            ui.access(() -> exportLog.log(getTranslation("core.exporter.boundary.ExporterView.exportSuccess")));
+        } catch (final KomunumoException e) {
+            ui.access(() -> {
+                exportLog.log(getTranslation("core.exporter.boundary.ExporterView.exportFailed") + ": " + e.getMessage());
                 NotificationUtil.showNotification(
                         getTranslation("core.exporter.boundary.ExporterView.exportFailed"),
                         NotificationVariant.LUMO_ERROR);
-            } finally {
-                exportFieldsContainer.setEnabled(true);
-            }
-        });
-    }
-
-    private static @NonNull InputStreamDownloadHandler getDownloadHandler(
-            final @NotNull String json, final @NotNull String fileName) {
-        return DownloadHandler.fromInputStream(_ -> new DownloadResponse(
-                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
-                fileName,
-                "application/json",
-                -1));
+            });
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            ui.access(() -> exportFieldsContainer.setEnabled(true));
+        }
     }
 
     @Override
@@ -184,4 +237,12 @@ public final class ExporterView extends AbstractView {
         return getTranslation("core.exporter.boundary.ExporterView.title");
     }
 
+    /**
+     * <p>Writes an export in one of the supported formats to a stream.</p>
+     */
+    @FunctionalInterface
+    private interface Export {
+        void writeTo(@NotNull OutputStream outputStream);
+    }
+
 }
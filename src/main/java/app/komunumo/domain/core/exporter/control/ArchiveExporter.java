@@ -0,0 +1,133 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.exporter.control;
+
+import app.komunumo.KomunumoException;
+import app.komunumo.domain.community.control.CommunityService;
+import app.komunumo.domain.core.config.control.ConfigurationService;
+import app.komunumo.domain.core.image.control.ImageService;
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.domain.core.mail.control.MailService;
+import app.komunumo.domain.core.tombstone.control.TombstoneService;
+import app.komunumo.domain.event.control.EventService;
+import app.komunumo.domain.member.control.MemberService;
+import app.komunumo.domain.page.control.GlobalPageService;
+import app.komunumo.domain.participant.control.ParticipantService;
+import app.komunumo.domain.user.control.UserService;
+import app.komunumo.infra.ui.i18n.TranslationProvider;
+import app.komunumo.util.ImageUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.util.function.ThrowingConsumer;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.ZonedDateTime;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * <p>Exports all Komunumo instance data as a ZIP archive.</p>
+ *
+ * <p>The archive contains the JSON data as {@value #DATA_ENTRY} and every image file as a raw
+ * entry in the {@code images} directory. Instead of embedding the image data, the JSON data
+ * references the entries by their name in the {@code url} property. This avoids the overhead of
+ * the Base64 encoding, which inflates the image data by a third.</p>
+ */
+public final class ArchiveExporter {
+
+    /**
+     * <p>The name of the archive entry containing the JSON data.</p>
+     */
+    public static final @NotNull String DATA_ENTRY = "data.json";
+
+    private final @NotNull JSONExporter jsonExporter = new JSONExporter(new ObjectMapper(), false);
+
+    /**
+     * <p>Returns the name of the archive entry containing the file of the specified image.</p>
+     *
+     * @param image the image; must have an ID
+     * @return the name of the archive entry
+     */
+    static @NotNull String getImageEntryName(final @NotNull ImageDto image) {
+        return "images/" + image.id() + image.contentType().getExtension();
+    }
+
+    /**
+     * <p>Exports the instance data as a ZIP archive to the specified stream.</p>
+     *
+     * @param outputStream the stream to write the archive to; it is not closed by this method
+     * @param changedSince the time from which on changes are exported, or {@code null} to export all data
+     * @param configurationService service for configuration data
+     * @param imageService service for image data
+     * @param userService service for user data
+     * @param communityService service for community data
+     * @param memberService service for member data
+     * @param eventService service for event data
+     * @param participantService service for participant data
+     * @param globalPageService service for global page data
+     * @param mailService service for mail template data
+     * @param tombstoneService service for the tombstones of deleted data
+     * @param translationProvider provider of the languages for language-dependent settings
+     */
+    @SuppressWarnings({"java:S107", "checkstyle:ParameterNumber"}) // Number of parameters is justified for complete export
+    public void exportAll(
+            final @NotNull OutputStream outputStream,
+            final @Nullable ZonedDateTime changedSince,
+            final @NotNull ConfigurationService configurationService,
+            final @NotNull ImageService imageService,
+            final @NotNull UserService userService,
+            final @NotNull CommunityService communityService,
+            final @NotNull MemberService memberService,
+            final @NotNull EventService eventService,
+            final @NotNull ParticipantService participantService,
+            final @NotNull GlobalPageService globalPageService,
+            final @NotNull MailService mailService,
+            final @NotNull TombstoneService tombstoneService,
+            final @NotNull TranslationProvider translationProvider
+    ) {
+        try {
+            final var archive = new ZipOutputStream(outputStream);
+
+            archive.putNextEntry(new ZipEntry(DATA_ENTRY));
+            jsonExporter.exportAll(archive, changedSince, configurationService, imageService, userService,
+                    communityService, memberService, eventService, participantService, globalPageService, mailService,
+                    tombstoneService, translationProvider);
+            archive.closeEntry();
+
+            imageService.forEachImage(changedSince, (ThrowingConsumer<ImageDto>) image -> exportImage(archive, image));
+
+            archive.finish();
+        } catch (final Exception e) {
+            throw new KomunumoException(e.getMessage(), e);
+        }
+    }
+
+    private void exportImage(final @NotNull ZipOutputStream archive,
+                             final @NotNull ImageDto image) throws IOException {
+        final var imagePath = ImageUtil.resolveImagePath(image);
+        //noinspection DataFlowIssue // imagePath is never null because image is never null because it comes from db
+        if (Files.isRegularFile(imagePath)) { // missing files are already reported by the JSON export
+            archive.putNextEntry(new ZipEntry(getImageEntryName(image)));
+            Files.copy(imagePath, archive);
+            archive.closeEntry();
+        }
+    }
+}
@@ -22,7 +22,9 @@ import app.komunumo.domain.community.control.CommunityService;
 import app.komunumo.domain.core.config.control.ConfigurationService;
 import app.komunumo.domain.core.config.entity.ConfigurationSetting;
 import app.komunumo.domain.core.image.control.ImageService;
+import app.komunumo.domain.core.image.entity.ImageDto;
 import app.komunumo.domain.core.mail.control.MailService;
+import app.komunumo.domain.core.tombstone.control.TombstoneService;
 import app.komunumo.domain.event.control.EventService;
 import app.komunumo.domain.member.control.MemberService;
 import app.komunumo.domain.page.control.GlobalPageService;
@@ -31,13 +33,20 @@ import app.komunumo.domain.user.control.UserService;
 import app.komunumo.infra.ui.i18n.TranslationProvider;
 import app.komunumo.util.ImageUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.util.function.ThrowingConsumer;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
 import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.node.ObjectNode;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
-import java.util.Base64;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 
 import static app.komunumo.infra.ui.i18n.LocaleUtil.getLanguageCode;
 
@@ -46,24 +55,49 @@ import static app.komunumo.infra.ui.i18n.LocaleUtil.getLanguageCode;
  *
  * <p>This exporter creates a JSON structure compatible with the {@code JSONImporter},
  * allowing backup and transfer of instance configurations and content.</p>
+ *
+ * <p>Every export contains the time it was created as {@code exported}. Passing this time as
+ * {@code changedSince} to a later export creates an incremental export, which contains only the
+ * users, communities, events, memberships, participations, and global pages created or changed
+ * since then, together with their images, and a {@code tombstones} section with the entities
+ * deleted since then. Settings and mail templates are always exported completely.</p>
+ *
+ * <p>The JSON is written with a streaming generator directly to the target stream. Database
+ * rows are read with cursors and image files are Base64 encoded in chunks, so the memory
+ * usage of an export does not depend on the size of the instance.</p>
  */
 public final class JSONExporter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JSONExporter.class);
 
     private final @NotNull ObjectMapper objectMapper;
+    private final boolean embedImages;
 
     public JSONExporter() {
         this(new ObjectMapper());
     }
 
     public JSONExporter(final @NotNull ObjectMapper objectMapper) {
+        this(objectMapper, true);
+    }
+
+    /**
+     * <p>Creates an exporter which either embeds the image files Base64 encoded into the JSON
+     * data or only references them by their entry name in an export archive.</p>
+     *
+     * @param objectMapper the mapper used to create the JSON generator
+     * @param embedImages {@code true} to embed the image files, {@code false} to reference them
+     */
+    JSONExporter(final @NotNull ObjectMapper objectMapper, final boolean embedImages) {
         this.objectMapper = objectMapper;
+        this.embedImages = embedImages;
     }
 
     /**
-     * <p>Exports all instance data as a JSON string.</p>
+     * <p>Exports the instance data as pretty-printed JSON to the specified stream.</p>
      *
+     * @param outputStream the stream to write the JSON to; it is not closed by this method
+     * @param changedSince the time from which on changes are exported, or {@code null} to export all data
      * @param configurationService service for configuration data
      * @param imageService service for image data
      * @param userService service for user data
@@ -73,10 +107,13 @@ public final class JSONExporter {
      * @param participantService service for participant data
      * @param globalPageService service for global page data
      * @param mailService service for mail template data
-     * @return a pretty-printed JSON string containing all exported data
+     * @param tombstoneService service for the tombstones of deleted data
+     * @param translationProvider provider of the languages for language-dependent settings
      */
     @SuppressWarnings({"java:S107", "checkstyle:ParameterNumber"}) // Number of parameters is justified for complete export
-    public String exportAll(
+    public void exportAll(
+            final @NotNull OutputStream outputStream,
+            final @Nullable ZonedDateTime changedSince,
             final @NotNull ConfigurationService configurationService,
             final @NotNull ImageService imageService,
             final @NotNull UserService userService,
@@ -86,31 +123,55 @@ public final class JSONExporter {
             final @NotNull ParticipantService participantService,
             final @NotNull GlobalPageService globalPageService,
             final @NotNull MailService mailService,
+            final @NotNull TombstoneService tombstoneService,
             final @NotNull TranslationProvider translationProvider
             ) {
-        try {
-            final var root = objectMapper.createObjectNode();
+        // database timestamps have a precision of seconds, so the watermark must not be more precise
+        final var exported = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+        try (var generator = objectMapper.writerWithDefaultPrettyPrinter()
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeStringProperty("exported", exported.toString());
+            if (changedSince != null) {
+                generator.writeStringProperty("changedSince", changedSince.toString());
+                exportTombstones(generator, tombstoneService, changedSince);
+            }
 
-            exportSettings(root, configurationService, translationProvider);
-            exportImages(root, imageService);
-            exportUsers(root, userService);
-            exportCommunities(root, communityService);
-            exportEvents(root, eventService);
-            exportMembers(root, memberService);
-            exportParticipants(root, participantService);
-            exportGlobalPages(root, globalPageService);
-            exportMailTemplates(root, mailService);
+            exportSettings(generator, configurationService, translationProvider);
+            exportImages(generator, imageService, changedSince);
+            exportUsers(generator, userService, changedSince);
+            exportCommunities(generator, communityService, changedSince);
+            exportEvents(generator, eventService, changedSince);
+            exportMembers(generator, memberService, changedSince);
+            exportParticipants(generator, participantService, changedSince);
+            exportGlobalPages(generator, globalPageService, changedSince);
+            exportMailTemplates(generator, mailService);
 
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(root);
+            generator.writeEndObject();
         } catch (final Exception e) {
             throw new KomunumoException(e.getMessage(), e);
         }
     }
 
-    private void exportSettings(final @NotNull ObjectNode root,
+    private void exportTombstones(final @NotNull JsonGenerator generator,
+                                  final @NotNull TombstoneService tombstoneService,
+                                  final @NotNull ZonedDateTime deletedSince) {
+        generator.writeArrayPropertyStart("tombstones");
+        tombstoneService.forEachTombstone(deletedSince, tombstone -> {
+            generator.writeStartObject();
+            generator.writeStringProperty("type", tombstone.type().name());
+            generator.writeStringProperty("key", tombstone.key());
+            generator.writeStringProperty("deleted", tombstone.deleted().toString());
+            generator.writeEndObject();
+        });
+        generator.writeEndArray();
+    }
+
+    private void exportSettings(final @NotNull JsonGenerator generator,
                                 final @NotNull ConfigurationService configurationService,
                                 final @NotNull TranslationProvider translationProvider) {
-        final var settingsArray = objectMapper.createArrayNode();
+        generator.writeArrayPropertyStart("settings");
 
         for (final var configurationSetting : ConfigurationSetting.values()) {
             if (configurationSetting.isLanguageDependent()) {
@@ -123,11 +184,11 @@ public final class JSONExporter {
                         continue; // skip default values to reduce export size
                     }
 
-                    final var node = objectMapper.createObjectNode();
-                    node.put("setting", configurationSetting.setting());
-                    node.put("language", getLanguageCode(locale));
-                    node.put("value", actualValue);
-                    settingsArray.add(node);
+                    generator.writeStartObject();
+                    generator.writeStringProperty("setting", configurationSetting.setting());
+                    generator.writeStringProperty("language", getLanguageCode(locale));
+                    generator.writeStringProperty("value", actualValue);
+                    generator.writeEndObject();
                 }
             } else {
                 final var defaultValue = configurationSetting.defaultValue();
@@ -138,154 +199,167 @@ public final class JSONExporter {
                     continue; // skip default values to reduce export size
                 }
 
-                final var node = objectMapper.createObjectNode();
-                node.put("setting", configurationSetting.setting());
-                node.put("value", actualValue);
-                settingsArray.add(node);
+                generator.writeStartObject();
+                generator.writeStringProperty("setting", configurationSetting.setting());
+                generator.writeStringProperty("value", actualValue);
+                generator.writeEndObject();
             }
         }
 
-        root.set("settings", settingsArray);
+        generator.writeEndArray();
     }
 
-    private void exportImages(final @NotNull ObjectNode root,
-                              final @NotNull ImageService imageService) {
-        final var imagesArray = objectMapper.createArrayNode();
-        imageService.getAllImages().forEach(image -> {
-            final var imagePath = ImageUtil.resolveImagePath(image);
-            //noinspection DataFlowIssue // imagePath is never null because image is never null because it comes from db
-            if (!Files.exists(imagePath)) {
-                LOGGER.warn("Image not found: {}", imagePath);
-            } else {
-                try {
-                    final var imageData = Files.readAllBytes(imagePath);
-                    final var node = objectMapper.createObjectNode();
-                    //noinspection DataFlowIssue // image ID is never null because it comes from db
-                    node.put("imageId", image.id().toString());
-                    node.put("contentType", image.contentType().getContentType());
-                    node.put("data", Base64.getEncoder().encodeToString(imageData));
-                    imagesArray.add(node);
-                } catch (final Exception exception) {
-                    LOGGER.warn("Failed to read image file '{}': {}",
-                            imagePath.toAbsolutePath(), exception.getMessage(), exception);
+    private void exportImages(final @NotNull JsonGenerator generator,
+                              final @NotNull ImageService imageService,
+                              final @Nullable ZonedDateTime changedSince) {
+        generator.writeArrayPropertyStart("images");
+        imageService.forEachImage(changedSince, (ThrowingConsumer<ImageDto>) image -> exportImage(generator, image));
+        generator.writeEndArray();
+    }
+
+    private void exportImage(final @NotNull JsonGenerator generator,
+                             final @NotNull ImageDto image) throws IOException {
+        final var imagePath = ImageUtil.resolveImagePath(image);
+        //noinspection DataFlowIssue // imagePath is never null because image is never null because it comes from db
+        if (!Files.exists(imagePath)) {
+            LOGGER.warn("Image not found: {}", imagePath);
+        } else if (!Files.isRegularFile(imagePath)) {
+            LOGGER.warn("Failed to read image file '{}': not a regular file", imagePath.toAbsolutePath());
+        } else {
+            generator.writeStartObject();
+            //noinspection DataFlowIssue // image ID is never null because it comes from db
+            generator.writeStringProperty("imageId", image.id().toString());
+            generator.writeStringProperty("contentType", image.contentType().getContentType());
+            if (embedImages) {
+                try (var imageData = Files.newInputStream(imagePath)) {
+                    generator.writeName("data");
+                    generator.writeBinary(imageData, -1);
                 }
+            } else {
+                generator.writeStringProperty("url", ArchiveExporter.getImageEntryName(image));
             }
-        });
-        root.set("images", imagesArray);
+            generator.writeEndObject();
+        }
     }
 
-    private void exportUsers(final @NotNull ObjectNode root,
-                             final @NotNull UserService userService) {
-        final var usersArray = objectMapper.createArrayNode();
-        userService.getAllUsers().forEach(user -> {
-            final var node = objectMapper.createObjectNode();
+    private void exportUsers(final @NotNull JsonGenerator generator,
+                             final @NotNull UserService userService,
+                             final @Nullable ZonedDateTime changedSince) {
+        generator.writeArrayPropertyStart("users");
+        userService.forEachUser(changedSince, user -> {
+            generator.writeStartObject();
             //noinspection DataFlowIssue // user ID is never null because it comes from db
-            node.put("userId", user.id().toString());
-            node.put("profile", user.profile());
-            node.put("email", user.email());
-            node.put("name", user.name());
-            node.put("bio", user.bio());
-            node.put("imageId", user.imageId() != null ? user.imageId().toString() : null);
-            node.put("role", user.role().name());
-            node.put("type", user.type().name());
-            usersArray.add(node);
+            generator.writeStringProperty("userId", user.id().toString());
+            generator.writeStringProperty("profile", user.profile());
+            generator.writeStringProperty("email", user.email());
+            generator.writeStringProperty("name", user.name());
+            generator.writeStringProperty("bio", user.bio());
+            generator.writeStringProperty("imageId", user.imageId() != null ? user.imageId().toString() : null);
+            generator.writeStringProperty("role", user.role().name());
+            generator.writeStringProperty("type", user.type().name());
+            generator.writeEndObject();
         });
-        root.set("users", usersArray);
+        generator.writeEndArray();
     }
 
-    private void exportCommunities(final @NotNull ObjectNode root,
-                                   final @NotNull CommunityService communityService) {
-        final var communitiesArray = objectMapper.createArrayNode();
-        communityService.getCommunities().forEach(community -> {
-            final var node = objectMapper.createObjectNode();
+    private void exportCommunities(final @NotNull JsonGenerator generator,
+                                   final @NotNull CommunityService communityService,
+                                   final @Nullable ZonedDateTime changedSince) {
+        generator.writeArrayPropertyStart("communities");
+        communityService.forEachCommunity(changedSince, community -> {
+            generator.writeStartObject();
             //noinspection DataFlowIssue // community ID is never null because it comes from db
-            node.put("communityId", community.id().toString());
-            node.put("profile", community.profile());
-            node.put("name", community.name());
-            node.put("description", community.description());
-            node.put("imageId", community.imageId() != null ? community.imageId().toString() : "");
-            communitiesArray.add(node);
+            generator.writeStringProperty("communityId", community.id().toString());
+            generator.writeStringProperty("profile", community.profile());
+            generator.writeStringProperty("name", community.name());
+            generator.writeStringProperty("description", community.description());
+            generator.writeStringProperty("imageId", community.imageId() != null ? community.imageId().toString() : "");
+            generator.writeEndObject();
         });
-        root.set("communities", communitiesArray);
+        generator.writeEndArray();
     }
 
-    private void exportEvents(final @NotNull ObjectNode root,
-                              final @NotNull EventService eventService) {
-        final var eventsArray = objectMapper.createArrayNode();
-        eventService.getEvents().forEach(event -> {
-            final var node = objectMapper.createObjectNode();
+    private void exportEvents(final @NotNull JsonGenerator generator,
+                              final @NotNull EventService eventService,
+                              final @Nullable ZonedDateTime changedSince) {
+        generator.writeArrayPropertyStart("events");
+        eventService.forEachEvent(changedSince, event -> {
+            generator.writeStartObject();
             //noinspection DataFlowIssue // event ID is never null because it comes from db
-            node.put("eventId", event.id().toString());
+            generator.writeStringProperty("eventId", event.id().toString());
             //noinspection DataFlowIssue // community ID is never null because it comes from db
-            node.put("communityId", event.communityId().toString());
-            node.put("title", event.title());
-            node.put("description", event.description());
-            node.put("location", event.location());
-            node.put("begin", event.begin() != null ? event.begin().toString() : "");
-            node.put("end", event.end() != null ? event.end().toString() : "");
-            node.put("imageId", event.imageId() != null ? event.imageId().toString() : "");
-            node.put("anonymousParticipationAllowed", event.anonymousParticipationAllowed());
-            node.put("visibility", event.visibility().name());
-            node.put("status", event.status().name());
-            eventsArray.add(node);
+            generator.writeStringProperty("communityId", event.communityId().toString());
+            generator.writeStringProperty("title", event.title());
+            generator.writeStringProperty("description", event.description());
+            generator.writeStringProperty("location", event.location());
+            generator.writeStringProperty("begin", event.begin() != null ? event.begin().toString() : "");
+            generator.writeStringProperty("end", event.end() != null ? event.end().toString() : "");
+            generator.writeStringProperty("imageId", event.imageId() != null ? event.imageId().toString() : "");
+            generator.writeBooleanProperty("anonymousParticipationAllowed", event.anonymousParticipationAllowed());
+            generator.writeStringProperty("visibility", event.visibility().name());
+            generator.writeStringProperty("status", event.status().name());
+            generator.writeEndObject();
         });
-        root.set("events", eventsArray);
+        generator.writeEndArray();
     }
 
-    private void exportMembers(final @NotNull ObjectNode root,
-                               final @NotNull MemberService memberService) {
-        final var membersArray = objectMapper.createArrayNode();
-        memberService.getMembers().forEach(member -> {
-            final var node = objectMapper.createObjectNode();
-            node.put("userId", member.userId().toString());
-            node.put("communityId", member.communityId().toString());
-            node.put("role", member.role().name());
+    private void exportMembers(final @NotNull JsonGenerator generator,
+                               final @NotNull MemberService memberService,
+                               final @Nullable ZonedDateTime changedSince) {
+        generator.writeArrayPropertyStart("members");
+        memberService.forEachMember(changedSince, member -> {
+            generator.writeStartObject();
+            generator.writeStringProperty("userId", member.userId().toString());
+            generator.writeStringProperty("communityId", member.communityId().toString());
+            generator.writeStringProperty("role", member.role().name());
             //noinspection DataFlowIssue // since date is never null because it comes from db
-            node.put("since", member.since().toString());
-            membersArray.add(node);
+            generator.writeStringProperty("since", member.since().toString());
+            generator.writeEndObject();
         });
-        root.set("members", membersArray);
+        generator.writeEndArray();
     }
 
-    private void exportParticipants(final @NotNull ObjectNode root,
-                                    final @NotNull ParticipantService participantService) {
-        final var participantsArray = objectMapper.createArrayNode();
-        participantService.getAllParticipants().forEach(participant -> {
-            final var node = objectMapper.createObjectNode();
-            node.put("eventId", participant.eventId().toString());
-            node.put("userId", participant.userId().toString());
+    private void exportParticipants(final @NotNull JsonGenerator generator,
+                                    final @NotNull ParticipantService participantService,
+                                    final @Nullable ZonedDateTime changedSince) {
+        generator.writeArrayPropertyStart("participants");
+        participantService.forEachParticipant(changedSince, participant -> {
+            generator.writeStartObject();
+            generator.writeStringProperty("eventId", participant.eventId().toString());
+            generator.writeStringProperty("userId", participant.userId().toString());
             //noinspection DataFlowIssue // registered date is never null because it comes from db
-            node.put("registered", participant.registered().toString());
-            participantsArray.add(node);
+            generator.writeStringProperty("registered", participant.registered().toString());
+            generator.writeEndObject();
         });
-        root.set("participants", participantsArray);
+        generator.writeEndArray();
     }
 
-    private void exportGlobalPages(final @NotNull ObjectNode root,
-                                   final @NotNull GlobalPageService globalPageService) {
-        final var globalPagesArray = objectMapper.createArrayNode();
-        globalPageService.getAllGlobalPages().forEach(page -> {
-            final var node = objectMapper.createObjectNode();
-            node.put("slot", page.slot());
-            node.put("language", getLanguageCode(page.language()));
-            node.put("title", page.title());
-            node.put("markdown", page.markdown());
-            globalPagesArray.add(node);
+    private void exportGlobalPages(final @NotNull JsonGenerator generator,
+                                   final @NotNull GlobalPageService globalPageService,
+                                   final @Nullable ZonedDateTime changedSince) {
+        generator.writeArrayPropertyStart("globalPages");
+        globalPageService.forEachGlobalPage(changedSince, page -> {
+            generator.writeStartObject();
+            generator.writeStringProperty("slot", page.slot());
+            generator.writeStringProperty("language", getLanguageCode(page.language()));
+            generator.writeStringProperty("title", page.title());
+            generator.writeStringProperty("markdown", page.markdown());
+            generator.writeEndObject();
         });
-        root.set("globalPages", globalPagesArray);
+        generator.writeEndArray();
     }
 
-    private void exportMailTemplates(final @NotNull ObjectNode root,
+    private void exportMailTemplates(final @NotNull JsonGenerator generator,
                                      final @NotNull MailService mailService) {
-        final var mailTemplatesArray = objectMapper.createArrayNode();
-        mailService.getAllMailTemplates().forEach(template -> {
-            final var node = objectMapper.createObjectNode();
-            node.put("mailTemplateId", template.id().name());
-            node.put("language", template.language().toLanguageTag());
-            node.put("subject", template.subject());
-            node.put("markdown", template.markdown());
-            mailTemplatesArray.add(node);
+        generator.writeArrayPropertyStart("mailTemplates");
+        mailService.forEachMailTemplate(template -> {
+            generator.writeStartObject();
+            generator.writeStringProperty("mailTemplateId", template.id().name());
+            generator.writeStringProperty("language", template.language().toLanguageTag());
+            generator.writeStringProperty("subject", template.subject());
+            generator.writeStringProperty("markdown", template.markdown());
+            generator.writeEndObject();
         });
-        root.set("mailTemplates", mailTemplatesArray);
+        generator.writeEndArray();
     }
 }
@@ -0,0 +1,49 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.image.control;
+
+import app.komunumo.domain.core.image.entity.ImageDto;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+
+import static app.komunumo.data.db.tables.Image.IMAGE;
+
+/**
+ * <p>Maps records containing the columns of the {@code image} table to {@link ImageDto} instances without using
+ * jOOQ's reflective {@code DefaultRecordMapper}.</p>
+ */
+public final class ImageRecordMapper implements RecordMapper<Record, ImageDto> {
+
+    /**
+     * <p>The shared, stateless instance of this mapper.</p>
+     */
+    public static final @NotNull ImageRecordMapper IMAGE_MAPPER = new ImageRecordMapper();
+
+    private ImageRecordMapper() {
+        super();
+    }
+
+    @Override
+    public @NotNull ImageDto map(final @NotNull Record record) {
+        return new ImageDto(
+                record.get(IMAGE.ID),
+                record.get(IMAGE.CONTENT_TYPE));
+    }
+
+}
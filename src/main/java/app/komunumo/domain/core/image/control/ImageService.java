@@ -25,6 +25,7 @@ import app.komunumo.util.ImageUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
+import org.jooq.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -32,14 +33,21 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static app.komunumo.data.db.tables.Community.COMMUNITY;
 import static app.komunumo.data.db.tables.Event.EVENT;
 import static app.komunumo.data.db.tables.Image.IMAGE;
 import static app.komunumo.data.db.tables.User.USER;
+import static app.komunumo.domain.core.image.control.ImageRecordMapper.IMAGE_MAPPER;
+import static app.komunumo.infra.persistence.jooq.JooqConfiguration.LAZY_FETCH_SIZE;
+import static org.jooq.impl.DSL.noCondition;
+import static org.jooq.impl.DSL.select;
 import static org.jooq.impl.DSL.selectOne;
 
 @Service
@@ -66,19 +74,35 @@ public final class ImageService {
             imageRecord.setId(idGenerator.getUniqueID(Tables.IMAGE));
         }
         imageRecord.store();
-        return imageRecord.into(ImageDto.class);
+        return IMAGE_MAPPER.map(imageRecord);
+    }
+
+    /**
+     * <p>Stores multiple images in one transaction using a single batch of upserts.</p>
+     *
+     * @param images the images to store; must not be empty
+     */
+    public void storeImages(final @NotNull List<ImageDto> images) {
+        dsl.transaction(_ -> dsl.batch(images.stream()
+                .<Query>map(image -> dsl.insertInto(IMAGE)
+                        .set(IMAGE.ID, Objects.requireNonNullElseGet(image.id(),
+                                () -> idGenerator.getUniqueID(IMAGE)))
+                        .set(IMAGE.CONTENT_TYPE, image.contentType())
+                        .onDuplicateKeyUpdate()
+                        .set(IMAGE.CONTENT_TYPE, image.contentType()))
+                .toList()).execute());
     }
 
     public @NotNull Optional<ImageDto> getImage(final @Nullable UUID id) {
         return id == null ? Optional.empty() : dsl
                 .selectFrom(IMAGE)
                 .where(IMAGE.ID.eq(id))
-                .fetchOptionalInto(ImageDto.class);
+                .fetchOptional(IMAGE_MAPPER);
     }
 
     public List<ImageDto> getImages() {
         return dsl.selectFrom(IMAGE)
-                .fetchInto(ImageDto.class);
+                .fetch(IMAGE_MAPPER);
     }
 
     public int getImageCount() {
@@ -106,7 +130,7 @@ public final class ImageService {
                                 .from(USER)
                                 .where(USER.IMAGE_ID.eq(IMAGE.ID))
                 )
-                .fetchInto(ImageDto.class);
+                .fetch(IMAGE_MAPPER);
     }
 
     @Scheduled(cron = "0 0 0 * * *")
@@ -127,7 +151,33 @@ public final class ImageService {
 
     public List<ImageDto> getAllImages() {
         return dsl.selectFrom(IMAGE)
-                .fetchInto(ImageDto.class);
+                .fetch(IMAGE_MAPPER);
+    }
+
+    /**
+     * <p>Passes all images to the specified action one by one. The images are read with a
+     * database cursor, so they are never held in memory all at once.</p>
+     *
+     * <p>If a time is specified, only the images of the users, communities, and events created
+     * or changed since then are included. Images have no timestamps themselves, but a new or
+     * replaced image always changes the entity it belongs to.</p>
+     *
+     * @param changedSince the time from which on the images of changed entities are included,
+     *                     or {@code null} for all images
+     * @param action the action to perform for every image
+     */
+    public void forEachImage(final @Nullable ZonedDateTime changedSince,
+                             final @NotNull Consumer<ImageDto> action) {
+        try (var cursor = dsl.selectFrom(IMAGE)
+                .where(changedSince != null ? IMAGE.ID.in(
+                        select(USER.IMAGE_ID).from(USER).where(USER.UPDATED.ge(changedSince))
+                                .union(select(COMMUNITY.IMAGE_ID).from(COMMUNITY).where(COMMUNITY.UPDATED.ge(changedSince)))
+                                .union(select(EVENT.IMAGE_ID).from(EVENT).where(EVENT.UPDATED.ge(changedSince))))
+                        : noCondition())
+                .fetchSize(LAZY_FETCH_SIZE)
+                .fetchLazy()) {
+            cursor.forEach(record -> action.accept(IMAGE_MAPPER.map(record)));
+        }
     }
 
     public boolean deleteImage(final @NotNull ImageDto image) {
@@ -145,4 +195,18 @@ public final class ImageService {
                 .execute() > 0;
     }
 
+    /**
+     * <p>Deletes all image records with a single statement. Users, communities
+     * and events referencing the images must be deleted first.</p>
+     *
+     * <p>In contrast to {@link #deleteImage(ImageDto)} the image files are
+     * kept on disk; use {@link ImageUtil#cleanupOrphanedImageFiles(ImageService)}
+     * to remove files which are no longer referenced.</p>
+     *
+     * @return the number of deleted image records
+     */
+    public int deleteAllImages() {
+        return dsl.delete(IMAGE).execute();
+    }
+
 }
@@ -18,6 +18,7 @@
 package app.komunumo.domain.core.image.control;
 
 import app.komunumo.infra.config.AppConfig;
+import app.komunumo.util.CompiledTemplate;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.jetbrains.annotations.NotNull;
@@ -30,7 +31,7 @@ import java.nio.file.Path;
 import java.util.Map;
 
 import static app.komunumo.util.ResourceUtil.getResourceAsString;
-import static app.komunumo.util.TemplateUtil.replaceVariables;
+import static app.komunumo.util.TemplateUtil.compile;
 
 public final class PlaceholderImageGenerator {
 
@@ -51,7 +52,7 @@ public final class PlaceholderImageGenerator {
     private final double baseLogoAspectRatio;
 
     private final @NotNull SvgHelper templateApplier;
-    private final @NotNull String placeholderImageTemplate;
+    private final @NotNull CompiledTemplate placeholderImageTemplate;
 
     // Cache for recently generated placeholder images
     private final @NotNull Cache<@NotNull CacheKey, @NotNull String> imageCache = Caffeine.newBuilder()
@@ -63,7 +64,7 @@ public final class PlaceholderImageGenerator {
 
         this.templateApplier = new SvgHelper(instanceLogo);
         final var placeholderImageRaw = getResourceAsString(PLACEHOLDER_IMAGE_TEMPLATE_FILE, FALLBACK_PLACEHOLDER_IMAGE_TEMPLATE);
-        this.placeholderImageTemplate = templateApplier.parseTemplate(placeholderImageRaw);
+        this.placeholderImageTemplate = compile(templateApplier.parseTemplate(placeholderImageRaw));
 
         this.baseLogoWidth = (int) templateApplier.getUserSvgWidth();
         this.baseLogoHeight = (int) templateApplier.getUserSvgHeight();
@@ -135,7 +136,7 @@ public final class PlaceholderImageGenerator {
                 "logoPositionX", String.valueOf(logoPositionX),
                 "logoPositionY", String.valueOf(logoPositionY),
                 "logoScalingFactor", String.valueOf(logoScalingFactor));
-        final var applicableImageTemplate = replaceVariables(placeholderImageTemplate, variables);
+        final var applicableImageTemplate = placeholderImageTemplate.render(variables);
         return templateApplier.applyTemplate(applicableImageTemplate);
     }
 
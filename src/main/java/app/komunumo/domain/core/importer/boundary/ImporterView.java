@@ -17,25 +17,17 @@
  */
 package app.komunumo.domain.core.importer.boundary;
 
-import app.komunumo.domain.community.control.CommunityService;
 import app.komunumo.domain.core.config.control.ConfigurationService;
-import app.komunumo.domain.core.image.control.ImageService;
-import app.komunumo.domain.core.importer.control.ImporterLog;
-import app.komunumo.domain.core.importer.control.JSONImporter;
-import app.komunumo.domain.core.mail.control.MailService;
-import app.komunumo.domain.event.control.EventService;
-import app.komunumo.domain.member.control.MemberService;
-import app.komunumo.domain.page.control.GlobalPageService;
-import app.komunumo.domain.participant.control.ParticipantService;
-import app.komunumo.domain.user.control.UserService;
+import app.komunumo.domain.core.importer.control.ImportJobListener;
+import app.komunumo.domain.core.importer.control.ImportJobService;
+import app.komunumo.domain.core.importer.entity.ImportJobDto;
+import app.komunumo.infra.ui.vaadin.components.LogViewer;
 import app.komunumo.infra.ui.vaadin.layout.AbstractView;
 import app.komunumo.infra.ui.vaadin.layout.WebsiteLayout;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.H3;
-import com.vaadin.flow.component.html.ListItem;
-import com.vaadin.flow.component.html.UnorderedList;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.component.upload.Upload;
@@ -48,53 +40,33 @@ import jakarta.annotation.security.RolesAllowed;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
-import java.util.concurrent.CompletableFuture;
 
 @RolesAllowed("ADMIN")
 @Route(value = "admin/import", layout = WebsiteLayout.class)
 public final class ImporterView extends AbstractView {
 
-    private final @NotNull ConfigurationService configurationService;
-    private final @NotNull ImageService imageService;
-    private final @NotNull UserService userService;
-    private final @NotNull CommunityService communityService;
-    private final @NotNull MemberService memberService;
-    private final @NotNull EventService eventService;
-    private final @NotNull ParticipantService participantService;
-    private final @NotNull GlobalPageService globalPageService;
-    private final @NotNull MailService mailService;
+    /**
+     * <p>The maximum number of log messages shown; the downloaded log contains all messages.</p>
+     */
+    private static final int MAX_LOG_ENTRIES = 1_000;
+
+    private final @NotNull ImportJobService importJobService;
 
     private final @NotNull UI ui;
     private final @NotNull TextField urlField;
     private final @NotNull Button importButton;
-    private final @NotNull UnorderedList importLog;
+    private final @NotNull LogViewer importLog;
 
     private final @NotNull VerticalLayout importFieldsContainer;
     private final @NotNull VerticalLayout importLogContainer;
 
-    private File uploadFile = null;
+    private @NotNull Runnable detachFromJob = () -> { };
 
-    @SuppressWarnings("checkstyle:ParameterNumber") // constructor injection
     public ImporterView(final @NotNull ConfigurationService configurationService,
-                        final @NotNull ImageService imageService,
-                        final @NotNull UserService userService,
-                        final @NotNull CommunityService communityService,
-                        final @NotNull MemberService memberService,
-                        final @NotNull EventService eventService,
-                        final @NotNull ParticipantService participantService,
-                        final @NotNull GlobalPageService globalPageService,
-                        final @NotNull MailService mailService) {
+                        final @NotNull ImportJobService importJobService) {
         super(configurationService);
 
-        this.configurationService = configurationService;
-        this.imageService = imageService;
-        this.userService = userService;
-        this.communityService = communityService;
-        this.memberService = memberService;
-        this.eventService = eventService;
-        this.participantService = participantService;
-        this.globalPageService = globalPageService;
-        this.mailService = mailService;
+        this.importJobService = importJobService;
         this.ui = UI.getCurrent();
 
         final var uploadHandler = UploadHandler
@@ -111,7 +83,7 @@ public final class ImporterView extends AbstractView {
         final var uploadField = new Upload(uploadHandler);
         uploadField.setSizeFull();
         uploadField.setMaxFiles(1);
-        uploadField.setAcceptedFileTypes("application/json", ".json");
+        uploadField.setAcceptedFileTypes("application/json", ".json", "application/zip", ".zip");
         uploadField.setI18n(uploadI18N);
 
         urlField = new TextField();
@@ -126,7 +98,7 @@ public final class ImporterView extends AbstractView {
         importButton.addClickListener(_ -> processImport());
 
         final var importLogTitle = new H3(getTranslation("core.importer.boundary.ImporterView.importLogTitle"));
-        importLog = new UnorderedList();
+        importLog = new LogViewer("komunumo-import-log.txt", MAX_LOG_ENTRIES);
         importLog.addClassName("import-log");
 
         urlField.addValueChangeListener(valueChangeEvent ->
@@ -148,48 +120,41 @@ public final class ImporterView extends AbstractView {
         importLogContainer.add(importLog);
         importLogContainer.setVisible(false);
         add(importLogContainer);
+
+        // show the progress of an import started in another session
+        importJobService.getRunningJob().ifPresent(this::attachToJob);
+        addDetachListener(_ -> detachFromJob.run());
     }
 
     private void processUploadSuccess(final @NotNull UploadMetadata metadata, final @NotNull File file) {
-        file.deleteOnExit();
-        uploadFile = file;
-        processImport();
+        try {
+            attachToJob(importJobService.startImport(file));
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete(); // the job works on its own copy
+        }
     }
 
     private void processImport() {
+        attachToJob(importJobService.startImport(urlField.getValue()));
+    }
+
+    private void attachToJob(final @NotNull ImportJobDto job) {
+        detachFromJob.run();
         importFieldsContainer.setEnabled(false);
         importLogContainer.setVisible(true);
-        final var importerLog = new ImporterLog((message) ->
-                ui.access(() -> importLog.add(new ListItem(message))));
-        CompletableFuture
-                .runAsync(() -> {
-                    final var jsonDataUrl = urlField.getValue();
-                    final var jsonImporter = uploadFile == null
-                            ? new JSONImporter(importerLog, jsonDataUrl)
-                            : new JSONImporter(importerLog, uploadFile);
-
-                    jsonImporter.importSettings(configurationService);
-                    jsonImporter.importImages(imageService);
-                    jsonImporter.importUsers(userService);
-                    jsonImporter.importCommunities(communityService);
-                    jsonImporter.importMembers(memberService);
-                    jsonImporter.importEvents(eventService);
-                    jsonImporter.importParticipants(participantService);
-                    jsonImporter.importGlobalPages(globalPageService);
-                    jsonImporter.importMailTemplates(mailService);
-                })
-                .thenRunAsync(() -> ui.access(() -> {
-                    if (uploadFile != null) {
-                        //noinspection ResultOfMethodCallIgnored
-                        uploadFile.delete();
-                        uploadFile = null;
-                    }
-                    importFieldsContainer.setEnabled(true);
-                }))
-                .exceptionally(_ -> {
-                    ui.access(() -> importFieldsContainer.setEnabled(true));
-                    return null;
-                });
+        importLog.clear();
+        detachFromJob = importJobService.subscribe(job.id(), new ImportJobListener() {
+            @Override
+            public void log(final @NotNull String message) {
+                importLog.log(message);
+            }
+
+            @Override
+            public void finished(final @NotNull ImportJobDto finishedJob) {
+                ui.access(() -> importFieldsContainer.setEnabled(true));
+            }
+        });
     }
 
     @Override
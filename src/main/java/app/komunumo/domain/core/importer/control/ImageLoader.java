@@ -0,0 +1,47 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.importer.control;
+
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.util.DownloadUtil;
+import app.komunumo.util.ImageUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * <p>Provides the file of an imported image and places it in the image storage.</p>
+ */
+@FunctionalInterface
+public interface ImageLoader {
+
+    /**
+     * <p>Downloads every image and moves it into the image storage.</p>
+     */
+    @NotNull ImageLoader DOWNLOAD = (image, url) -> ImageUtil.storeImage(image, DownloadUtil.downloadFile(url));
+
+    /**
+     * <p>Loads the image file from the specified location and stores it for the image.</p>
+     *
+     * @param image the image the file belongs to; must have an ID
+     * @param url the location of the image file, either a remote URL or a {@code data:} URL
+     * @throws IOException if the image file could not be stored
+     */
+    void loadImage(@NotNull ImageDto image, @NotNull String url) throws IOException;
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.importer.control;
+
+import app.komunumo.domain.core.importer.entity.ImportJobDto;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * <p>Receives the progress of an import job. The methods are called by the thread running the
+ * job, so user interface updates must be synchronized with the session.</p>
+ */
+public interface ImportJobListener {
+
+    /**
+     * <p>Called for every message written to the import log of the job.</p>
+     *
+     * @param message the log message
+     */
+    void log(@NotNull String message);
+
+    /**
+     * <p>Called once the job has completed, failed, or was interrupted by a shutdown.</p>
+     *
+     * @param job the job in its final state
+     */
+    void finished(@NotNull ImportJobDto job);
+
+}
@@ -0,0 +1,495 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.importer.control;
+
+import app.komunumo.KomunumoException;
+import app.komunumo.data.db.tables.records.ImportJobRecord;
+import app.komunumo.domain.community.control.CommunityService;
+import app.komunumo.domain.core.config.control.ConfigurationService;
+import app.komunumo.domain.core.image.control.ImageService;
+import app.komunumo.domain.core.importer.entity.ImportCheckpoint;
+import app.komunumo.domain.core.importer.entity.ImportJobDto;
+import app.komunumo.domain.core.importer.entity.ImportJobStatus;
+import app.komunumo.domain.core.mail.control.MailService;
+import app.komunumo.domain.core.tombstone.control.TombstoneService;
+import app.komunumo.domain.event.control.EventService;
+import app.komunumo.domain.member.control.MemberService;
+import app.komunumo.domain.page.control.GlobalPageService;
+import app.komunumo.domain.participant.control.ParticipantService;
+import app.komunumo.domain.user.control.UserService;
+import app.komunumo.infra.config.AppConfig;
+import jakarta.annotation.PreDestroy;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static app.komunumo.data.db.tables.ImportJob.IMPORT_JOB;
+
+/**
+ * <p>Runs imports as background jobs on a dedicated executor, one job at a time.</p>
+ *
+ * <p>Every job is persisted with its current checkpoint, which is updated after every batch of
+ * elements and after every completed section. Jobs interrupted by a shutdown stay in the state
+ * {@link ImportJobStatus#RUNNING} and are resumed from their checkpoint by
+ * {@link #resumeInterruptedJobs()}. Uploaded files are copied to the file storage, so they are
+ * still available when the job is resumed; data from a URL is downloaded again.</p>
+ *
+ * <p>Every job is claimed by the node running it, which refreshes the time of the last update
+ * as a heartbeat. If several nodes share the database, a job is only taken over by another node
+ * after its heartbeat is older than {@link #HEARTBEAT_TIMEOUT}, so a job is never run twice at
+ * the same time. A job interrupted by a shutdown is released and resumed on the next start.
+ * Uploaded files are stored in the file storage of the node they were uploaded to, so another
+ * node can only take over an uploaded job if all nodes share the same file storage; otherwise
+ * the job fails because its file is missing.</p>
+ *
+ * <p>The import log of a running job is kept in memory, so every session can attach to the job
+ * with {@link #subscribe(UUID, ImportJobListener)} and receives the latest
+ * {@value RunningJob#MAX_MESSAGES} messages so far.</p>
+ */
+@Service
+public final class ImportJobService {
+
+    /**
+     * <p>Time after which a job whose node has not refreshed its heartbeat is taken over by
+     * another node, because the node running it was stopped.</p>
+     */
+    public static final @NotNull Duration HEARTBEAT_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final @NotNull DSLContext dsl;
+    private final @NotNull ConfigurationService configurationService;
+    private final @NotNull ImageService imageService;
+    private final @NotNull UserService userService;
+    private final @NotNull CommunityService communityService;
+    private final @NotNull MemberService memberService;
+    private final @NotNull EventService eventService;
+    private final @NotNull ParticipantService participantService;
+    private final @NotNull GlobalPageService globalPageService;
+    private final @NotNull MailService mailService;
+    private final @NotNull TombstoneService tombstoneService;
+    private final int imageParallelism;
+    private final @NotNull Path uploadPath;
+    private final @NotNull UUID claimId = UUID.randomUUID();
+
+    private final @NotNull ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("import-job").factory());
+    private final @NotNull Map<UUID, RunningJob> runningJobs = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("checkstyle:ParameterNumber") // constructor injection
+    public ImportJobService(final @NotNull AppConfig appConfig,
+                            final @NotNull DSLContext dsl,
+                            final @NotNull ConfigurationService configurationService,
+                            final @NotNull ImageService imageService,
+                            final @NotNull UserService userService,
+                            final @NotNull CommunityService communityService,
+                            final @NotNull MemberService memberService,
+                            final @NotNull EventService eventService,
+                            final @NotNull ParticipantService participantService,
+                            final @NotNull GlobalPageService globalPageService,
+                            final @NotNull MailService mailService,
+                            final @NotNull TombstoneService tombstoneService) {
+        super();
+        this.dsl = dsl;
+        this.configurationService = configurationService;
+        this.imageService = imageService;
+        this.userService = userService;
+        this.communityService = communityService;
+        this.memberService = memberService;
+        this.eventService = eventService;
+        this.participantService = participantService;
+        this.globalPageService = globalPageService;
+        this.mailService = mailService;
+        this.tombstoneService = tombstoneService;
+        this.imageParallelism = appConfig.importer().imageParallelism();
+        this.uploadPath = appConfig.files().basedir().resolve("imports");
+    }
+
+    /**
+     * <p>Starts a job importing the data downloaded from the specified URL.</p>
+     *
+     * @param url the URL of the JSON data or ZIP archive
+     * @return the started job
+     */
+    public @NotNull ImportJobDto startImport(final @NotNull String url) {
+        return startJob(UUID.randomUUID(), url, false);
+    }
+
+    /**
+     * <p>Starts a job importing the specified uploaded file. The file is copied to the file
+     * storage, so the caller may delete it as soon as this method returns.</p>
+     *
+     * @param file the uploaded JSON data or ZIP archive
+     * @return the started job
+     */
+    public @NotNull ImportJobDto startImport(final @NotNull File file) {
+        final var jobId = UUID.randomUUID();
+        final var jobFile = uploadPath.resolve(jobId.toString());
+        try {
+            Files.createDirectories(uploadPath);
+            Files.copy(file.toPath(), jobFile);
+        } catch (final IOException e) {
+            throw new KomunumoException("Failed to store the uploaded file: %s".formatted(file.getName()), e);
+        }
+        return startJob(jobId, jobFile.toString(), true);
+    }
+
+    /**
+     * <p>Returns the job with the specified ID.</p>
+     *
+     * @param jobId the ID of the job
+     * @return the job, or an empty {@link Optional} if no job with that ID exists
+     */
+    public @NotNull Optional<ImportJobDto> getJob(final @NotNull UUID jobId) {
+        return dsl.selectFrom(IMPORT_JOB)
+                .where(IMPORT_JOB.ID.eq(jobId))
+                .fetchOptional(ImportJobService::toDto);
+    }
+
+    /**
+     * <p>Returns the job currently running on this instance, if there is one.</p>
+     *
+     * @return the running job, or an empty {@link Optional} if no job is running
+     */
+    public @NotNull Optional<ImportJobDto> getRunningJob() {
+        return runningJobs.keySet().stream()
+                .findFirst()
+                .flatMap(this::getJob);
+    }
+
+    /**
+     * <p>Attaches the specified listener to a job. The listener first receives all messages
+     * logged so far and then every new message until the job has finished. If the job is not
+     * running on this instance, the listener is notified about its current state right away.</p>
+     *
+     * @param jobId the ID of the job
+     * @param listener the listener to attach
+     * @return an action detaching the listener from the job again
+     */
+    public @NotNull Runnable subscribe(final @NotNull UUID jobId,
+                                       final @NotNull ImportJobListener listener) {
+        final var runningJob = runningJobs.get(jobId);
+        if (runningJob == null) {
+            getJob(jobId).ifPresent(listener::finished);
+            return () -> { };
+        }
+        return runningJob.subscribe(listener);
+    }
+
+    /**
+     * <p>Resumes all jobs that were interrupted by a shutdown from their last checkpoint, as well
+     * as jobs left behind by a stopped node.</p>
+     */
+    public void resumeInterruptedJobs() {
+        resumeJobs(true);
+    }
+
+    /**
+     * <p>Refreshes the heartbeat of the jobs running on this node and takes over the jobs of
+     * nodes that stopped refreshing their heartbeat.</p>
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void heartbeat() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        if (!runningJobs.isEmpty()) {
+            dsl.update(IMPORT_JOB)
+                    .set(IMPORT_JOB.UPDATED, ZonedDateTime.now(ZoneOffset.UTC))
+                    .where(IMPORT_JOB.ID.in(runningJobs.keySet()))
+                    .and(IMPORT_JOB.STATUS.eq(ImportJobStatus.RUNNING.name()))
+                    .and(IMPORT_JOB.CLAIM_ID.eq(claimId))
+                    .execute();
+        }
+        resumeJobs(false);
+    }
+
+    /**
+     * <p>Stops the executor. A job running at that moment is interrupted and resumed on the
+     * next start.</p>
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private @NotNull ImportJobDto startJob(final @NotNull UUID jobId,
+                                           final @NotNull String source,
+                                           final boolean uploaded) {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        dsl.insertInto(IMPORT_JOB)
+                .set(IMPORT_JOB.ID, jobId)
+                .set(IMPORT_JOB.CREATED, now)
+                .set(IMPORT_JOB.UPDATED, now)
+                .set(IMPORT_JOB.SOURCE, source)
+                .set(IMPORT_JOB.UPLOADED, uploaded)
+                .set(IMPORT_JOB.STATUS, ImportJobStatus.RUNNING.name())
+                .set(IMPORT_JOB.CLAIM_ID, claimId)
+                .execute();
+        final var job = getJob(jobId).orElseThrow();
+        submitJob(job);
+        return job;
+    }
+
+    private void resumeJobs(final boolean includeReleased) {
+        dsl.select(IMPORT_JOB.ID)
+                .from(IMPORT_JOB)
+                .where(claimable(includeReleased, ZonedDateTime.now(ZoneOffset.UTC)))
+                .orderBy(IMPORT_JOB.CREATED)
+                .fetch(IMPORT_JOB.ID)
+                .stream()
+                .filter(jobId -> !runningJobs.containsKey(jobId))
+                .filter(jobId -> claim(jobId, includeReleased))
+                .forEach(jobId -> {
+                    LOGGER.info("Resuming interrupted import job {}.", jobId);
+                    submitJob(getJob(jobId).orElseThrow());
+                });
+    }
+
+    /**
+     * <p>Claims a job for this node. The database decides which node wins, so only one node
+     * resumes the job.</p>
+     *
+     * @return {@code true} if this node runs the job
+     */
+    private boolean claim(final @NotNull UUID jobId, final boolean includeReleased) {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        return dsl.update(IMPORT_JOB)
+                .set(IMPORT_JOB.CLAIM_ID, claimId)
+                .set(IMPORT_JOB.UPDATED, now)
+                .where(IMPORT_JOB.ID.eq(jobId))
+                .and(claimable(includeReleased, now))
+                .execute() > 0;
+    }
+
+    /**
+     * <p>Matches the running jobs whose heartbeat is stale and, if requested, the jobs released
+     * by a node that was shut down.</p>
+     */
+    private static @NotNull Condition claimable(final boolean includeReleased,
+                                                final @NotNull ZonedDateTime now) {
+        final var stale = IMPORT_JOB.UPDATED.lt(now.minus(HEARTBEAT_TIMEOUT));
+        return IMPORT_JOB.STATUS.eq(ImportJobStatus.RUNNING.name())
+                .and(includeReleased ? stale.or(IMPORT_JOB.CLAIM_ID.isNull()) : stale);
+    }
+
+    private void submitJob(final @NotNull ImportJobDto job) {
+        final var runningJob = new RunningJob();
+        runningJobs.put(job.id(), runningJob);
+        executor.execute(() -> runJob(job, runningJob));
+    }
+
+    private void runJob(final @NotNull ImportJobDto job, final @NotNull RunningJob runningJob) {
+        final var importerLog = new ImporterLog(runningJob::log);
+        var status = ImportJobStatus.COMPLETED;
+        try (var importer = createImporter(job, importerLog)) {
+            final var steps = createSteps(importer);
+            final var checkpoint = job.checkpoint();
+            var next = 0;
+            if (checkpoint != null) {
+                importer.resumeFrom(checkpoint);
+                next = Math.max(0, steps.stream().map(ImportStep::section).toList().indexOf(checkpoint.section()));
+            }
+            importer.onCheckpoint(newCheckpoint -> saveCheckpoint(job.id(), newCheckpoint));
+            while (next < steps.size()) {
+                steps.get(next).action().run();
+                next++;
+                saveCheckpoint(job.id(), next < steps.size() ? new ImportCheckpoint(steps.get(next).section(), 0) : null);
+            }
+            configurationService.clearCache();
+            mailService.clearCache();
+        } catch (final Exception e) {
+            if (executor.isShutdown()) {
+                LOGGER.warn("Import job {} was interrupted and will be resumed on the next start.", job.id());
+                status = ImportJobStatus.RUNNING;
+            } else {
+                importerLog.error("Import job failed: %s".formatted(e.getMessage()));
+                status = ImportJobStatus.FAILED;
+            }
+        }
+        finishJob(job, status, runningJob);
+    }
+
+    private static @NotNull JSONImporter createImporter(final @NotNull ImportJobDto job,
+                                                        final @NotNull ImporterLog importerLog) {
+        if (!job.uploaded()) {
+            return new JSONImporter(importerLog, job.source());
+        }
+        final var file = new File(job.source());
+        if (!file.isFile()) {
+            throw new KomunumoException("The uploaded file is not available on this node; "
+                    + "uploaded imports can only be resumed on another node if all nodes share the same file storage.");
+        }
+        return new JSONImporter(importerLog, file);
+    }
+
+    private @NotNull List<ImportStep> createSteps(final @NotNull JSONImporter importer) {
+        return List.of(
+                new ImportStep("tombstones", () -> importer.importTombstones(tombstoneService)),
+                new ImportStep("settings", () -> importer.importSettings(configurationService)),
+                new ImportStep("images", () -> importer.importImages(imageService, imageParallelism)),
+                new ImportStep("users", () -> importer.importUsers(userService)),
+                new ImportStep("communities", () -> importer.importCommunities(communityService)),
+                new ImportStep("members", () -> importer.importMembers(memberService)),
+                new ImportStep("events", () -> importer.importEvents(eventService)),
+                new ImportStep("participants", () -> importer.importParticipants(participantService)),
+                new ImportStep("globalPages", () -> importer.importGlobalPages(globalPageService)),
+                new ImportStep("mailTemplates", () -> importer.importMailTemplates(mailService)));
+    }
+
+    private void saveCheckpoint(final @NotNull UUID jobId, final @Nullable ImportCheckpoint checkpoint) {
+        final var updated = dsl.update(IMPORT_JOB)
+                .set(IMPORT_JOB.SECTION, checkpoint != null ? checkpoint.section() : null)
+                .set(IMPORT_JOB.SECTION_OFFSET, checkpoint != null ? checkpoint.offset() : 0)
+                .set(IMPORT_JOB.UPDATED, ZonedDateTime.now(ZoneOffset.UTC))
+                .where(IMPORT_JOB.ID.eq(jobId))
+                .and(IMPORT_JOB.CLAIM_ID.eq(claimId))
+                .execute();
+        if (updated == 0) {
+            throw new KomunumoException("The import job was taken over by another node.");
+        }
+    }
+
+    private void finishJob(final @NotNull ImportJobDto job,
+                           final @NotNull ImportJobStatus status,
+                           final @NotNull RunningJob runningJob) {
+        if (status != ImportJobStatus.RUNNING) {
+            final var updated = dsl.update(IMPORT_JOB)
+                    .set(IMPORT_JOB.STATUS, status.name())
+                    .set(IMPORT_JOB.UPDATED, ZonedDateTime.now(ZoneOffset.UTC))
+                    .where(IMPORT_JOB.ID.eq(job.id()))
+                    .and(IMPORT_JOB.CLAIM_ID.eq(claimId))
+                    .execute();
+            if (updated > 0 && job.uploaded()) {
+                //noinspection ResultOfMethodCallIgnored
+                new File(job.source()).delete();
+            }
+        } else {
+            releaseJob(job);
+        }
+        runningJobs.remove(job.id());
+        // an interrupted job is left untouched, the database may already be unavailable
+        runningJob.finish(status == ImportJobStatus.RUNNING ? job : getJob(job.id()).orElseThrow());
+    }
+
+    /**
+     * <p>Releases an interrupted job, so it is resumed on the next start without waiting for
+     * its heartbeat to become stale.</p>
+     */
+    private void releaseJob(final @NotNull ImportJobDto job) {
+        try {
+            dsl.update(IMPORT_JOB)
+                    .setNull(IMPORT_JOB.CLAIM_ID)
+                    .where(IMPORT_JOB.ID.eq(job.id()))
+                    .and(IMPORT_JOB.CLAIM_ID.eq(claimId))
+                    .execute();
+        } catch (final DataAccessException e) {
+            LOGGER.warn("Unable to release import job {}, it is resumed after {}: {}",
+                    job.id(), HEARTBEAT_TIMEOUT, e.getMessage());
+        }
+    }
+
+    private static @NotNull ImportJobDto toDto(final @NotNull ImportJobRecord importJobRecord) {
+        final var section = importJobRecord.getSection();
+        return new ImportJobDto(
+                importJobRecord.getId(),
+                importJobRecord.getCreated(),
+                importJobRecord.getUpdated(),
+                importJobRecord.getSource(),
+                importJobRecord.getUploaded(),
+                ImportJobStatus.valueOf(importJobRecord.getStatus()),
+                section != null ? new ImportCheckpoint(section, importJobRecord.getSectionOffset()) : null);
+    }
+
+    /**
+     * <p>One section of the import together with the action importing it.</p>
+     */
+    private record ImportStep(@NotNull String section, @NotNull Runnable action) { }
+
+    /**
+     * <p>The in-memory state of a job running on this instance: the latest messages of its log
+     * and the attached listeners.</p>
+     */
+    static final class RunningJob {
+
+        /**
+         * <p>The maximum number of messages kept for listeners attaching later; older messages
+         * are dropped.</p>
+         */
+        static final int MAX_MESSAGES = 1_000;
+
+        private final @NotNull Deque<String> messages = new ArrayDeque<>();
+        private final @NotNull List<ImportJobListener> listeners = new ArrayList<>();
+        private @Nullable ImportJobDto finishedJob;
+
+        synchronized void log(final @NotNull String message) {
+            messages.addLast(message);
+            if (messages.size() > MAX_MESSAGES) {
+                messages.removeFirst();
+            }
+            listeners.forEach(listener -> listener.log(message));
+        }
+
+        synchronized @NotNull Runnable subscribe(final @NotNull ImportJobListener listener) {
+            messages.forEach(listener::log);
+            if (finishedJob != null) {
+                listener.finished(finishedJob);
+            } else {
+                listeners.add(listener);
+            }
+            return () -> unsubscribe(listener);
+        }
+
+        private synchronized void unsubscribe(final @NotNull ImportJobListener listener) {
+            listeners.remove(listener);
+        }
+
+        synchronized void finish(final @NotNull ImportJobDto job) {
+            finishedJob = job;
+            listeners.forEach(listener -> listener.finished(job));
+            listeners.clear();
+        }
+
+    }
+
+}
@@ -22,12 +22,18 @@ import app.komunumo.domain.community.control.CommunityService;
 import app.komunumo.domain.community.entity.CommunityDto;
 import app.komunumo.domain.core.config.control.ConfigurationService;
 import app.komunumo.domain.core.config.entity.ConfigurationSetting;
+import app.komunumo.domain.core.config.entity.ConfigurationValue;
+import app.komunumo.domain.core.exporter.control.ArchiveExporter;
 import app.komunumo.domain.core.image.control.ImageService;
 import app.komunumo.domain.core.image.entity.ContentType;
 import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.domain.core.importer.entity.ImportCheckpoint;
 import app.komunumo.domain.core.mail.control.MailService;
 import app.komunumo.domain.core.mail.entity.MailTemplate;
 import app.komunumo.domain.core.mail.entity.MailTemplateId;
+import app.komunumo.domain.core.tombstone.control.TombstoneService;
+import app.komunumo.domain.core.tombstone.entity.TombstoneDto;
+import app.komunumo.domain.core.tombstone.entity.TombstoneType;
 import app.komunumo.domain.event.control.EventService;
 import app.komunumo.domain.event.entity.EventDto;
 import app.komunumo.domain.event.entity.EventStatus;
@@ -47,219 +53,571 @@ import app.komunumo.util.DownloadUtil;
 import app.komunumo.util.ImageUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.springframework.util.function.ThrowingConsumer;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.zip.ZipFile;
 
+/**
+ * <p>Imports the JSON data format section by section.</p>
+ *
+ * <p>The JSON data is never loaded into memory as a whole. Every import method reads the
+ * data with a streaming parser, skips all other sections and materializes only one element
+ * of its own section at a time, so the memory usage does not depend on the size of the
+ * data. Data downloaded from a URL is buffered in a temporary file, which is deleted when
+ * the importer is closed.</p>
+ *
+ * <p>Besides plain JSON data, ZIP archives created by the {@code ArchiveExporter} are
+ * supported. They are detected by their signature and contain the JSON data as an entry
+ * named {@value ArchiveExporter#DATA_ENTRY}. Image URLs naming an entry of the archive are
+ * copied directly from the archive into the image storage.</p>
+ *
+ * <p>The elements of a section are stored in batches of up to {@value #BATCH_SIZE} elements,
+ * each in its own transaction. If a batch fails, its transaction is rolled back and the
+ * elements of the batch are stored one by one, so only the failing elements are skipped.</p>
+ *
+ * <p>After every batch stored in the middle of a section, a checkpoint is reported to the
+ * listener set with {@link #onCheckpoint(Consumer)}. An interrupted import can be resumed from
+ * such a checkpoint with {@link #resumeFrom(ImportCheckpoint)}, which skips the elements of the
+ * section that have already been processed.</p>
+ */
 @SuppressWarnings("java:S1192") // Suppressing "String literals should not be duplicated" because of different contexts
-public final class JSONImporter {
+public final class JSONImporter implements AutoCloseable {
+
+    private static final @NotNull ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final byte @NotNull [] ZIP_SIGNATURE = {'P', 'K', 3, 4};
+
+    /**
+     * <p>The maximum number of elements stored together in one transaction.</p>
+     */
+    static final int BATCH_SIZE = 1_000;
 
     private final @NotNull ImporterLog importerLog;
-    private final @NotNull JsonNode root;
-    private final @NotNull ObjectMapper objectMapper;
+    private final @NotNull ParserSource parserSource;
+    private final @NotNull ImageLoader imageLoader;
+    private final @Nullable File tempFile;
+    private final @Nullable ZipFile archive;
+    private final @NotNull Map<String, Integer> sectionSizes;
+
+    private @Nullable ImportCheckpoint resumeCheckpoint;
+    private @NotNull Consumer<ImportCheckpoint> checkpointListener = _ -> { };
 
     public JSONImporter(final @NotNull ImporterLog importerLog,
                         final @NotNull String jsonDataUrl) {
         this.importerLog = importerLog;
-        this.objectMapper = new ObjectMapper();
+        final File jsonDataFile;
         try {
-            final var json = DownloadUtil.getString(jsonDataUrl);
-            this.root = objectMapper.readTree(json);
-            logJSONInfo();
+            jsonDataFile = DownloadUtil.downloadToTempFile(jsonDataUrl).toFile();
         } catch (IOException | URISyntaxException e) {
             importerLog.error("Failed to download JSON data from URL: %s".formatted(jsonDataUrl));
             throw new KomunumoException("Failed to download JSON data from URL: %s".formatted(jsonDataUrl), e);
         }
+        this.tempFile = jsonDataFile;
+        ZipFile jsonArchive = null;
+        try {
+            jsonArchive = openArchive(jsonDataFile);
+            this.archive = jsonArchive;
+            this.parserSource = createParserSource(jsonDataFile, jsonArchive);
+            this.imageLoader = createImageLoader(jsonArchive);
+            this.sectionSizes = logJSONInfo();
+        } catch (final IOException e) {
+            release(jsonArchive, jsonDataFile, e);
+            importerLog.error("Failed to download JSON data from URL: %s".formatted(jsonDataUrl));
+            throw new KomunumoException("Failed to download JSON data from URL: %s".formatted(jsonDataUrl), e);
+        } catch (final RuntimeException e) {
+            release(jsonArchive, jsonDataFile, e);
+            throw e;
+        }
     }
 
     public JSONImporter(final @NotNull ImporterLog importerLog,
                         final @NotNull File jsonDataFile) {
         this.importerLog = importerLog;
-        this.objectMapper = new ObjectMapper();
+        this.tempFile = null;
+        ZipFile jsonArchive = null;
         try {
-            final var json = Files.readString(jsonDataFile.toPath());
-            this.root = objectMapper.readTree(json);
-            logJSONInfo();
-        } catch (IOException e) {
+            jsonArchive = openArchive(jsonDataFile);
+            this.archive = jsonArchive;
+            this.parserSource = createParserSource(jsonDataFile, jsonArchive);
+            this.imageLoader = createImageLoader(jsonArchive);
+            this.sectionSizes = logJSONInfo();
+        } catch (final IOException | KomunumoException e) {
+            release(jsonArchive, null, e);
             importerLog.error("Failed to download JSON data from URL: %s".formatted(jsonDataFile.getName()));
             throw new KomunumoException("Failed to load JSON data from file: %s".formatted(jsonDataFile.getName()), e);
         }
     }
 
-    private void logJSONInfo() {
+    /**
+     * <p>Creates an importer for already parsed JSON data.</p>
+     *
+     * @param importerLog the log to report the import progress to
+     * @param root the parsed JSON data
+     * @param imageLoader the loader used to provide the files of the imported images
+     */
+    public JSONImporter(final @NotNull ImporterLog importerLog,
+                        final @NotNull JsonNode root,
+                        final @NotNull ImageLoader imageLoader) {
+        this.importerLog = importerLog;
+        this.imageLoader = imageLoader;
+        this.tempFile = null;
+        this.archive = null;
+        this.parserSource = () -> OBJECT_MAPPER.treeAsTokens(root);
+        this.sectionSizes = logJSONInfo();
+    }
+
+    /**
+     * <p>Releases the resources of an importer that could not be created, because
+     * {@link #close()} is never called in that case. Failures are added to the original
+     * exception.</p>
+     */
+    private static void release(final @Nullable ZipFile archive,
+                                final @Nullable File file,
+                                final @NotNull Exception exception) {
+        if (archive != null) {
+            try {
+                archive.close();
+            } catch (final IOException e) {
+                exception.addSuppressed(e);
+            }
+        }
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (final IOException e) {
+                exception.addSuppressed(e);
+            }
+        }
+    }
+
+    private static @Nullable ZipFile openArchive(final @NotNull File file) throws IOException {
+        try (var inputStream = Files.newInputStream(file.toPath())) {
+            return Arrays.equals(inputStream.readNBytes(ZIP_SIGNATURE.length), ZIP_SIGNATURE)
+                    ? new ZipFile(file) : null;
+        }
+    }
+
+    private static @NotNull ParserSource createParserSource(final @NotNull File file,
+                                                            final @Nullable ZipFile archive) {
+        if (archive == null) {
+            return () -> OBJECT_MAPPER.createParser(Files.newInputStream(file.toPath()));
+        }
+        return () -> {
+            final var entry = archive.getEntry(ArchiveExporter.DATA_ENTRY);
+            if (entry == null) {
+                throw new FileNotFoundException("The archive does not contain '%s'."
+                        .formatted(ArchiveExporter.DATA_ENTRY));
+            }
+            return OBJECT_MAPPER.createParser(archive.getInputStream(entry));
+        };
+    }
+
+    private static @NotNull ImageLoader createImageLoader(final @Nullable ZipFile archive) {
+        if (archive == null) {
+            return ImageLoader.DOWNLOAD;
+        }
+        return (image, url) -> {
+            final var entry = archive.getEntry(url);
+            if (entry == null) {
+                ImageLoader.DOWNLOAD.loadImage(image, url);
+            } else {
+                try (var imageData = archive.getInputStream(entry)) {
+                    ImageUtil.storeImage(image, imageData);
+                }
+            }
+        };
+    }
+
+    /**
+     * <p>Closes the archive and deletes the temporary copy of data downloaded from a URL.</p>
+     */
+    @Override
+    public void close() {
+        Optional.ofNullable(archive).ifPresent(ThrowingConsumer.of(ZipFile::close));
+        if (tempFile != null) {
+            //noinspection ResultOfMethodCallIgnored
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * <p>Sets the checkpoint from which on the section of the checkpoint is imported. The
+     * elements of that section before the checkpoint are skipped.</p>
+     *
+     * @param checkpoint the checkpoint of an interrupted import
+     */
+    public void resumeFrom(final @NotNull ImportCheckpoint checkpoint) {
+        this.resumeCheckpoint = checkpoint;
+    }
+
+    /**
+     * <p>Sets the listener which is notified whenever a batch of elements in the middle of a
+     * section has been stored.</p>
+     *
+     * @param listener the listener receiving the checkpoints
+     */
+    public void onCheckpoint(final @NotNull Consumer<ImportCheckpoint> listener) {
+        this.checkpointListener = listener;
+    }
+
+    private @NotNull Map<String, Integer> logJSONInfo() {
+        final var counts = countArrayItems();
         importerLog.info("""
                 Identified %d settings, %d images, %d users, %d communities, %d events, %d members, \
                 %d participants, %d global pages, and %d mail templates."""
                 .formatted(
-                        countArrayItems("settings"),
-                        countArrayItems("images"),
-                        countArrayItems("users"),
-                        countArrayItems("communities"),
-                        countArrayItems("events"),
-                        countArrayItems("members"),
-                        countArrayItems("participants"),
-                        countArrayItems("globalPages"),
-                        countArrayItems("mailTemplates")));
+                        counts.getOrDefault("settings", 0),
+                        counts.getOrDefault("images", 0),
+                        counts.getOrDefault("users", 0),
+                        counts.getOrDefault("communities", 0),
+                        counts.getOrDefault("events", 0),
+                        counts.getOrDefault("members", 0),
+                        counts.getOrDefault("participants", 0),
+                        counts.getOrDefault("globalPages", 0),
+                        counts.getOrDefault("mailTemplates", 0)));
+        return counts;
     }
 
-    private int countArrayItems(final @NotNull String arrayName) {
-        final var node = root.get(arrayName);
-        return node != null && node.isArray() ? node.size() : 0;
+    private @NotNull Map<String, Integer> countArrayItems() {
+        final var counts = new HashMap<String, Integer>();
+        try (var parser = openParser()) {
+            parser.nextToken(); // start of the root object
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                final var arrayName = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY) {
+                    var count = 0;
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        parser.skipChildren();
+                        count++;
+                    }
+                    counts.put(arrayName, count);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return counts;
     }
 
-    public void importSettings(final @NotNull ConfigurationService configurationService) {
-        if (root.has("settings")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing settings...");
-            root.get("settings").forEach(node -> {
-                try {
-                    final var setting = ConfigurationSetting.fromString(node.path("setting").asString());
-                    final var language = node.path("language").asString(null);
-
-                    if (setting.isLanguageDependent() && language == null) {
-                        importerLog.warn("Skipping setting '%s' because it is language-dependent but no language was provided."
-                                .formatted(setting.setting()));
-                        return;
-                    } else if (!setting.isLanguageDependent() && language != null) {
-                        importerLog.warn("Skipping setting '%s' because it is not language-dependent but a language was provided."
-                                .formatted(setting.setting()));
-                        return;
-                    }
+    private @NotNull JsonParser openParser() {
+        try {
+            return parserSource.open();
+        } catch (final IOException e) {
+            throw new KomunumoException("Failed to read JSON data: %s".formatted(e.getMessage()), e);
+        }
+    }
 
-                    final var locale = language == null ? null : Locale.forLanguageTag(language);
-                    final var value = node.path("value").asString();
-                    configurationService.setConfiguration(setting, locale, value);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping setting '%s': %s".formatted(node, e.getMessage()));
+    /**
+     * <p>Streams the elements of one section of the JSON data to the specified parser and
+     * stores the parsed elements in batches.</p>
+     *
+     * @param section the name of the section in the JSON data
+     * @param plural the plural name of the elements used for the log messages
+     * @param singular the singular name of the elements used for the log messages
+     * @param elementParser parses one element; exceptions skip the element with a warning
+     * @param batchStore stores a batch of elements in one transaction
+     * @param elementStore stores one element; used if storing a batch fails
+     * @param <T> the type of the parsed elements
+     */
+    private <T> void importSection(final @NotNull String section,
+                                   final @NotNull String plural,
+                                   final @NotNull String singular,
+                                   final @NotNull ElementParser<T> elementParser,
+                                   final @NotNull Consumer<List<T>> batchStore,
+                                   final @NotNull Consumer<T> elementStore) {
+        importSection(section, plural, singular, elementParser, batchStore, elementStore, () -> 0);
+    }
+
+    /**
+     * <p>Streams the elements of one section of the JSON data to the specified parser, stores
+     * the parsed elements in batches and completes elements the parser has passed on for
+     * asynchronous processing afterward.</p>
+     *
+     * @param section the name of the section in the JSON data
+     * @param plural the plural name of the elements used for the log messages
+     * @param singular the singular name of the elements used for the log messages
+     * @param elementParser parses one element; exceptions skip the element with a warning
+     * @param batchStore stores a batch of elements in one transaction
+     * @param elementStore stores one element; used if storing a batch fails
+     * @param completion called after all elements have been parsed; returns the number of
+     *                   elements imported asynchronously
+     * @param <T> the type of the parsed elements
+     */
+    @SuppressWarnings("java:S107") // the parameters describe one section and belong together
+    private <T> void importSection(final @NotNull String section,
+                                   final @NotNull String plural,
+                                   final @NotNull String singular,
+                                   final @NotNull ElementParser<T> elementParser,
+                                   final @NotNull Consumer<List<T>> batchStore,
+                                   final @NotNull Consumer<T> elementStore,
+                                   final @NotNull IntSupplier completion) {
+        try (var parser = openParser()) {
+            parser.nextToken(); // start of the root object
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                final var name = parser.currentName();
+                final var token = parser.nextToken();
+                if (section.equals(name)) {
+                    var imported = 0;
+                    final var skip = resumeCheckpoint != null && section.equals(resumeCheckpoint.section())
+                            ? resumeCheckpoint.offset() : 0;
+                    if (skip > 0) {
+                        importerLog.info("Resume importing %s after %d elements...".formatted(plural, skip));
+                    } else {
+                        importerLog.info("Start importing %s...".formatted(plural));
+                    }
+                    if (token == JsonToken.START_ARRAY) {
+                        final var batch = new ArrayList<Element<T>>(BATCH_SIZE);
+                        var processed = 0;
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            processed++;
+                            if (processed <= skip) {
+                                parser.skipChildren(); // already imported before the interruption
+                                continue;
+                            }
+                            final JsonNode node = parser.readValueAsTree();
+                            try {
+                                final var value = elementParser.parseElement(node);
+                                if (value != null) {
+                                    batch.add(new Element<>(node, value));
+                                }
+                            } catch (final Exception e) {
+                                importerLog.warn("Skipping %s '%s': %s".formatted(singular, node, e.getMessage()));
+                            }
+                            if (batch.size() == BATCH_SIZE) {
+                                imported += storeBatch(singular, batch, batchStore, elementStore);
+                                batch.clear();
+                                checkpointListener.accept(new ImportCheckpoint(section, processed));
+                            }
+                        }
+                        imported += storeBatch(singular, batch, batchStore, elementStore);
+                    }
+                    imported += completion.getAsInt();
+                    importerLog.info("...finished importing %d %s.".formatted(imported, plural));
+                    return;
                 }
-            });
-            configurationService.clearCache();
-            importerLog.info("...finished importing %d settings.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No settings found in JSON data.");
+                parser.skipChildren();
+            }
         }
+        importerLog.warn("No %s found in JSON data.".formatted(plural));
     }
 
-    public void importUsers(final @NotNull UserService userService) {
-        if (root.has("users")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing users...");
-            root.get("users").forEach(node -> {
+    /**
+     * <p>Stores a batch of elements in one transaction. If that fails, the transaction has been
+     * rolled back and the elements are stored one by one, skipping the failing elements with a
+     * warning.</p>
+     *
+     * @param singular the singular name of the elements used for the log messages
+     * @param batch the elements to store
+     * @param batchStore stores a batch of elements in one transaction
+     * @param elementStore stores one element
+     * @param <T> the type of the elements
+     * @return the number of stored elements
+     */
+    private <T> int storeBatch(final @NotNull String singular,
+                               final @NotNull List<Element<T>> batch,
+                               final @NotNull Consumer<List<T>> batchStore,
+                               final @NotNull Consumer<T> elementStore) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            batchStore.accept(batch.stream().map(Element::value).toList());
+            return batch.size();
+        } catch (final Exception _) {
+            var stored = 0;
+            for (final var element : batch) {
                 try {
-                    final var userId = UUID.fromString(node.path("userId").asString());
-                    final var profile = node.path("profile").asString().trim();
-                    final var email = node.path("email").asString().trim();
-                    final var name = node.path("name").asString().trim();
-                    final var bio = node.path("bio").asString().trim();
-                    final var imageId = parseUUID(node.path("imageId").asString());
-                    final var role = UserRole.valueOf(node.path("role").asString().trim());
-                    final var type = UserType.valueOf(node.path("type").asString().trim());
-
-                    final var user = new UserDto(userId, null, null, profile, email, name, bio, imageId,
-                            role, type);
-                    userService.storeUser(user);
-                    counter.incrementAndGet();
+                    elementStore.accept(element.value());
+                    stored++;
                 } catch (final Exception e) {
-                    importerLog.warn("Skipping user '%s': %s".formatted(node, e.getMessage()));
+                    importerLog.warn("Skipping %s '%s': %s".formatted(singular, element.source(), e.getMessage()));
                 }
-            });
-            importerLog.info("...finished importing %d users.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No users found in JSON data.");
+            }
+            return stored;
         }
     }
 
-    public void importImages(final @NotNull ImageService imageService) {
-        if (root.has("images")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing images...");
-            root.get("images").forEach(node -> {
-                try {
-                    final var imageId = UUID.fromString(node.path("imageId").asString());
-                    final var contentType = ContentType.fromContentType(node.path("contentType").asString());
+    /**
+     * <p>Applies the tombstones of an incremental export by deleting the recorded entities. Data
+     * from a full export contains no tombstones, so nothing is done in that case.</p>
+     *
+     * <p>The tombstones must be applied before all other sections are imported, because an
+     * entity that was deleted and created again afterward is contained in both.</p>
+     *
+     * @param tombstoneService the service to apply the tombstones with
+     */
+    public void importTombstones(final @NotNull TombstoneService tombstoneService) {
+        if (!sectionSizes.containsKey("tombstones")) {
+            return;
+        }
+        importSection("tombstones", "tombstones", "tombstone", node -> {
+            final var type = TombstoneType.valueOf(node.path("type").asString());
+            final var key = node.path("key").asString();
+            final var deleted = ZonedDateTime.parse(node.path("deleted").asString());
+            return new TombstoneDto(type, key, deleted);
+        }, tombstoneService::applyTombstones, tombstoneService::applyTombstone);
+    }
 
-                    final var url = node.path("url").asString();
-                    final var path = DownloadUtil.downloadFile(url);
+    public void importSettings(final @NotNull ConfigurationService configurationService) {
+        importSection("settings", "settings", "setting", node -> {
+            final var setting = ConfigurationSetting.fromString(node.path("setting").asString());
+            final var language = node.path("language").asString(null);
 
-                    final var image = new ImageDto(imageId, contentType);
-                    ImageUtil.storeImage(image, path);
-                    imageService.storeImage(image);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping image '%s': %s".formatted(node, e.getMessage()));
+            if (setting.isLanguageDependent() && language == null) {
+                importerLog.warn("Skipping setting '%s' because it is language-dependent but no language was provided."
+                        .formatted(setting.setting()));
+                return null;
+            } else if (!setting.isLanguageDependent() && language != null) {
+                importerLog.warn("Skipping setting '%s' because it is not language-dependent but a language was provided."
+                        .formatted(setting.setting()));
+                return null;
+            }
+
+            final var locale = language == null ? null : Locale.forLanguageTag(language);
+            final var value = node.path("value").asString();
+            return new ConfigurationValue(setting, locale, value);
+        }, configurationService::setConfigurations, value ->
+                configurationService.setConfiguration(value.setting(), value.locale(), value.value()));
+        configurationService.clearCache();
+    }
+
+    public void importUsers(final @NotNull UserService userService) {
+        importSection("users", "users", "user", node -> {
+            final var userId = UUID.fromString(node.path("userId").asString());
+            final var profile = node.path("profile").asString().trim();
+            final var email = node.path("email").asString().trim();
+            final var name = node.path("name").asString().trim();
+            final var bio = node.path("bio").asString().trim();
+            final var imageId = parseUUID(node.path("imageId").asString());
+            final var role = UserRole.valueOf(node.path("role").asString().trim());
+            final var type = UserType.valueOf(node.path("type").asString().trim());
+
+            return new UserDto(userId, null, null, profile, email, name, bio, imageId,
+                    role, type);
+        }, userService::storeUsers, userService::storeUser);
+    }
+
+    /**
+     * <p>Imports the images. The image files are loaded concurrently on virtual threads, at most
+     * {@code parallelism} at a time, while the JSON data is still being read. Whenever
+     * {@value #BATCH_SIZE} images have been loaded, they are stored in the database as a batch
+     * by the calling thread, so they take part in a transaction of the caller. Only the image
+     * records wait for their batch; the JSON data of an image, which may contain the whole image
+     * file, is released as soon as the file has been loaded.</p>
+     *
+     * @param imageService the service to store the images with
+     * @param parallelism the maximum number of image files loaded at the same time
+     */
+    public void importImages(final @NotNull ImageService imageService, final int parallelism) {
+        final var total = sectionSizes.getOrDefault("images", 0);
+        final var loaded = new AtomicInteger(0);
+        final var stored = new AtomicInteger(0);
+        final var loadedImages = new LinkedBlockingQueue<Element<ImageDto>>();
+        final var permits = new Semaphore(Math.max(1, parallelism));
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            importSection("images", "images", "image", node -> {
+                final var imageId = UUID.fromString(node.path("imageId").asString());
+                final var contentType = ContentType.fromContentType(node.path("contentType").asString());
+                final var image = new ImageDto(imageId, contentType);
+
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        loadImage(image, node);
+                        loadedImages.add(new Element<>(imageId, image));
+                        importerLog.info("Loaded image %d of %d.".formatted(loaded.incrementAndGet(), total));
+                    } catch (final Exception e) {
+                        importerLog.warn("Skipping image '%s': %s".formatted(node, e.getMessage()));
+                    } finally {
+                        permits.release();
+                    }
+                });
+                if (loadedImages.size() >= BATCH_SIZE) {
+                    stored.addAndGet(storeLoadedImages(loadedImages, imageService));
+                }
+                return null; // stored after the image file has been loaded
+            }, imageService::storeImages, imageService::storeImage, () -> {
+                executor.close(); // waits until all image files are loaded
+                while (!loadedImages.isEmpty()) {
+                    stored.addAndGet(storeLoadedImages(loadedImages, imageService));
                 }
+                return stored.get();
             });
-            importerLog.info("...finished importing %d images.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No images found in JSON data.");
         }
     }
 
-    public void importCommunities(final @NotNull CommunityService communityService) {
-        if (root.has("communities")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing communities...");
-            root.get("communities").forEach(node -> {
-                try {
-                    final var communityId = UUID.fromString(node.path("communityId").asString());
-                    final var profile = node.path("profile").asString().trim();
-                    final var name = node.path("name").asString().trim();
-                    final var description = node.path("description").asString().trim();
-                    final var imageId = parseUUID(node.path("imageId").asString());
-
-                    final var community = new CommunityDto(communityId, profile, null, null,
-                            name, description, imageId);
-                    communityService.storeCommunity(community);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping community '%s': %s".formatted(node, e.getMessage()));
-                }
-            });
-            importerLog.info("...finished importing %d communities.".formatted(counter.get()));
+    private int storeLoadedImages(final @NotNull BlockingQueue<Element<ImageDto>> loadedImages,
+                                  final @NotNull ImageService imageService) {
+        final var batch = new ArrayList<Element<ImageDto>>(BATCH_SIZE);
+        loadedImages.drainTo(batch, BATCH_SIZE);
+        return storeBatch("image", batch, imageService::storeImages, imageService::storeImage);
+    }
+
+    private void loadImage(final @NotNull ImageDto image, final @NotNull JsonNode node) throws IOException {
+        if (node.has("data")) {
+            final var data = Base64.getDecoder().decode(node.path("data").asString());
+            ImageUtil.storeImage(image, new ByteArrayInputStream(data));
         } else {
-            importerLog.warn("No communities found in JSON data.");
+            imageLoader.loadImage(image, node.path("url").asString());
         }
     }
 
+    public void importCommunities(final @NotNull CommunityService communityService) {
+        importSection("communities", "communities", "community", node -> {
+            final var communityId = UUID.fromString(node.path("communityId").asString());
+            final var profile = node.path("profile").asString().trim();
+            final var name = node.path("name").asString().trim();
+            final var description = node.path("description").asString().trim();
+            final var imageId = parseUUID(node.path("imageId").asString());
+
+            return new CommunityDto(communityId, profile, null, null,
+                    name, description, imageId);
+        }, communityService::storeCommunities, communityService::storeCommunity);
+    }
+
     public void importEvents(final @NotNull EventService eventService) {
-        if (root.has("events")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing events...");
-            root.get("events").forEach(node -> {
-                try {
-                    final var eventId = UUID.fromString(node.path("eventId").asString());
-                    final var communityId = UUID.fromString(node.path("communityId").asString());
-                    final var title = node.path("title").asString().trim();
-                    final var description = node.path("description").asString().trim();
-                    final var location = node.path("location").asString().trim();
-                    final var begin = parseDateTime(node.path("begin").asString());
-                    final var end = parseDateTime(node.path("end").asString());
-                    final var imageId = parseUUID(node.path("imageId").asString());
-                    final var anonymousParticipationAllowed = parseBoolean(node, "anonymousParticipationAllowed", true);
-                    final var visibility = EventVisibility.valueOf(node.path("visibility").asString());
-                    final var status = EventStatus.valueOf(node.path("status").asString());
-
-                    final var event = new EventDto(eventId, communityId, null, null, title,
-                            description, location, begin, end, imageId, anonymousParticipationAllowed, visibility, status);
-                    eventService.storeEvent(event);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping event '%s': %s".formatted(node, e.getMessage()));
-                }
-            });
-            importerLog.info("...finished importing %d events.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No events found in JSON data.");
-        }
+        importSection("events", "events", "event", node -> {
+            final var eventId = UUID.fromString(node.path("eventId").asString());
+            final var communityId = UUID.fromString(node.path("communityId").asString());
+            final var title = node.path("title").asString().trim();
+            final var description = node.path("description").asString().trim();
+            final var location = node.path("location").asString().trim();
+            final var begin = parseDateTime(node.path("begin").asString());
+            final var end = parseDateTime(node.path("end").asString());
+            final var imageId = parseUUID(node.path("imageId").asString());
+            final var anonymousParticipationAllowed = parseBoolean(node, "anonymousParticipationAllowed", true);
+            final var visibility = EventVisibility.valueOf(node.path("visibility").asString());
+            final var status = EventStatus.valueOf(node.path("status").asString());
+
+            return new EventDto(eventId, communityId, null, null, title,
+                    description, location, begin, end, imageId, anonymousParticipationAllowed, visibility, status);
+        }, eventService::storeEvents, eventService::storeEvent);
     }
 
     private boolean parseBoolean(final JsonNode node, final @NotNull String propertyName, final boolean defaultValue) {
@@ -270,105 +628,52 @@ public final class JSONImporter {
     }
 
     public void importParticipants(final @NotNull ParticipantService participantService) {
-        if (root.has("participants")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing participants...");
-            root.get("participants").forEach(node -> {
-                try {
-                    final var eventId = UUID.fromString(node.path("eventId").asString());
-                    final var userId = UUID.fromString(node.path("userId").asString());
-                    final var registeredDate = parseDateTime(node.path("registered").asString());
-                    final var participant =  new ParticipantDto(eventId, userId, registeredDate);
-                    participantService.storeParticipant(participant);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping participant '%s': %s".formatted(node, e.getMessage()));
-                }
-            });
-            importerLog.info("...finished importing %d participants.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No participants found in JSON data.");
-        }
+        importSection("participants", "participants", "participant", node -> {
+            final var eventId = UUID.fromString(node.path("eventId").asString());
+            final var userId = UUID.fromString(node.path("userId").asString());
+            final var registeredDate = parseDateTime(node.path("registered").asString());
+            return new ParticipantDto(eventId, userId, registeredDate);
+        }, participantService::storeParticipants, participantService::storeParticipant);
     }
 
     public void importMembers(final @NotNull MemberService memberService) {
-        if (root.has("members")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing members...");
-            root.get("members").forEach(node -> {
-                try {
-                    final var userId = UUID.fromString(node.path("userId").asString());
-                    final var communityId = UUID.fromString(node.path("communityId").asString());
-                    final var role = MemberRole.valueOf(node.path("role").asString());
-                    final var since = parseDateTime(node.path("since").asString());
-
-                    final var member = new MemberDto(userId, communityId, role, since);
-                    memberService.storeMember(member);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping member '%s': %s".formatted(node, e.getMessage()));
-                }
-            });
-            importerLog.info("...finished importing %d members.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No members found in JSON data.");
-        }
+        importSection("members", "members", "member", node -> {
+            final var userId = UUID.fromString(node.path("userId").asString());
+            final var communityId = UUID.fromString(node.path("communityId").asString());
+            final var role = MemberRole.valueOf(node.path("role").asString());
+            final var since = parseDateTime(node.path("since").asString());
+
+            return new MemberDto(userId, communityId, role, since);
+        }, memberService::storeMembers, memberService::storeMember);
     }
 
     public void importGlobalPages(final @NotNull GlobalPageService globalPageService) {
-        if (root.has("globalPages")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing global pages...");
-            root.get("globalPages").forEach(node -> {
-                try {
-                    final var slot = node.path("slot").asString().trim();
-                    final var languageNode = node.path("language");
-                    if (languageNode.isMissingNode()) {
-                        throw new NullPointerException("Language must be set");
-                    }
-                    if (languageNode.isNull()) {
-                        throw new NullPointerException("Language must not be null");
-                    }
-                    final var locale = Locale.forLanguageTag(languageNode.asString());
-                    final var title = node.path("title").asString().trim();
-                    final var markdown = node.path("markdown").asString().trim();
+        importSection("globalPages", "global pages", "global page", node -> {
+            final var slot = node.path("slot").asString().trim();
+            final var languageNode = node.path("language");
+            if (languageNode.isMissingNode()) {
+                throw new NullPointerException("Language must be set");
+            }
+            if (languageNode.isNull()) {
+                throw new NullPointerException("Language must not be null");
+            }
+            final var locale = Locale.forLanguageTag(languageNode.asString());
+            final var title = node.path("title").asString().trim();
+            final var markdown = node.path("markdown").asString().trim();
 
-                    final var globalPage = new GlobalPageDto(slot, locale, null, null, title, markdown);
-                    globalPageService.storeGlobalPage(globalPage);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping global page '%s': %s".formatted(node, e.getMessage()));
-                }
-            });
-            importerLog.info("...finished importing %d global pages.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No global pages found in JSON data.");
-        }
+            return new GlobalPageDto(slot, locale, null, null, title, markdown);
+        }, globalPageService::storeGlobalPages, globalPageService::storeGlobalPage);
     }
 
     public void importMailTemplates(final @NotNull MailService mailService) {
-        if (root.has("mailTemplates")) {
-            final var counter = new AtomicInteger(0);
-            importerLog.info("Start importing mail templates...");
-            root.get("mailTemplates").forEach(node -> {
-                try {
-                    final var mailTemplateId = MailTemplateId.valueOf(node.path("mailTemplateId").asString());
-                    final var language = Locale.forLanguageTag(node.path("language").asString());
-                    final var subject = node.path("subject").asString().trim();
-                    final var markdown = node.path("markdown").asString().trim();
-
-                    final var mailTemplate = new MailTemplate(mailTemplateId, language, subject, markdown);
+        importSection("mailTemplates", "mail templates", "mail template", node -> {
+            final var mailTemplateId = MailTemplateId.valueOf(node.path("mailTemplateId").asString());
+            final var language = Locale.forLanguageTag(node.path("language").asString());
+            final var subject = node.path("subject").asString().trim();
+            final var markdown = node.path("markdown").asString().trim();
 
-                    mailService.storeMailTemplate(mailTemplate);
-                    counter.incrementAndGet();
-                } catch (final Exception e) {
-                    importerLog.warn("Skipping mail template '%s': %s".formatted(node, e.getMessage()));
-                }
-            });
-            importerLog.info("...finished importing %d mail templates.".formatted(counter.get()));
-        } else {
-            importerLog.warn("No mail templates found in JSON data.");
-        }
+            return new MailTemplate(mailTemplateId, language, subject, markdown);
+        }, mailService::storeMailTemplates, mailService::storeMailTemplate);
     }
 
     private static @Nullable UUID parseUUID(final @NotNull String uuidString) {
@@ -378,4 +683,28 @@ public final class JSONImporter {
     private static @Nullable ZonedDateTime parseDateTime(final @NotNull String dateTime) {
         return dateTime.isBlank() ? null : ZonedDateTime.parse(dateTime);
     }
+
+    /**
+     * <p>Opens a new streaming parser positioned before the start of the JSON data.</p>
+     */
+    @FunctionalInterface
+    private interface ParserSource {
+        @NotNull JsonParser open() throws IOException;
+    }
+
+    /**
+     * <p>Parses one element of a section and returns it, or {@code null} if the element is
+     * skipped or processed otherwise.</p>
+     */
+    @FunctionalInterface
+    private interface ElementParser<T> {
+        @Nullable T parseElement(@NotNull JsonNode node) throws IOException;
+    }
+
+    /**
+     * <p>A parsed element together with its source, which is used for the log messages: the JSON
+     * data of the element or, if that is too large to keep, its ID.</p>
+     */
+    private record Element<T>(@NotNull Object source, @NotNull T value) { }
+
 }
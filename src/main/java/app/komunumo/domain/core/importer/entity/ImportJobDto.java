@@ -0,0 +1,44 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.importer.entity;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * <p>The persistent state of an import job.</p>
+ *
+ * @param id the ID of the job
+ * @param created the time the job was started
+ * @param updated the time the job state was last changed
+ * @param source the URL of the imported data, or the name of the uploaded file
+ * @param uploaded {@code true} if the data was uploaded, {@code false} if it is downloaded from the source URL
+ * @param status the status of the job
+ * @param checkpoint the position up to which the data has been imported, {@code null} if nothing has been imported yet
+ */
+public record ImportJobDto(
+        @NotNull UUID id,
+        @NotNull ZonedDateTime created,
+        @NotNull ZonedDateTime updated,
+        @NotNull String source,
+        boolean uploaded,
+        @NotNull ImportJobStatus status,
+        @Nullable ImportCheckpoint checkpoint) { }
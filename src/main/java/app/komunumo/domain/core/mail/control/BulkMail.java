@@ -0,0 +1,103 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.mail.control;
+
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static app.komunumo.util.MarkdownUtil.convertMarkdownToHtml;
+
+/**
+ * <p>A mail sent to many recipients, one mail per recipient, so no recipient sees the address
+ * of another. Created by {@link MailService#prepareBulkMail}.</p>
+ *
+ * <p>Every mail is rendered in a single pass over the compiled template with the variables
+ * shared by all recipients and the variables of the recipient. The values are inserted as they
+ * are and never compiled again, so placeholders written by an organizer into a message are
+ * sent literally instead of being replaced per recipient.</p>
+ */
+public final class BulkMail {
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(BulkMail.class);
+
+    private final @NotNull MailOutbox mailOutbox;
+    private final @NotNull TokenBucket rateLimit;
+    private final @NotNull CompiledMailTemplate mailTemplate;
+    private final @NotNull String subjectPrefix;
+    private final @NotNull Map<String, String> sharedVariables;
+    private final boolean html;
+
+    BulkMail(final @NotNull MailOutbox mailOutbox,
+             final @NotNull TokenBucket rateLimit,
+             final @NotNull CompiledMailTemplate mailTemplate,
+             final @NotNull String subjectPrefix,
+             final @NotNull Map<String, String> sharedVariables,
+             final boolean html) {
+        this.mailOutbox = mailOutbox;
+        this.rateLimit = rateLimit;
+        this.mailTemplate = mailTemplate;
+        this.subjectPrefix = subjectPrefix;
+        this.sharedVariables = Map.copyOf(sharedVariables);
+        this.html = html;
+    }
+
+    /**
+     * <p>Waits until the configured rate of bulk mails allows sending the next mail. The rate is
+     * shared by all bulk mails. Call this method outside a transaction before every
+     * {@link #send(String, Map)}.</p>
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void awaitPermit() throws InterruptedException {
+        rateLimit.acquire();
+    }
+
+    /**
+     * <p>Adds the mail for one recipient to the outbox, taking part in the transaction of the
+     * caller.</p>
+     *
+     * @param emailAddress the address of the recipient
+     * @param variables the values of the recipient variables
+     * @return {@code true} if the mail was added to the outbox, {@code false} if the address is invalid
+     */
+    public boolean send(final @NotNull String emailAddress, final @NotNull Map<String, String> variables) {
+        final var allVariables = new HashMap<>(sharedVariables);
+        allVariables.putAll(variables);
+        final var renderedSubject = subjectPrefix + mailTemplate.renderSubject(allVariables);
+        try {
+            if (InternetAddress.parse(emailAddress).length != 1) {
+                throw new AddressException("Expected exactly one recipient address", emailAddress);
+            }
+        } catch (final AddressException e) {
+            LOGGER.error("Unable to send mail with subject '{}' to {}: {}",
+                    renderedSubject, emailAddress, e.getMessage());
+            return false;
+        }
+
+        final var markdown = mailTemplate.renderBody(allVariables);
+        mailOutbox.enqueue(renderedSubject, html ? convertMarkdownToHtml(markdown) : markdown, html, emailAddress);
+        return true;
+    }
+
+}
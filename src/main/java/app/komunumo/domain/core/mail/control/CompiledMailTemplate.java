@@ -0,0 +1,91 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.mail.control;
+
+import app.komunumo.domain.core.mail.entity.MailTemplate;
+import app.komunumo.util.CompiledTemplate;
+import app.komunumo.util.TemplateUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>A mail template whose subject and body have been compiled once, so rendering a mail is a
+ * single pass over each of them.</p>
+ *
+ * <p>Variables are written as {@code ${name}}. Placeholders for which no value is passed are
+ * rendered unchanged.</p>
+ */
+final class CompiledMailTemplate {
+
+    private final @NotNull CompiledTemplate subject;
+    private final @NotNull CompiledTemplate body;
+
+    private CompiledMailTemplate(final @NotNull CompiledTemplate subject, final @NotNull CompiledTemplate body) {
+        this.subject = subject;
+        this.body = body;
+    }
+
+    /**
+     * <p>Compiles the subject and the Markdown body of a mail template.</p>
+     *
+     * @param mailTemplate the mail template to compile
+     * @return the compiled mail template
+     */
+    static @NotNull CompiledMailTemplate compile(final @NotNull MailTemplate mailTemplate) {
+        return new CompiledMailTemplate(
+                TemplateUtil.compile(mailTemplate.subject()),
+                TemplateUtil.compile(mailTemplate.markdown()));
+    }
+
+    /**
+     * <p>Returns the names of all variables used in the subject or the body for which the
+     * specified map contains no value.</p>
+     *
+     * @param variables the variable values by name
+     * @return the names of the missing variables, empty if all variables have a value
+     */
+    @NotNull Set<String> getMissingVariables(final @NotNull Map<String, String> variables) {
+        final var missing = new LinkedHashSet<>(subject.getMissingVariables(variables));
+        missing.addAll(body.getMissingVariables(variables));
+        return missing;
+    }
+
+    /**
+     * <p>Renders the subject with the specified variable values.</p>
+     *
+     * @param variables the variable values by name
+     * @return the rendered subject
+     */
+    @NotNull String renderSubject(final @NotNull Map<String, String> variables) {
+        return subject.render(variables);
+    }
+
+    /**
+     * <p>Renders the Markdown body with the specified variable values.</p>
+     *
+     * @param variables the variable values by name
+     * @return the rendered Markdown body
+     */
+    @NotNull String renderBody(final @NotNull Map<String, String> variables) {
+        return body.render(variables);
+    }
+
+}
@@ -0,0 +1,422 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.mail.control;
+
+import app.komunumo.data.db.tables.records.MailOutboxRecord;
+import app.komunumo.domain.core.mail.entity.MailOutboxStatus;
+import app.komunumo.infra.config.AppConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static app.komunumo.data.db.tables.MailOutbox.MAIL_OUTBOX;
+
+/**
+ * <p>Persists outgoing mails in the {@code mail_outbox} table and sends them in the background,
+ * so a slow or unavailable mail server never blocks the caller.</p>
+ *
+ * <p>{@link #enqueue(String, String, boolean, String...)} takes part in the transaction of the
+ * caller: the mail is only sent if the transaction commits. The sender and reply-to addresses are
+ * stored with the mail, so it is sent unchanged by whichever node claims it. A pool of workers on virtual threads
+ * claims the mails one by one, sends them, and removes them from the outbox. If sending fails,
+ * the mail is retried with an exponential backoff, starting at {@link #INITIAL_BACKOFF} and
+ * limited to {@link #MAX_BACKOFF}. After {@link #MAX_ATTEMPTS} failed attempts, or if a recipient
+ * address is invalid, the mail is kept in the outbox with the status
+ * {@link MailOutboxStatus#FAILED}.</p>
+ *
+ * <p>Mails are delivered at least once: if a node stops while sending, the claimed mail is
+ * released after {@link #SENDING_TIMEOUT} and sent again by any node. Releasing these mails and
+ * refreshing the counts of the metrics is done by {@link #housekeeping()} once per node, so idle
+ * workers only look for due mails. On shutdown, the workers
+ * finish the mails they are sending; all other mails stay in the outbox for the next start.</p>
+ *
+ * <p>Every worker keeps its {@link SmtpConnection} to the mail server open between mails, so a
+ * burst of mails is sent without a new handshake and authentication for every mail.</p>
+ *
+ * <p>The number of pending and failed mails, the latency between enqueueing and sending, and the
+ * number of connections opened to the mail server are published as metrics with the prefix
+ * {@code komunumo.mail.outbox}.</p>
+ */
+@Service
+public class MailOutbox {
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(MailOutbox.class);
+
+    public static final int MAX_ATTEMPTS = 8;
+    public static final @NotNull Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+    public static final @NotNull Duration MAX_BACKOFF = Duration.ofHours(1);
+    public static final @NotNull Duration SENDING_TIMEOUT = Duration.ofMinutes(10);
+
+    private static final @NotNull Duration POLL_INTERVAL = Duration.ofSeconds(5);
+    private static final @NotNull Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+    private static final @NotNull String RECIPIENT_SEPARATOR = "\n";
+
+    private final @NotNull DSLContext dsl;
+    private final @NotNull JavaMailSender mailSender;
+    private final @NotNull String from;
+    private final @NotNull String replyTo;
+    private final int workers;
+
+    private final @NotNull ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("mail-outbox-", 1).factory());
+    private final @NotNull AtomicBoolean started = new AtomicBoolean(false);
+    private final @NotNull Object monitor = new Object();
+    private boolean signaled;
+    private boolean stopped;
+
+    private final @NotNull AtomicInteger pendingCount = new AtomicInteger();
+    private final @NotNull AtomicInteger failedCount = new AtomicInteger();
+    private final @NotNull Timer latency;
+    private final @NotNull Counter retries;
+    private final @NotNull Counter connections;
+
+    public MailOutbox(final @NotNull AppConfig appConfig,
+                      final @NotNull DSLContext dsl,
+                      final @NotNull JavaMailSender mailSender,
+                      final @NotNull MeterRegistry meterRegistry) {
+        this.dsl = dsl;
+        this.mailSender = mailSender;
+        this.from = appConfig.mail().from();
+        this.replyTo = appConfig.mail().replyTo();
+        this.workers = Math.max(1, appConfig.mail().outboxWorkers());
+
+        Gauge.builder("komunumo.mail.outbox.pending", pendingCount, AtomicInteger::get)
+                .description("Number of mails waiting to be sent")
+                .register(meterRegistry);
+        Gauge.builder("komunumo.mail.outbox.failed", failedCount, AtomicInteger::get)
+                .description("Number of mails which could not be sent and will not be retried")
+                .register(meterRegistry);
+        this.latency = Timer.builder("komunumo.mail.outbox.latency")
+                .description("Time between enqueueing and sending a mail")
+                .register(meterRegistry);
+        this.retries = Counter.builder("komunumo.mail.outbox.retries")
+                .description("Number of failed attempts to send a mail which will be retried")
+                .register(meterRegistry);
+        this.connections = Counter.builder("komunumo.mail.outbox.connections")
+                .description("Number of connections opened to the mail server")
+                .register(meterRegistry);
+    }
+
+    /**
+     * <p>Adds a mail to the outbox. If a transaction is active, the workers are notified after
+     * the transaction has been committed, otherwise right away.</p>
+     *
+     * @param subject the subject of the mail
+     * @param body the text of the mail
+     * @param html {@code true} if the text is HTML, {@code false} for plain text
+     * @param emailAddresses the addresses of the recipients
+     */
+    public void enqueue(final @NotNull String subject,
+                        final @NotNull String body,
+                        final boolean html,
+                        final @NotNull String... emailAddresses) {
+        final var now = now();
+        dsl.insertInto(MAIL_OUTBOX)
+                .set(MAIL_OUTBOX.ID, UUID.randomUUID())
+                .set(MAIL_OUTBOX.CREATED, now)
+                .set(MAIL_OUTBOX.UPDATED, now)
+                .set(MAIL_OUTBOX.SENDER, from)
+                .set(MAIL_OUTBOX.REPLY_TO, replyTo)
+                .set(MAIL_OUTBOX.RECIPIENTS, String.join(RECIPIENT_SEPARATOR, emailAddresses))
+                .set(MAIL_OUTBOX.SUBJECT, subject)
+                .set(MAIL_OUTBOX.BODY, body)
+                .set(MAIL_OUTBOX.HTML, html)
+                .set(MAIL_OUTBOX.STATUS, MailOutboxStatus.PENDING.name())
+                .set(MAIL_OUTBOX.NEXT_ATTEMPT, now)
+                .execute();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingCount.incrementAndGet();
+                    wakeUp();
+                }
+            });
+        } else {
+            pendingCount.incrementAndGet();
+            wakeUp();
+        }
+    }
+
+    /**
+     * <p>Starts the workers. Mails claimed by a node which stopped while sending them are
+     * released first. Calling this method again has no effect.</p>
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        housekeeping();
+        for (var worker = 0; worker < workers; worker++) {
+            executor.execute(this::work);
+        }
+        LOGGER.info("Mail outbox started with {} workers, {} mails pending.", workers, pendingCount.get());
+    }
+
+    /**
+     * <p>Stops the workers after they have finished the mails they are sending. Waits at most
+     * {@link #SHUTDOWN_TIMEOUT} and interrupts the workers afterward.</p>
+     */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (monitor) {
+            stopped = true;
+            monitor.notifyAll();
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Mail outbox workers did not stop within {}, interrupting them.", SHUTDOWN_TIMEOUT);
+                executor.shutdownNow();
+            }
+        } catch (final InterruptedException _) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * <p>Refreshes the number of pending and failed mails and releases mails which have been
+     * claimed by a node that did not finish sending them. Runs on a single scheduled thread, so
+     * the database is queried once per node instead of once per idle worker.</p>
+     */
+    @Scheduled(fixedDelay = 30, timeUnit = TimeUnit.SECONDS)
+    public void housekeeping() {
+        if (isStopped()) {
+            return;
+        }
+        try {
+            refreshCounts();
+            if (releaseStaleMails() > 0) {
+                wakeUp();
+            }
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Unable to clean up the mail outbox: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * <p>Calculates the delay before the next attempt to send a mail.</p>
+     *
+     * @param attempts the number of failed attempts so far, at least one
+     * @return the delay, doubled for every failed attempt
+     */
+    public static @NotNull Duration backoff(final int attempts) {
+        final var factor = 1L << Math.min(attempts - 1, 20);
+        final var delay = INITIAL_BACKOFF.multipliedBy(factor);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    void wakeUp() {
+        synchronized (monitor) {
+            signaled = true;
+            monitor.notifyAll();
+        }
+    }
+
+    private void work() {
+        try (var connection = new SmtpConnection(mailSender, connections::increment)) {
+            while (!isStopped()) {
+                try {
+                    final var mail = claimNextMail();
+                    if (mail.isPresent()) {
+                        send(mail.orElseThrow(), connection);
+                    } else {
+                        connection.closeIfIdle();
+                        awaitMail();
+                    }
+                } catch (final RuntimeException e) {
+                    LOGGER.warn("Unable to process the mail outbox: {}", e.getMessage());
+                    awaitMail();
+                }
+            }
+        }
+    }
+
+    private boolean isStopped() {
+        synchronized (monitor) {
+            return stopped;
+        }
+    }
+
+    private void awaitMail() {
+        synchronized (monitor) {
+            try {
+                if (!signaled && !stopped) {
+                    monitor.wait(POLL_INTERVAL.toMillis());
+                }
+            } catch (final InterruptedException _) {
+                stopped = true;
+                Thread.currentThread().interrupt();
+            }
+            signaled = false;
+        }
+    }
+
+    /**
+     * <p>Claims the pending mail which is due the longest with a single update, so every mail is
+     * claimed by exactly one worker, even if several nodes share the database.</p>
+     */
+    private @NotNull Optional<MailOutboxRecord> claimNextMail() {
+        final var now = now();
+        final var claimId = UUID.randomUUID();
+        final var claimed = dsl.update(MAIL_OUTBOX)
+                .set(MAIL_OUTBOX.STATUS, MailOutboxStatus.SENDING.name())
+                .set(MAIL_OUTBOX.CLAIM_ID, claimId)
+                .set(MAIL_OUTBOX.UPDATED, now)
+                .where(MAIL_OUTBOX.STATUS.eq(MailOutboxStatus.PENDING.name()))
+                .and(MAIL_OUTBOX.NEXT_ATTEMPT.le(now))
+                .orderBy(MAIL_OUTBOX.NEXT_ATTEMPT)
+                .limit(1)
+                .execute();
+        return claimed == 0
+                ? Optional.empty()
+                : dsl.selectFrom(MAIL_OUTBOX).where(MAIL_OUTBOX.CLAIM_ID.eq(claimId)).fetchOptional();
+    }
+
+    private void send(final @NotNull MailOutboxRecord mail, final @NotNull SmtpConnection connection) {
+        final var recipients = mail.getRecipients().split(RECIPIENT_SEPARATOR);
+        try {
+            final var mimeMessage = mailSender.createMimeMessage();
+            final var helper = new MimeMessageHelper(mimeMessage, false, StandardCharsets.UTF_8.name());
+            helper.setTo(recipients);
+            helper.setFrom(mail.getSender());
+            if (!mail.getReplyTo().isBlank()) {
+                helper.setReplyTo(mail.getReplyTo());
+            }
+            helper.setSubject(mail.getSubject());
+            helper.setText(mail.getBody(), mail.getHtml());
+            connection.send(mimeMessage);
+        } catch (final AddressException e) {
+            fail(mail, recipients, e);
+            return;
+        } catch (final MessagingException | MailException e) {
+            retryLater(mail, recipients, e);
+            return;
+        }
+
+        dsl.deleteFrom(MAIL_OUTBOX)
+                .where(MAIL_OUTBOX.ID.eq(mail.getId()))
+                .execute();
+        pendingCount.updateAndGet(count -> Math.max(0, count - 1));
+        latency.record(Duration.between(mail.getCreated(), now()));
+        LOGGER.info("Mail with subject '{}' successfully sent to {}",
+                mail.getSubject(), Arrays.toString(recipients));
+    }
+
+    private void retryLater(final @NotNull MailOutboxRecord mail,
+                            final @NotNull String @NotNull [] recipients,
+                            final @NotNull Exception exception) {
+        final var attempts = mail.getAttempts() + 1;
+        if (attempts >= MAX_ATTEMPTS) {
+            fail(mail, recipients, exception);
+            return;
+        }
+
+        final var delay = backoff(attempts);
+        final var now = now();
+        dsl.update(MAIL_OUTBOX)
+                .set(MAIL_OUTBOX.STATUS, MailOutboxStatus.PENDING.name())
+                .set(MAIL_OUTBOX.ATTEMPTS, attempts)
+                .set(MAIL_OUTBOX.NEXT_ATTEMPT, now.plus(delay))
+                .set(MAIL_OUTBOX.CLAIM_ID, (UUID) null)
+                .set(MAIL_OUTBOX.LAST_ERROR, exception.getMessage())
+                .set(MAIL_OUTBOX.UPDATED, now)
+                .where(MAIL_OUTBOX.ID.eq(mail.getId()))
+                .execute();
+        retries.increment();
+        LOGGER.warn("Unable to send mail with subject '{}' to {}, retrying in {}: {}",
+                mail.getSubject(), Arrays.toString(recipients), delay, exception.getMessage());
+    }
+
+    private void fail(final @NotNull MailOutboxRecord mail,
+                      final @NotNull String @NotNull [] recipients,
+                      final @NotNull Exception exception) {
+        dsl.update(MAIL_OUTBOX)
+                .set(MAIL_OUTBOX.STATUS, MailOutboxStatus.FAILED.name())
+                .set(MAIL_OUTBOX.ATTEMPTS, mail.getAttempts() + 1)
+                .set(MAIL_OUTBOX.CLAIM_ID, (UUID) null)
+                .set(MAIL_OUTBOX.LAST_ERROR, exception.getMessage())
+                .set(MAIL_OUTBOX.UPDATED, now())
+                .where(MAIL_OUTBOX.ID.eq(mail.getId()))
+                .execute();
+        pendingCount.updateAndGet(count -> Math.max(0, count - 1));
+        failedCount.incrementAndGet();
+        LOGGER.error("Unable to send mail with subject '{}' to {}, giving up after {} attempts: {}",
+                mail.getSubject(), Arrays.toString(recipients), mail.getAttempts() + 1, exception.getMessage());
+    }
+
+    /**
+     * <p>Releases mails which have been claimed by a node that did not finish sending them.</p>
+     *
+     * @return the number of released mails
+     */
+    private int releaseStaleMails() {
+        final var released = dsl.update(MAIL_OUTBOX)
+                .set(MAIL_OUTBOX.STATUS, MailOutboxStatus.PENDING.name())
+                .set(MAIL_OUTBOX.CLAIM_ID, (UUID) null)
+                .where(MAIL_OUTBOX.STATUS.eq(MailOutboxStatus.SENDING.name()))
+                .and(MAIL_OUTBOX.UPDATED.lt(now().minus(SENDING_TIMEOUT)))
+                .execute();
+        if (released > 0) {
+            LOGGER.warn("Released {} mails which were not sent within {}.", released, SENDING_TIMEOUT);
+        }
+        return released;
+    }
+
+    private void refreshCounts() {
+        pendingCount.set(dsl.fetchCount(MAIL_OUTBOX,
+                MAIL_OUTBOX.STATUS.in(MailOutboxStatus.PENDING.name(), MailOutboxStatus.SENDING.name())));
+        failedCount.set(dsl.fetchCount(MAIL_OUTBOX,
+                MAIL_OUTBOX.STATUS.eq(MailOutboxStatus.FAILED.name())));
+    }
+
+    private static @NotNull ZonedDateTime now() {
+        return ZonedDateTime.now(ZoneOffset.UTC);
+    }
+
+}
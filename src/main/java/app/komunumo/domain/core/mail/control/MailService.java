@@ -23,97 +23,156 @@ import app.komunumo.domain.core.mail.entity.MailTemplate;
 import app.komunumo.domain.core.mail.entity.MailTemplateId;
 import app.komunumo.infra.config.AppConfig;
 import app.komunumo.infra.ui.i18n.LocaleUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
+import org.jooq.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static app.komunumo.data.db.tables.MailTemplate.MAIL_TEMPLATE;
 import static app.komunumo.domain.core.config.entity.ConfigurationSetting.INSTANCE_NAME;
 import static app.komunumo.domain.core.config.entity.ConfigurationSetting.INSTANCE_URL;
 import static app.komunumo.domain.core.mail.entity.MailFormat.HTML;
 import static app.komunumo.domain.core.mail.entity.MailFormat.MARKDOWN;
+import static app.komunumo.infra.persistence.jooq.JooqConfiguration.LAZY_FETCH_SIZE;
 import static app.komunumo.util.MarkdownUtil.convertMarkdownToHtml;
-import static app.komunumo.util.TemplateUtil.replaceVariables;
 
 @Service
 public final class MailService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MailService.class);
 
-    private final @NotNull AppConfig appConfig;
     private final @NotNull ConfigurationService configurationService;
-    private final @NotNull JavaMailSender mailSender;
+    private final @NotNull MailOutbox mailOutbox;
     private final @NotNull DSLContext dsl;
+    private final @NotNull TokenBucket bulkRateLimit;
+
+    /**
+     * <p>Compiled mail templates keyed by template ID and language code; empty if the template
+     * does not exist.</p>
+     */
+    private final @NotNull Cache<@NotNull CacheKey, @NotNull Optional<CompiledMailTemplate>> cache = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .build();
 
     public MailService(final @NotNull AppConfig appConfig,
                        final @NotNull ConfigurationService configurationService,
-                       final @NotNull JavaMailSender mailSender,
+                       final @NotNull MailOutbox mailOutbox,
                        final @NotNull DSLContext dsl) {
-        this.appConfig = appConfig;
         this.configurationService = configurationService;
-        this.mailSender = mailSender;
+        this.mailOutbox = mailOutbox;
         this.dsl = dsl;
+        this.bulkRateLimit = new TokenBucket(appConfig.mail().bulkRate());
     }
 
+    /**
+     * <p>Renders the mail template and adds the mail to the {@link MailOutbox}, which sends it
+     * in the background. When called inside a transaction, the mail is only sent if the
+     * transaction commits.</p>
+     *
+     * @param mailTemplateId the template of the mail
+     * @param locale the language of the mail
+     * @param format the format of the mail body
+     * @param variables the values of the template variables, in addition to the instance name and URL
+     * @param emailAddresses the addresses of the recipients
+     * @return {@code true} if the mail was added to the outbox, {@code false} if the recipient
+     *         addresses are missing or invalid
+     */
     public boolean sendMail(final @NotNull MailTemplateId mailTemplateId,
                             final @NotNull Locale locale,
                             final @NotNull MailFormat format,
                             final @Nullable Map<String, String> variables,
                             final @NotNull String... emailAddresses) {
         final var instanceName = configurationService.getConfiguration(INSTANCE_NAME);
-        final var instanceUrl = configurationService.getConfiguration(INSTANCE_URL);
-        final HashMap<String, String> allVariables = new HashMap<>();
-        if (variables != null) {
-            allVariables.putAll(variables);
-        }
-        allVariables.put("instanceName", instanceName);
-        allVariables.put("instanceUrl", instanceUrl);
+        final var allVariables = withInstanceVariables(variables, instanceName);
 
-        final var mailTemplate = getMailTemplate(mailTemplateId, locale).orElseThrow();
-        final var subject = "[%s] %s".formatted(instanceName, replaceVariables(mailTemplate.subject(), allVariables));
-        final var markdown = replaceVariables(mailTemplate.markdown(), allVariables);
+        final var mailTemplate = getCompiledMailTemplate(mailTemplateId, locale).orElseThrow();
+        final var missingVariables = mailTemplate.getMissingVariables(allVariables);
+        if (!missingVariables.isEmpty()) {
+            LOGGER.warn("Mail template {} ({}) uses variables without a value: {}",
+                    mailTemplateId, LocaleUtil.getLanguageCode(locale), missingVariables);
+        }
+        final var subject = "[" + instanceName + "] " + mailTemplate.renderSubject(allVariables);
+        final var markdown = mailTemplate.renderBody(allVariables);
 
         try {
-            final var mimeMessage = mailSender.createMimeMessage();
-            final var helper = new MimeMessageHelper(mimeMessage, false, StandardCharsets.UTF_8.name());
-
-            helper.setTo(emailAddresses);
-            helper.setFrom(appConfig.mail().from());
-
-            final var replyTo = appConfig.mail().replyTo();
-            if (!replyTo.isBlank()) {
-                helper.setReplyTo(replyTo);
+            if (emailAddresses.length == 0) {
+                throw new AddressException("No recipient addresses");
+            }
+            for (final var emailAddress : emailAddresses) {
+                InternetAddress.parse(emailAddress);
             }
+        } catch (final AddressException e) {
+            LOGGER.error("Unable to send mail with subject '{}' to {}: {}",
+                    subject, emailAddresses, e.getMessage());
+            return false;
+        }
 
-            helper.setSubject(subject);
+        final var body = format == MARKDOWN
+                ? markdown
+                : convertMarkdownToHtml(markdown);
+        mailOutbox.enqueue(subject, body, format == HTML, emailAddresses);
+        return true;
+    }
 
-            final var body = format == MARKDOWN
-                    ? markdown
-                    : convertMarkdownToHtml(markdown);
-            helper.setText(body, format == HTML);
+    /**
+     * <p>Prepares a mail which is sent separately to many recipients, see {@link BulkMail}. The
+     * template is rendered once with the specified variables and the instance name and URL;
+     * the placeholders of all other variables are kept and filled in for every recipient.</p>
+     *
+     * @param mailTemplateId the ID of the mail template
+     * @param locale the language of the mail
+     * @param format the format of the mail
+     * @param variables the values of the template variables shared by all recipients
+     * @return the prepared mail
+     */
+    public @NotNull BulkMail prepareBulkMail(final @NotNull MailTemplateId mailTemplateId,
+                                             final @NotNull Locale locale,
+                                             final @NotNull MailFormat format,
+                                             final @Nullable Map<String, String> variables) {
+        final var instanceName = configurationService.getConfiguration(INSTANCE_NAME);
+        final var allVariables = withInstanceVariables(variables, instanceName);
 
-            mailSender.send(mimeMessage);
+        final var mailTemplate = getCompiledMailTemplate(mailTemplateId, locale).orElseThrow();
+        return new BulkMail(mailOutbox, bulkRateLimit, mailTemplate, "[" + instanceName + "] ",
+                allVariables, format == HTML);
+    }
 
-            LOGGER.info("Mail with subject '{}' successfully sent to {}",
-                    subject, emailAddresses);
-            return true;
-        } catch (final Exception e) {
-            LOGGER.error("Unable to send mail with subject '{}' to {}: {}",
-                    subject, emailAddresses, e.getMessage());
-            return false;
+    private @NotNull Map<String, String> withInstanceVariables(final @Nullable Map<String, String> variables,
+                                                               final @NotNull String instanceName) {
+        final HashMap<String, String> allVariables = new HashMap<>();
+        if (variables != null) {
+            allVariables.putAll(variables);
         }
+        allVariables.put("instanceName", instanceName);
+        allVariables.put("instanceUrl", configurationService.getConfiguration(INSTANCE_URL));
+        return allVariables;
+    }
+
+    private @NotNull Optional<CompiledMailTemplate> getCompiledMailTemplate(final @NotNull MailTemplateId mailTemplateId,
+                                                                            final @NotNull Locale locale) {
+        final var cacheKey = new CacheKey(mailTemplateId, LocaleUtil.getLanguageCode(locale));
+        return cache.get(cacheKey, _ -> getMailTemplate(mailTemplateId, locale).map(CompiledMailTemplate::compile));
+    }
+
+    /**
+     * <p>Clears all cached mail templates.</p>
+     */
+    public void clearCache() {
+        cache.invalidateAll();
     }
 
     public @NotNull Optional<MailTemplate> getMailTemplate(final @NotNull MailTemplateId mailTemplateId,
@@ -137,9 +196,29 @@ public final class MailService {
         mailTemplateRecord.setSubject(mailTemplate.subject());
         mailTemplateRecord.setMarkdown(mailTemplate.markdown());
         mailTemplateRecord.store();
+        clearCache();
         return mailTemplateRecord.into(MailTemplate.class);
     }
 
+    /**
+     * <p>Stores multiple mail templates in one transaction using a single batch of upserts.</p>
+     *
+     * @param mailTemplates the mail templates to store; must not be empty
+     */
+    public void storeMailTemplates(final @NotNull List<MailTemplate> mailTemplates) {
+        dsl.transaction(_ -> dsl.batch(mailTemplates.stream()
+                .<Query>map(mailTemplate -> dsl.insertInto(MAIL_TEMPLATE)
+                        .set(MAIL_TEMPLATE.ID, mailTemplate.id().name())
+                        .set(MAIL_TEMPLATE.LANGUAGE, LocaleUtil.getLanguageCode(mailTemplate.language()))
+                        .set(MAIL_TEMPLATE.SUBJECT, mailTemplate.subject())
+                        .set(MAIL_TEMPLATE.MARKDOWN, mailTemplate.markdown())
+                        .onDuplicateKeyUpdate()
+                        .set(MAIL_TEMPLATE.SUBJECT, mailTemplate.subject())
+                        .set(MAIL_TEMPLATE.MARKDOWN, mailTemplate.markdown()))
+                .toList()).execute());
+        clearCache();
+    }
+
     /**
      * <p>Counts the total number of mail templates.</p>
      *
@@ -154,21 +233,29 @@ public final class MailService {
     }
 
     /**
-     * <p>Returns all mail templates stored in the database.</p>
-     *
-     * <p>This method retrieves all mail template entries including all language variants.
-     * It is primarily used for exporting the instance mail templates.</p>
+     * <p>Passes all mail templates to the specified action one by one. The mail templates are read with a
+     * database cursor, so they are never held in memory all at once.</p>
      *
-     * @return a list of all mail templates
+     * @param action the action to perform for every mail template
      */
-    public @NotNull List<@NotNull MailTemplate> getAllMailTemplates() {
-        return dsl.selectFrom(MAIL_TEMPLATE)
-                .fetch()
-                .map(record -> new MailTemplate(
-                        MailTemplateId.valueOf(record.get(MAIL_TEMPLATE.ID)),
-                        Locale.forLanguageTag(record.get(MAIL_TEMPLATE.LANGUAGE)),
-                        record.get(MAIL_TEMPLATE.SUBJECT),
-                        record.get(MAIL_TEMPLATE.MARKDOWN)
-                ));
+    public void forEachMailTemplate(final @NotNull Consumer<MailTemplate> action) {
+        try (var cursor = dsl.selectFrom(MAIL_TEMPLATE)
+                .fetchSize(LAZY_FETCH_SIZE)
+                .fetchLazy()) {
+            cursor.forEach(record -> action.accept(new MailTemplate(
+                    MailTemplateId.valueOf(record.get(MAIL_TEMPLATE.ID)),
+                    Locale.forLanguageTag(record.get(MAIL_TEMPLATE.LANGUAGE)),
+                    record.get(MAIL_TEMPLATE.SUBJECT),
+                    record.get(MAIL_TEMPLATE.MARKDOWN))));
+        }
     }
+
+    /**
+     * <p>Cache key for a compiled mail template.</p>
+     *
+     * @param mailTemplateId the ID of the mail template
+     * @param language the language code of the mail template
+     */
+    private record CacheKey(@NotNull MailTemplateId mailTemplateId, @NotNull String language) { }
+
 }
@@ -0,0 +1,221 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.mail.control;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>A connection to the mail server which is kept open to send many mails, so the handshake,
+ * TLS negotiation and authentication are done once instead of for every mail. Every worker of the
+ * {@link MailOutbox} owns one connection; it is not thread-safe.</p>
+ *
+ * <p>The connection is closed after {@link #MAX_MESSAGES} mails, because many mail servers
+ * limit the number of mails per connection, and when it was not used for {@link #IDLE_TIMEOUT}.
+ * A connection which was not used for {@link #VALIDATION_INTERVAL} is checked before it is used
+ * again. If sending over a reused connection fails, the mail is sent once more over a new
+ * connection, because the mail server may have closed the connection in the meantime.</p>
+ *
+ * <p>If the mail sender does not expose its session, every mail is sent with
+ * {@link JavaMailSender#send(MimeMessage)}.</p>
+ */
+final class SmtpConnection implements AutoCloseable {
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(SmtpConnection.class);
+
+    static final int MAX_MESSAGES = 100;
+    static final @NotNull Duration IDLE_TIMEOUT = Duration.ofSeconds(30);
+    static final @NotNull Duration VALIDATION_INTERVAL = Duration.ofSeconds(5);
+
+    private static final @NotNull String HEADER_MESSAGE_ID = "Message-ID";
+
+    private final @NotNull JavaMailSender mailSender;
+    private final @NotNull Runnable onConnect;
+    private final @NotNull LongSupplier nanoTime;
+
+    private @Nullable Transport transport;
+    private int messageCount;
+    private long lastUsed;
+
+    /**
+     * <p>Creates a connection which is opened when the first mail is sent.</p>
+     *
+     * @param mailSender the configured mail sender
+     * @param onConnect called whenever a new connection to the mail server has been opened
+     */
+    SmtpConnection(final @NotNull JavaMailSender mailSender, final @NotNull Runnable onConnect) {
+        this(mailSender, onConnect, System::nanoTime);
+    }
+
+    SmtpConnection(final @NotNull JavaMailSender mailSender,
+                   final @NotNull Runnable onConnect,
+                   final @NotNull LongSupplier nanoTime) {
+        this.mailSender = mailSender;
+        this.onConnect = onConnect;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * <p>Sends a mail to all of its recipients, opening a connection if necessary.</p>
+     *
+     * @param mimeMessage the mail to send
+     * @throws MessagingException if the mail could not be sent
+     */
+    void send(final @NotNull MimeMessage mimeMessage) throws MessagingException {
+        if (!(mailSender instanceof JavaMailSenderImpl)) {
+            mailSender.send(mimeMessage);
+            return;
+        }
+
+        prepare(mimeMessage);
+        final var reused = transport != null;
+        try {
+            sendMessage(mimeMessage);
+        } catch (final SendFailedException e) {
+            // the mail server rejected the mail, the connection can still be used
+            throw e;
+        } catch (final MessagingException e) {
+            close();
+            if (!reused) {
+                throw e;
+            }
+            LOGGER.debug("Reused connection to the mail server failed, sending over a new one: {}", e.getMessage());
+            try {
+                sendMessage(mimeMessage);
+            } catch (final MessagingException retryException) {
+                close();
+                throw retryException;
+            }
+        }
+
+        lastUsed = nanoTime.getAsLong();
+        if (++messageCount >= MAX_MESSAGES) {
+            close();
+        }
+    }
+
+    /**
+     * <p>Closes the connection if it was not used for {@link #IDLE_TIMEOUT}.</p>
+     */
+    void closeIfIdle() {
+        if (transport != null && nanoTime.getAsLong() - lastUsed >= IDLE_TIMEOUT.toNanos()) {
+            close();
+        }
+    }
+
+    /**
+     * <p>Returns whether a connection to the mail server is open, without checking it.</p>
+     *
+     * @return {@code true} if a connection is open
+     */
+    boolean isOpen() {
+        return transport != null;
+    }
+
+    /**
+     * <p>Closes the connection to the mail server, if one is open.</p>
+     */
+    @Override
+    public void close() {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (final MessagingException e) {
+                LOGGER.debug("Unable to close the connection to the mail server: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+
+    private void sendMessage(final @NotNull MimeMessage mimeMessage) throws MessagingException {
+        final Address[] addresses = mimeMessage.getAllRecipients();
+        connection().sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+    }
+
+    private @NotNull Transport connection() throws MessagingException {
+        if (transport != null
+                && nanoTime.getAsLong() - lastUsed >= VALIDATION_INTERVAL.toNanos()
+                && !transport.isConnected()) {
+            close();
+        }
+        if (transport == null) {
+            transport = connect((JavaMailSenderImpl) mailSender);
+            messageCount = 0;
+            lastUsed = nanoTime.getAsLong();
+            onConnect.run();
+        }
+        return transport;
+    }
+
+    /**
+     * <p>Opens a connection the same way {@link JavaMailSenderImpl} does for every call of
+     * {@code send}.</p>
+     */
+    private static @NotNull Transport connect(final @NotNull JavaMailSenderImpl mailSender)
+            throws MessagingException {
+        var username = mailSender.getUsername();
+        var password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+
+        final var session = mailSender.getSession();
+        var protocol = mailSender.getProtocol();
+        if (protocol == null) {
+            protocol = session.getProperty("mail.transport.protocol");
+            if (protocol == null) {
+                protocol = JavaMailSenderImpl.DEFAULT_PROTOCOL;
+            }
+        }
+        final var transport = session.getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        return transport;
+    }
+
+    /**
+     * <p>Sets the sent date and finalizes the headers like {@link JavaMailSenderImpl} does,
+     * keeping a message ID which has been set explicitly.</p>
+     */
+    private static void prepare(final @NotNull MimeMessage mimeMessage) throws MessagingException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        final var messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            mimeMessage.setHeader(HEADER_MESSAGE_ID, messageId);
+        }
+    }
+
+}
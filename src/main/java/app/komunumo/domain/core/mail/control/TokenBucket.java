@@ -0,0 +1,90 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.mail.control;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>A token bucket limiting the rate of an operation. The bucket is refilled continuously at the
+ * configured rate and holds at most the tokens for one second, so short bursts are allowed
+ * while the average rate never exceeds the limit.</p>
+ *
+ * <p>The bucket is shared by all threads; every call of {@link #acquire()} takes one token.</p>
+ */
+final class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final @NotNull LongSupplier nanoTime;
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * <p>Creates a full token bucket.</p>
+     *
+     * @param tokensPerSecond the number of tokens added per second, at least one
+     */
+    TokenBucket(final int tokensPerSecond) {
+        this(tokensPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(final int tokensPerSecond, final @NotNull LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.capacity = Math.max(1, tokensPerSecond);
+        this.tokensPerNano = capacity / NANOS_PER_SECOND;
+        this.tokens = capacity;
+        this.lastRefill = nanoTime.getAsLong();
+    }
+
+    /**
+     * <p>Takes one token, waiting until one is available.</p>
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    void acquire() throws InterruptedException {
+        var waitNanos = tryAcquire();
+        while (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            waitNanos = tryAcquire();
+        }
+    }
+
+    /**
+     * <p>Takes one token if one is available.</p>
+     *
+     * @return zero if a token was taken, otherwise the time in nanoseconds until the next token
+     *         is available
+     */
+    synchronized long tryAcquire() {
+        final var now = nanoTime.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+
+}
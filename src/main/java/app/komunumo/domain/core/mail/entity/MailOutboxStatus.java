@@ -0,0 +1,41 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.mail.entity;
+
+/**
+ * <p>The status of a mail in the outbox. Mails are removed from the outbox as soon as they
+ * have been sent.</p>
+ */
+public enum MailOutboxStatus {
+
+    /**
+     * <p>The mail waits to be sent, either for the first time or for a retry.</p>
+     */
+    PENDING,
+
+    /**
+     * <p>The mail has been claimed by a worker and is being sent.</p>
+     */
+    SENDING,
+
+    /**
+     * <p>Sending the mail failed permanently and will not be retried.</p>
+     */
+    FAILED
+
+}
@@ -19,11 +19,15 @@ package app.komunumo.domain.core.mail.entity;
 
 public enum MailTemplateId {
     ACCOUNT_REGISTRATION_SUCCESS,
+    COMMUNITY_ANNOUNCEMENT,
     COMMUNITY_JOIN_SUCCESS_MEMBER,
     COMMUNITY_JOIN_SUCCESS_OWNER,
     CONFIRMATION_PROCESS,
+    EVENT_ANNOUNCEMENT,
+    EVENT_REGISTRATION_DIGEST,
     EVENT_REGISTRATION_NOTIFY_MANAGERS,
     EVENT_REGISTRATION_SUCCESS,
+    EVENT_REMINDER,
     EVENT_UNREGISTRATION_SUCCESS,
     LOGIN_CONFIRMATION_MAIL,
     TEST
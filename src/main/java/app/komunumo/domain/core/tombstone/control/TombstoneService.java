@@ -0,0 +1,193 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.tombstone.control;
+
+import app.komunumo.domain.core.config.control.ConfigurationService;
+import app.komunumo.domain.core.config.entity.ConfigurationSetting;
+import app.komunumo.domain.core.tombstone.entity.TombstoneDto;
+import app.komunumo.domain.core.tombstone.entity.TombstoneType;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+import org.jooq.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static app.komunumo.data.db.tables.Community.COMMUNITY;
+import static app.komunumo.data.db.tables.Event.EVENT;
+import static app.komunumo.data.db.tables.GlobalPage.GLOBAL_PAGE;
+import static app.komunumo.data.db.tables.Member.MEMBER;
+import static app.komunumo.data.db.tables.Participant.PARTICIPANT;
+import static app.komunumo.data.db.tables.Tombstone.TOMBSTONE;
+import static app.komunumo.data.db.tables.User.USER;
+import static app.komunumo.domain.core.config.entity.ConfigurationSetting.TOMBSTONE_RETENTION_DAYS;
+import static app.komunumo.infra.persistence.jooq.JooqConfiguration.LAZY_FETCH_SIZE;
+
+/**
+ * <p>Service for the tombstones of deleted entities.</p>
+ *
+ * <p>The tombstones are written by database triggers whenever a user, community, event, global
+ * page, membership, or participation is deleted, so every way of deleting data is covered. They
+ * are exported with incremental exports and applied by the importer to delete the same entities
+ * from an instance a previous export has been imported into.</p>
+ *
+ * <p>Tombstones older than the number of days configured with
+ * {@link ConfigurationSetting#TOMBSTONE_RETENTION_DAYS} are pruned once a day. An incremental
+ * export reaching further back than that no longer contains all deletions.</p>
+ */
+@Service
+public class TombstoneService {
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(TombstoneService.class);
+
+    private static final @NotNull String KEY_SEPARATOR = "/";
+
+    private final @NotNull DSLContext dsl;
+    private final @NotNull ConfigurationService configurationService;
+
+    public TombstoneService(final @NotNull DSLContext dsl,
+                            final @NotNull ConfigurationService configurationService) {
+        super();
+        this.dsl = dsl;
+        this.configurationService = configurationService;
+    }
+
+    /**
+     * <p>Passes all tombstones of entities deleted since the specified time to the specified
+     * action one by one, in the order in which they must be applied. The tombstones are read
+     * with a database cursor, so they are never held in memory all at once.</p>
+     *
+     * @param deletedSince the time from which on deleted entities are included
+     * @param action the action to perform for every tombstone
+     */
+    public void forEachTombstone(final @NotNull ZonedDateTime deletedSince,
+                                 final @NotNull Consumer<TombstoneDto> action) {
+        final var typeOrder = Arrays.stream(TombstoneType.values()).map(Enum::name).toList();
+        try (var cursor = dsl.selectFrom(TOMBSTONE)
+                .where(TOMBSTONE.DELETED.ge(deletedSince))
+                .orderBy(TOMBSTONE.TYPE.sortAsc(typeOrder), TOMBSTONE.DELETED)
+                .fetchSize(LAZY_FETCH_SIZE)
+                .fetchLazy()) {
+            cursor.forEach(record -> action.accept(new TombstoneDto(
+                    TombstoneType.valueOf(record.getType()), record.getEntityKey(), record.getDeleted())));
+        }
+    }
+
+    /**
+     * <p>Deletes the entity recorded by the specified tombstone, if it exists.</p>
+     *
+     * @param tombstone the tombstone to apply
+     * @return {@code true} if the entity was deleted, {@code false} if it did not exist
+     */
+    public boolean applyTombstone(final @NotNull TombstoneDto tombstone) {
+        return createDeleteQuery(tombstone).execute() > 0;
+    }
+
+    /**
+     * <p>Deletes the entities recorded by the specified tombstones in one transaction using a
+     * single batch of delete statements.</p>
+     *
+     * @param tombstones the tombstones to apply; must not be empty
+     */
+    public void applyTombstones(final @NotNull List<TombstoneDto> tombstones) {
+        dsl.transaction(_ -> dsl.batch(tombstones.stream()
+                .map(this::createDeleteQuery)
+                .toList()).execute());
+    }
+
+    /**
+     * <p>Deletes all tombstones older than the configured retention period. Does nothing if the
+     * retention period is {@code 0}.</p>
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void pruneTombstones() {
+        final var days = configurationService.getConfiguration(TOMBSTONE_RETENTION_DAYS, Integer.class);
+        if (days <= 0) {
+            return;
+        }
+        final var pruned = deleteTombstonesDeletedBefore(ZonedDateTime.now(ZoneOffset.UTC).minusDays(days));
+        LOGGER.info("Pruned {} tombstones older than {} days.", pruned, days);
+    }
+
+    /**
+     * <p>Deletes all tombstones of entities deleted before the specified time.</p>
+     *
+     * @param deletedBefore the time before which tombstones are deleted
+     * @return the number of deleted tombstones
+     */
+    public int deleteTombstonesDeletedBefore(final @NotNull ZonedDateTime deletedBefore) {
+        return dsl.deleteFrom(TOMBSTONE)
+                .where(TOMBSTONE.DELETED.lt(deletedBefore))
+                .execute();
+    }
+
+    /**
+     * <p>Deletes all tombstones.</p>
+     *
+     * @return the number of deleted tombstones
+     */
+    public int deleteAllTombstones() {
+        return dsl.deleteFrom(TOMBSTONE).execute();
+    }
+
+    private @NotNull Query createDeleteQuery(final @NotNull TombstoneDto tombstone) {
+        final var key = tombstone.key();
+        return switch (tombstone.type()) {
+            case USER -> dsl.delete(USER)
+                    .where(USER.ID.eq(UUID.fromString(key)));
+            case COMMUNITY -> dsl.delete(COMMUNITY)
+                    .where(COMMUNITY.ID.eq(UUID.fromString(key)));
+            case EVENT -> dsl.delete(EVENT)
+                    .where(EVENT.ID.eq(UUID.fromString(key)));
+            case GLOBAL_PAGE -> dsl.delete(GLOBAL_PAGE)
+                    .where(GLOBAL_PAGE.SLOT.eq(firstPart(key)))
+                    .and(GLOBAL_PAGE.LANGUAGE.eq(secondPart(key)));
+            case MEMBER -> dsl.delete(MEMBER)
+                    .where(MEMBER.COMMUNITY_ID.eq(UUID.fromString(firstPart(key))))
+                    .and(MEMBER.USER_ID.eq(UUID.fromString(secondPart(key))));
+            case PARTICIPANT -> dsl.delete(PARTICIPANT)
+                    .where(PARTICIPANT.EVENT_ID.eq(UUID.fromString(firstPart(key))))
+                    .and(PARTICIPANT.USER_ID.eq(UUID.fromString(secondPart(key))));
+        };
+    }
+
+    private static @NotNull String firstPart(final @NotNull String key) {
+        return key.substring(0, separatorIndex(key));
+    }
+
+    private static @NotNull String secondPart(final @NotNull String key) {
+        return key.substring(separatorIndex(key) + 1);
+    }
+
+    private static int separatorIndex(final @NotNull String key) {
+        final var index = key.lastIndexOf(KEY_SEPARATOR);
+        if (index < 0) {
+            throw new IllegalArgumentException("Invalid tombstone key: " + key);
+        }
+        return index;
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.tombstone.entity;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.ZonedDateTime;
+
+/**
+ * <p>A record of a deleted entity, used to apply deletions with an incremental import.</p>
+ *
+ * <p>The key identifies the deleted entity: the ID for users, communities, and events, the
+ * slot and language for global pages, the community and user ID for members, and the event
+ * and user ID for participants, each separated by a slash.</p>
+ *
+ * @param type the type of the deleted entity
+ * @param key the key of the deleted entity
+ * @param deleted the time the entity was deleted
+ */
+public record TombstoneDto(
+        @NotNull TombstoneType type,
+        @NotNull String key,
+        @NotNull ZonedDateTime deleted) { }
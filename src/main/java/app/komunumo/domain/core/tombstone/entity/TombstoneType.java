@@ -0,0 +1,33 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.tombstone.entity;
+
+/**
+ * <p>The types of deleted entities recorded as tombstones.</p>
+ *
+ * <p>The types are declared in the order in which tombstones must be applied, so dependent
+ * entities are deleted before the entities they reference.</p>
+ */
+public enum TombstoneType {
+    PARTICIPANT,
+    MEMBER,
+    EVENT,
+    COMMUNITY,
+    USER,
+    GLOBAL_PAGE
+}
@@ -181,7 +181,7 @@ public final class CreateEventView extends AbstractView implements AfterNavigati
         add(titleField);
 
         descriptionField.addClassName("description-field");
-        descriptionField.setValueChangeMode(ValueChangeMode.EAGER);
+        descriptionField.setValueChangeMode(ValueChangeMode.LAZY);
         descriptionField.setLabel(getTranslation("event.boundary.CreateEventView.label.description"));
         descriptionField.setWidthFull();
         add(descriptionField);
@@ -17,12 +17,15 @@
  */
 package app.komunumo.domain.event.boundary;
 
+import app.komunumo.domain.announcement.boundary.AnnouncementDialog;
+import app.komunumo.domain.announcement.control.AnnouncementService;
 import app.komunumo.domain.core.config.control.ConfigurationService;
 import app.komunumo.domain.event.control.EventService;
 import app.komunumo.domain.event.entity.EventWithImageDto;
 import app.komunumo.domain.participant.control.ParticipantService;
 import app.komunumo.domain.user.control.LoginService;
 import app.komunumo.infra.ui.vaadin.components.KomunumoMessageBox;
+import app.komunumo.infra.ui.vaadin.components.RenderedMarkdown;
 import app.komunumo.infra.ui.vaadin.control.LinkUtil;
 import app.komunumo.infra.ui.vaadin.layout.AbstractView;
 import app.komunumo.infra.ui.vaadin.layout.WebsiteLayout;
@@ -37,7 +40,6 @@ import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.html.Paragraph;
-import com.vaadin.flow.component.markdown.Markdown;
 import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.NotFoundException;
@@ -51,6 +53,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.ZonedDateTime;
 import java.util.Locale;
+import java.util.Map;
 
 @Route(value = "events/:eventId", layout = WebsiteLayout.class)
 @AnonymousAllowed
@@ -62,17 +65,20 @@ public final class EventDetailView extends AbstractView implements BeforeEnterOb
     private final @NotNull EventService eventService;
     private final @NotNull ParticipantService participantService;
     private final @NotNull LoginService loginService;
+    private final @NotNull AnnouncementService announcementService;
 
     private @NotNull String pageTitle = "";
 
     public EventDetailView(final @NotNull ConfigurationService configurationService,
                            final @NotNull EventService eventService,
                            final @NotNull ParticipantService participantService,
-                           final @NotNull LoginService loginService) {
+                           final @NotNull LoginService loginService,
+                           final @NotNull AnnouncementService announcementService) {
         super(configurationService);
         this.eventService = eventService;
         this.participantService = participantService;
         this.loginService = loginService;
+        this.announcementService = announcementService;
         addClassName("event-detail-view");
         add(pageContent);
     }
@@ -121,13 +127,15 @@ public final class EventDetailView extends AbstractView implements BeforeEnterOb
         addDateTimeText(event.begin(), locale, "event.boundary.EventDetailView.beginDate", "event-date-begin");
         addDateTimeText(event.end(), locale, "event.boundary.EventDetailView.endDate", "event-date-end");
 
-        final var description = new Markdown(event.description());
+        final var description = new RenderedMarkdown(event.description());
         description.addClassName("event-description");
         pageContent.add(description);
 
         final var participantCount = this.participantService.getParticipantCount(event);
         final var loggedInUser = loginService.getLoggedInUser();
-        if (loggedInUser.isPresent() && eventService.hasManagementPermission(event, loggedInUser.orElseThrow())) {
+        final var isManager = loggedInUser.isPresent()
+                && eventService.hasManagementPermission(event, loggedInUser.orElseThrow());
+        if (isManager) {
             final var participantLink = new Anchor(LinkUtil.getLink(event) + "/participants",
                     getTranslation("event.boundary.EventDetailView.participantCount", participantCount));
             final var participantParagraph = new Paragraph(participantLink);
@@ -141,6 +149,18 @@ public final class EventDetailView extends AbstractView implements BeforeEnterOb
         }
 
         createRegistrationButtons(eventWithImage, locale);
+
+        if (isManager) {
+            final var announcementButton = new Button(
+                    getTranslation("event.boundary.EventDetailView.announcementButton"),
+                    _ -> new AnnouncementDialog(announcementService,
+                            getTranslation("event.boundary.EventDetailView.announcementRecipients",
+                                    Map.of("count", participantCount)),
+                            (subject, message) -> announcementService.announceToParticipants(
+                                    event, subject, message, locale)).open());
+            announcementButton.addClassName("announcement-button");
+            pageContent.add(announcementButton);
+        }
     }
 
     private void createRegistrationButtons(final @NotNull EventWithImageDto eventWithImage, final @NonNull Locale locale) {
@@ -0,0 +1,64 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.event.control;
+
+import app.komunumo.domain.event.entity.EventDto;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+
+import static app.komunumo.data.db.tables.Event.EVENT;
+
+/**
+ * <p>Maps records containing the columns of the {@code event} table to {@link EventDto} instances.</p>
+ *
+ * <p>Unlike {@code into(EventDto.class)}, which uses jOOQ's reflective {@code DefaultRecordMapper}, this mapper reads
+ * the typed fields directly and calls the record constructor. The values are already converted by the column
+ * converters, so no additional conversion, reflection or intermediate record is needed. This also works for records
+ * of joins, as long as they contain the {@code event} columns.</p>
+ */
+public final class EventRecordMapper implements RecordMapper<Record, EventDto> {
+
+    /**
+     * <p>The shared, stateless instance of this mapper.</p>
+     */
+    public static final @NotNull EventRecordMapper EVENT_MAPPER = new EventRecordMapper();
+
+    private EventRecordMapper() {
+        super();
+    }
+
+    @Override
+    public @NotNull EventDto map(final @NotNull Record record) {
+        return new EventDto(
+                record.get(EVENT.ID),
+                record.get(EVENT.COMMUNITY_ID),
+                record.get(EVENT.CREATED),
+                record.get(EVENT.UPDATED),
+                record.get(EVENT.TITLE),
+                record.get(EVENT.DESCRIPTION),
+                record.get(EVENT.LOCATION),
+                record.get(EVENT.BEGIN),
+                record.get(EVENT.END),
+                record.get(EVENT.IMAGE_ID),
+                Boolean.TRUE.equals(record.get(EVENT.ANONYMOUS_PARTICIPATION_ALLOWED, Boolean.class)),
+                record.get(EVENT.VISIBILITY),
+                record.get(EVENT.STATUS));
+    }
+
+}
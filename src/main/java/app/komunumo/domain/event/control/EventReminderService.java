@@ -0,0 +1,336 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.event.control;
+
+import app.komunumo.domain.core.config.control.ConfigurationService;
+import app.komunumo.domain.core.mail.control.BulkMail;
+import app.komunumo.domain.core.mail.control.MailService;
+import app.komunumo.domain.core.mail.entity.MailFormat;
+import app.komunumo.domain.core.mail.entity.MailTemplateId;
+import app.komunumo.domain.event.entity.EventDto;
+import app.komunumo.domain.event.entity.EventReminderStatus;
+import app.komunumo.domain.event.entity.EventStatus;
+import app.komunumo.infra.ui.vaadin.control.LinkUtil;
+import app.komunumo.util.DateTimeUtil;
+import jakarta.annotation.PreDestroy;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.DSLContext;
+import org.jooq.Record2;
+import org.jooq.Record3;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static app.komunumo.data.db.tables.Event.EVENT;
+import static app.komunumo.data.db.tables.EventReminder.EVENT_REMINDER;
+import static app.komunumo.data.db.tables.Participant.PARTICIPANT;
+import static app.komunumo.data.db.tables.User.USER;
+import static app.komunumo.domain.core.config.entity.ConfigurationSetting.EVENT_REMINDER_HOURS;
+import static org.jooq.impl.DSL.noCondition;
+
+/**
+ * <p>Reminds the participants of published events by mail, the configured number of hours
+ * before the events begin.</p>
+ *
+ * <p>Due events are found with a range scan over the begin of the events. The progress of every
+ * reminder is stored in the {@code event_reminder} table: an event is claimed by inserting its
+ * row, and the participants are read page by page in the order of their user ID. Every page is
+ * added to the outbox in one transaction together with the ID of its last participant, so no
+ * participant is reminded twice, even if several nodes share the database or a node is
+ * restarted while sending. Reminders left unfinished by a stopped node are continued after
+ * {@link #CLAIM_TIMEOUT}. If an event is moved to a later time, its participants are reminded
+ * again.</p>
+ *
+ * <p>All reminders share the rate limit of bulk mails, so many events beginning in the same
+ * hour are spread over time instead of flooding the database and the mail server.</p>
+ *
+ * <p>Neither users nor the instance have a stored language, so the reminders are written in
+ * English and the begin is shown in the time zone of the server.</p>
+ */
+@Service
+public class EventReminderService {
+
+    /**
+     * <p>Time after which a reminder that has not made progress is taken over by another run,
+     * because the node sending it was stopped.</p>
+     */
+    public static final @NotNull Duration CLAIM_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(EventReminderService.class);
+
+    private static final int EVENT_PAGE_SIZE = 100;
+    private static final int RECIPIENT_PAGE_SIZE = 100;
+
+    private final @NotNull DSLContext dsl;
+    private final @NotNull MailService mailService;
+    private final @NotNull ConfigurationService configurationService;
+    private final @NotNull EventService eventService;
+
+    private final @NotNull ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("event-reminder-", 1).factory());
+    private final @NotNull AtomicBoolean running = new AtomicBoolean();
+
+    public EventReminderService(final @NotNull DSLContext dsl,
+                                final @NotNull MailService mailService,
+                                final @NotNull ConfigurationService configurationService,
+                                final @NotNull EventService eventService) {
+        this.dsl = dsl;
+        this.mailService = mailService;
+        this.configurationService = configurationService;
+        this.eventService = eventService;
+    }
+
+    /**
+     * <p>Starts sending the due reminders in the background, unless the previous run is still
+     * busy.</p>
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void scheduleReminders() {
+        if (!executor.isShutdown() && running.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    sendDueReminders();
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * <p>Reminds the participants of all published events beginning within the configured number
+     * of hours whose reminders have not been sent yet.</p>
+     */
+    public void sendDueReminders() {
+        final var hours = configurationService.getConfiguration(EVENT_REMINDER_HOURS, Integer.class);
+        if (hours <= 0) {
+            return;
+        }
+
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        final var until = now.plusHours(hours);
+        ZonedDateTime lastBegin = null;
+        UUID lastEventId = null;
+        List<Record2<UUID, ZonedDateTime>> events;
+        do {
+            events = selectDueEvents(now, until, lastBegin, lastEventId);
+            for (final var event : events) {
+                try {
+                    remind(event.value1(), event.value2());
+                } catch (final InterruptedException _) {
+                    LOGGER.warn("Reminder of event {} was interrupted and will be resumed later.", event.value1());
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (final RuntimeException e) {
+                    LOGGER.warn("Unable to remind the participants of event {}: {}", event.value1(), e.getMessage());
+                }
+                lastBegin = event.value2();
+                lastEventId = event.value1();
+            }
+        } while (events.size() == EVENT_PAGE_SIZE);
+    }
+
+    /**
+     * <p>Stops sending. Reminders running at that moment are continued after
+     * {@link #CLAIM_TIMEOUT}.</p>
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private @NotNull List<Record2<UUID, ZonedDateTime>> selectDueEvents(final @NotNull ZonedDateTime now,
+                                                                       final @NotNull ZonedDateTime until,
+                                                                       final @Nullable ZonedDateTime afterBegin,
+                                                                       final @Nullable UUID afterEventId) {
+        return dsl.select(EVENT.ID, EVENT.BEGIN)
+                .from(EVENT)
+                .leftJoin(EVENT_REMINDER).on(EVENT_REMINDER.EVENT_ID.eq(EVENT.ID))
+                .where(EVENT.STATUS.eq(EventStatus.PUBLISHED))
+                .and(EVENT.BEGIN.gt(now))
+                .and(EVENT.BEGIN.le(until))
+                .and(EVENT_REMINDER.EVENT_ID.isNull()
+                        .or(EVENT_REMINDER.EVENT_BEGIN.ne(EVENT.BEGIN))
+                        .or(EVENT_REMINDER.STATUS.eq(EventReminderStatus.RUNNING.name())
+                                .and(EVENT_REMINDER.UPDATED.lt(now.minus(CLAIM_TIMEOUT)))))
+                .and(afterBegin != null && afterEventId != null
+                        ? EVENT.BEGIN.gt(afterBegin).or(EVENT.BEGIN.eq(afterBegin).and(EVENT.ID.gt(afterEventId)))
+                        : noCondition())
+                .orderBy(EVENT.BEGIN, EVENT.ID)
+                .limit(EVENT_PAGE_SIZE)
+                .fetch();
+    }
+
+    private void remind(final @NotNull UUID eventId,
+                        final @NotNull ZonedDateTime begin) throws InterruptedException {
+        if (!claim(eventId, begin)) {
+            return; // reminded or being reminded by another node
+        }
+
+        final var event = eventService.getEvent(eventId)
+                .orElseThrow(() -> new IllegalStateException("Event not found"));
+        final var bulkMail = prepareBulkMail(event);
+        var lastUserId = dsl.select(EVENT_REMINDER.LAST_USER_ID)
+                .from(EVENT_REMINDER)
+                .where(EVENT_REMINDER.EVENT_ID.eq(eventId))
+                .fetchOne(EVENT_REMINDER.LAST_USER_ID);
+        List<Record3<UUID, String, String>> recipients;
+        do {
+            recipients = selectRecipients(eventId, lastUserId);
+            for (var i = 0; i < recipients.size(); i++) {
+                bulkMail.awaitPermit();
+            }
+            if (!recipients.isEmpty()) {
+                sendMails(eventId, begin, lastUserId, bulkMail, recipients);
+                lastUserId = recipients.getLast().value1();
+            }
+        } while (recipients.size() == RECIPIENT_PAGE_SIZE);
+
+        final var completed = dsl.update(EVENT_REMINDER)
+                .set(EVENT_REMINDER.STATUS, EventReminderStatus.COMPLETED.name())
+                .set(EVENT_REMINDER.UPDATED, ZonedDateTime.now(ZoneOffset.UTC))
+                .where(EVENT_REMINDER.EVENT_ID.eq(eventId))
+                .and(EVENT_REMINDER.EVENT_BEGIN.eq(begin))
+                .and(EVENT_REMINDER.LAST_USER_ID.isNotDistinctFrom(lastUserId))
+                .execute();
+        if (completed != 1) {
+            throw new IllegalStateException("Reminder was taken over by another run");
+        }
+        LOGGER.info("Participants of event {} reminded.", eventId);
+    }
+
+    /**
+     * <p>Claims the reminder of an event for this run. A new reminder is claimed by inserting its
+     * row; an existing one only if the event was moved or the run sending it stopped making
+     * progress. The database decides which node wins, so only one node sends the reminder.</p>
+     *
+     * @return {@code true} if this run sends the reminder
+     */
+    private boolean claim(final @NotNull UUID eventId,
+                          final @NotNull ZonedDateTime begin) {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        final var stale = EVENT_REMINDER.STATUS.eq(EventReminderStatus.RUNNING.name())
+                .and(EVENT_REMINDER.UPDATED.lt(now.minus(CLAIM_TIMEOUT)));
+
+        final var inserted = dsl.insertInto(EVENT_REMINDER)
+                .set(EVENT_REMINDER.EVENT_ID, eventId)
+                .set(EVENT_REMINDER.EVENT_BEGIN, begin)
+                .set(EVENT_REMINDER.CREATED, now)
+                .set(EVENT_REMINDER.UPDATED, now)
+                .set(EVENT_REMINDER.STATUS, EventReminderStatus.RUNNING.name())
+                .onDuplicateKeyIgnore()
+                .execute();
+        if (inserted > 0) {
+            return true;
+        }
+
+        // the event was moved, so all participants are reminded of the new begin
+        final var rescheduled = dsl.update(EVENT_REMINDER)
+                .set(EVENT_REMINDER.EVENT_BEGIN, begin)
+                .set(EVENT_REMINDER.UPDATED, now)
+                .set(EVENT_REMINDER.STATUS, EventReminderStatus.RUNNING.name())
+                .set(EVENT_REMINDER.SENT_COUNT, 0)
+                .setNull(EVENT_REMINDER.LAST_USER_ID)
+                .where(EVENT_REMINDER.EVENT_ID.eq(eventId))
+                .and(EVENT_REMINDER.EVENT_BEGIN.ne(begin))
+                .and(EVENT_REMINDER.STATUS.eq(EventReminderStatus.COMPLETED.name()).or(stale))
+                .execute();
+        if (rescheduled > 0) {
+            return true;
+        }
+
+        // the node sending the reminder was stopped, continue with the next participant
+        return dsl.update(EVENT_REMINDER)
+                .set(EVENT_REMINDER.UPDATED, now)
+                .where(EVENT_REMINDER.EVENT_ID.eq(eventId))
+                .and(EVENT_REMINDER.EVENT_BEGIN.eq(begin))
+                .and(stale)
+                .execute() > 0;
+    }
+
+    private @NotNull BulkMail prepareBulkMail(final @NotNull EventDto event) {
+        final var locale = Locale.ENGLISH;
+        final var variables = Map.of(
+                "eventTitle", event.title(),
+                "eventBegin", DateTimeUtil.getLocalizedDateTimeString(event.begin(), ZoneId.systemDefault(), locale),
+                "eventLocation", event.location(),
+                "eventLink", LinkUtil.getLink(event, true));
+        return mailService.prepareBulkMail(MailTemplateId.EVENT_REMINDER, locale, MailFormat.MARKDOWN, variables);
+    }
+
+    private @NotNull List<Record3<UUID, String, String>> selectRecipients(final @NotNull UUID eventId,
+                                                                         final @Nullable UUID afterUserId) {
+        return dsl.select(USER.ID, USER.NAME, USER.EMAIL)
+                .from(PARTICIPANT)
+                .join(USER).on(PARTICIPANT.USER_ID.eq(USER.ID))
+                .where(PARTICIPANT.EVENT_ID.eq(eventId))
+                .and(USER.EMAIL.isNotNull())
+                .and(afterUserId != null ? USER.ID.gt(afterUserId) : noCondition())
+                .orderBy(USER.ID)
+                .limit(RECIPIENT_PAGE_SIZE)
+                .fetch();
+    }
+
+    /**
+     * <p>Adds the mails for one page of participants to the outbox and records the progress in
+     * the same transaction, so every participant is reminded once, even if sending is
+     * interrupted. If another run has taken the reminder over or the event was moved in the
+     * meantime, the transaction is rolled back and the mails are not sent.</p>
+     */
+    private void sendMails(final @NotNull UUID eventId,
+                           final @NotNull ZonedDateTime begin,
+                           final @Nullable UUID previousUserId,
+                           final @NotNull BulkMail bulkMail,
+                           final @NotNull List<Record3<UUID, String, String>> recipients) {
+        dsl.transaction(_ -> {
+            var sentCount = 0;
+            for (final var recipient : recipients) {
+                if (bulkMail.send(recipient.value3(), Map.of("name", recipient.value2()))) {
+                    sentCount++;
+                }
+            }
+            final var updated = dsl.update(EVENT_REMINDER)
+                    .set(EVENT_REMINDER.SENT_COUNT, EVENT_REMINDER.SENT_COUNT.plus(sentCount))
+                    .set(EVENT_REMINDER.LAST_USER_ID, recipients.getLast().value1())
+                    .set(EVENT_REMINDER.UPDATED, ZonedDateTime.now(ZoneOffset.UTC))
+                    .where(EVENT_REMINDER.EVENT_ID.eq(eventId))
+                    .and(EVENT_REMINDER.EVENT_BEGIN.eq(begin))
+                    .and(EVENT_REMINDER.LAST_USER_ID.isNotDistinctFrom(previousUserId))
+                    .execute();
+            if (updated == 0) {
+                throw new IllegalStateException("Reminder was taken over by another run");
+            }
+        });
+    }
+
+}
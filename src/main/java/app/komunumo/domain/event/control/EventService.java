@@ -42,11 +42,14 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static app.komunumo.data.db.tables.Community.COMMUNITY;
 import static app.komunumo.data.db.tables.Event.EVENT;
 import static app.komunumo.data.db.tables.Image.IMAGE;
 import static app.komunumo.data.db.tables.Member.MEMBER;
+import static app.komunumo.domain.event.control.EventRecordMapper.EVENT_MAPPER;
+import static app.komunumo.infra.persistence.jooq.JooqConfiguration.LAZY_FETCH_SIZE;
 import static org.jooq.impl.DSL.noCondition;
 
 @Service
@@ -64,13 +67,22 @@ public final class EventService extends StorageService {
         final EventRecord eventRecord = dsl.fetchOptional(EVENT, EVENT.ID.eq(event.id()))
                 .orElse(dsl.newRecord(EVENT));
         createOrUpdate(EVENT, event, eventRecord);
-        return eventRecord.into(EventDto.class);
+        return EVENT_MAPPER.map(eventRecord);
+    }
+
+    /**
+     * <p>Stores multiple events in one transaction using batched inserts and updates.</p>
+     *
+     * @param events the events to store
+     */
+    public void storeEvents(final @NotNull List<EventDto> events) {
+        createOrUpdateAll(dsl, EVENT, events);
     }
 
     public @NotNull Optional<EventDto> getEvent(final @NotNull UUID id) {
         return dsl.selectFrom(EVENT)
                 .where(EVENT.ID.eq(id))
-                .fetchOptionalInto(EventDto.class);
+                .fetchOptional(EVENT_MAPPER);
     }
 
     public @NotNull Optional<EventWithImageDto> getEventWithImage(final @NotNull UUID id) {
@@ -88,7 +100,27 @@ public final class EventService extends StorageService {
 
     public @NotNull List<@NotNull EventDto> getEvents() {
         return dsl.selectFrom(EVENT)
-                .fetchInto(EventDto.class);
+                .fetch(EVENT_MAPPER);
+    }
+
+    /**
+     * <p>Passes all events to the specified action one by one. The events are read with a
+     * database cursor, so they are never held in memory all at once.</p>
+     *
+     * <p>If a time is specified, only the events with an {@code updated} timestamp at or after
+     * that time are included, which are the events created or changed since then.</p>
+     *
+     * @param changedSince the time from which on changed events are included, or {@code null} for all events
+     * @param action the action to perform for every event
+     */
+    public void forEachEvent(final @Nullable ZonedDateTime changedSince,
+                             final @NotNull Consumer<EventDto> action) {
+        try (var cursor = dsl.selectFrom(EVENT)
+                .where(changedSince != null ? EVENT.UPDATED.ge(changedSince) : noCondition())
+                .fetchSize(LAZY_FETCH_SIZE)
+                .fetchLazy()) {
+            cursor.forEach(record -> action.accept(EVENT_MAPPER.map(record)));
+        }
     }
 
     public @NotNull List<@NotNull EventWithImageDto> getUpcomingEventsWithImage() {
@@ -154,7 +186,7 @@ public final class EventService extends StorageService {
             image = null;
         }
 
-        final var event = record.into(EVENT).into(EventDto.class);
+        final var event = EVENT_MAPPER.map(record);
         return new EventWithImageDto(event, image);
     }
 
@@ -172,6 +204,16 @@ public final class EventService extends StorageService {
                 .execute() > 0;
     }
 
+    /**
+     * <p>Deletes all events with a single statement. Participants referencing
+     * the events must be deleted first.</p>
+     *
+     * @return the number of deleted events
+     */
+    public int deleteAllEvents() {
+        return dsl.delete(EVENT).execute();
+    }
+
     public boolean hasManagementPermission(final @NotNull EventDto event, final @NotNull UserDto user) {
         if (user.role() == UserRole.ADMIN) {
             return true;
@@ -38,6 +38,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
 import org.jooq.DSLContext;
+import org.jooq.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.ZoneOffset;
@@ -45,10 +46,14 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static app.komunumo.data.db.Tables.MEMBER;
+import static app.komunumo.infra.persistence.jooq.JooqConfiguration.LAZY_FETCH_SIZE;
+import static org.jooq.impl.DSL.noCondition;
 
 @Service
 public final class MemberService {
@@ -127,15 +132,53 @@ public final class MemberService {
         } else if (memberRecord.getSince() == null) {
             memberRecord.setSince(ZonedDateTime.now(ZoneOffset.UTC));
         }
+        memberRecord.setUpdated(ZonedDateTime.now(ZoneOffset.UTC));
 
         memberRecord.store();
 
         return memberRecord.into(MemberDto.class);
     }
 
-    public @NotNull List<@NotNull MemberDto> getMembers() {
-        return dsl.selectFrom(MEMBER)
-                .fetchInto(MemberDto.class);
+    /**
+     * <p>Stores multiple memberships in one transaction using a single batch of upserts.</p>
+     *
+     * <p>Existing memberships keep their {@code since} date; only the role is updated.</p>
+     *
+     * @param members the memberships to store; must not be empty
+     */
+    public void storeMembers(final @NotNull List<MemberDto> members) {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        dsl.transaction(_ -> dsl.batch(members.stream()
+                .<Query>map(member -> dsl.insertInto(MEMBER)
+                        .set(MEMBER.USER_ID, member.userId())
+                        .set(MEMBER.COMMUNITY_ID, member.communityId())
+                        .set(MEMBER.ROLE, member.role().name())
+                        .set(MEMBER.SINCE, Objects.requireNonNullElse(member.since(), now))
+                        .set(MEMBER.UPDATED, now)
+                        .onDuplicateKeyUpdate()
+                        .set(MEMBER.ROLE, member.role().name())
+                        .set(MEMBER.UPDATED, now))
+                .toList()).execute());
+    }
+
+    /**
+     * <p>Passes all memberships to the specified action one by one. The memberships are read with a
+     * database cursor, so they are never held in memory all at once.</p>
+     *
+     * <p>If a time is specified, only the memberships with an {@code updated} timestamp at or after
+     * that time are included, which are the memberships created or changed since then.</p>
+     *
+     * @param changedSince the time from which on changed memberships are included, or {@code null} for all memberships
+     * @param action the action to perform for every membership
+     */
+    public void forEachMember(final @Nullable ZonedDateTime changedSince,
+                              final @NotNull Consumer<MemberDto> action) {
+        try (var cursor = dsl.selectFrom(MEMBER)
+                .where(changedSince != null ? MEMBER.UPDATED.ge(changedSince) : noCondition())
+                .fetchSize(LAZY_FETCH_SIZE)
+                .fetchLazy()) {
+            cursor.forEach(record -> action.accept(record.into(MemberDto.class)));
+        }
     }
 
     public Optional<MemberDto> getMember(final @NotNull UserDto user,
@@ -262,4 +305,13 @@ public final class MemberService {
                 .execute() > 0;
     }
 
+    /**
+     * <p>Deletes all memberships with a single statement.</p>
+     *
+     * @return the number of deleted memberships
+     */
+    public int deleteAllMembers() {
+        return dsl.delete(MEMBER).execute();
+    }
+
 }
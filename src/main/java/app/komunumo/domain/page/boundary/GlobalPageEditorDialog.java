@@ -83,7 +83,7 @@ public class GlobalPageEditorDialog extends Dialog {
         pageEditor = new MarkdownEditor(getLocale());
         pageEditor.setPlaceholder(getTranslation("page.boundary.GlobalPageEditorDialog.pageEditor"));
         pageEditor.setValue(globalPage.markdown());
-        pageEditor.setValueChangeMode(ValueChangeMode.EAGER);
+        pageEditor.setValueChangeMode(ValueChangeMode.LAZY);
         pageEditor.setSizeFull();
         add(pageEditor);
 
@@ -20,13 +20,13 @@ package app.komunumo.domain.page.boundary;
 import app.komunumo.domain.core.config.control.ConfigurationService;
 import app.komunumo.domain.page.control.GlobalPageService;
 import app.komunumo.domain.page.entity.GlobalPageDto;
+import app.komunumo.infra.ui.vaadin.components.RenderedMarkdown;
 import app.komunumo.infra.ui.vaadin.layout.AbstractView;
 import app.komunumo.infra.ui.vaadin.layout.WebsiteLayout;
 import app.komunumo.util.SecurityUtil;
 import com.vaadin.flow.component.HtmlContainer;
 import com.vaadin.flow.component.contextmenu.ContextMenu;
 import com.vaadin.flow.component.html.Div;
-import com.vaadin.flow.component.markdown.Markdown;
 import com.vaadin.flow.router.BeforeEnterEvent;
 import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.NotFoundException;
@@ -75,7 +75,7 @@ public final class GlobalPageView extends AbstractView implements BeforeEnterObs
 
     private void renderPage(final @NotNull GlobalPageDto globalPage) {
         pageContent.removeAll();
-        final var markdownContent = new Markdown(globalPage.markdown());
+        final var markdownContent = new RenderedMarkdown(globalPage.markdown());
         pageContent.add(markdownContent);
         pageContent.setWidthFull();
         pageTitle = globalPage.title();
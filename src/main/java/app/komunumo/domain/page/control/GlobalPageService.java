@@ -21,18 +21,24 @@ import app.komunumo.data.db.tables.records.GlobalPageRecord;
 import app.komunumo.domain.page.entity.GlobalPageDto;
 import app.komunumo.infra.ui.i18n.LocaleUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
+import org.jooq.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static app.komunumo.data.db.tables.GlobalPage.GLOBAL_PAGE;
+import static app.komunumo.infra.persistence.jooq.JooqConfiguration.LAZY_FETCH_SIZE;
+import static org.jooq.impl.DSL.noCondition;
 
 /**
  * <p>Service layer for creating, reading, updating, and deleting global pages backed by the database.</p>
@@ -89,6 +95,32 @@ public class GlobalPageService {
 
     }
 
+    /**
+     * <p>Stores multiple global pages in one transaction using a single batch of upserts.</p>
+     *
+     * @param globalPages the global pages to store; must not be empty
+     */
+    public void storeGlobalPages(final @NotNull List<GlobalPageDto> globalPages) {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        dsl.transaction(_ -> dsl.batch(globalPages.stream()
+                .<Query>map(globalPage -> {
+                    final var created = Objects.requireNonNullElse(globalPage.created(), now);
+                    return dsl.insertInto(GLOBAL_PAGE)
+                            .set(GLOBAL_PAGE.SLOT, globalPage.slot())
+                            .set(GLOBAL_PAGE.LANGUAGE, LocaleUtil.getLanguageCode(globalPage.language()))
+                            .set(GLOBAL_PAGE.CREATED, created)
+                            .set(GLOBAL_PAGE.UPDATED, now)
+                            .set(GLOBAL_PAGE.TITLE, globalPage.title())
+                            .set(GLOBAL_PAGE.MARKDOWN, globalPage.markdown())
+                            .onDuplicateKeyUpdate()
+                            .set(GLOBAL_PAGE.CREATED, created)
+                            .set(GLOBAL_PAGE.UPDATED, now)
+                            .set(GLOBAL_PAGE.TITLE, globalPage.title())
+                            .set(GLOBAL_PAGE.MARKDOWN, globalPage.markdown());
+                })
+                .toList()).execute());
+    }
+
     /**
      * <p>Retrieves a global page for the given {@code slot} and {@link Locale}.</p>
      *
@@ -142,13 +174,23 @@ public class GlobalPageService {
     }
 
     /**
-     * <p>Retrieves all global pages regardless of slot or language.</p>
+     * <p>Passes all global pages to the specified action one by one. The global pages are read with a
+     * database cursor, so they are never held in memory all at once.</p>
+     *
+     * <p>If a time is specified, only the global pages with an {@code updated} timestamp at or after
+     * that time are included, which are the global pages created or changed since then.</p>
      *
-     * @return A list of all global page DTOs.
+     * @param changedSince the time from which on changed global pages are included, or {@code null} for all global pages
+     * @param action the action to perform for every global page
      */
-    public @NotNull List<@NotNull GlobalPageDto> getAllGlobalPages() {
-        return dsl.selectFrom(GLOBAL_PAGE)
-                .fetchInto(GlobalPageDto.class);
+    public void forEachGlobalPage(final @Nullable ZonedDateTime changedSince,
+                                  final @NotNull Consumer<GlobalPageDto> action) {
+        try (var cursor = dsl.selectFrom(GLOBAL_PAGE)
+                .where(changedSince != null ? GLOBAL_PAGE.UPDATED.ge(changedSince) : noCondition())
+                .fetchSize(LAZY_FETCH_SIZE)
+                .fetchLazy()) {
+            cursor.forEach(record -> action.accept(record.into(GlobalPageDto.class)));
+        }
     }
 
     /**
@@ -209,4 +251,13 @@ public class GlobalPageService {
                 .execute() == 1;
     }
 
+    /**
+     * <p>Deletes all global pages in all languages with a single statement.</p>
+     *
+     * @return the number of deleted global pages
+     */
+    public int deleteAllGlobalPages() {
+        return dsl.delete(GLOBAL_PAGE).execute();
+    }
+
 }
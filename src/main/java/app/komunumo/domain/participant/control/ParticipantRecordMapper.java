@@ -0,0 +1,50 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.participant.control;
+
+import app.komunumo.domain.participant.entity.ParticipantDto;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+
+import static app.komunumo.data.db.tables.Participant.PARTICIPANT;
+
+/**
+ * <p>Maps records containing the columns of the {@code participant} table to {@link ParticipantDto} instances
+ * without using jOOQ's reflective {@code DefaultRecordMapper}.</p>
+ */
+public final class ParticipantRecordMapper implements RecordMapper<Record, ParticipantDto> {
+
+    /**
+     * <p>The shared, stateless instance of this mapper.</p>
+     */
+    public static final @NotNull ParticipantRecordMapper PARTICIPANT_MAPPER = new ParticipantRecordMapper();
+
+    private ParticipantRecordMapper() {
+        super();
+    }
+
+    @Override
+    public @NotNull ParticipantDto map(final @NotNull Record record) {
+        return new ParticipantDto(
+                record.get(PARTICIPANT.EVENT_ID),
+                record.get(PARTICIPANT.USER_ID),
+                record.get(PARTICIPANT.REGISTERED));
+    }
+
+}
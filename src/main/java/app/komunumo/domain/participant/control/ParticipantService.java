@@ -34,25 +34,43 @@ import app.komunumo.domain.participant.entity.RegisteredParticipantDto;
 import app.komunumo.domain.user.control.LoginService;
 import app.komunumo.domain.user.control.UserService;
 import app.komunumo.domain.user.entity.UserDto;
+import app.komunumo.infra.ui.i18n.LocaleUtil;
 import app.komunumo.infra.ui.i18n.TranslationProvider;
 import app.komunumo.infra.ui.vaadin.control.LinkUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
 import org.jooq.DSLContext;
+import org.jooq.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import static app.komunumo.data.db.tables.Event.EVENT;
 import static app.komunumo.data.db.tables.Member.MEMBER;
 import static app.komunumo.data.db.tables.Participant.PARTICIPANT;
+import static app.komunumo.data.db.tables.ParticipantNotification.PARTICIPANT_NOTIFICATION;
 import static app.komunumo.data.db.tables.User.USER;
+import static app.komunumo.domain.participant.control.ParticipantRecordMapper.PARTICIPANT_MAPPER;
+import static app.komunumo.domain.user.control.UserRecordMapper.USER_MAPPER;
+import static app.komunumo.infra.persistence.jooq.JooqConfiguration.LAZY_FETCH_SIZE;
+import static org.jooq.impl.DSL.count;
+import static org.jooq.impl.DSL.min;
+import static org.jooq.impl.DSL.noCondition;
 
 @Service
 public final class ParticipantService {
@@ -60,6 +78,17 @@ public final class ParticipantService {
     @VisibleForTesting
     static final @NotNull String CONTEXT_KEY_EVENT = "event";
 
+    /**
+     * <p>The time the managers of an event are notified after a registration at the latest.</p>
+     */
+    public static final @NotNull Duration NOTIFICATION_WINDOW = Duration.ofMinutes(15);
+
+    /**
+     * <p>The number of new registrations after which the managers of an event are notified
+     * right away.</p>
+     */
+    public static final int NOTIFICATION_THRESHOLD = 50;
+
     private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ParticipantService.class);
 
     private final @NotNull DSLContext dsl;
@@ -150,38 +179,128 @@ public final class ParticipantService {
                     mailVariables, email);
         }
 
-        notifyEventManagersAboutNewRegistration(event, user, locale);
+        queueEventManagerNotification(event, user, locale);
 
         return true;
     }
 
-    private void notifyEventManagersAboutNewRegistration(final @NotNull EventDto event,
-                                                         final @NotNull UserDto user,
-                                                         final @NotNull Locale locale) {
+    /**
+     * <p>Records the registration for the next notification of the event managers. The
+     * notification is sent by {@link #notifyEventManagers()}, so a burst of registrations results
+     * in a single mail to the managers instead of one mail per registration.</p>
+     */
+    private void queueEventManagerNotification(final @NotNull EventDto event,
+                                               final @NotNull UserDto user,
+                                               final @NotNull Locale locale) {
+        dsl.insertInto(PARTICIPANT_NOTIFICATION)
+                .set(PARTICIPANT_NOTIFICATION.EVENT_ID, event.id())
+                .set(PARTICIPANT_NOTIFICATION.USER_ID, user.id())
+                .set(PARTICIPANT_NOTIFICATION.CREATED, ZonedDateTime.now(ZoneOffset.UTC))
+                .set(PARTICIPANT_NOTIFICATION.LANGUAGE, LocaleUtil.getLanguageCode(locale))
+                .onDuplicateKeyIgnore()
+                .execute();
+    }
+
+    /**
+     * <p>Notifies the managers of every event about the new registrations, once the oldest of
+     * them is waiting for {@link #NOTIFICATION_WINDOW} or {@link #NOTIFICATION_THRESHOLD}
+     * registrations have been collected. A single registration is announced with its own mail,
+     * several registrations are combined into a digest with the names of the new participants
+     * and the current number of participants.</p>
+     *
+     * <p>The registrations are removed in the same transaction that adds the mail to the outbox,
+     * so every registration is reported once, even if several nodes share the database.</p>
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void notifyEventManagers() {
+        final var dueBefore = ZonedDateTime.now(ZoneOffset.UTC).minus(NOTIFICATION_WINDOW);
+        final var eventIds = dsl.select(PARTICIPANT_NOTIFICATION.EVENT_ID)
+                .from(PARTICIPANT_NOTIFICATION)
+                .groupBy(PARTICIPANT_NOTIFICATION.EVENT_ID)
+                .having(min(PARTICIPANT_NOTIFICATION.CREATED).le(dueBefore)
+                        .or(count().ge(NOTIFICATION_THRESHOLD)))
+                .fetch(PARTICIPANT_NOTIFICATION.EVENT_ID);
+        for (final var eventId : eventIds) {
+            try {
+                dsl.transaction(_ -> sendEventManagerNotification(eventId));
+            } catch (final RuntimeException e) {
+                LOGGER.warn("Unable to notify the managers of event {} about new registrations: {}",
+                        eventId, e.getMessage());
+            }
+        }
+    }
+
+    private void sendEventManagerNotification(final @NotNull UUID eventId) {
+        // lock the registrations, so they are reported by one node only
+        final var registrations = dsl.select(PARTICIPANT_NOTIFICATION.USER_ID, PARTICIPANT_NOTIFICATION.LANGUAGE,
+                        USER.NAME)
+                .from(PARTICIPANT_NOTIFICATION)
+                .join(USER).on(PARTICIPANT_NOTIFICATION.USER_ID.eq(USER.ID))
+                .where(PARTICIPANT_NOTIFICATION.EVENT_ID.eq(eventId))
+                .orderBy(PARTICIPANT_NOTIFICATION.CREATED, PARTICIPANT_NOTIFICATION.USER_ID)
+                .forUpdate()
+                .fetch();
+        if (registrations.isEmpty()) {
+            return;
+        }
+        dsl.deleteFrom(PARTICIPANT_NOTIFICATION)
+                .where(PARTICIPANT_NOTIFICATION.EVENT_ID.eq(eventId))
+                .and(PARTICIPANT_NOTIFICATION.USER_ID.in(registrations.getValues(PARTICIPANT_NOTIFICATION.USER_ID)))
+                .execute();
+
+        final var event = dsl.select(EVENT.TITLE, EVENT.COMMUNITY_ID)
+                .from(EVENT)
+                .where(EVENT.ID.eq(eventId))
+                .fetchOne();
+        if (event == null) {
+            return;
+        }
+
         final var recipientEmails = dsl.select(USER.EMAIL)
                 .from(MEMBER)
                 .join(USER).on(MEMBER.USER_ID.eq(USER.ID))
-                .where(MEMBER.COMMUNITY_ID.eq(event.communityId()))
+                .where(MEMBER.COMMUNITY_ID.eq(event.value2()))
                 .and(MEMBER.ROLE.in(MemberRole.OWNER.name(), MemberRole.ORGANIZER.name()))
                 .and(USER.EMAIL.isNotNull())
                 .fetch(USER.EMAIL)
                 .stream()
                 .distinct()
                 .toArray(String[]::new);
+        if (recipientEmails.length == 0) {
+            return;
+        }
 
-        final Map<String, String> mailVariables = Map.of(
-                "eventTitle", event.title(),
-                "participantName", resolveParticipantName(user, locale),
-                "participantCount", Integer.toString(getParticipantCount(event))
-        );
-        mailService.sendMail(MailTemplateId.EVENT_REGISTRATION_NOTIFY_MANAGERS, locale, MailFormat.MARKDOWN,
-                mailVariables, recipientEmails);
+        final var locale = Locale.forLanguageTag(registrations.getFirst().value2());
+        final var participantNames = registrations.stream()
+                .map(registration -> resolveParticipantName(registration.value3(), locale))
+                .toList();
+        final var participantCount = Integer.toString(dsl.fetchCount(PARTICIPANT, PARTICIPANT.EVENT_ID.eq(eventId)));
+        if (participantNames.size() == 1) {
+            final Map<String, String> mailVariables = Map.of(
+                    "eventTitle", event.value1(),
+                    "participantName", participantNames.getFirst(),
+                    "participantCount", participantCount
+            );
+            mailService.sendMail(MailTemplateId.EVENT_REGISTRATION_NOTIFY_MANAGERS, locale, MailFormat.MARKDOWN,
+                    mailVariables, recipientEmails);
+        } else {
+            final Map<String, String> mailVariables = Map.of(
+                    "eventTitle", event.value1(),
+                    "participantNames", participantNames.stream()
+                            .map(name -> "- " + name)
+                            .collect(Collectors.joining("\n")),
+                    "newParticipantCount", Integer.toString(participantNames.size()),
+                    "participantCount", participantCount
+            );
+            mailService.sendMail(MailTemplateId.EVENT_REGISTRATION_DIGEST, locale, MailFormat.MARKDOWN,
+                    mailVariables, recipientEmails);
+        }
     }
 
-    private @NotNull String resolveParticipantName(final @NotNull UserDto user,
+    private @NotNull String resolveParticipantName(final @NotNull String name,
                                                    final @NotNull Locale locale) {
-        if (!user.name().isBlank()) {
-            return user.name();
+        if (!name.isBlank()) {
+            return name;
         }
         return translationProvider.getTranslation("participant.control.ParticipantService.anonymousName", locale);
     }
@@ -200,9 +319,49 @@ public final class ParticipantService {
         participantRecord.store();
     }
 
+    /**
+     * <p>Stores multiple participations in one transaction using a single batch of upserts.</p>
+     *
+     * @param participants the participations to store; must not be empty
+     */
+    public void storeParticipants(final @NotNull List<ParticipantDto> participants) {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        dsl.transaction(_ -> dsl.batch(participants.stream()
+                .<Query>map(participant -> {
+                    final var registered = Objects.requireNonNullElse(participant.registered(), now);
+                    return dsl.insertInto(PARTICIPANT)
+                            .set(PARTICIPANT.EVENT_ID, participant.eventId())
+                            .set(PARTICIPANT.USER_ID, participant.userId())
+                            .set(PARTICIPANT.REGISTERED, registered)
+                            .onDuplicateKeyUpdate()
+                            .set(PARTICIPANT.REGISTERED, registered);
+                })
+                .toList()).execute());
+    }
+
     public @NotNull List<@NotNull ParticipantDto> getAllParticipants() {
         return dsl.selectFrom(PARTICIPANT)
-                .fetchInto(ParticipantDto.class);
+                .fetch(PARTICIPANT_MAPPER);
+    }
+
+    /**
+     * <p>Passes all participants to the specified action one by one. The participants are read with a
+     * database cursor, so they are never held in memory all at once.</p>
+     *
+     * <p>If a time is specified, only the participants with a {@code registered} timestamp at or after
+     * that time are included, which are the participants created or changed since then.</p>
+     *
+     * @param changedSince the time from which on changed participants are included, or {@code null} for all participants
+     * @param action the action to perform for every participant
+     */
+    public void forEachParticipant(final @Nullable ZonedDateTime changedSince,
+                                   final @NotNull Consumer<ParticipantDto> action) {
+        try (var cursor = dsl.selectFrom(PARTICIPANT)
+                .where(changedSince != null ? PARTICIPANT.REGISTERED.ge(changedSince) : noCondition())
+                .fetchSize(LAZY_FETCH_SIZE)
+                .fetchLazy()) {
+            cursor.forEach(record -> action.accept(PARTICIPANT_MAPPER.map(record)));
+        }
     }
 
     public @NotNull Optional<ParticipantDto> getParticipant(final @NotNull EventDto event,
@@ -210,7 +369,7 @@ public final class ParticipantService {
         return dsl.selectFrom(PARTICIPANT)
                 .where(PARTICIPANT.EVENT_ID.eq(event.id())
                         .and(PARTICIPANT.USER_ID.eq(user.id())))
-                .fetchOptionalInto(ParticipantDto.class);
+                .fetchOptional(PARTICIPANT_MAPPER);
     }
 
     public boolean deleteParticipant(final @NotNull ParticipantDto participant) {
@@ -220,6 +379,15 @@ public final class ParticipantService {
                 .execute() > 0;
     }
 
+    /**
+     * <p>Deletes all participants with a single statement.</p>
+     *
+     * @return the number of deleted participants
+     */
+    public int deleteAllParticipants() {
+        return dsl.delete(PARTICIPANT).execute();
+    }
+
     /**
      * <p>Counts the total number of participants.</p>
      *
@@ -292,7 +460,7 @@ public final class ParticipantService {
                 .where(PARTICIPANT.EVENT_ID.eq(event.id()))
                 .orderBy(PARTICIPANT.REGISTERED.asc())
                 .fetch(record -> new RegisteredParticipantDto(
-                        record.into(USER).into(UserDto.class),
+                        USER_MAPPER.map(record),
                         record.get(PARTICIPANT.REGISTERED, ZonedDateTime.class)
                 ));
     }
@@ -0,0 +1,68 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.user.control;
+
+import app.komunumo.domain.user.entity.UserDto;
+import app.komunumo.domain.user.entity.UserRole;
+import app.komunumo.domain.user.entity.UserType;
+import app.komunumo.infra.persistence.jooq.EnumByNameConverter;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+
+import static app.komunumo.data.db.tables.User.USER;
+
+/**
+ * <p>Maps records containing the columns of the {@code user} table to {@link UserDto} instances.</p>
+ *
+ * <p>Unlike {@code into(UserDto.class)}, which uses jOOQ's reflective {@code DefaultRecordMapper}, this mapper reads
+ * the typed fields directly and calls the record constructor. The role and type columns are stored as plain strings
+ * and are resolved with the precomputed lookup tables of {@link EnumByNameConverter}.</p>
+ */
+public final class UserRecordMapper implements RecordMapper<Record, UserDto> {
+
+    /**
+     * <p>The shared, stateless instance of this mapper.</p>
+     */
+    public static final @NotNull UserRecordMapper USER_MAPPER = new UserRecordMapper();
+
+    private static final @NotNull EnumByNameConverter<UserRole> ROLE_CONVERTER =
+            new EnumByNameConverter<>(UserRole.class) { };
+    private static final @NotNull EnumByNameConverter<UserType> TYPE_CONVERTER =
+            new EnumByNameConverter<>(UserType.class) { };
+
+    private UserRecordMapper() {
+        super();
+    }
+
+    @Override
+    public @NotNull UserDto map(final @NotNull Record record) {
+        return new UserDto(
+                record.get(USER.ID),
+                record.get(USER.CREATED),
+                record.get(USER.UPDATED),
+                record.get(USER.PROFILE),
+                record.get(USER.EMAIL),
+                record.get(USER.NAME),
+                record.get(USER.BIO),
+                record.get(USER.IMAGE_ID),
+                ROLE_CONVERTER.from(record.get(USER.ROLE)),
+                TYPE_CONVERTER.from(record.get(USER.TYPE)));
+    }
+
+}
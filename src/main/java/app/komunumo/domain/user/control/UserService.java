@@ -24,14 +24,20 @@ import app.komunumo.domain.user.entity.UserType;
 import app.komunumo.infra.persistence.jooq.StorageService;
 import app.komunumo.infra.persistence.jooq.UniqueIdGenerator;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jooq.DSLContext;
 import org.springframework.stereotype.Service;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static app.komunumo.data.db.tables.User.USER;
+import static app.komunumo.domain.user.control.UserRecordMapper.USER_MAPPER;
+import static app.komunumo.infra.persistence.jooq.JooqConfiguration.LAZY_FETCH_SIZE;
+import static org.jooq.impl.DSL.noCondition;
 
 @Service
 public final class UserService extends StorageService {
@@ -48,12 +54,36 @@ public final class UserService extends StorageService {
         final UserRecord userRecord = dsl.fetchOptional(USER, USER.ID.eq(user.id()))
                 .orElse(dsl.newRecord(USER));
         createOrUpdate(USER, user, userRecord);
-        return userRecord.into(UserDto.class);
+        return USER_MAPPER.map(userRecord);
     }
 
-    public @NotNull List<@NotNull UserDto> getAllUsers() {
-        return dsl.selectFrom(USER)
-                .fetchInto(UserDto.class);
+    /**
+     * <p>Stores multiple users in one transaction using batched inserts and updates.</p>
+     *
+     * @param users the users to store
+     */
+    public void storeUsers(final @NotNull List<UserDto> users) {
+        createOrUpdateAll(dsl, USER, users);
+    }
+
+    /**
+     * <p>Passes all users to the specified action one by one. The users are read with a
+     * database cursor, so they are never held in memory all at once.</p>
+     *
+     * <p>If a time is specified, only the users with an {@code updated} timestamp at or after
+     * that time are included, which are the users created or changed since then.</p>
+     *
+     * @param changedSince the time from which on changed users are included, or {@code null} for all users
+     * @param action the action to perform for every user
+     */
+    public void forEachUser(final @Nullable ZonedDateTime changedSince,
+                            final @NotNull Consumer<UserDto> action) {
+        try (var cursor = dsl.selectFrom(USER)
+                .where(changedSince != null ? USER.UPDATED.ge(changedSince) : noCondition())
+                .fetchSize(LAZY_FETCH_SIZE)
+                .fetchLazy()) {
+            cursor.forEach(record -> action.accept(USER_MAPPER.map(record)));
+        }
     }
 
     public int getAdminCount() {
@@ -77,13 +107,13 @@ public final class UserService extends StorageService {
     public @NotNull Optional<UserDto> getUserById(final @NotNull UUID id) {
         return dsl.selectFrom(USER)
                 .where(USER.ID.eq(id))
-                .fetchOptionalInto(UserDto.class);
+                .fetchOptional(USER_MAPPER);
     }
 
     public @NotNull Optional<UserDto> getUserByEmail(final @NotNull String email) {
         return dsl.selectFrom(USER)
                 .where(USER.EMAIL.eq(email))
-                .fetchOptionalInto(UserDto.class);
+                .fetchOptional(USER_MAPPER);
     }
 
     public @NotNull UserDto createAnonymousUserWithEmail(final @NotNull String email) {
@@ -99,6 +129,16 @@ public final class UserService extends StorageService {
                 .execute() > 0;
     }
 
+    /**
+     * <p>Deletes all users with a single statement. Memberships and
+     * participations referencing the users must be deleted first.</p>
+     *
+     * @return the number of deleted users
+     */
+    public int deleteAllUsers() {
+        return dsl.delete(USER).execute();
+    }
+
     public UserDto changeUserType(final @NotNull UserDto user, final @NotNull UserType userType) {
         if (user.id() == null) {
             throw new IllegalArgumentException("User ID must not be null! Maybe the user is not stored yet?");
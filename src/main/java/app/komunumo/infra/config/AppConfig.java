@@ -25,8 +25,10 @@ import org.springframework.boot.context.properties.bind.ConstructorBinding;
 
 @ConfigurationProperties(prefix = "komunumo")
 public record AppConfig(@NotNull String version,
+                        @NotNull DatabaseConfig database,
                         @NotNull DemoConfig demo,
                         @NotNull FilesConfig files,
+                        @NotNull ImporterConfig importer,
                         @NotNull InstanceConfig instance,
                         @NotNull MailConfig mail) {
 
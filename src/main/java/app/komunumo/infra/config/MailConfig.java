@@ -20,4 +20,6 @@ package app.komunumo.infra.config;
 import org.jetbrains.annotations.NotNull;
 
 public record MailConfig(@NotNull String from,
-                         @NotNull String replyTo) { }
+                         @NotNull String replyTo,
+                         int outboxWorkers,
+                         int bulkRate) { }
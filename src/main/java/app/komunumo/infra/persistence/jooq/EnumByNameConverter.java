@@ -21,7 +21,9 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jooq.Converter;
 
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * <p>A generic {@link Converter} implementation for mapping between {@link Enum} values
@@ -53,6 +55,11 @@ public abstract class EnumByNameConverter<T extends Enum<T>> implements Converte
 
     private final Class<T> enumClass;
 
+    /**
+     * <p>Lookup table from the exact enum names to the enum constants, computed once per converter.</p>
+     */
+    private final Map<String, T> constantsByName;
+
     /**
      * <p>Constructs a new converter for the given enum type.</p>
      *
@@ -60,13 +67,19 @@ public abstract class EnumByNameConverter<T extends Enum<T>> implements Converte
      */
     protected EnumByNameConverter(final @NotNull Class<T> enumClass) {
         this.enumClass = enumClass;
+        final var constants = new HashMap<String, T>();
+        for (final var constant : enumClass.getEnumConstants()) {
+            constants.put(constant.name(), constant);
+        }
+        this.constantsByName = Map.copyOf(constants);
     }
 
     /**
      * <p>Converts a database {@code String} value to the corresponding enum constant.</p>
      *
-     * <p>Trims and uppercases the input string before using {@link Enum#valueOf(Class, String)}.
-     * This allows for case-insensitive and whitespace-tolerant matching.</p>
+     * <p>Values stored with the exact enum name, which is the case for all values written by this converter, are
+     * resolved with a precomputed lookup table without allocating. Other values are trimmed and uppercased before the
+     * lookup. This allows for case-insensitive and whitespace-tolerant matching.</p>
      *
      * <p>If the input is {@code null} or blank, this method returns {@code null}.
      * If the value does not match any enum constant, an {@link IllegalArgumentException} is thrown.</p>
@@ -79,8 +92,20 @@ public abstract class EnumByNameConverter<T extends Enum<T>> implements Converte
      */
     @Override
     public @Nullable T from(final @Nullable String databaseValue) {
-        return databaseValue == null || databaseValue.isBlank() ? null
-                : Enum.valueOf(enumClass, databaseValue.trim().toUpperCase(Locale.ROOT));
+        if (databaseValue == null) {
+            return null;
+        }
+        final var constant = constantsByName.get(databaseValue);
+        if (constant != null) {
+            return constant;
+        }
+        if (databaseValue.isBlank()) {
+            return null;
+        }
+        final var normalizedValue = databaseValue.trim().toUpperCase(Locale.ROOT);
+        final var normalizedConstant = constantsByName.get(normalizedValue);
+        // Enum.valueOf throws the well-known exception for unknown names
+        return normalizedConstant != null ? normalizedConstant : Enum.valueOf(enumClass, normalizedValue);
     }
 
     /**
@@ -0,0 +1,52 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.persistence.jooq;
+
+import org.jetbrains.annotations.NotNull;
+import org.jooq.ExecuteListenerProvider;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * <p>Spring configuration for additional jOOQ infrastructure.</p>
+ *
+ * <p>Spring Boot picks up every {@link ExecuteListenerProvider} bean and registers it with the jOOQ configuration
+ * used by the injected {@link org.jooq.DSLContext}.</p>
+ */
+@Configuration
+public class JooqConfiguration {
+
+    /**
+     * <p>The number of rows fetched per round trip when reading large tables with a cursor
+     * ({@link org.jooq.ResultQuery#fetchLazy()}), so the JDBC driver streams the rows instead
+     * of loading the complete result into memory.</p>
+     */
+    public static final int LAZY_FETCH_SIZE = 500;
+
+    /**
+     * <p>Registers the {@link StatementCounter} which counts the SQL statements executed per thread.</p>
+     *
+     * @return the execute listener provider for the statement counter
+     */
+    @Bean
+    public @NotNull ExecuteListenerProvider statementCounterListenerProvider() {
+        return new DefaultExecuteListenerProvider(new StatementCounter());
+    }
+
+}
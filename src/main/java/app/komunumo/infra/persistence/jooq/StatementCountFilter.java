@@ -0,0 +1,71 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.persistence.jooq;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * <p>Servlet filter that measures how many SQL statements a single HTTP request executes.</p>
+ *
+ * <p>The filter resets the {@link StatementCounter} before the request is processed. If debug logging is enabled for
+ * this class, the number of executed statements is logged after the request has been processed and, as long as the
+ * response is not committed yet, exposed in the {@value #STATEMENT_COUNT_HEADER} response header. With debug logging
+ * disabled the filter only resets the counter and adds no measurable overhead.</p>
+ */
+@Component
+public final class StatementCountFilter extends OncePerRequestFilter {
+
+    /**
+     * <p>Name of the response header reporting the number of executed SQL statements in development mode.</p>
+     */
+    public static final @NotNull String STATEMENT_COUNT_HEADER = "X-Komunumo-SQL-Statements";
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(StatementCountFilter.class);
+
+    @Override
+    protected void doFilterInternal(final @NotNull HttpServletRequest request,
+                                    final @NotNull HttpServletResponse response,
+                                    final @NotNull FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementCounter.resetStatementCount();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (LOGGER.isDebugEnabled()) {
+                final var statementCount = StatementCounter.getStatementCount();
+                LOGGER.debug("Request {} {} executed {} SQL statements",
+                        request.getMethod(), request.getRequestURI(), statementCount);
+                if (!response.isCommitted()) {
+                    response.setIntHeader(STATEMENT_COUNT_HEADER, statementCount);
+                }
+            }
+            StatementCounter.clearStatementCount();
+        }
+    }
+
+}
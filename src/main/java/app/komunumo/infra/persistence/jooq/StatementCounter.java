@@ -0,0 +1,69 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.persistence.jooq;
+
+import org.jetbrains.annotations.NotNull;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+
+/**
+ * <p>jOOQ {@link ExecuteListener} that counts the SQL statements executed by the current thread.</p>
+ *
+ * <p>The counter is kept in a {@link ThreadLocal}, so every servlet request (and every Karibu test, which runs the
+ * UI code on the test thread) sees only its own statements. The {@link StatementCountFilter} resets the counter at
+ * the beginning of each HTTP request and reports the result at its end; tests use the counter to enforce a maximum
+ * number of statements per route, so that N+1 query regressions fail the build.</p>
+ */
+public final class StatementCounter implements ExecuteListener {
+
+    private static final @NotNull ThreadLocal<int[]> STATEMENT_COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * <p>Increments the statement counter of the current thread each time jOOQ starts executing a statement.</p>
+     *
+     * @param ctx the jOOQ execute context
+     */
+    @Override
+    public void executeStart(final @NotNull ExecuteContext ctx) {
+        STATEMENT_COUNT.get()[0]++;
+    }
+
+    /**
+     * <p>Returns the number of SQL statements executed by the current thread since the last reset.</p>
+     *
+     * @return the number of executed SQL statements
+     */
+    public static int getStatementCount() {
+        return STATEMENT_COUNT.get()[0];
+    }
+
+    /**
+     * <p>Resets the statement counter of the current thread to zero.</p>
+     */
+    public static void resetStatementCount() {
+        STATEMENT_COUNT.get()[0] = 0;
+    }
+
+    /**
+     * <p>Removes the statement counter from the current thread, so that pooled threads do not keep stale state.</p>
+     */
+    public static void clearStatementCount() {
+        STATEMENT_COUNT.remove();
+    }
+
+}
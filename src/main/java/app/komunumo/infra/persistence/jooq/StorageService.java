@@ -18,10 +18,16 @@
 package app.komunumo.infra.persistence.jooq;
 
 import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.UpdatableRecord;
 import org.jooq.impl.TableImpl;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * <p>Provides generic persistence functionality for database records that
@@ -84,4 +90,55 @@ public abstract class StorageService {
         record.store();
     }
 
+    /**
+     * <p>Inserts or updates multiple database records in a single transaction.</p>
+     *
+     * <p>Instead of loading and storing every record on its own, the IDs of the existing records
+     * are looked up with one query, and the new and the existing records are sent to the
+     * database as one JDBC batch of inserts and one of updates. IDs and timestamps are assigned
+     * the same way as by {@link #createOrUpdate(TableImpl, Record, RecordWithTimestamps)}. If
+     * storing one of the records fails, the transaction is rolled back and none of the records
+     * is stored.</p>
+     *
+     * <p>Upserts ({@code INSERT ... ON DUPLICATE KEY UPDATE}) are not used on purpose: they
+     * would also match other unique keys, for example the email address of a user, and
+     * overwrite a different record instead of failing.</p>
+     *
+     * @param dsl   the jOOQ context used to execute the batches
+     * @param table the jOOQ table definition associated with the records
+     * @param dtos  the data transfer objects to store
+     * @param <R>   the type of the jOOQ records
+     */
+    @SuppressWarnings("unchecked") // the primary key of all tables with timestamps is the UUID field "id"
+    protected <R extends UpdatableRecord<R> & RecordWithTimestamps> void createOrUpdateAll(
+            final @NotNull DSLContext dsl,
+            final @NotNull TableImpl<R> table,
+            final @NotNull List<? extends Record> dtos) {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        final var idField = (Field<UUID>) table.getPrimaryKey().getFields().getFirst();
+        dsl.transaction(_ -> {
+            final var records = dtos.stream()
+                    .map(dto -> {
+                        final var record = dsl.newRecord(table, dto);
+                        if (record.getId() == null) { // NOSONAR (false positive: ID may be null for new records)
+                            record.setId(idGenerator.getUniqueID(table));
+                        }
+                        if (record.getCreated() == null) { // NOSONAR (false positive: date may be null for new records)
+                            record.setCreated(now);
+                        }
+                        record.setUpdated(now);
+                        return record;
+                    })
+                    .toList();
+            final var existingIds = dsl.select(idField)
+                    .from(table)
+                    .where(idField.in(records.stream().map(RecordWithTimestamps::getId).toList()))
+                    .fetchSet(idField);
+            final var existing = records.stream()
+                    .collect(Collectors.partitioningBy(record -> existingIds.contains(record.getId())));
+            dsl.batchInsert(existing.get(false)).execute();
+            dsl.batchUpdate(existing.get(true)).execute();
+        });
+    }
+
 }
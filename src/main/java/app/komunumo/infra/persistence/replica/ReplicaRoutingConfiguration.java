@@ -0,0 +1,63 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.persistence.replica;
+
+import app.komunumo.infra.config.AppConfig;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.ExecuteListenerProvider;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * <p>Spring configuration for routing read-only database access to read replicas.</p>
+ *
+ * <p>Replicas are configured with {@code komunumo.database.replica-urls}. If the list is empty, all database access
+ * uses the primary data source configured with {@code spring.datasource.url}.</p>
+ */
+@Configuration
+public class ReplicaRoutingConfiguration {
+
+    /**
+     * <p>Registers the post processor which wraps the primary data source into a {@link ReplicaRoutingDataSource}.</p>
+     *
+     * <p>The method is static because bean post processors must be created before the regular beans.</p>
+     *
+     * @param appConfigProvider lazy access to the application configuration
+     * @return the bean post processor
+     */
+    @Bean
+    public static @NotNull BeanPostProcessor replicaRoutingDataSourcePostProcessor(
+            final @NotNull ObjectProvider<AppConfig> appConfigProvider) {
+        return new ReplicaRoutingDataSourcePostProcessor(appConfigProvider);
+    }
+
+    /**
+     * <p>Registers the {@link ReplicaRoutingListener} which tells the routing data source whether a jOOQ statement
+     * reads or writes data.</p>
+     *
+     * @return the execute listener provider for the routing listener
+     */
+    @Bean
+    public @NotNull ExecuteListenerProvider replicaRoutingListenerProvider() {
+        return new DefaultExecuteListenerProvider(new ReplicaRoutingListener());
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.persistence.replica;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>{@link DataSource} that routes connections either to the primary database or to one of its read replicas.</p>
+ *
+ * <p>A connection is taken from a replica if</p>
+ * <ul>
+ *     <li>it is requested inside a Spring transaction marked as {@code readOnly}, or</li>
+ *     <li>it is requested outside a transaction for a jOOQ statement which only reads data,</li>
+ * </ul>
+ * <p>and the current session did not write data within the configured stickiness period. Everything else, including
+ * all writes, all statements in read-write transactions, and Flyway migrations, uses the primary database. Replicas
+ * are used in a round-robin fashion.</p>
+ *
+ * <p>This data source must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * so that the physical connection of a transaction is fetched only when the first statement is executed, after the
+ * transaction attributes are known.</p>
+ */
+public final class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final @NotNull String PRIMARY = "primary";
+
+    private final @NotNull List<DataSource> dataSources = new ArrayList<>();
+    private final @NotNull List<String> replicaKeys = new ArrayList<>();
+    private final @NotNull AtomicInteger nextReplica = new AtomicInteger();
+    private final @NotNull Duration stickiness;
+
+    /**
+     * <p>Creates a routing data source for the given primary database and its replicas.</p>
+     *
+     * @param primary the data source of the primary database
+     * @param replicas the data sources of the read replicas; must not be empty
+     * @param stickiness the period of time after a write during which the reads of the same session go to the primary
+     */
+    public ReplicaRoutingDataSource(final @NotNull DataSource primary,
+                                    final @NotNull List<DataSource> replicas,
+                                    final @NotNull Duration stickiness) {
+        super();
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica data source is required");
+        }
+        this.stickiness = stickiness;
+
+        final var targetDataSources = new HashMap<Object, Object>();
+        targetDataSources.put(PRIMARY, primary);
+        dataSources.add(primary);
+        for (int index = 0; index < replicas.size(); index++) {
+            final var key = "replica-" + index;
+            targetDataSources.put(key, replicas.get(index));
+            replicaKeys.add(key);
+            dataSources.add(replicas.get(index));
+        }
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected @NotNull Object determineCurrentLookupKey() {
+        if (!useReplica()) {
+            return PRIMARY;
+        }
+        final var index = Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size());
+        return replicaKeys.get(index);
+    }
+
+    private boolean useReplica() {
+        final var readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                ? TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                : ReplicaRoutingUtil.isReadStatement();
+        return readOnly && !ReplicaRoutingUtil.hasRecentWrite(stickiness);
+    }
+
+    /**
+     * <p>Closes the primary and all replica data sources which hold resources, like connection pools.</p>
+     */
+    @Override
+    public void close() {
+        for (final var dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (final Exception e) {
+                    LOGGER.warn("Failed to close data source: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.persistence.replica;
+
+import app.komunumo.infra.config.AppConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.DestructionAwareBeanPostProcessor;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+
+/**
+ * <p>Wraps the connection pool created by Spring Boot into a {@link ReplicaRoutingDataSource} as soon as at least one
+ * read replica is configured with {@code komunumo.database.replica-urls}.</p>
+ *
+ * <p>The replica pools reuse the credentials, the driver and the pool size of the primary pool and are opened in
+ * read-only mode. Without configured replicas the original data source is left untouched. Because the exposed bean is
+ * a proxy, this post processor also takes care of closing the primary and all replica pools on shutdown.</p>
+ */
+final class ReplicaRoutingDataSourcePostProcessor implements DestructionAwareBeanPostProcessor {
+
+    private static final @NotNull Logger LOGGER = LoggerFactory.getLogger(ReplicaRoutingDataSourcePostProcessor.class);
+
+    /**
+     * <p>Transaction isolation assumed if the connection pool does not configure one (default of MariaDB).</p>
+     */
+    private static final @NotNull String DEFAULT_TRANSACTION_ISOLATION = "TRANSACTION_REPEATABLE_READ";
+
+    private final @NotNull ObjectProvider<AppConfig> appConfigProvider;
+
+    ReplicaRoutingDataSourcePostProcessor(final @NotNull ObjectProvider<AppConfig> appConfigProvider) {
+        this.appConfigProvider = appConfigProvider;
+    }
+
+    @Override
+    public @NotNull Object postProcessAfterInitialization(final @NotNull Object bean, final @NotNull String beanName) {
+        if (!(bean instanceof HikariDataSource primary)) {
+            return bean;
+        }
+
+        final var databaseConfig = appConfigProvider.getObject().database();
+        final var replicaUrls = databaseConfig.replicaUrls().stream()
+                .filter(url -> !url.isBlank())
+                .toList();
+        if (replicaUrls.isEmpty()) {
+            return bean;
+        }
+
+        final var replicas = new ArrayList<DataSource>();
+        for (int index = 0; index < replicaUrls.size(); index++) {
+            replicas.add(createReplica(primary, replicaUrls.get(index).trim(), index));
+        }
+        LOGGER.info("Routing read-only database access to {} replica(s)", replicas.size());
+
+        final var routingDataSource = new ReplicaRoutingDataSource(
+                primary, replicas, databaseConfig.replicaStickiness());
+
+        // the connection defaults are set explicitly, so the proxy does not open a connection during startup
+        final var isolation = primary.getTransactionIsolation();
+        final var proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(routingDataSource);
+        proxy.setDefaultAutoCommit(primary.isAutoCommit());
+        proxy.setDefaultTransactionIsolationName(isolation != null ? isolation : DEFAULT_TRANSACTION_ISOLATION);
+        proxy.afterPropertiesSet();
+        return proxy;
+    }
+
+    private static @NotNull DataSource createReplica(final @NotNull HikariDataSource primary,
+                                                     final @NotNull String jdbcUrl,
+                                                     final int index) {
+        final var replica = new HikariDataSource();
+        replica.setPoolName("komunumo-replica-" + index);
+        replica.setJdbcUrl(jdbcUrl);
+        replica.setUsername(primary.getUsername());
+        replica.setPassword(primary.getPassword());
+        if (primary.getDriverClassName() != null) {
+            replica.setDriverClassName(primary.getDriverClassName());
+        }
+        replica.setMaximumPoolSize(primary.getMaximumPoolSize());
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Override
+    public boolean requiresDestruction(final @NotNull Object bean) {
+        return bean instanceof LazyConnectionDataSourceProxy proxy
+                && proxy.getTargetDataSource() instanceof ReplicaRoutingDataSource;
+    }
+
+    @Override
+    public void postProcessBeforeDestruction(final @NotNull Object bean, final @NotNull String beanName) {
+        if (bean instanceof LazyConnectionDataSourceProxy proxy
+                && proxy.getTargetDataSource() instanceof ReplicaRoutingDataSource routingDataSource) {
+            routingDataSource.close();
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.persistence.replica;
+
+import org.jetbrains.annotations.NotNull;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.ExecuteType;
+
+/**
+ * <p>jOOQ {@link ExecuteListener} that tells the {@link ReplicaRoutingDataSource} whether the statement being
+ * executed reads or writes data, and records writes for the read-your-writes stickiness.</p>
+ *
+ * <p>The listener is registered even if no replicas are configured; it only sets a thread-local flag per statement.</p>
+ */
+public final class ReplicaRoutingListener implements ExecuteListener {
+
+    @Override
+    public void start(final @NotNull ExecuteContext ctx) {
+        ReplicaRoutingUtil.startStatement(ctx.type() == ExecuteType.READ);
+    }
+
+    @Override
+    public void end(final @NotNull ExecuteContext ctx) {
+        if (!ReplicaRoutingUtil.isReadStatement()) {
+            ReplicaRoutingUtil.recordWrite();
+        }
+        ReplicaRoutingUtil.endStatement();
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.persistence.replica;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+
+/**
+ * <p>Holds the routing hints used by the {@link ReplicaRoutingDataSource}.</p>
+ *
+ * <p>The {@link ReplicaRoutingListener} marks the statement that is currently being executed by jOOQ as reading or
+ * writing. After a writing statement, the time of the write is remembered in the HTTP session of the current request
+ * (or, for work outside an HTTP request, in the current thread), so that the following reads of the same user are
+ * served by the primary database until the replicas have caught up (read-your-writes).</p>
+ */
+public final class ReplicaRoutingUtil {
+
+    /**
+     * <p>Name of the session attribute holding the time of the last write of the session.</p>
+     */
+    static final @NotNull String LAST_WRITE_ATTRIBUTE = ReplicaRoutingUtil.class.getName() + ".lastWrite";
+
+    private static final @NotNull ThreadLocal<Boolean> READ_STATEMENT = new ThreadLocal<>();
+    private static final @NotNull ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+    private ReplicaRoutingUtil() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * <p>Marks the start of a statement executed by the current thread.</p>
+     *
+     * @param readOnly {@code true} if the statement only reads data
+     */
+    static void startStatement(final boolean readOnly) {
+        READ_STATEMENT.set(readOnly);
+    }
+
+    /**
+     * <p>Marks the end of the statement executed by the current thread.</p>
+     */
+    static void endStatement() {
+        READ_STATEMENT.remove();
+    }
+
+    /**
+     * <p>Checks whether the statement currently executed by this thread only reads data.</p>
+     *
+     * @return {@code true} if a read-only statement is being executed
+     */
+    static boolean isReadStatement() {
+        return Boolean.TRUE.equals(READ_STATEMENT.get());
+    }
+
+    /**
+     * <p>Remembers that the current session (or thread, if there is no HTTP request) has just written data.</p>
+     */
+    static void recordWrite() {
+        final var now = System.currentTimeMillis();
+        final var requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(LAST_WRITE_ATTRIBUTE, now, RequestAttributes.SCOPE_SESSION);
+        } else {
+            LAST_WRITE.set(now);
+        }
+    }
+
+    /**
+     * <p>Checks whether the current session (or thread, if there is no HTTP request) has written data within the
+     * given period of time.</p>
+     *
+     * @param stickiness the period of time after a write during which reads must go to the primary database
+     * @return {@code true} if there was a write within the given period of time
+     */
+    static boolean hasRecentWrite(final @NotNull Duration stickiness) {
+        final var requestAttributes = RequestContextHolder.getRequestAttributes();
+        final var lastWrite = requestAttributes != null
+                ? requestAttributes.getAttribute(LAST_WRITE_ATTRIBUTE, RequestAttributes.SCOPE_SESSION)
+                : LAST_WRITE.get();
+        return lastWrite instanceof Long timestamp
+                && System.currentTimeMillis() - timestamp < stickiness.toMillis();
+    }
+
+    /**
+     * <p>Forgets the last write of the current thread. Used by tests and by threads returned to a pool.</p>
+     */
+    static void clearThread() {
+        READ_STATEMENT.remove();
+        LAST_WRITE.remove();
+    }
+
+}
@@ -24,13 +24,23 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
-
+/**
+ * <p>Provides the translations of the user interface from the resource bundle
+ * {@code vaadin-i18n/translations}, formatting parameters with ICU message patterns.</p>
+ *
+ * <p>The translations are looked up many times for every view, so the patterns of the provided
+ * locales are read from the resource bundle once at startup and the compiled message formats are
+ * kept for reuse. Every requested locale is resolved to the provided locale with the same
+ * language, or to English, so regional variants sent by browsers share the same entry and the
+ * number of cached translations is limited to the number of bundles.</p>
+ */
 @Component
 public final class TranslationProvider implements I18NProvider {
 
@@ -42,8 +52,17 @@ public final class TranslationProvider implements I18NProvider {
     private static final @NotNull List<Locale> PROVIDED_LOCALES = List.of(
             Locale.ENGLISH, Locale.GERMAN);
 
+    private final @NotNull Map<Locale, Translations> translations;
+
     public TranslationProvider() {
         Locale.setDefault(Locale.ENGLISH);
+        final var loadedTranslations = new HashMap<Locale, Translations>();
+        PROVIDED_LOCALES.forEach(locale -> {
+            final var localeTranslations = Translations.load(locale);
+            localeTranslations.compileAll();
+            loadedTranslations.put(locale, localeTranslations);
+        });
+        this.translations = Map.copyOf(loadedTranslations);
     }
 
     @Override
@@ -56,12 +75,10 @@ public final class TranslationProvider implements I18NProvider {
                                           final @Nullable Locale locale,
                                           final @NotNull Object... params) {
         final var effectiveLocale = locale != null ? locale : Locale.ENGLISH;
+        final var localeTranslations = getTranslations(effectiveLocale);
 
-        final String pattern;
-        try {
-            final var bundle = ResourceBundle.getBundle(BUNDLE_BASENAME, effectiveLocale);
-            pattern = bundle.getString(key);
-        } catch (final MissingResourceException ex) {
+        final var pattern = localeTranslations.getPattern(key);
+        if (pattern == null) {
             // Missing translation → return placeholder
             return "!" + LocaleUtil.getLanguageCode(effectiveLocale).toLowerCase(Locale.ENGLISH) + ": " + key;
         }
@@ -71,18 +88,77 @@ public final class TranslationProvider implements I18NProvider {
             return pattern;
         }
 
-        final var uLocale = ULocale.forLocale(effectiveLocale);
-        final var icuFormat = new MessageFormat(pattern, uLocale);
+        return localeTranslations.format(key, pattern, params);
+    }
+
+    private @NotNull Translations getTranslations(final @NotNull Locale locale) {
+        final var providedLocale = PROVIDED_LOCALES.stream()
+                .filter(provided -> provided.getLanguage().equals(locale.getLanguage()))
+                .findFirst()
+                .orElse(Locale.ENGLISH);
+        return translations.get(providedLocale);
+    }
+
+    /**
+     * <p>The translation patterns of one locale, resolved with the fallbacks of the resource
+     * bundle, and their compiled message formats.</p>
+     *
+     * <p>ICU message formats are not thread-safe, so every format is used by one thread at a
+     * time. Formatting takes a fraction of the time needed to compile a pattern, so threads
+     * rarely wait for each other.</p>
+     */
+    private static final class Translations {
+
+        private final @NotNull ULocale locale;
+        private final @NotNull Map<String, String> patterns;
+        private final @NotNull Map<String, MessageFormat> formats = new ConcurrentHashMap<>();
+
+        private Translations(final @NotNull ULocale locale,
+                             final @NotNull Map<String, String> patterns) {
+            this.locale = locale;
+            this.patterns = patterns;
+        }
+
+        private static @NotNull Translations load(final @NotNull Locale locale) {
+            final var bundle = ResourceBundle.getBundle(BUNDLE_BASENAME, locale);
+            final var patterns = new HashMap<String, String>();
+            for (final var key : bundle.keySet()) {
+                patterns.put(key, bundle.getString(key));
+            }
+            return new Translations(ULocale.forLocale(locale), Map.copyOf(patterns));
+        }
+
+        private void compileAll() {
+            patterns.forEach((key, pattern) -> {
+                try {
+                    formats.put(key, new MessageFormat(pattern, locale));
+                } catch (final IllegalArgumentException _) {
+                    // invalid patterns are reported when they are formatted
+                }
+            });
+        }
+
+        private @Nullable String getPattern(final @NotNull String key) {
+            return patterns.get(key);
+        }
+
+        private @NotNull String format(final @NotNull String key,
+                                       final @NotNull String pattern,
+                                       final @NotNull Object... params) {
+            final var icuFormat = formats.computeIfAbsent(key, _ -> new MessageFormat(pattern, locale));
+            synchronized (icuFormat) {
+                // Optional: Support named arguments when a map is the first argument
+                if (params.length == 1 && params[0] instanceof Map<?, ?> map) {
+                    @SuppressWarnings("unchecked")
+                    final var namedArgs = (Map<String, Object>) map;
+                    return icuFormat.format(namedArgs);
+                }
 
-        // Optional: Support named arguments when a map is the first argument
-        if (params.length == 1 && params[0] instanceof Map<?, ?> map) {
-            @SuppressWarnings("unchecked")
-            final var namedArgs = (Map<String, Object>) map;
-            return icuFormat.format(namedArgs);
+                // Standard: Position arguments {0}, {1}, ...
+                return icuFormat.format(params);
+            }
         }
 
-        // Standard: Position arguments {0}, {1}, ...
-        return icuFormat.format(params);
     }
 
 }
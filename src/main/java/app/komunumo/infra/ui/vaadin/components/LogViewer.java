@@ -0,0 +1,179 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.ui.vaadin.components;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.virtuallist.VirtualList;
+import com.vaadin.flow.data.renderer.LitRenderer;
+import com.vaadin.flow.server.streams.DownloadEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * <p>Shows a stream of log messages, which may be written from any thread.</p>
+ *
+ * <p>The messages are not pushed to the browser one by one. They are collected and sent
+ * together at most once per {@link #FLUSH_INTERVAL}, so a long running task logging thousands
+ * of messages causes only a few push round trips. The messages are shown in a virtualized
+ * list, which renders only the visible entries and keeps only the last entries up to the
+ * configured maximum. The complete log can be downloaded as a text file.</p>
+ */
+public class LogViewer extends Div {
+
+    /**
+     * <p>The time window in which log messages are collected before they are sent to the browser.</p>
+     */
+    public static final @NotNull Duration FLUSH_INTERVAL = Duration.ofMillis(250);
+
+    private final int maxEntries;
+    private final @NotNull Queue<String> pendingMessages = new ConcurrentLinkedQueue<>();
+    private final @NotNull List<String> allMessages = new ArrayList<>();
+    private final @NotNull AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final @NotNull Deque<String> visibleMessages = new ArrayDeque<>();
+    private final @NotNull VirtualList<String> messageList;
+
+    private volatile @Nullable UI ui;
+
+    /**
+     * <p>Creates a new log viewer.</p>
+     *
+     * @param fileName the name of the file the complete log is downloaded as
+     * @param maxEntries the maximum number of messages shown; older messages are only
+     *                   contained in the download
+     */
+    public LogViewer(final @NotNull String fileName, final int maxEntries) {
+        super();
+        this.maxEntries = maxEntries;
+        addClassName("log-viewer");
+
+        messageList = new VirtualList<>();
+        messageList.addClassName("log-viewer-list");
+        messageList.setRenderer(LitRenderer.<String>of("<div class=\"log-viewer-entry\">${item.message}</div>")
+                .withProperty("message", message -> message));
+        messageList.setItems(List.of());
+
+        final var downloadButton = new Button(getTranslation("vaadin.components.LogViewer.downloadButton"));
+        final var downloadLink = new Anchor(event -> downloadLog(event, fileName), "");
+        downloadLink.addClassName("log-viewer-download");
+        downloadLink.add(downloadButton);
+
+        add(messageList, downloadLink);
+
+        addAttachListener(event -> {
+            ui = event.getUI();
+            flush(); // messages logged while detached
+        });
+        addDetachListener(_ -> ui = null);
+    }
+
+    /**
+     * <p>Adds a message to the log. This method may be called from any thread; the message is
+     * shown with the next batch sent to the browser.</p>
+     *
+     * @param message the message to add
+     */
+    public void log(final @NotNull String message) {
+        synchronized (allMessages) {
+            allMessages.add(message);
+        }
+        pendingMessages.add(message);
+        if (flushScheduled.compareAndSet(false, true)) {
+            CompletableFuture.delayedExecutor(FLUSH_INTERVAL.toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(this::scheduleFlush);
+        }
+    }
+
+    /**
+     * <p>Removes all messages from the log. Must be called while holding the session lock.</p>
+     */
+    public void clear() {
+        synchronized (allMessages) {
+            allMessages.clear();
+        }
+        pendingMessages.clear();
+        visibleMessages.clear();
+        messageList.setItems(List.of());
+    }
+
+    /**
+     * <p>Returns a copy of the complete log, including the messages not shown anymore.</p>
+     *
+     * @return all messages in the order they were logged
+     */
+    public @NotNull List<String> getMessages() {
+        synchronized (allMessages) {
+            return List.copyOf(allMessages);
+        }
+    }
+
+    private void scheduleFlush() {
+        final var currentUI = ui;
+        if (currentUI == null) {
+            flushScheduled.set(false); // flushed when attached again
+        } else {
+            currentUI.access(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        var message = pendingMessages.poll();
+        if (message == null) {
+            return;
+        }
+        while (message != null) {
+            visibleMessages.addLast(message);
+            message = pendingMessages.poll();
+        }
+        while (visibleMessages.size() > maxEntries) {
+            visibleMessages.removeFirst();
+        }
+        messageList.setItems(List.copyOf(visibleMessages));
+        messageList.scrollToEnd();
+    }
+
+    private void downloadLog(final @NotNull DownloadEvent event, final @NotNull String fileName) throws IOException {
+        event.setFileName(fileName);
+        event.setContentType("text/plain;charset=UTF-8");
+        try (var writer = new OutputStreamWriter(event.getOutputStream(), UTF_8)) {
+            for (final var message : getMessages()) {
+                writer.write(message);
+                writer.write('\n');
+            }
+        }
+    }
+
+}
@@ -32,6 +32,13 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Locale;
 
+/**
+ * <p>Field for editing Markdown with tabs for a preview and a help page.</p>
+ *
+ * <p>Views sending every change to the server should use {@link ValueChangeMode#LAZY}, so the
+ * content of long texts is sent once the user pauses typing instead of on every keystroke. The
+ * preview is rendered only when its tab is shown and the content has changed since.</p>
+ */
 public final class MarkdownEditor extends CustomField<String> implements HasValueChangeMode {
 
     private static final @NotNull String HELP = "/META-INF/resources/files/editor-help-%s.md";
@@ -75,8 +82,11 @@ public final class MarkdownEditor extends CustomField<String> implements HasValu
 
         tabSheet.addSelectedChangeListener(event -> {
             if (event.getSelectedTab().getLabel().equals(previewLabelText)) {
-                // update preview when text area changes
-                preview.setContent(editor.getValue());
+                // update preview only if the text area has changed since it was rendered
+                final var value = editor.getValue();
+                if (!value.equals(preview.getContent())) {
+                    preview.setContent(value);
+                }
             } else if (event.getSelectedTab().getLabel().equals(helpLabelText)) {
                 // load help content if not already loaded
                 if (help.getContent() == null) {
@@ -145,6 +155,16 @@ public final class MarkdownEditor extends CustomField<String> implements HasValu
         editor.setValueChangeMode(valueChangeMode);
     }
 
+    @Override
+    public int getValueChangeTimeout() {
+        return editor.getValueChangeTimeout();
+    }
+
+    @Override
+    public void setValueChangeTimeout(final int valueChangeTimeout) {
+        editor.setValueChangeTimeout(valueChangeTimeout);
+    }
+
     @Override
     public String getEmptyValue() {
         return "";
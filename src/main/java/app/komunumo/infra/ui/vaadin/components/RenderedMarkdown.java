@@ -0,0 +1,59 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.ui.vaadin.components;
+
+import app.komunumo.util.MarkdownUtil;
+import com.vaadin.flow.component.HasStyle;
+import com.vaadin.flow.component.Html;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * <p>Displays stored Markdown content like event descriptions and global pages.</p>
+ *
+ * <p>Unlike the {@link com.vaadin.flow.component.markdown.Markdown} component, which converts
+ * the content in the browser every time it is displayed, this component sends the sanitized HTML
+ * rendered and cached on the server by {@link MarkdownUtil#convertMarkdownToSafeHtml(String)}.</p>
+ */
+public class RenderedMarkdown extends Html implements HasStyle {
+
+    /**
+     * <p>Markdown source of the displayed content.</p>
+     */
+    private final @NotNull String markdown;
+
+    /**
+     * <p>Creates a component displaying the given Markdown content.</p>
+     *
+     * @param markdown the Markdown source to display
+     */
+    public RenderedMarkdown(final @NotNull String markdown) {
+        super("<div>" + MarkdownUtil.convertMarkdownToSafeHtml(markdown) + "</div>");
+        this.markdown = markdown;
+        addClassName("rendered-markdown");
+    }
+
+    /**
+     * <p>Returns the Markdown source of the displayed content.</p>
+     *
+     * @return the Markdown source
+     */
+    public @NotNull String getMarkdown() {
+        return markdown;
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * <p>A text template whose {@code ${name}} placeholders have been located once, so it can be
+ * rendered any number of times in a single pass without searching the text again.</p>
+ *
+ * <p>Placeholders for which no value is passed are rendered unchanged. A {@code ${} without a
+ * closing brace is treated as literal text. Instances are immutable and can be shared between
+ * threads; use {@link TemplateUtil#compile(String)} to create one.</p>
+ */
+public final class CompiledTemplate {
+
+    private static final @NotNull String PLACEHOLDER_START = "${";
+    private static final @NotNull String PLACEHOLDER_END = "}";
+
+    /**
+     * <p>The literal text before, between, and after the placeholders; always one more entry
+     * than {@link #names}.</p>
+     */
+    private final @NotNull String[] literals;
+    private final @NotNull String[] names;
+    private final int literalLength;
+    private final @NotNull Set<String> variableNames;
+
+    CompiledTemplate(final @NotNull String text) {
+        final var literalList = new ArrayList<String>();
+        final var nameList = new ArrayList<String>();
+        var position = 0;
+        var start = text.indexOf(PLACEHOLDER_START);
+        while (start >= 0) {
+            final var end = text.indexOf(PLACEHOLDER_END, start + PLACEHOLDER_START.length());
+            if (end < 0) {
+                break;
+            }
+            literalList.add(text.substring(position, start));
+            nameList.add(text.substring(start + PLACEHOLDER_START.length(), end));
+            position = end + PLACEHOLDER_END.length();
+            start = text.indexOf(PLACEHOLDER_START, position);
+        }
+        literalList.add(text.substring(position));
+
+        this.literals = literalList.toArray(String[]::new);
+        this.names = nameList.toArray(String[]::new);
+        this.literalLength = literalList.stream().mapToInt(String::length).sum();
+        this.variableNames = Collections.unmodifiableSet(new LinkedHashSet<>(nameList));
+    }
+
+    /**
+     * <p>Returns the names of all variables used in this template, in the order of their first
+     * occurrence.</p>
+     *
+     * @return the variable names, never {@code null}
+     */
+    public @NotNull Set<String> getVariableNames() {
+        return variableNames;
+    }
+
+    /**
+     * <p>Returns the names of all variables used in this template for which the specified map
+     * contains no value.</p>
+     *
+     * @param variables the variable values by name, may be {@code null}
+     * @return the names of the missing variables, empty if all variables have a value
+     */
+    public @NotNull Set<String> getMissingVariables(final @Nullable Map<String, String> variables) {
+        if (variables == null) {
+            return variableNames;
+        }
+        final var missing = new LinkedHashSet<String>();
+        for (final var name : variableNames) {
+            if (variables.get(name) == null) {
+                missing.add(name);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * <p>Returns the names of all variables in the specified map which are not used in this
+     * template.</p>
+     *
+     * @param variables the variable values by name, may be {@code null}
+     * @return the names of the unknown variables, empty if all variables are used
+     */
+    public @NotNull Set<String> getUnknownVariables(final @Nullable Map<String, String> variables) {
+        if (variables == null) {
+            return Set.of();
+        }
+        final var unknown = new LinkedHashSet<String>();
+        for (final var name : variables.keySet()) {
+            if (!variableNames.contains(name)) {
+                unknown.add(name);
+            }
+        }
+        return unknown;
+    }
+
+    /**
+     * <p>Renders this template with the specified variable values.</p>
+     *
+     * @param variables the variable values by name, may be {@code null}
+     * @return the rendered text
+     */
+    public @NotNull String render(final @Nullable Map<String, String> variables) {
+        return render(variables, UnaryOperator.identity());
+    }
+
+    /**
+     * <p>Renders this template with the specified variable values, passing every value through
+     * the escaper before it is inserted. The literal text of the template is not escaped.</p>
+     *
+     * @param variables the variable values by name, may be {@code null}
+     * @param escaper the function used to escape the variable values
+     * @return the rendered text
+     */
+    public @NotNull String render(final @Nullable Map<String, String> variables,
+                                  final @NotNull UnaryOperator<String> escaper) {
+        if (names.length == 0) {
+            return literals[0];
+        }
+
+        // look up the values first to size the buffer exactly
+        final var values = new String[names.length];
+        var length = literalLength;
+        for (var index = 0; index < names.length; index++) {
+            final var value = variables != null ? variables.get(names[index]) : null;
+            values[index] = value != null
+                    ? escaper.apply(value)
+                    : PLACEHOLDER_START + names[index] + PLACEHOLDER_END;
+            length += values[index].length();
+        }
+
+        final var result = new StringBuilder(length);
+        for (var index = 0; index < names.length; index++) {
+            result.append(literals[index]).append(values[index]);
+        }
+        return result.append(literals[names.length]).toString();
+    }
+
+}
@@ -31,10 +31,33 @@ import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.Set;
 
 public final class DownloadUtil {
 
+    /**
+     * <p>The maximum size of a file downloaded by {@link #downloadFile(String)}.</p>
+     */
+    public static final long MAX_DOWNLOAD_SIZE = 20L * 1024 * 1024;
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final @NotNull Duration RETRY_DELAY = Duration.ofMillis(250);
+    private static final @NotNull Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final @NotNull Set<Integer> TRANSIENT_STATUS_CODES = Set.of(429, 500, 502, 503, 504);
+
+    /**
+     * <p>The client shared by all downloads, so connections are reused, and HTTP/2 servers
+     * can multiplex parallel downloads over a single connection.</p>
+     */
+    private static final @NotNull HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
     public static @NotNull String getString(final @NotNull String location)
             throws IOException, URISyntaxException {
         try (InputStream in = new URI(location).toURL().openStream()) {
@@ -42,8 +65,40 @@ public final class DownloadUtil {
         }
     }
 
-    @SuppressWarnings({"java:S2095", "java:S2142", "LoggingSimilarMessage"})
+    /**
+     * <p>Copies the content of the specified location into a temporary file without
+     * loading it into memory. Supports all URL schemes the JDK can open, for example
+     * {@code https:} and {@code file:}.</p>
+     *
+     * @param location the URL to download
+     * @return the path of the temporary file, deleted on exit at the latest
+     * @throws IOException if the content could not be read or written
+     * @throws URISyntaxException if the location is not a valid URI
+     */
+    public static @NotNull Path downloadToTempFile(final @NotNull String location)
+            throws IOException, URISyntaxException {
+        final var tempFile = Files.createTempFile("download-", ".tmp");
+        tempFile.toFile().deleteOnExit();
+        try (InputStream in = new URI(location).toURL().openStream()) {
+            Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return tempFile;
+    }
+
+    /**
+     * <p>Downloads the specified location into a temporary file. Besides HTTP URLs, {@code data:}
+     * URLs are supported. HTTP downloads time out, are limited to {@value #MAX_DOWNLOAD_SIZE} bytes
+     * and are retried after connection failures and transient HTTP status codes.</p>
+     *
+     * @param location the URL to download
+     * @return the path of the temporary file, deleted on exit at the latest
+     */
     public static @NotNull Path downloadFile(final @NotNull String location) {
+        return downloadFile(location, MAX_DOWNLOAD_SIZE);
+    }
+
+    @SuppressWarnings({"java:S2095", "java:S2142", "LoggingSimilarMessage"})
+    static @NotNull Path downloadFile(final @NotNull String location, final long maxSize) {
         try {
             final var tempFile = Files.createTempFile("download-", ".tmp");
             tempFile.toFile().deleteOnExit();
@@ -70,19 +125,35 @@ public final class DownloadUtil {
                 return tempFile;
             }
 
-            final HttpClient client = HttpClient.newHttpClient();
             final HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(location))
+                    .timeout(REQUEST_TIMEOUT)
                     .GET()
                     .build();
-            final var response = client.send(request, HttpResponse.BodyHandlers.ofFile(tempFile));
-            final var statusCode = response.statusCode();
-            if (statusCode == 200) {
-                return tempFile;
-            } else {
-                Files.deleteIfExists(tempFile);
-                throw new KomunumoException("Failed to download file from '%s': HTTP status code %s"
-                        .formatted(location, statusCode));
+            for (var attempt = 1; ; attempt++) {
+                try {
+                    final var response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                    final var statusCode = response.statusCode();
+                    if (statusCode == 200) {
+                        if (copyWithLimit(response.body(), tempFile, maxSize)) {
+                            return tempFile;
+                        }
+                        Files.deleteIfExists(tempFile);
+                        throw new KomunumoException("Failed to download file from '%s': the file exceeds %d bytes"
+                                .formatted(location, maxSize));
+                    }
+                    response.body().close();
+                    if (!TRANSIENT_STATUS_CODES.contains(statusCode) || attempt == MAX_ATTEMPTS) {
+                        Files.deleteIfExists(tempFile);
+                        throw new KomunumoException("Failed to download file from '%s': HTTP status code %s"
+                                .formatted(location, statusCode));
+                    }
+                } catch (final IOException e) {
+                    if (attempt == MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+                Thread.sleep(RETRY_DELAY.multipliedBy(attempt));
             }
         } catch (final IOException | InterruptedException e) {
             throw new KomunumoException("Failed to download file from '%s': %s"
@@ -90,6 +161,28 @@ public final class DownloadUtil {
         }
     }
 
+    /**
+     * <p>Copies the stream into the target file unless it provides more than the maximum size.</p>
+     *
+     * @return {@code true} if the stream was copied completely, {@code false} if it is too large
+     */
+    private static boolean copyWithLimit(final @NotNull InputStream inputStream,
+                                         final @NotNull Path target,
+                                         final long maxSize) throws IOException {
+        try (inputStream; var outputStream = Files.newOutputStream(target)) {
+            final var buffer = new byte[8192];
+            var remaining = maxSize;
+            for (var read = inputStream.read(buffer); read >= 0; read = inputStream.read(buffer)) {
+                if (read > remaining) {
+                    return false;
+                }
+                outputStream.write(buffer, 0, read);
+                remaining -= read;
+            }
+            return true;
+        }
+    }
+
     private DownloadUtil() {
         throw new IllegalStateException("Utility class");
     }
@@ -105,6 +105,28 @@ public final class ImageUtil {
     }
 
     public static void storeImage(final @NotNull ImageDto image, final @NotNull Path path) throws IOException {
+        final Path targetFile = createImageTarget(image);
+        Files.move(path, targetFile, StandardCopyOption.REPLACE_EXISTING);
+
+        LOGGER.info("Stored image '{}' as '{}'", path.toAbsolutePath(), targetFile.toAbsolutePath());
+    }
+
+    /**
+     * <p>Stores the image data read from the specified stream. The data is copied directly into
+     * the image storage without an intermediate file. The stream is not closed.</p>
+     *
+     * @param image the image the data belongs to; must have an ID
+     * @param data the stream providing the image data
+     * @throws IOException if the image data could not be stored
+     */
+    public static void storeImage(final @NotNull ImageDto image, final @NotNull InputStream data) throws IOException {
+        final Path targetFile = createImageTarget(image);
+        Files.copy(data, targetFile, StandardCopyOption.REPLACE_EXISTING);
+
+        LOGGER.info("Stored image data as '{}'", targetFile.toAbsolutePath());
+    }
+
+    private static @NotNull Path createImageTarget(final @NotNull ImageDto image) throws IOException {
         final UUID imageId = image.id();
         if (imageId == null) {
             throw new IllegalArgumentException("ImageDto must have an ID!");
@@ -114,12 +136,9 @@ public final class ImageUtil {
         final String prefix1 = id.substring(0, 2);
         final String prefix2 = id.substring(2, 4);
         final Path targetDir = uploadImagePath.resolve(prefix1).resolve(prefix2);
-        final Path targetFile = targetDir.resolve(id + image.contentType().getExtension());
 
         Files.createDirectories(targetDir);
-        Files.move(path, targetFile, StandardCopyOption.REPLACE_EXISTING);
-
-        LOGGER.info("Stored image '{}' as '{}'", path.toAbsolutePath(), targetFile.toAbsolutePath());
+        return targetDir.resolve(id + image.contentType().getExtension());
     }
 
     public static void cleanupOrphanedImageFiles(final @NotNull ImageService imageService) {
@@ -17,20 +17,44 @@
  */
 package app.komunumo.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.vladsch.flexmark.ext.gfm.strikethrough.StrikethroughExtension;
 import com.vladsch.flexmark.ext.tables.TablesExtension;
 import com.vladsch.flexmark.html.HtmlRenderer;
 import com.vladsch.flexmark.parser.Parser;
 import com.vladsch.flexmark.util.data.MutableDataSet;
 import org.jetbrains.annotations.NotNull;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.safety.Safelist;
 
 import java.util.Arrays;
 
 public final class MarkdownUtil {
 
+    /**
+     * <p>Maximum number of characters (Markdown and HTML) kept in the cache of rendered
+     * content.</p>
+     */
+    private static final long SAFE_HTML_CACHE_SIZE = 8_000_000;
+
+    /**
+     * <p>Placeholder used to validate relative links while sanitizing; the links themselves are
+     * kept relative.</p>
+     */
+    private static final @NotNull String RELATIVE_LINK_BASE_URI = "https://komunumo.invalid/";
+
     private static final @NotNull MutableDataSet OPTIONS = createOptions();
     private static final @NotNull Parser MARKDOWN_PARSER = createParser();
     private static final @NotNull HtmlRenderer HTML_RENDERER = createHtmlRenderer();
+    private static final @NotNull Safelist SAFELIST = createSafelist();
+    private static final @NotNull Document.OutputSettings OUTPUT_SETTINGS = new Document.OutputSettings()
+            .prettyPrint(false);
+    private static final @NotNull Cache<@NotNull String, @NotNull String> SAFE_HTML_CACHE = Caffeine.newBuilder()
+            .maximumWeight(SAFE_HTML_CACHE_SIZE)
+            .<String, String>weigher((markdown, html) -> markdown.length() + html.length())
+            .build();
 
     private static @NotNull MutableDataSet createOptions() {
         final var options = new MutableDataSet();
@@ -47,11 +71,37 @@ public final class MarkdownUtil {
         return HtmlRenderer.builder(OPTIONS).build();
     }
 
+    private static @NotNull Safelist createSafelist() {
+        return Safelist.relaxed()
+                .addTags("del", "hr")
+                .addAttributes("th", "align")
+                .addAttributes("td", "align")
+                .preserveRelativeLinks(true);
+    }
+
     public static @NotNull String convertMarkdownToHtml(final @NotNull String markdown) {
         final var document = MARKDOWN_PARSER.parse(markdown);
         return HTML_RENDERER.render(document);
     }
 
+    /**
+     * <p>Converts Markdown entered by users into HTML which is safe to display in the browser.
+     * Scripts, event handlers, and links with unsafe protocols are removed.</p>
+     *
+     * <p>The result is cached by the Markdown source, so stored content like event descriptions
+     * and global pages is rendered once on its first view instead of on every view. The cache
+     * lives in the memory of each node and is filled lazily; a changed text is a new cache key,
+     * so no node ever shows an outdated rendering. A change of the rendering options takes
+     * effect with the next start.</p>
+     *
+     * @param markdown the Markdown source
+     * @return the sanitized HTML
+     */
+    public static @NotNull String convertMarkdownToSafeHtml(final @NotNull String markdown) {
+        return SAFE_HTML_CACHE.get(markdown, source ->
+                Jsoup.clean(convertMarkdownToHtml(source), RELATIVE_LINK_BASE_URI, SAFELIST, OUTPUT_SETTINGS));
+    }
+
     private MarkdownUtil() {
         throw new IllegalStateException("Utility class");
     }
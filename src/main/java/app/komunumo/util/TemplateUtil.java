@@ -21,22 +21,32 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public final class TemplateUtil {
 
+    /**
+     * <p>Parses the {@code ${name}} placeholders of the text once, so the returned template can
+     * be rendered repeatedly without parsing the text again.</p>
+     *
+     * @param text the template text
+     * @return the compiled template
+     */
+    public static @NotNull CompiledTemplate compile(final @NotNull String text) {
+        return new CompiledTemplate(text);
+    }
+
+    /**
+     * <p>Replaces the {@code ${name}} placeholders of the text with the values of the specified
+     * variables. Placeholders without a value are left unchanged. Compile the text with
+     * {@link #compile(String)} instead if it is rendered more than once.</p>
+     *
+     * @param text the template text
+     * @param variables the variable values by name, may be {@code null}
+     * @return the text with the placeholders replaced
+     */
     public static @NotNull String replaceVariables(final @NotNull String text,
                                                    final @Nullable Map<String, String> variables) {
-        String returnValue = text;
-        if (variables != null) {
-            for (final var entry : variables.entrySet()) {
-                final var regex = Pattern.quote("${%s}".formatted(entry.getKey()));
-                final var value = Matcher.quoteReplacement(variables.get(entry.getKey()));
-                returnValue = returnValue.replaceAll(regex, value);
-            }
-        }
-        return returnValue;
+        return compile(text).render(variables);
     }
 
     private TemplateUtil() {
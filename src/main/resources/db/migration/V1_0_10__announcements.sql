@@ -0,0 +1,30 @@
+CREATE TABLE announcement (
+    id VARCHAR(36) NOT NULL,
+    created TIMESTAMP NOT NULL,
+    updated TIMESTAMP NOT NULL,
+    target VARCHAR(255) NOT NULL,
+    target_id VARCHAR(36) NOT NULL,
+    language VARCHAR(2) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    status VARCHAR(255) NOT NULL DEFAULT 'RUNNING',
+    recipient_count INT NOT NULL DEFAULT 0,
+    sent_count INT NOT NULL DEFAULT 0,
+    last_user_id VARCHAR(36) DEFAULT NULL,
+    CHECK (target IN ('COMMUNITY', 'EVENT')),
+    CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    PRIMARY KEY (id),
+    INDEX idx_announcement_status (status)
+);
+
+-- [jooq ignore start]
+INSERT INTO mail_template (id, language, subject, markdown)
+VALUES ('COMMUNITY_ANNOUNCEMENT', 'DE', '${subject}',
+        'Hallo ${name},\n\n${message}\n\nDu erhältst diese Nachricht als Mitglied der Gruppe "${communityName}".\n\nViele Grüße\n${instanceName}'),
+       ('COMMUNITY_ANNOUNCEMENT', 'EN', '${subject}',
+        'Hello ${name},\n\n${message}\n\nYou are receiving this message as a member of the community "${communityName}".\n\nBest regards\n${instanceName}'),
+       ('EVENT_ANNOUNCEMENT', 'DE', '${subject}',
+        'Hallo ${name},\n\n${message}\n\nDu erhältst diese Nachricht, weil du für das Event "${eventTitle}" angemeldet bist.\n\nViele Grüße\n${instanceName}'),
+       ('EVENT_ANNOUNCEMENT', 'EN', '${subject}',
+        'Hello ${name},\n\n${message}\n\nYou are receiving this message because you registered for the event "${eventTitle}".\n\nBest regards\n${instanceName}');
+-- [jooq ignore stop]
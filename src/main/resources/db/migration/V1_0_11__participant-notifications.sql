@@ -0,0 +1,20 @@
+CREATE TABLE participant_notification (
+    event_id VARCHAR(36) NOT NULL,
+    user_id VARCHAR(36) NOT NULL,
+    created TIMESTAMP NOT NULL,
+    language VARCHAR(2) NOT NULL,
+    PRIMARY KEY (event_id, user_id),
+    INDEX idx_participant_notification_created (created),
+    CONSTRAINT fk_participant_notification_participant
+        FOREIGN KEY (event_id, user_id)
+            REFERENCES participant (event_id, user_id)
+            ON DELETE CASCADE
+);
+
+-- [jooq ignore start]
+INSERT INTO mail_template (id, language, subject, markdown)
+VALUES ('EVENT_REGISTRATION_DIGEST', 'DE', '${newParticipantCount} neue Anmeldungen für "${eventTitle}"',
+        'Hallo,\n\nfür "${eventTitle}" haben sich ${newParticipantCount} Personen neu angemeldet:\n\n${participantNames}\n\nAktuelle Anzahl Anmeldungen: ${participantCount}\n\nViele Grüße\n${instanceName}'),
+       ('EVENT_REGISTRATION_DIGEST', 'EN', '${newParticipantCount} new registrations for "${eventTitle}"',
+        'Hello,\n\n${newParticipantCount} people just registered for "${eventTitle}":\n\n${participantNames}\n\nCurrent number of registrations: ${participantCount}\n\nBest regards\n${instanceName}');
+-- [jooq ignore stop]
@@ -0,0 +1,26 @@
+CREATE INDEX idx_event_status_begin ON event (status, begin);
+
+CREATE TABLE event_reminder (
+    event_id VARCHAR(36) NOT NULL,
+    event_begin TIMESTAMP NOT NULL,
+    created TIMESTAMP NOT NULL,
+    updated TIMESTAMP NOT NULL,
+    status VARCHAR(255) NOT NULL DEFAULT 'RUNNING',
+    sent_count INT NOT NULL DEFAULT 0,
+    last_user_id VARCHAR(36) DEFAULT NULL,
+    CHECK (status IN ('RUNNING', 'COMPLETED')),
+    PRIMARY KEY (event_id),
+    INDEX idx_event_reminder_status_updated (status, updated),
+    CONSTRAINT fk_event_reminder_event
+        FOREIGN KEY (event_id)
+            REFERENCES event (id)
+            ON DELETE CASCADE
+);
+
+-- [jooq ignore start]
+INSERT INTO mail_template (id, language, subject, markdown)
+VALUES ('EVENT_REMINDER', 'DE', 'Erinnerung: "${eventTitle}"',
+        'Hallo ${name},\n\nwir möchten dich an das Event "${eventTitle}" erinnern, für das du angemeldet bist.\n\n- Beginn: ${eventBegin}\n- Ort: ${eventLocation}\n\nAlle Details findest du hier:\n${eventLink}\n\nViele Grüße\n${instanceName}'),
+       ('EVENT_REMINDER', 'EN', 'Reminder: "${eventTitle}"',
+        'Hello ${name},\n\nthis is a reminder of the event "${eventTitle}" you registered for.\n\n- Begin: ${eventBegin}\n- Location: ${eventLocation}\n\nYou can find all details here:\n${eventLink}\n\nBest regards\n${instanceName}');
+-- [jooq ignore stop]
@@ -0,0 +1,2 @@
+ALTER TABLE announcement
+    ADD COLUMN claim_id VARCHAR(36) DEFAULT NULL AFTER status;
@@ -0,0 +1,50 @@
+CREATE TABLE tombstone (
+    type VARCHAR(32) NOT NULL,
+    entity_key VARCHAR(255) NOT NULL,
+    deleted TIMESTAMP NOT NULL,
+    CHECK (type IN ('USER', 'COMMUNITY', 'EVENT', 'GLOBAL_PAGE', 'MEMBER', 'PARTICIPANT')),
+    PRIMARY KEY (type, entity_key),
+    INDEX idx_tombstone_deleted (deleted)
+);
+
+ALTER TABLE member ADD COLUMN updated TIMESTAMP NULL DEFAULT NULL AFTER since;
+
+-- [jooq ignore start]
+UPDATE member SET updated = since;
+-- [jooq ignore stop]
+
+ALTER TABLE member MODIFY updated TIMESTAMP NOT NULL;
+
+-- [jooq ignore start]
+
+CREATE TRIGGER tr_user_tombstone AFTER DELETE ON user FOR EACH ROW
+    INSERT INTO tombstone (type, entity_key, deleted)
+    VALUES ('USER', OLD.id, UTC_TIMESTAMP())
+    ON DUPLICATE KEY UPDATE deleted = UTC_TIMESTAMP();
+
+CREATE TRIGGER tr_community_tombstone AFTER DELETE ON community FOR EACH ROW
+    INSERT INTO tombstone (type, entity_key, deleted)
+    VALUES ('COMMUNITY', OLD.id, UTC_TIMESTAMP())
+    ON DUPLICATE KEY UPDATE deleted = UTC_TIMESTAMP();
+
+CREATE TRIGGER tr_event_tombstone AFTER DELETE ON event FOR EACH ROW
+    INSERT INTO tombstone (type, entity_key, deleted)
+    VALUES ('EVENT', OLD.id, UTC_TIMESTAMP())
+    ON DUPLICATE KEY UPDATE deleted = UTC_TIMESTAMP();
+
+CREATE TRIGGER tr_global_page_tombstone AFTER DELETE ON global_page FOR EACH ROW
+    INSERT INTO tombstone (type, entity_key, deleted)
+    VALUES ('GLOBAL_PAGE', CONCAT(OLD.slot, '/', OLD.language), UTC_TIMESTAMP())
+    ON DUPLICATE KEY UPDATE deleted = UTC_TIMESTAMP();
+
+CREATE TRIGGER tr_member_tombstone AFTER DELETE ON member FOR EACH ROW
+    INSERT INTO tombstone (type, entity_key, deleted)
+    VALUES ('MEMBER', CONCAT(OLD.community_id, '/', OLD.user_id), UTC_TIMESTAMP())
+    ON DUPLICATE KEY UPDATE deleted = UTC_TIMESTAMP();
+
+CREATE TRIGGER tr_participant_tombstone AFTER DELETE ON participant FOR EACH ROW
+    INSERT INTO tombstone (type, entity_key, deleted)
+    VALUES ('PARTICIPANT', CONCAT(OLD.event_id, '/', OLD.user_id), UTC_TIMESTAMP())
+    ON DUPLICATE KEY UPDATE deleted = UTC_TIMESTAMP();
+
+-- [jooq ignore stop]
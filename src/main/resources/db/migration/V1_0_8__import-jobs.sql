@@ -0,0 +1,13 @@
+CREATE TABLE import_job (
+    id VARCHAR(36) NOT NULL,
+    created TIMESTAMP NOT NULL,
+    updated TIMESTAMP NOT NULL,
+    source VARCHAR(2048) NOT NULL,
+    uploaded BOOLEAN NOT NULL DEFAULT FALSE,
+    status VARCHAR(255) NOT NULL DEFAULT 'RUNNING',
+    section VARCHAR(255) DEFAULT NULL,
+    section_offset INT NOT NULL DEFAULT 0,
+    CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    PRIMARY KEY (id),
+    INDEX idx_import_job_status (status)
+);
@@ -0,0 +1,20 @@
+CREATE TABLE mail_outbox (
+    id VARCHAR(36) NOT NULL,
+    created TIMESTAMP NOT NULL,
+    updated TIMESTAMP NOT NULL,
+    sender VARCHAR(255) NOT NULL,
+    reply_to VARCHAR(255) NOT NULL DEFAULT '',
+    recipients TEXT NOT NULL,
+    subject TEXT NOT NULL,
+    body MEDIUMTEXT NOT NULL,
+    html BOOLEAN NOT NULL DEFAULT FALSE,
+    status VARCHAR(255) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt TIMESTAMP NOT NULL,
+    claim_id VARCHAR(36) DEFAULT NULL,
+    last_error TEXT DEFAULT NULL,
+    CHECK (status IN ('PENDING', 'SENDING', 'FAILED')),
+    PRIMARY KEY (id),
+    INDEX idx_mail_outbox_status_next_attempt (status, next_attempt),
+    INDEX idx_mail_outbox_claim_id (claim_id)
+);
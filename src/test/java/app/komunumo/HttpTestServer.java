@@ -31,6 +31,9 @@ import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 
 public class HttpTestServer implements LauncherSessionListener {
 
@@ -70,8 +73,18 @@ public class HttpTestServer implements LauncherSessionListener {
             return;
         }
 
+        final var lastModified = Files.getLastModifiedTime(file).toInstant().truncatedTo(ChronoUnit.SECONDS);
+        final var etag = "\"%x-%x\"".formatted(Files.size(file), lastModified.getEpochSecond());
         final var contentType = guessContentType(file);
         final var headers = exchange.getResponseHeaders();
+        headers.set("ETag", etag);
+        headers.set("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(lastModified.atZone(ZoneOffset.UTC)));
+
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+
         headers.set("Content-Type", contentType);
 
         final var body = Files.readAllBytes(file);
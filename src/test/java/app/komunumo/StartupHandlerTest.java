@@ -17,19 +17,26 @@
  */
 package app.komunumo;
 
+import app.komunumo.domain.announcement.control.AnnouncementService;
 import app.komunumo.domain.core.config.control.ConfigurationService;
 import app.komunumo.domain.core.demo.control.DemoMode;
+import app.komunumo.domain.core.importer.control.ImportJobService;
+import app.komunumo.domain.core.mail.control.MailOutbox;
 import app.komunumo.domain.user.control.UserService;
 import app.komunumo.domain.user.entity.UserRole;
 import app.komunumo.infra.config.AppConfig;
+import app.komunumo.infra.config.DatabaseConfig;
 import app.komunumo.infra.config.DemoConfig;
 import app.komunumo.infra.config.FilesConfig;
+import app.komunumo.infra.config.ImporterConfig;
 import app.komunumo.infra.config.InstanceConfig;
 import app.komunumo.infra.config.MailConfig;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
@@ -47,8 +54,12 @@ class StartupHandlerTest {
         final var configurationService = mock(ConfigurationService.class);
         final var userService = mockUserService(0);
         final var demoMode = mock(DemoMode.class);
+        final var importJobService = mock(ImportJobService.class);
+        final var mailOutbox = mock(MailOutbox.class);
+        final var announcementService = mock(AnnouncementService.class);
 
-        final var startupHandler = new StartupHandler(appConfig, configurationService, userService, demoMode);
+        final var startupHandler = new StartupHandler(appConfig, configurationService, userService, demoMode,
+                importJobService, mailOutbox, announcementService);
         startupHandler.onApplicationReady();
 
         verify(userService).storeUser(argThat(user ->
@@ -56,6 +67,9 @@ class StartupHandlerTest {
                         user.role() == UserRole.ADMIN &&
                         user.profile().equals("@admin")
         ));
+        verify(importJobService).resumeInterruptedJobs();
+        verify(mailOutbox).start();
+        verify(announcementService).resumeInterruptedAnnouncements();
     }
 
     @Test
@@ -64,8 +78,12 @@ class StartupHandlerTest {
         final var configurationService = mock(ConfigurationService.class);
         final var userService = mockUserService(1);
         final var demoMode = mock(DemoMode.class);
+        final var importJobService = mock(ImportJobService.class);
+        final var mailOutbox = mock(MailOutbox.class);
+        final var announcementService = mock(AnnouncementService.class);
 
-        final var startupHandler = new StartupHandler(appConfig, configurationService, userService, demoMode);
+        final var startupHandler = new StartupHandler(appConfig, configurationService, userService, demoMode,
+                importJobService, mailOutbox, announcementService);
         startupHandler.onApplicationReady();
 
         verify(userService, never()).storeUser(any());
@@ -77,8 +95,12 @@ class StartupHandlerTest {
         final var configurationService = mock(ConfigurationService.class);
         final var userService = mockUserService(0);
         final var demoMode = mock(DemoMode.class);
+        final var importJobService = mock(ImportJobService.class);
+        final var mailOutbox = mock(MailOutbox.class);
+        final var announcementService = mock(AnnouncementService.class);
 
-        final var startupHandler = new StartupHandler(appConfig, configurationService, userService, demoMode);
+        final var startupHandler = new StartupHandler(appConfig, configurationService, userService, demoMode,
+                importJobService, mailOutbox, announcementService);
         startupHandler.onApplicationReady();
 
         verify(userService, never()).storeUser(any());
@@ -92,11 +114,13 @@ class StartupHandlerTest {
 
     private AppConfig createAppConfig(final @NotNull String email) {
         final var version = "0.0.0";
+        final var databaseConfig = new DatabaseConfig(List.of(), Duration.ZERO);
         final var demoConfig = new DemoConfig(false, "");
         final var filesConfig = new FilesConfig(Path.of("/tmp"));
+        final var importerConfig = new ImporterConfig(1);
         final var instanceConfig = new InstanceConfig(email);
-        final var mailConfig = new MailConfig("", "");
-        return new AppConfig(version, demoConfig, filesConfig, instanceConfig, mailConfig);
+        final var mailConfig = new MailConfig("", "", 1, 10);
+        return new AppConfig(version, databaseConfig, demoConfig, filesConfig, importerConfig, instanceConfig, mailConfig);
     }
 
 }
@@ -0,0 +1,325 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.announcement.control;
+
+import app.komunumo.domain.announcement.entity.AnnouncementDto;
+import app.komunumo.domain.announcement.entity.AnnouncementStatus;
+import app.komunumo.domain.announcement.entity.AnnouncementTarget;
+import app.komunumo.domain.community.control.CommunityService;
+import app.komunumo.domain.community.entity.CommunityDto;
+import app.komunumo.domain.event.control.EventService;
+import app.komunumo.domain.event.entity.EventDto;
+import app.komunumo.domain.event.entity.EventStatus;
+import app.komunumo.domain.event.entity.EventVisibility;
+import app.komunumo.domain.member.control.MemberService;
+import app.komunumo.domain.member.entity.MemberDto;
+import app.komunumo.domain.member.entity.MemberRole;
+import app.komunumo.domain.participant.control.ParticipantService;
+import app.komunumo.domain.participant.entity.ParticipantDto;
+import app.komunumo.domain.user.control.UserService;
+import app.komunumo.domain.user.entity.UserDto;
+import app.komunumo.domain.user.entity.UserRole;
+import app.komunumo.domain.user.entity.UserType;
+import app.komunumo.test.KaribuTest;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import jakarta.mail.MessagingException;
+import nl.altindag.log.LogCaptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static app.komunumo.data.db.tables.Announcement.ANNOUNCEMENT;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class AnnouncementServiceKT extends KaribuTest {
+
+    @Autowired
+    private @NotNull AnnouncementService announcementService;
+
+    @Autowired
+    private @NotNull CommunityService communityService;
+
+    @Autowired
+    private @NotNull EventService eventService;
+
+    @Autowired
+    private @NotNull MemberService memberService;
+
+    @Autowired
+    private @NotNull ParticipantService participantService;
+
+    @Autowired
+    private @NotNull UserService userService;
+
+    @Autowired
+    private @NotNull DSLContext dsl;
+
+    @Test
+    void announceToMembers() throws MessagingException {
+        final var community = createCommunity();
+        final var users = createUsers(3);
+        users.forEach(user -> addMember(community, user));
+        addMember(community, createUser(null, "Remote User", UserType.REMOTE));
+
+        final var announcement = announcementService.announceToMembers(community,
+                "Community news", "We have **great** news!", Locale.ENGLISH);
+        assertThat(announcement.target()).isEqualTo(AnnouncementTarget.COMMUNITY);
+        assertThat(announcement.targetId()).isEqualTo(community.id());
+        assertThat(announcement.status()).isEqualTo(AnnouncementStatus.RUNNING);
+        assertThat(announcement.recipientCount()).isEqualTo(3);
+
+        final var completed = awaitFinished(announcement);
+        assertThat(completed.status()).isEqualTo(AnnouncementStatus.COMPLETED);
+        assertThat(completed.sentCount()).isEqualTo(3);
+        assertThat(completed.lastUserId()).isNotNull();
+
+        final var messages = getEmailsBySubject("[Komunumo Test] Community news", 3);
+        for (final var message : messages) {
+            assertThat(message.getAllRecipients()).hasSize(1);
+            final var recipient = message.getAllRecipients()[0].toString();
+            final var user = users.stream()
+                    .filter(u -> recipient.equals(u.email()))
+                    .findFirst().orElseThrow();
+            assertThat(GreenMailUtil.getBody(message))
+                    .startsWith("Hello " + user.name() + ",")
+                    .contains("We have **great** news!")
+                    .contains("member of the community \"Announcement Community\"")
+                    .contains("Komunumo Test");
+        }
+    }
+
+    @Test
+    void announceToParticipants() {
+        final var community = createCommunity();
+        final var event = eventService.storeEvent(new EventDto(null, community.id(), null, null,
+                "Announcement Event", "", "", null, null, null, true,
+                EventVisibility.PUBLIC, EventStatus.PUBLISHED));
+        final var users = createUsers(2);
+        users.forEach(user -> participantService.storeParticipant(
+                new ParticipantDto(event.id(), user.id(), null)));
+
+        final var announcement = announcementService.announceToParticipants(event,
+                "Room changed", "The event moves to room 42.", Locale.GERMAN);
+        assertThat(announcement.target()).isEqualTo(AnnouncementTarget.EVENT);
+        assertThat(announcement.language()).isEqualTo(Locale.GERMAN);
+        assertThat(announcement.recipientCount()).isEqualTo(2);
+
+        final var completed = awaitFinished(announcement);
+        assertThat(completed.status()).isEqualTo(AnnouncementStatus.COMPLETED);
+        assertThat(completed.sentCount()).isEqualTo(2);
+
+        final var messages = getEmailsBySubject("[Komunumo Test] Room changed", 2);
+        assertThat(messages)
+                .extracting(GreenMailUtil::getBody)
+                .allSatisfy(body -> assertThat(body)
+                        .startsWith("Hallo Recipient ")
+                        .contains("The event moves to room 42.")
+                        .contains("für das Event \"Announcement Event\""));
+    }
+
+    @Test
+    void resumeInterruptedAnnouncement() throws MessagingException {
+        final var community = createCommunity();
+        final var users = new ArrayList<>(createUsers(3));
+        users.forEach(user -> addMember(community, user));
+        // the recipients are sent to in the order of their IDs
+        users.sort(Comparator.comparing(user -> String.valueOf(user.id())));
+
+        // simulate an announcement interrupted after the first recipient
+        final var announcementId = UUID.randomUUID();
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        dsl.insertInto(ANNOUNCEMENT)
+                .set(ANNOUNCEMENT.ID, announcementId)
+                .set(ANNOUNCEMENT.CREATED, now)
+                .set(ANNOUNCEMENT.UPDATED, now)
+                .set(ANNOUNCEMENT.TARGET, AnnouncementTarget.COMMUNITY.name())
+                .set(ANNOUNCEMENT.TARGET_ID, community.id())
+                .set(ANNOUNCEMENT.LANGUAGE, "en")
+                .set(ANNOUNCEMENT.SUBJECT, "Interrupted news")
+                .set(ANNOUNCEMENT.MESSAGE, "Sent before and after a restart.")
+                .set(ANNOUNCEMENT.STATUS, AnnouncementStatus.RUNNING.name())
+                .set(ANNOUNCEMENT.RECIPIENT_COUNT, 3)
+                .set(ANNOUNCEMENT.SENT_COUNT, 1)
+                .set(ANNOUNCEMENT.LAST_USER_ID, users.getFirst().id())
+                .execute();
+
+        try (var logCaptor = LogCaptor.forClass(AnnouncementService.class)) {
+            announcementService.resumeInterruptedAnnouncements();
+            assertThat(logCaptor.getInfoLogs())
+                    .contains("Resuming interrupted announcement " + announcementId + ".");
+        }
+
+        final var completed = awaitFinished(announcementService.getAnnouncement(announcementId).orElseThrow());
+        assertThat(completed.status()).isEqualTo(AnnouncementStatus.COMPLETED);
+        assertThat(completed.sentCount()).isEqualTo(3);
+        assertThat(completed.lastUserId()).isEqualTo(users.getLast().id());
+
+        final var recipients = new ArrayList<String>();
+        for (final var message : getEmailsBySubject("[Komunumo Test] Interrupted news", 2)) {
+            recipients.add(message.getAllRecipients()[0].toString());
+        }
+        assertThat(recipients).containsExactlyInAnyOrder(users.get(1).email(), users.get(2).email());
+    }
+
+    @Test
+    void resumeOnlyAnnouncementsWithExpiredLease() {
+        final var community = createCommunity();
+        createUsers(1).forEach(user -> addMember(community, user));
+
+        final var otherNode = UUID.randomUUID();
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        final var activeId = insertAnnouncement(community, "Active lease", otherNode, now);
+        final var expiredId = insertAnnouncement(community, "Expired lease", otherNode,
+                now.minus(AnnouncementService.LEASE_TIMEOUT).minusMinutes(1));
+
+        announcementService.resumeInterruptedAnnouncements();
+
+        final var completed = awaitFinished(announcementService.getAnnouncement(expiredId).orElseThrow());
+        assertThat(completed.status()).isEqualTo(AnnouncementStatus.COMPLETED);
+        assertThat(completed.sentCount()).isEqualTo(1);
+
+        // the other node is still sending this announcement, so it is left alone
+        assertThat(announcementService.getAnnouncement(activeId)).hasValueSatisfying(announcement -> {
+            assertThat(announcement.status()).isEqualTo(AnnouncementStatus.RUNNING);
+            assertThat(announcement.sentCount()).isZero();
+        });
+        assertThat(dsl.select(ANNOUNCEMENT.CLAIM_ID).from(ANNOUNCEMENT).where(ANNOUNCEMENT.ID.eq(activeId))
+                .fetchOne(ANNOUNCEMENT.CLAIM_ID)).isEqualTo(otherNode);
+        dsl.deleteFrom(ANNOUNCEMENT).where(ANNOUNCEMENT.ID.eq(activeId)).execute();
+    }
+
+    @Test
+    void announcementFailsWithoutTarget() {
+        final var community = createCommunity();
+        addMember(community, createUsers(1).getFirst());
+        communityService.deleteCommunity(community);
+
+        try (var logCaptor = LogCaptor.forClass(AnnouncementService.class)) {
+            final var announcement = announcementService.announceToMembers(community,
+                    "Lost news", "Nobody will read this.", Locale.ENGLISH);
+
+            final var failed = awaitFinished(announcement);
+            assertThat(failed.status()).isEqualTo(AnnouncementStatus.FAILED);
+            assertThat(failed.sentCount()).isZero();
+            assertThat(logCaptor.getErrorLogs())
+                    .containsExactly("Announcement " + announcement.id() + " failed: Community not found");
+        }
+    }
+
+    @Test
+    void subscribeToFinishedAnnouncement() {
+        final var community = createCommunity();
+        addMember(community, createUsers(1).getFirst());
+        final var announcement = announcementService.announceToMembers(community,
+                "Short news", "Done quickly.", Locale.ENGLISH);
+        awaitFinished(announcement);
+
+        final var finished = new AtomicReference<AnnouncementDto>();
+        announcementService.subscribe(announcement.id(), new AnnouncementListener() {
+            @Override
+            public void progress(final @NotNull AnnouncementDto progress) {
+                // the mails have already been sent
+            }
+
+            @Override
+            public void finished(final @NotNull AnnouncementDto finishedAnnouncement) {
+                finished.set(finishedAnnouncement);
+            }
+        }).run();
+        await().atMost(10, SECONDS).until(() -> finished.get() != null);
+        assertThat(finished.get()).satisfies(testee -> {
+            assertThat(testee.id()).isEqualTo(announcement.id());
+            assertThat(testee.status()).isEqualTo(AnnouncementStatus.COMPLETED);
+            assertThat(testee.sentCount()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void getUnknownAnnouncement() {
+        assertThat(announcementService.getAnnouncement(UUID.randomUUID())).isEmpty();
+    }
+
+    private @NotNull CommunityDto createCommunity() {
+        return communityService.storeCommunity(new CommunityDto(null, "@announcement", null, null,
+                "Announcement Community", "", null));
+    }
+
+    private @NotNull List<UserDto> createUsers(final int count) {
+        final var users = new ArrayList<UserDto>();
+        for (var i = 1; i <= count; i++) {
+            users.add(createUser("recipient-%d@example.com".formatted(i), "Recipient " + i, UserType.LOCAL));
+        }
+        return users;
+    }
+
+    private @NotNull UserDto createUser(final @Nullable String email,
+                                        final @NotNull String name,
+                                        final @NotNull UserType type) {
+        return userService.storeUser(new UserDto(null, null, null, null, email, name, "", null,
+                UserRole.USER, type));
+    }
+
+    private @NotNull UUID insertAnnouncement(final @NotNull CommunityDto community,
+                                             final @NotNull String subject,
+                                             final @NotNull UUID claimId,
+                                             final @NotNull ZonedDateTime lease) {
+        final var announcementId = UUID.randomUUID();
+        dsl.insertInto(ANNOUNCEMENT)
+                .set(ANNOUNCEMENT.ID, announcementId)
+                .set(ANNOUNCEMENT.CREATED, lease)
+                .set(ANNOUNCEMENT.UPDATED, lease)
+                .set(ANNOUNCEMENT.TARGET, AnnouncementTarget.COMMUNITY.name())
+                .set(ANNOUNCEMENT.TARGET_ID, community.id())
+                .set(ANNOUNCEMENT.LANGUAGE, "en")
+                .set(ANNOUNCEMENT.SUBJECT, subject)
+                .set(ANNOUNCEMENT.MESSAGE, "Sent by one node only.")
+                .set(ANNOUNCEMENT.STATUS, AnnouncementStatus.RUNNING.name())
+                .set(ANNOUNCEMENT.CLAIM_ID, claimId)
+                .set(ANNOUNCEMENT.RECIPIENT_COUNT, 1)
+                .execute();
+        return announcementId;
+    }
+
+    private void addMember(final @NotNull CommunityDto community, final @NotNull UserDto user) {
+        memberService.storeMember(new MemberDto(user.id(), community.id(), MemberRole.MEMBER, null));
+    }
+
+    private @NotNull AnnouncementDto awaitFinished(final @NotNull AnnouncementDto announcement) {
+        final var finished = new AtomicReference<AnnouncementDto>();
+        await().atMost(10, SECONDS).until(() -> {
+            final var current = announcementService.getAnnouncement(announcement.id()).orElseThrow();
+            finished.set(current);
+            return current.status() != AnnouncementStatus.RUNNING;
+        });
+        return finished.get();
+    }
+
+}
@@ -104,7 +104,7 @@ class CommunityDetailViewKT extends KaribuTest {
 
     @Test
     void communityWithFutureEventsShown() {
-        UI.getCurrent().navigate("communities/@demoCommunity3");
+        navigateWithinStatementBudget("communities/@demoCommunity3", 25);
 
         final var h2 = _get(H2.class, spec -> spec.withClasses("community-name"));
         assertThat(h2).isNotNull();
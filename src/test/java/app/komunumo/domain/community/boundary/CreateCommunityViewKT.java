@@ -22,13 +22,13 @@ import app.komunumo.domain.user.entity.UserRole;
 import app.komunumo.infra.ui.vaadin.components.ImageUpload;
 import app.komunumo.infra.ui.vaadin.components.MarkdownEditor;
 import app.komunumo.infra.ui.vaadin.components.ProfileField;
+import app.komunumo.infra.ui.vaadin.components.RenderedMarkdown;
 import app.komunumo.test.KaribuTest;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.Image;
-import com.vaadin.flow.component.markdown.Markdown;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
@@ -102,7 +102,7 @@ public class CreateCommunityViewKT extends KaribuTest {
                 .isEqualTo("communities/@testCommunity");
         assertThat(_get(H2.class, spec -> spec.withClasses("community-name")).getText())
                 .isEqualTo("Test Community");
-        assertThat(_get(Markdown.class, spec -> spec.withClasses("community-description")).getContent())
+        assertThat(_get(RenderedMarkdown.class, spec -> spec.withClasses("community-description")).getMarkdown())
                 .isEqualTo("Test Community Description");
         assertThat(_find(Image.class, spec -> spec.withClasses("community-image")))
                 .isEmpty();
@@ -135,7 +135,7 @@ public class CreateCommunityViewKT extends KaribuTest {
                 .isEqualTo("communities/@testCommunity");
         assertThat(_get(H2.class, spec -> spec.withClasses("community-name")).getText())
                 .isEqualTo("Test Community");
-        assertThat(_get(Markdown.class, spec -> spec.withClasses("community-description")).getContent())
+        assertThat(_get(RenderedMarkdown.class, spec -> spec.withClasses("community-description")).getMarkdown())
                 .isEqualTo("Test Community Description");
         assertThat(_get(Image.class, spec -> spec.withClasses("community-image")).getSrc())
                 .isEqualTo("/images/%s.svg".formatted(imageId));
@@ -169,7 +169,7 @@ public class CreateCommunityViewKT extends KaribuTest {
                 .isEqualTo("communities/@testCommunity");
         assertThat(_get(H2.class, spec -> spec.withClasses("community-name")).getText())
                 .isEqualTo("Test Community");
-        assertThat(_get(Markdown.class, spec -> spec.withClasses("community-description")).getContent())
+        assertThat(_get(RenderedMarkdown.class, spec -> spec.withClasses("community-description")).getMarkdown())
                 .isEqualTo("Test Community Description");
         assertThat(_find(Image.class, spec -> spec.withClasses("community-image")))
                 .isEmpty();
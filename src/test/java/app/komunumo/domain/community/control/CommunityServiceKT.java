@@ -18,18 +18,37 @@
 package app.komunumo.domain.community.control;
 
 import app.komunumo.domain.community.entity.CommunityDto;
+import app.komunumo.domain.member.control.MemberService;
+import app.komunumo.domain.member.entity.MemberDto;
+import app.komunumo.domain.member.entity.MemberRole;
+import app.komunumo.domain.user.control.UserService;
+import app.komunumo.domain.user.entity.UserDto;
+import app.komunumo.domain.user.entity.UserRole;
+import app.komunumo.domain.user.entity.UserType;
 import app.komunumo.test.KaribuTest;
+import app.komunumo.test.TestConstants;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.List;
+import java.util.UUID;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class CommunityServiceKT extends KaribuTest {
 
+    private static final @NotNull UUID COMMUNITY_ID = UUID.fromString("9a73690b-6dbd-456a-88e9-dc3f77b69aa0");
+
     @Autowired
     private @NotNull CommunityService communityService;
 
+    @Autowired
+    private @NotNull MemberService memberService;
+
+    @Autowired
+    private @NotNull UserService userService;
+
     @Test
     @SuppressWarnings("java:S5961")
     void happyCase() {
@@ -105,4 +124,38 @@ class CommunityServiceKT extends KaribuTest {
         assertThat(communityService.isProfileNameAvailable(existingProfileName)).isFalse();
     }
 
+    @Test
+    void storeMultipleCommunities() {
+        final var count = communityService.getCommunityCount();
+        final var communityId = UUID.randomUUID();
+        communityService.storeCommunities(List.of(
+                new CommunityDto(communityId, "@batch1", null, null, "Batch Community 1", "", null),
+                new CommunityDto(UUID.randomUUID(), "@batch2", null, null, "Batch Community 2", "", null)));
+        assertThat(communityService.getCommunityCount()).isEqualTo(count + 2);
+
+        final var community = communityService.getCommunity(communityId).orElseThrow();
+        assertThat(community.profile()).isEqualTo("@batch1");
+        assertThat(community.name()).isEqualTo("Batch Community 1");
+        assertThat(community.created()).isNotNull();
+        assertThat(community.updated()).isEqualTo(community.created());
+    }
+
+    @Test
+    void hasManagementPermission() {
+        final var community = communityService.getCommunity(COMMUNITY_ID).orElseThrow();
+        final var owner = userService.getUserById(TestConstants.USER_ID_LOCAL).orElseThrow();
+        final var member = userService.getUserById(TestConstants.USER_ID_MEMBER).orElseThrow();
+        final var admin = userService.getUserById(TestConstants.USER_ID_ADMIN).orElseThrow();
+        final var outsider = userService.storeUser(new UserDto(null, null, null, null,
+                "outsider@example.com", "Outsider", "", null, UserRole.USER, UserType.LOCAL));
+        final var organizer = userService.storeUser(new UserDto(null, null, null, null,
+                "organizer@example.com", "Organizer", "", null, UserRole.USER, UserType.LOCAL));
+        memberService.storeMember(new MemberDto(organizer.id(), COMMUNITY_ID, MemberRole.ORGANIZER, null));
+
+        assertThat(communityService.hasManagementPermission(community, owner)).isTrue();
+        assertThat(communityService.hasManagementPermission(community, organizer)).isTrue();
+        assertThat(communityService.hasManagementPermission(community, admin)).isTrue();
+        assertThat(communityService.hasManagementPermission(community, member)).isFalse();
+        assertThat(communityService.hasManagementPermission(community, outsider)).isFalse();
+    }
 }
@@ -18,6 +18,7 @@
 package app.komunumo.domain.core.config.control;
 
 import app.komunumo.domain.core.config.entity.ConfigurationSetting;
+import app.komunumo.domain.core.config.entity.ConfigurationValue;
 import app.komunumo.test.KaribuTest;
 import org.jooq.DSLContext;
 import org.junit.jupiter.api.BeforeEach;
@@ -225,6 +226,11 @@ class ConfigurationServiceKT extends KaribuTest {
                 {ConfigurationSetting.INSTANCE_HIDE_COMMUNITIES, Boolean.class, false, false},
                 {ConfigurationSetting.INSTANCE_CREATE_COMMUNITY_ALLOWED, Boolean.class, true, true},
                 {ConfigurationSetting.INSTANCE_CREATE_COMMUNITY_ALLOWED, Boolean.class, false, false},
+                {ConfigurationSetting.EVENT_REMINDER_HOURS, Integer.class, 48, 48},
+                {ConfigurationSetting.EVENT_REMINDER_HOURS, Integer.class, 0, 0},
+                {ConfigurationSetting.EVENT_REMINDER_HOURS, Integer.class, "invalid", 24},
+                {ConfigurationSetting.TOMBSTONE_RETENTION_DAYS, Integer.class, 30, 30},
+                {ConfigurationSetting.TOMBSTONE_RETENTION_DAYS, Integer.class, "invalid", 90},
         };
     }
 
@@ -248,4 +254,30 @@ class ConfigurationServiceKT extends KaribuTest {
                 .hasMessage("Unsupported type: interface java.util.List");
     }
 
+    @Test
+    void shouldStoreMultipleValues() {
+        configurationService.setConfiguration(INSTANCE_SLOGAN, ENGLISH, "Old");
+        configurationService.getConfiguration(INSTANCE_SLOGAN, ENGLISH); // fill the cache
+
+        configurationService.setConfigurations(List.of(
+                new ConfigurationValue(INSTANCE_NAME, null, "Batch Instance"),
+                new ConfigurationValue(INSTANCE_SLOGAN, ENGLISH, "New"),
+                new ConfigurationValue(INSTANCE_SLOGAN, GERMAN, "Neu")));
+
+        assertThat(configurationService.getConfiguration(INSTANCE_NAME)).isEqualTo("Batch Instance");
+        assertThat(configurationService.getConfiguration(INSTANCE_SLOGAN, ENGLISH)).isEqualTo("New");
+        assertThat(configurationService.getConfiguration(INSTANCE_SLOGAN, GERMAN)).isEqualTo("Neu");
+        assertThat(configurationService.getConfigurationCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotStoreMultipleValuesWithInvalidLocale() {
+        final var values = List.of(
+                new ConfigurationValue(INSTANCE_NAME, null, "Batch Instance"),
+                new ConfigurationValue(INSTANCE_SLOGAN, null, "Invalid"));
+        assertThatThrownBy(() -> configurationService.setConfigurations(values))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Setting 'instance.slogan' is language-dependent; you need to specify a locale!");
+        assertThat(configurationService.getConfigurationCount()).isZero();
+    }
 }
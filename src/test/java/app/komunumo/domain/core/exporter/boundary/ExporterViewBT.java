@@ -24,11 +24,13 @@ import org.jooq.Field;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
+import tools.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.UUID;
+import java.util.zip.ZipFile;
 
 import static app.komunumo.data.db.tables.Image.IMAGE;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -142,16 +144,9 @@ class ExporterViewBT extends BrowserTest {
             final var startExportButton = page.locator("vaadin-button.start-export-button");
             assertThat(startExportButton.isEnabled()).isTrue();
 
-            // start the export and wait for it to finish
-            startExportButton.click();
-            page.waitForSelector("li:has-text('Export started')");
-            page.waitForSelector("li:has-text('Export successful')");
-
-            // Start the download
-            final var download = page.waitForDownload(() -> {
-                final var downloadLink = page.locator("a.export-download-link");
-                downloadLink.click();
-            });
+            // start the export, which streams directly into the download
+            final var download = page.waitForDownload(startExportButton::click);
+            page.waitForSelector(".log-viewer-entry:has-text('Export started')");
 
             // check that the suggested filename is correct
             final var fileName = download.suggestedFilename();
@@ -161,6 +156,7 @@ class ExporterViewBT extends BrowserTest {
             // wait for the download process to complete and save the downloaded file somewhere
             final var tempFile = tempDir.resolve(fileName);
             download.saveAs(tempFile);
+            page.waitForSelector(".log-viewer-entry:has-text('Export successful')");
 
             // check downloaded file
             assertThat(Files.exists(tempFile)).isTrue();
@@ -170,6 +166,87 @@ class ExporterViewBT extends BrowserTest {
         }
     }
 
+    @Test
+    void exporterDownloadsArchive() throws IOException {
+        login(getTestUser(UserRole.ADMIN));
+        final var page = getPage();
+
+        try {
+            // navigate directly to the exporter
+            page.navigate(getInstanceUrl() + "admin/export");
+            page.waitForURL("**/admin/export");
+            page.waitForSelector(EXPORTER_SELECTOR);
+            captureScreenshot("exporterDownloadsArchive_exporterViewLoaded");
+
+            // start the archive export, which streams directly into the download
+            final var startArchiveExportButton = page.locator("vaadin-button.start-archive-export-button");
+            assertThat(startArchiveExportButton.isEnabled()).isTrue();
+            final var download = page.waitForDownload(startArchiveExportButton::click);
+
+            // check that the suggested filename is correct
+            final var fileName = download.suggestedFilename();
+            assertThat(fileName).startsWith("komunumo-export-");
+            assertThat(fileName).endsWith(".zip");
+
+            // save the downloaded archive and check that it contains the JSON data
+            final var tempFile = tempDir.resolve(fileName);
+            download.saveAs(tempFile);
+            page.waitForSelector(".log-viewer-entry:has-text('Export successful')");
+            try (var archive = new ZipFile(tempFile.toFile())) {
+                assertThat(archive.getEntry("data.json")).isNotNull();
+                assertThat(archive.getEntry("data.json").getSize()).isGreaterThan(1024);
+            }
+        } finally {
+            logout();
+        }
+    }
+
+    @Test
+    void exporterDownloadsChangesSince() throws IOException, InterruptedException {
+        login(getTestUser(UserRole.ADMIN));
+        final var page = getPage();
+
+        try {
+            // navigate directly to the exporter
+            page.navigate(getInstanceUrl() + "admin/export");
+            page.waitForURL("**/admin/export");
+            page.waitForSelector(EXPORTER_SELECTOR);
+
+            // an invalid time disables the export
+            final var changedSinceInput = page.locator("vaadin-text-field.changed-since-field input");
+            final var startExportButton = page.locator("vaadin-button.start-export-button");
+            changedSinceInput.fill("yesterday");
+            page.waitForSelector("vaadin-text-field.changed-since-field[invalid]");
+            Thread.sleep(100); // wait for all UI animations to finish
+            assertThat(startExportButton.isEnabled()).isFalse();
+
+            // an empty time exports all data
+            changedSinceInput.fill("");
+            page.waitForSelector("vaadin-text-field.changed-since-field:not([invalid])");
+            Thread.sleep(100); // wait for all UI animations to finish
+            assertThat(startExportButton.isEnabled()).isTrue();
+
+            // export only the changes since the specified time
+            changedSinceInput.fill("2000-01-01T00:00:00Z");
+            Thread.sleep(100); // wait for all UI animations to finish
+            captureScreenshot("exporterDownloadsChangesSince_changedSinceEntered");
+
+            final var download = page.waitForDownload(startExportButton::click);
+            final var tempFile = tempDir.resolve(download.suggestedFilename());
+            download.saveAs(tempFile);
+            page.waitForSelector(".log-viewer-entry:has-text('Export successful')");
+
+            // check that the downloaded file is an incremental export
+            final var root = new ObjectMapper().readTree(tempFile.toFile());
+            assertThat(root.get("changedSince").asString()).isEqualTo("2000-01-01T00:00Z");
+            assertThat(root.has("exported")).isTrue();
+            assertThat(root.get("tombstones")).isEmpty();
+            assertThat(root.get("users")).isNotEmpty();
+        } finally {
+            logout();
+        }
+    }
+
     @Test
     void exporterFailsWithError() {
         final Field<String> CONTENT_TYPE_RAW =
@@ -215,8 +292,8 @@ class ExporterViewBT extends BrowserTest {
 
             // start the export and wait for the error
             startExportButton.click();
-            page.waitForSelector("li:has-text('Export started')");
-            page.waitForSelector("li:has-text('Export failed')");
+            page.waitForSelector(".log-viewer-entry:has-text('Export started')");
+            page.waitForSelector(".log-viewer-entry:has-text('Export failed')");
             captureScreenshot("exporterFailsWithError_errorShown");
         } finally {
             logout();
@@ -0,0 +1,173 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.exporter.control;
+
+import app.komunumo.KomunumoException;
+import app.komunumo.domain.community.control.CommunityService;
+import app.komunumo.domain.core.config.control.ConfigurationService;
+import app.komunumo.domain.core.config.entity.ConfigurationSetting;
+import app.komunumo.domain.core.image.control.ImageService;
+import app.komunumo.domain.core.image.entity.ContentType;
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.domain.core.mail.control.MailService;
+import app.komunumo.domain.core.tombstone.control.TombstoneService;
+import app.komunumo.domain.event.control.EventService;
+import app.komunumo.domain.member.control.MemberService;
+import app.komunumo.domain.page.control.GlobalPageService;
+import app.komunumo.domain.participant.control.ParticipantService;
+import app.komunumo.domain.user.control.UserService;
+import app.komunumo.infra.config.AppConfig;
+import app.komunumo.infra.config.FilesConfig;
+import app.komunumo.infra.ui.i18n.TranslationProvider;
+import app.komunumo.util.ImageUtil;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.ZipInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ArchiveExporterTest {
+
+    private static final UUID IMAGE_ID_1 = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    private static final UUID IMAGE_ID_2 = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+    @TempDir
+    private Path tempDir;
+
+    private ConfigurationService configurationService;
+    private ImageService imageService;
+    private UserService userService;
+    private CommunityService communityService;
+    private MemberService memberService;
+    private EventService eventService;
+    private ParticipantService participantService;
+    private GlobalPageService globalPageService;
+    private MailService mailService;
+    private TombstoneService tombstoneService;
+    private TranslationProvider translationProvider;
+
+    @BeforeEach
+    void setUp() {
+        configurationService = mock(ConfigurationService.class);
+        imageService = mock(ImageService.class);
+        userService = mock(UserService.class);
+        communityService = mock(CommunityService.class);
+        memberService = mock(MemberService.class);
+        eventService = mock(EventService.class);
+        participantService = mock(ParticipantService.class);
+        globalPageService = mock(GlobalPageService.class);
+        mailService = mock(MailService.class);
+        tombstoneService = mock(TombstoneService.class);
+        translationProvider = new TranslationProvider();
+
+        when(configurationService.getConfigurationWithoutFallback(
+                any(ConfigurationSetting.class), nullable(Locale.class)))
+                .thenAnswer(invocation -> invocation.<ConfigurationSetting>getArgument(0).defaultValue());
+
+        final var appConfig = mock(AppConfig.class);
+        when(appConfig.files()).thenReturn(new FilesConfig(tempDir));
+        ImageUtil.initialize(appConfig);
+    }
+
+    @Test
+    void testExportArchive() throws IOException {
+        // given
+        final var storedImage = new ImageDto(IMAGE_ID_1, ContentType.IMAGE_PNG);
+        final var missingImage = new ImageDto(IMAGE_ID_2, ContentType.IMAGE_JPEG);
+        ImageUtil.storeImage(storedImage, new ByteArrayInputStream("raw image data".getBytes(UTF_8)));
+        doAnswer(invocation -> {
+            final Consumer<ImageDto> action = invocation.getArgument(1);
+            action.accept(storedImage);
+            action.accept(missingImage);
+            return null;
+        }).when(imageService).forEachImage(any(), any());
+
+        // when
+        final var outputStream = new ByteArrayOutputStream();
+        exportAll(outputStream);
+
+        // then
+        final var entries = readEntries(outputStream.toByteArray());
+        assertThat(entries).containsOnlyKeys(
+                "data.json", "images/11111111-1111-1111-1111-111111111111.png");
+        assertThat(entries.get("images/11111111-1111-1111-1111-111111111111.png")).isEqualTo("raw image data");
+
+        final var images = new ObjectMapper().readTree(entries.get("data.json")).get("images");
+        assertThat(images).hasSize(1);
+        assertThat(images.get(0).get("imageId").asString()).isEqualTo(IMAGE_ID_1.toString());
+        assertThat(images.get(0).get("contentType").asString()).isEqualTo("image/png");
+        assertThat(images.get(0).get("url").asString())
+                .isEqualTo("images/11111111-1111-1111-1111-111111111111.png");
+        assertThat(images.get(0).has("data")).isFalse();
+    }
+
+    @Test
+    void testExportArchiveFailure() {
+        // given
+        final var outputStream = new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+
+        // when / then
+        assertThatThrownBy(() -> exportAll(outputStream))
+                .isInstanceOf(KomunumoException.class)
+                .hasMessage("disk full");
+    }
+
+    private void exportAll(final @NotNull OutputStream outputStream) {
+        new ArchiveExporter().exportAll(outputStream, null,
+                configurationService, imageService, userService, communityService,
+                memberService, eventService, participantService, globalPageService, mailService, tombstoneService,
+                translationProvider
+        );
+    }
+
+    private static @NotNull Map<String, String> readEntries(final byte @NotNull [] archive) throws IOException {
+        final var entries = new HashMap<String, String>();
+        try (var zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            for (var entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), UTF_8));
+            }
+        }
+        return entries;
+    }
+}
@@ -17,6 +17,7 @@
  */
 package app.komunumo.domain.core.exporter.control;
 
+import app.komunumo.KomunumoException;
 import app.komunumo.domain.community.control.CommunityService;
 import app.komunumo.domain.community.entity.CommunityDto;
 import app.komunumo.domain.core.config.control.ConfigurationService;
@@ -27,6 +28,9 @@ import app.komunumo.domain.core.image.entity.ImageDto;
 import app.komunumo.domain.core.mail.control.MailService;
 import app.komunumo.domain.core.mail.entity.MailTemplate;
 import app.komunumo.domain.core.mail.entity.MailTemplateId;
+import app.komunumo.domain.core.tombstone.control.TombstoneService;
+import app.komunumo.domain.core.tombstone.entity.TombstoneDto;
+import app.komunumo.domain.core.tombstone.entity.TombstoneType;
 import app.komunumo.domain.event.control.EventService;
 import app.komunumo.domain.event.entity.EventDto;
 import app.komunumo.domain.event.entity.EventStatus;
@@ -47,27 +51,38 @@ import app.komunumo.infra.config.FilesConfig;
 import app.komunumo.infra.ui.i18n.TranslationProvider;
 import app.komunumo.util.ImageUtil;
 import nl.altindag.log.LogCaptor;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.stubbing.Answer;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.ZonedDateTime;
-import java.util.List;
+import java.util.Base64;
 import java.util.Locale;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.StandardOpenOption.CREATE;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class JSONExporterTest {
@@ -88,6 +103,7 @@ class JSONExporterTest {
     private ParticipantService participantService;
     private GlobalPageService globalPageService;
     private MailService mailService;
+    private TombstoneService tombstoneService;
     private TranslationProvider translationProvider;
     private JSONExporter exporter;
     private ObjectMapper objectMapper;
@@ -103,6 +119,7 @@ class JSONExporterTest {
         participantService = mock(ParticipantService.class);
         globalPageService = mock(GlobalPageService.class);
         mailService = mock(MailService.class);
+        tombstoneService = mock(TombstoneService.class);
         translationProvider = new TranslationProvider();
         exporter = new JSONExporter();
         objectMapper = new ObjectMapper();
@@ -116,20 +133,9 @@ class JSONExporterTest {
     void testExportEmptyData() {
         // given
         mockConfigurationServiceDefaults();
-        when(imageService.getAllImages()).thenReturn(List.of());
-        when(userService.getAllUsers()).thenReturn(List.of());
-        when(communityService.getCommunities()).thenReturn(List.of());
-        when(eventService.getEvents()).thenReturn(List.of());
-        when(memberService.getMembers()).thenReturn(List.of());
-        when(participantService.getAllParticipants()).thenReturn(List.of());
-        when(globalPageService.getAllGlobalPages()).thenReturn(List.of());
-        when(mailService.getAllMailTemplates()).thenReturn(List.of());
 
         // when
-        final String json = exporter.exportAll(
-                configurationService, imageService, userService, communityService,
-                memberService, eventService, participantService, globalPageService, mailService, translationProvider
-        );
+        final String json = exportAll(exporter);
 
         // then
         final JsonNode root = objectMapper.readTree(json);
@@ -152,22 +158,68 @@ class JSONExporterTest {
         assertThat(root.get("participants")).isEmpty();
         assertThat(root.get("globalPages")).isEmpty();
         assertThat(root.get("mailTemplates")).isEmpty();
+
+        assertThat(root.has("exported")).isTrue();
+        assertThat(root.has("changedSince")).isFalse();
+        assertThat(root.has("tombstones")).isFalse();
+        verifyNoInteractions(tombstoneService);
+    }
+
+    @Test
+    void testExportChangesSince() {
+        // given
+        final var changedSince = ZonedDateTime.parse("2025-01-01T00:00:00Z");
+        final var user = new UserDto(TEST_UUID_1, null, null, "testuser", "test@example.com",
+                "Test User", "", null, UserRole.USER, UserType.LOCAL);
+        final var deletedUser = new TombstoneDto(TombstoneType.USER, TEST_UUID_2.toString(),
+                ZonedDateTime.parse("2025-02-01T12:00:00Z"));
+        final var deletedMember = new TombstoneDto(TombstoneType.MEMBER, TEST_UUID_1 + "/" + TEST_UUID_2,
+                ZonedDateTime.parse("2025-02-01T12:00:00Z"));
+        doAnswer(forEach(user)).when(userService).forEachUser(eq(changedSince), any());
+        doAnswer(forEach(deletedMember, deletedUser)).when(tombstoneService).forEachTombstone(eq(changedSince), any());
+        mockConfigurationServiceDefaults();
+
+        // when
+        final var outputStream = new ByteArrayOutputStream();
+        exporter.exportAll(outputStream, changedSince,
+                configurationService, imageService, userService, communityService, memberService, eventService,
+                participantService, globalPageService, mailService, tombstoneService, translationProvider
+        );
+
+        // then
+        final JsonNode root = objectMapper.readTree(outputStream.toString(UTF_8));
+        assertThat(root.get("changedSince").asString()).isEqualTo("2025-01-01T00:00Z");
+        assertThat(ZonedDateTime.parse(root.get("exported").asString())).isAfter(changedSince);
+
+        final JsonNode tombstones = root.get("tombstones");
+        assertThat(tombstones).hasSize(2);
+        assertThat(tombstones.get(0).get("type").asString()).isEqualTo("MEMBER");
+        assertThat(tombstones.get(0).get("key").asString()).isEqualTo(TEST_UUID_1 + "/" + TEST_UUID_2);
+        assertThat(tombstones.get(1).get("type").asString()).isEqualTo("USER");
+        assertThat(tombstones.get(1).get("key").asString()).isEqualTo(TEST_UUID_2.toString());
+        assertThat(tombstones.get(1).get("deleted").asString()).isEqualTo("2025-02-01T12:00Z");
+
+        assertThat(root.get("users")).hasSize(1);
+        verify(imageService).forEachImage(eq(changedSince), any());
+        verify(communityService).forEachCommunity(eq(changedSince), any());
+        verify(eventService).forEachEvent(eq(changedSince), any());
+        verify(memberService).forEachMember(eq(changedSince), any());
+        verify(participantService).forEachParticipant(eq(changedSince), any());
+        verify(globalPageService).forEachGlobalPage(eq(changedSince), any());
+        verify(mailService).forEachMailTemplate(any());
     }
 
     @Test
     void testExportSettings() {
         // given
-        mockEmptyServices();
+        mockConfigurationServiceDefaults();
         when(configurationService.getConfigurationWithoutFallback(ConfigurationSetting.INSTANCE_NAME, null))
                 .thenReturn("Test Instance");
         when(configurationService.getConfigurationWithoutFallback(ConfigurationSetting.INSTANCE_SLOGAN, Locale.ENGLISH))
                 .thenReturn("English Slogan");
 
         // when
-        final String json = exporter.exportAll(
-                configurationService, imageService, userService, communityService,
-                memberService, eventService, participantService, globalPageService, mailService, translationProvider
-        );
+        final String json = exportAll(exporter);
 
         // then
         final JsonNode root = objectMapper.readTree(json);
@@ -188,14 +240,11 @@ class JSONExporterTest {
                 "Test User 1", "Bio text", TEST_UUID_2, UserRole.USER, UserType.LOCAL);
         final var user2 = new UserDto(TEST_UUID_2, null, null, "testuser2", null,
                 "Test User 2", "Bio text", TEST_UUID_1, UserRole.USER, UserType.LOCAL);
-        when(userService.getAllUsers()).thenReturn(List.of(user1, user2));
-        mockEmptyServicesExceptUsers();
+        doAnswer(forEach(user1, user2)).when(userService).forEachUser(any(), any());
+        mockConfigurationServiceDefaults();
 
         // when
-        final String json = exporter.exportAll(
-                configurationService, imageService, userService, communityService,
-                memberService, eventService, participantService, globalPageService, mailService, translationProvider
-        );
+        final String json = exportAll(exporter);
 
         // then
         final JsonNode root = objectMapper.readTree(json);
@@ -220,14 +269,11 @@ class JSONExporterTest {
         // given
         final var community = new CommunityDto(TEST_UUID_1, "test-community", null, null,
                 "Test Community", "A test community description", TEST_UUID_2);
-        when(communityService.getCommunities()).thenReturn(List.of(community));
-        mockEmptyServicesExceptCommunities();
+        doAnswer(forEach(community)).when(communityService).forEachCommunity(any(), any());
+        mockConfigurationServiceDefaults();
 
         // when
-        final String json = exporter.exportAll(
-                configurationService, imageService, userService, communityService,
-                memberService, eventService, participantService, globalPageService, mailService, translationProvider
-        );
+        final String json = exportAll(exporter);
 
         // then
         final JsonNode root = objectMapper.readTree(json);
@@ -247,14 +293,11 @@ class JSONExporterTest {
         final var event = new EventDto(TEST_UUID_1, TEST_UUID_2, null, null,
                 "Test Event", "Event description", "Test Location",
                 begin, end, TEST_UUID_3, true, EventVisibility.PUBLIC, EventStatus.PUBLISHED);
-        when(eventService.getEvents()).thenReturn(List.of(event));
-        mockEmptyServicesExceptEvents();
+        doAnswer(forEach(event)).when(eventService).forEachEvent(any(), any());
+        mockConfigurationServiceDefaults();
 
         // when
-        final String json = exporter.exportAll(
-                configurationService, imageService, userService, communityService,
-                memberService, eventService, participantService, globalPageService, mailService, translationProvider
-        );
+        final String json = exportAll(exporter);
 
         // then
         final JsonNode root = objectMapper.readTree(json);
@@ -272,14 +315,11 @@ class JSONExporterTest {
         // given
         final var since = ZonedDateTime.now();
         final var member = new MemberDto(TEST_UUID_1, TEST_UUID_2, MemberRole.OWNER, since);
-        when(memberService.getMembers()).thenReturn(List.of(member));
-        mockEmptyServicesExceptMembers();
+        doAnswer(forEach(member)).when(memberService).forEachMember(any(), any());
+        mockConfigurationServiceDefaults();
 
         // when
-        final String json = exporter.exportAll(
-                configurationService, imageService, userService, communityService,
-                memberService, eventService, participantService, globalPageService, mailService, translationProvider
-        );
+        final String json = exportAll(exporter);
 
         // then
         final JsonNode root = objectMapper.readTree(json);
@@ -295,14 +335,11 @@ class JSONExporterTest {
         // given
         final var registered = ZonedDateTime.now();
         final var participant = new ParticipantDto(TEST_UUID_1, TEST_UUID_2, registered);
-        when(participantService.getAllParticipants()).thenReturn(List.of(participant));
-        mockEmptyServicesExceptParticipants();
+        doAnswer(forEach(participant)).when(participantService).forEachParticipant(any(), any());
+        mockConfigurationServiceDefaults();
 
         // when
-        final String json = exporter.exportAll(
-                configurationService, imageService, userService, communityService,
-                memberService, eventService, participantService, globalPageService, mailService, translationProvider
-        );
+        final String json = exportAll(exporter);
 
         // then
         final JsonNode root = objectMapper.readTree(json);
@@ -316,14 +353,11 @@ class JSONExporterTest {
     void testExportGlobalPages() {
         // given
         final var page = new GlobalPageDto("about", Locale.ENGLISH, null, null, "About Us", "# About\n\nThis is about us.");
-        when(globalPageService.getAllGlobalPages()).thenReturn(List.of(page));
-        mockEmptyServicesExceptGlobalPages();
+        doAnswer(forEach(page)).when(globalPageService).forEachGlobalPage(any(), any());
+        mockConfigurationServiceDefaults();
 
         // when
-        final String json = exporter.exportAll(
-                configurationService, imageService, userService, communityService,
-                memberService, eventService, participantService, globalPageService, mailService, translationProvider
-        );
+        final String json = exportAll(exporter);
 
         // then
         final JsonNode root = objectMapper.readTree(json);
@@ -339,14 +373,11 @@ class JSONExporterTest {
         // given
         final var template = new MailTemplate(MailTemplateId.CONFIRMATION_PROCESS, Locale.ENGLISH,
                 "Confirm your email", "Please confirm your email address.");
-        when(mailService.getAllMailTemplates()).thenReturn(List.of(template));
-        mockEmptyServicesExceptMailTemplates();
+        doAnswer(forEach(template)).when(mailService).forEachMailTemplate(any());
+        mockConfigurationServiceDefaults();
 
         // when
-        final String json = exporter.exportAll(
-                configurationService, imageService, userService, communityService,
-                memberService, eventService, participantService, globalPageService, mailService, translationProvider
-        );
+        final String json = exportAll(exporter);
 
         // then
         final JsonNode root = objectMapper.readTree(json);
@@ -358,40 +389,24 @@ class JSONExporterTest {
     }
 
     @Test
-    void testExportImages() {
+    void testExportImages() throws IOException {
         // given
-        final var image1 = new ImageDto(TEST_UUID_1, ContentType.IMAGE_JPEG); // ObjectMapper throws exception
+        final var image1 = new ImageDto(TEST_UUID_1, ContentType.IMAGE_JPEG); // path is not a regular file
         final var image2 = new ImageDto(TEST_UUID_2, ContentType.IMAGE_JPEG); // file does not exist
         final var image3 = new ImageDto(TEST_UUID_3, ContentType.IMAGE_JPEG); // successful export
 
-        List.of(image1, image3).forEach(image -> {
-            try {
-                final var tmpPath = Files.createTempFile("test-", ".jpg");
-                Files.writeString(tmpPath, "test", CREATE);
-                ImageUtil.storeImage(image, tmpPath);
-            } catch (final Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
+        //noinspection DataFlowIssue // path is never null for an image with an ID
+        Files.createDirectories(ImageUtil.resolveImagePath(image1));
+        final var tmpPath = Files.createTempFile("test-", ".jpg");
+        Files.writeString(tmpPath, "test", CREATE);
+        ImageUtil.storeImage(image3, tmpPath);
 
-        when(imageService.getAllImages()).thenReturn(List.of(image1, image2, image3));
-        mockEmptyServicesExceptImages();
+        doAnswer(forEach(image1, image2, image3)).when(imageService).forEachImage(any(), any());
+        mockConfigurationServiceDefaults();
 
-        final var objectMapper = spy(new ObjectMapper());
-        final var exporter = new JSONExporter(objectMapper);
-        final var counter = new AtomicInteger();
-        doAnswer(invocation -> {
-            if (counter.getAndIncrement() == 1) {
-                throw new RuntimeException("this call fails");
-            }
-            return invocation.callRealMethod();
-        }).when(objectMapper).createObjectNode();
         // when
         try (var logCaptor = LogCaptor.forClass(JSONExporter.class)) {
-            final String json = exporter.exportAll(
-                    configurationService, imageService, userService, communityService,
-                    memberService, eventService, participantService, globalPageService, mailService, translationProvider
-            );
+            final String json = exportAll(exporter);
 
             // then
             final JsonNode root = objectMapper.readTree(json);
@@ -409,116 +424,69 @@ class JSONExporterTest {
             assertThat(images).hasSize(1);
             assertThat(images.get(0).get("imageId").asString()).isEqualTo(TEST_UUID_3.toString());
             assertThat(images.get(0).get("contentType").asString()).isEqualTo("image/jpeg");
+            assertThat(images.get(0).get("data").asString())
+                    .isEqualTo(Base64.getEncoder().encodeToString("test".getBytes(UTF_8)));
         }
     }
 
-    private void mockConfigurationServiceDefaults() {
-        when(configurationService.getConfigurationWithoutFallback(
-                any(ConfigurationSetting.class),
-                nullable(Locale.class)))
-                .thenAnswer(invocation -> {
-                    final ConfigurationSetting setting = invocation.getArgument(0);
-                    return setting.defaultValue();
-                });
-    }
-
-    private void mockEmptyServices() {
-        mockConfigurationServiceDefaults();
-        when(imageService.getAllImages()).thenReturn(List.of());
-        when(userService.getAllUsers()).thenReturn(List.of());
-        when(communityService.getCommunities()).thenReturn(List.of());
-        when(eventService.getEvents()).thenReturn(List.of());
-        when(memberService.getMembers()).thenReturn(List.of());
-        when(participantService.getAllParticipants()).thenReturn(List.of());
-        when(globalPageService.getAllGlobalPages()).thenReturn(List.of());
-        when(mailService.getAllMailTemplates()).thenReturn(List.of());
-    }
-
-    private void mockEmptyServicesExceptUsers() {
+    @Test
+    void testExportDoesNotCloseOutputStream() throws IOException {
+        // given
         mockConfigurationServiceDefaults();
-        when(imageService.getAllImages()).thenReturn(List.of());
-        when(communityService.getCommunities()).thenReturn(List.of());
-        when(eventService.getEvents()).thenReturn(List.of());
-        when(memberService.getMembers()).thenReturn(List.of());
-        when(participantService.getAllParticipants()).thenReturn(List.of());
-        when(globalPageService.getAllGlobalPages()).thenReturn(List.of());
-        when(mailService.getAllMailTemplates()).thenReturn(List.of());
-    }
+        final var outputStream = spy(new ByteArrayOutputStream());
 
-    private void mockEmptyServicesExceptCommunities() {
-        mockConfigurationServiceDefaults();
-        when(imageService.getAllImages()).thenReturn(List.of());
-        when(userService.getAllUsers()).thenReturn(List.of());
-        when(eventService.getEvents()).thenReturn(List.of());
-        when(memberService.getMembers()).thenReturn(List.of());
-        when(participantService.getAllParticipants()).thenReturn(List.of());
-        when(globalPageService.getAllGlobalPages()).thenReturn(List.of());
-        when(mailService.getAllMailTemplates()).thenReturn(List.of());
-    }
+        // when
+        exporter.exportAll(outputStream, null,
+                configurationService, imageService, userService, communityService,
+                memberService, eventService, participantService, globalPageService, mailService, tombstoneService,
+                translationProvider
+        );
 
-    private void mockEmptyServicesExceptEvents() {
-        mockConfigurationServiceDefaults();
-        when(imageService.getAllImages()).thenReturn(List.of());
-        when(userService.getAllUsers()).thenReturn(List.of());
-        when(communityService.getCommunities()).thenReturn(List.of());
-        when(memberService.getMembers()).thenReturn(List.of());
-        when(participantService.getAllParticipants()).thenReturn(List.of());
-        when(globalPageService.getAllGlobalPages()).thenReturn(List.of());
-        when(mailService.getAllMailTemplates()).thenReturn(List.of());
+        // then
+        assertThat(outputStream.size()).isPositive();
+        verify(outputStream, never()).close();
     }
 
-    private void mockEmptyServicesExceptMembers() {
+    @Test
+    void testExportFailure() {
+        // given
         mockConfigurationServiceDefaults();
-        when(imageService.getAllImages()).thenReturn(List.of());
-        when(userService.getAllUsers()).thenReturn(List.of());
-        when(communityService.getCommunities()).thenReturn(List.of());
-        when(eventService.getEvents()).thenReturn(List.of());
-        when(participantService.getAllParticipants()).thenReturn(List.of());
-        when(globalPageService.getAllGlobalPages()).thenReturn(List.of());
-        when(mailService.getAllMailTemplates()).thenReturn(List.of());
-    }
+        doThrow(new RuntimeException("database not available")).when(userService).forEachUser(any(), any());
 
-    private void mockEmptyServicesExceptParticipants() {
-        mockConfigurationServiceDefaults();
-        when(imageService.getAllImages()).thenReturn(List.of());
-        when(userService.getAllUsers()).thenReturn(List.of());
-        when(communityService.getCommunities()).thenReturn(List.of());
-        when(eventService.getEvents()).thenReturn(List.of());
-        when(memberService.getMembers()).thenReturn(List.of());
-        when(globalPageService.getAllGlobalPages()).thenReturn(List.of());
-        when(mailService.getAllMailTemplates()).thenReturn(List.of());
+        // when / then
+        assertThatThrownBy(() -> exportAll(exporter))
+                .isInstanceOf(KomunumoException.class)
+                .hasMessage("database not available");
     }
 
-    private void mockEmptyServicesExceptGlobalPages() {
-        mockConfigurationServiceDefaults();
-        when(imageService.getAllImages()).thenReturn(List.of());
-        when(userService.getAllUsers()).thenReturn(List.of());
-        when(communityService.getCommunities()).thenReturn(List.of());
-        when(eventService.getEvents()).thenReturn(List.of());
-        when(memberService.getMembers()).thenReturn(List.of());
-        when(participantService.getAllParticipants()).thenReturn(List.of());
-        when(mailService.getAllMailTemplates()).thenReturn(List.of());
+    private void mockConfigurationServiceDefaults() {
+        when(configurationService.getConfigurationWithoutFallback(
+                any(ConfigurationSetting.class),
+                nullable(Locale.class)))
+                .thenAnswer(invocation -> {
+                    final ConfigurationSetting setting = invocation.getArgument(0);
+                    return setting.defaultValue();
+                });
     }
 
-    private void mockEmptyServicesExceptMailTemplates() {
-        mockConfigurationServiceDefaults();
-        when(imageService.getAllImages()).thenReturn(List.of());
-        when(userService.getAllUsers()).thenReturn(List.of());
-        when(communityService.getCommunities()).thenReturn(List.of());
-        when(eventService.getEvents()).thenReturn(List.of());
-        when(memberService.getMembers()).thenReturn(List.of());
-        when(participantService.getAllParticipants()).thenReturn(List.of());
-        when(globalPageService.getAllGlobalPages()).thenReturn(List.of());
+    private @NotNull String exportAll(final @NotNull JSONExporter jsonExporter) {
+        final var outputStream = new ByteArrayOutputStream();
+        jsonExporter.exportAll(outputStream, null,
+                configurationService, imageService, userService, communityService,
+                memberService, eventService, participantService, globalPageService, mailService, tombstoneService,
+                translationProvider
+        );
+        return outputStream.toString(UTF_8);
     }
 
-    private void mockEmptyServicesExceptImages() {
-        mockConfigurationServiceDefaults();
-        when(userService.getAllUsers()).thenReturn(List.of());
-        when(communityService.getCommunities()).thenReturn(List.of());
-        when(eventService.getEvents()).thenReturn(List.of());
-        when(memberService.getMembers()).thenReturn(List.of());
-        when(participantService.getAllParticipants()).thenReturn(List.of());
-        when(globalPageService.getAllGlobalPages()).thenReturn(List.of());
-        when(mailService.getAllMailTemplates()).thenReturn(List.of());
+    @SafeVarargs
+    private static <T> @NotNull Answer<Void> forEach(final @NotNull T... items) {
+        return invocation -> {
+            final Consumer<T> action = invocation.getArgument(invocation.getArguments().length - 1);
+            for (final var item : items) {
+                action.accept(item);
+            }
+            return null;
+        };
     }
 }
@@ -21,8 +21,10 @@ import app.komunumo.domain.core.image.control.ImageService;
 import app.komunumo.domain.core.image.entity.ContentType;
 import app.komunumo.domain.core.image.entity.ImageDto;
 import app.komunumo.infra.config.AppConfig;
+import app.komunumo.infra.config.DatabaseConfig;
 import app.komunumo.infra.config.DemoConfig;
 import app.komunumo.infra.config.FilesConfig;
+import app.komunumo.infra.config.ImporterConfig;
 import app.komunumo.infra.config.InstanceConfig;
 import app.komunumo.infra.config.MailConfig;
 import app.komunumo.util.ImageUtil;
@@ -42,6 +44,8 @@ import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -64,12 +68,15 @@ class ImageServletTest {
         final var userHome = System.getProperty("user.home");
         final var basedir = Path.of(userHome, ".komunumo", "test");
 
+        final var databaseConfig = new DatabaseConfig(List.of(), Duration.ZERO);
+
         final var demoConfig = new DemoConfig(false, "");
         final var filesConfig = new FilesConfig(basedir);
-        final var mailConfig = new MailConfig("noreply@foo.bar", "support@foo.bar");
+        final var importerConfig = new ImporterConfig(1);
+        final var mailConfig = new MailConfig("noreply@foo.bar", "support@foo.bar", 1, 10);
         final var instanceConfig = new InstanceConfig("admin@foo.bar");
 
-        return new AppConfig("0.0.0", demoConfig, filesConfig, instanceConfig, mailConfig);
+        return new AppConfig("0.0.0", databaseConfig, demoConfig, filesConfig, importerConfig, instanceConfig, mailConfig);
     }
 
     @ParameterizedTest
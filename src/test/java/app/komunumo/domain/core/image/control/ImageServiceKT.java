@@ -30,6 +30,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -142,4 +145,38 @@ class ImageServiceKT extends KaribuTest {
         }
     }
 
+    @Test
+    void storeMultipleImages() {
+        assertThat(imageService.getImageCount()).isEqualTo(2);
+
+        final var imageId = UUID.randomUUID();
+        imageService.storeImages(List.of(
+                new ImageDto(imageId, ContentType.IMAGE_PNG),
+                new ImageDto(null, ContentType.IMAGE_WEBP),
+                new ImageDto(ORPHANED_IMAGE_UUID, ContentType.IMAGE_PNG)));
+
+        assertThat(imageService.getImageCount()).isEqualTo(4);
+        assertThat(imageService.getImage(imageId).orElseThrow().contentType()).isEqualTo(ContentType.IMAGE_PNG);
+        assertThat(imageService.getImage(ORPHANED_IMAGE_UUID).orElseThrow().contentType())
+                .isEqualTo(ContentType.IMAGE_PNG);
+    }
+
+    @Test
+    void forEachImageChangedSince() {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        final var orphanedImage = imageService.getImage(ORPHANED_IMAGE_UUID).orElseThrow();
+
+        final var allImages = new ArrayList<ImageDto>();
+        imageService.forEachImage(null, allImages::add);
+        assertThat(allImages).hasSize(2).contains(orphanedImage);
+
+        // only images of users, communities, and events changed since then
+        final var changedImages = new ArrayList<ImageDto>();
+        imageService.forEachImage(now.minusDays(1), changedImages::add);
+        assertThat(changedImages).hasSize(1).doesNotContain(orphanedImage);
+
+        final var futureImages = new ArrayList<ImageDto>();
+        imageService.forEachImage(now.plusDays(1), futureImages::add);
+        assertThat(futureImages).isEmpty();
+    }
 }
@@ -21,6 +21,8 @@ import app.komunumo.domain.user.entity.UserRole;
 import app.komunumo.test.BrowserTest;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -34,11 +36,13 @@ class ImporterViewBT extends BrowserTest {
     private static final String IMPORT_LOG_TITLE_SELECTOR =
             "h3:has-text('Import Log')";
     private static final String IMPORT_LOG_LIST_SELECTOR =
-            "ul.import-log";
+            ".import-log";
+    private static final String IMPORT_LOG_ENTRY_SELECTOR =
+            ".log-viewer-entry";
     private static final String IMPORTER_FINISHED_SELECTOR =
-            "li:has-text('...finished importing 2 global pages.')";
+            ".log-viewer-entry:has-text('...finished importing 2 global pages.')";
     private static final String DOWNLOAD_FAILED_SELECTOR =
-            "li:has-text('Failed to download JSON data from URL')";
+            ".log-viewer-entry:has-text('Failed to download JSON data from URL')";
     private static final String VAADIN_UPLOAD_INPUT_SELECTOR =
             "vaadin-upload input[type='file']";
     private static final String IMPORT_LOG_CONTAINER_SELECTOR =
@@ -149,7 +153,7 @@ class ImporterViewBT extends BrowserTest {
 
             // there should be no logs visible
             final var logList = page.locator(IMPORT_LOG_LIST_SELECTOR);
-            assertThat(logList.locator("li").count()).isZero();
+            assertThat(logList.locator(IMPORT_LOG_ENTRY_SELECTOR).count()).isZero();
 
             // fill in URL field
             urlFieldInput.fill("http://localhost:8082/import/data.json");
@@ -165,8 +169,9 @@ class ImporterViewBT extends BrowserTest {
             // log container should be visible
             assertThat(importLogContainer.isVisible()).isTrue();
 
-            // there should be logs available
-            assertThat(logList.locator("li").count()).isGreaterThan(0);
+            // there should be logs available after the first batch has been sent
+            logList.locator(IMPORT_LOG_ENTRY_SELECTOR).first().waitFor();
+            assertThat(logList.locator(IMPORT_LOG_ENTRY_SELECTOR).count()).isGreaterThan(0);
 
             // wait for import to finish
             page.waitForSelector(IMPORTER_FINISHED_SELECTOR);
@@ -220,14 +225,14 @@ class ImporterViewBT extends BrowserTest {
             assertThat(logTitle.isVisible()).isTrue();
             final var logList = page.locator(IMPORT_LOG_LIST_SELECTOR);
             assertThat(logList.isVisible()).isTrue();
-            assertThat(logList.locator("li").count()).isGreaterThan(0);
+            assertThat(logList.locator(IMPORT_LOG_ENTRY_SELECTOR).count()).isGreaterThan(0);
         } finally {
             logout();
         }
     }
 
     @Test
-    void importerWorksWithUpload() throws InterruptedException {
+    void importerWorksWithUpload() throws InterruptedException, IOException {
         login(getTestUser(UserRole.ADMIN));
         final var page = getPage();
 
@@ -244,7 +249,7 @@ class ImporterViewBT extends BrowserTest {
 
             // there should be no logs visible
             final var logList = page.locator(IMPORT_LOG_LIST_SELECTOR);
-            assertThat(logList.locator("li").count()).isZero();
+            assertThat(logList.locator(IMPORT_LOG_ENTRY_SELECTOR).count()).isZero();
 
             // upload a file
             final var uploadInput = page.locator(VAADIN_UPLOAD_INPUT_SELECTOR);
@@ -254,13 +259,20 @@ class ImporterViewBT extends BrowserTest {
             // log container should be visible
             assertThat(importLogContainer.isVisible()).isTrue();
 
-            // there should be logs available
-            assertThat(logList.locator("li").count()).isGreaterThan(0);
+            // there should be logs available after the first batch has been sent
+            logList.locator(IMPORT_LOG_ENTRY_SELECTOR).first().waitFor();
+            assertThat(logList.locator(IMPORT_LOG_ENTRY_SELECTOR).count()).isGreaterThan(0);
 
             // wait for import to finish
             page.waitForSelector(IMPORTER_FINISHED_SELECTOR);
             Thread.sleep(100); // wait for all UI animations to finish
             captureScreenshot("importerWorksWithUpload_importerFinished");
+
+            // the complete log can be downloaded
+            final var downloadButton = page.locator(".import-log .log-viewer-download vaadin-button");
+            final var download = page.waitForDownload(downloadButton::click);
+            assertThat(download.suggestedFilename()).isEqualTo("komunumo-import-log.txt");
+            assertThat(Files.readString(download.path())).contains("...finished importing 2 global pages.");
         } finally {
             logout();
         }
@@ -0,0 +1,312 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.importer.control;
+
+import app.komunumo.KomunumoException;
+import app.komunumo.domain.core.importer.entity.ImportJobDto;
+import app.komunumo.domain.core.importer.entity.ImportJobStatus;
+import app.komunumo.domain.user.control.UserService;
+import app.komunumo.infra.config.AppConfig;
+import app.komunumo.test.KaribuTest;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static app.komunumo.data.db.tables.ImportJob.IMPORT_JOB;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class ImportJobServiceKT extends KaribuTest {
+
+    private static final @NotNull String DATA_URL = "http://localhost:8082/import/data.json";
+    private static final int USER_COUNT = JSONImporter.BATCH_SIZE + 1;
+
+    @Autowired
+    private @NotNull ImportJobService importJobService;
+
+    @Autowired
+    private @NotNull UserService userService;
+
+    @Autowired
+    private @NotNull AppConfig appConfig;
+
+    @Autowired
+    private @NotNull DSLContext dsl;
+
+    @Autowired
+    private @NotNull ApplicationContext applicationContext;
+
+    @Test
+    void importFromUrl() {
+        final var listener = new RecordingListener();
+        final var job = importJobService.startImport(DATA_URL);
+        importJobService.subscribe(job.id(), listener);
+
+        final var finishedJob = listener.awaitFinished();
+        assertThat(finishedJob.status()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(finishedJob.checkpoint()).isNull();
+        assertThat(finishedJob.uploaded()).isFalse();
+        assertThat(importJobService.getJob(job.id())).contains(finishedJob);
+        assertThat(importJobService.getRunningJob()).isEmpty();
+
+        // attaching to a finished job reports its final state right away
+        final var lateListener = new RecordingListener();
+        importJobService.subscribe(job.id(), lateListener).run();
+        assertThat(lateListener.finishedJob.get()).isEqualTo(finishedJob);
+        assertThat(lateListener.messages).isEmpty();
+    }
+
+    @Test
+    void importFromUrlFails() {
+        final var listener = new RecordingListener();
+        final var job = importJobService.startImport("http://localhost:8082/import/not-found.json");
+        importJobService.subscribe(job.id(), listener);
+
+        final var finishedJob = listener.awaitFinished();
+        assertThat(finishedJob.status()).isEqualTo(ImportJobStatus.FAILED);
+        assertThat(importJobService.getRunningJob()).isEmpty();
+    }
+
+    @Test
+    void importUploadedFile(final @TempDir Path tempDir) {
+        final var userCount = userService.getUserCount();
+        final var file = createUsersFile(tempDir);
+
+        final var listener = new RecordingListener();
+        final var job = importJobService.startImport(file);
+        assertThat(job.uploaded()).isTrue();
+        assertThat(job.source()).isNotEqualTo(file.toString());
+        importJobService.subscribe(job.id(), listener);
+
+        final var finishedJob = listener.awaitFinished();
+        assertThat(finishedJob.status()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(userService.getUserCount()).isEqualTo(userCount + USER_COUNT);
+        assertThat(Path.of(job.source())).doesNotExist(); // the copy is deleted
+        assertThat(file).exists(); // the upload itself belongs to the caller
+    }
+
+    @Test
+    void importUploadedFileFails(final @TempDir Path tempDir) throws Exception {
+        final var file = tempDir.resolve("invalid.json");
+        Files.writeString(file, "this is not JSON");
+
+        final var listener = new RecordingListener();
+        final var job = importJobService.startImport(file.toFile());
+        importJobService.subscribe(job.id(), listener);
+
+        final var finishedJob = listener.awaitFinished();
+        assertThat(finishedJob.status()).isEqualTo(ImportJobStatus.FAILED);
+        assertThat(Path.of(job.source())).doesNotExist();
+    }
+
+    @Test
+    void importMissingUploadedFile(final @TempDir Path tempDir) {
+        final var file = tempDir.resolve("missing.json").toFile();
+        assertThatThrownBy(() -> importJobService.startImport(file))
+                .isInstanceOf(KomunumoException.class)
+                .hasMessage("Failed to store the uploaded file: missing.json");
+    }
+
+    @Test
+    void subscribeToUnknownJob() {
+        final var listener = new RecordingListener();
+        importJobService.subscribe(UUID.randomUUID(), listener).run();
+        assertThat(listener.finishedJob.get()).isNull();
+        assertThat(listener.messages).isEmpty();
+    }
+
+    @Test
+    void resumeInterruptedJob(final @TempDir Path tempDir) throws Exception {
+        final var userCount = userService.getUserCount();
+        final var jobId = UUID.randomUUID();
+        final var jobFile = appConfig.files().basedir().resolve("imports").resolve(jobId.toString());
+        Files.createDirectories(jobFile.getParent());
+        Files.copy(createUsersFile(tempDir).toPath(), jobFile);
+
+        // simulate a job interrupted after the first batch of users
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        dsl.insertInto(IMPORT_JOB)
+                .set(IMPORT_JOB.ID, jobId)
+                .set(IMPORT_JOB.CREATED, now)
+                .set(IMPORT_JOB.UPDATED, now)
+                .set(IMPORT_JOB.SOURCE, jobFile.toString())
+                .set(IMPORT_JOB.UPLOADED, true)
+                .set(IMPORT_JOB.STATUS, ImportJobStatus.RUNNING.name())
+                .set(IMPORT_JOB.SECTION, "users")
+                .set(IMPORT_JOB.SECTION_OFFSET, JSONImporter.BATCH_SIZE)
+                .execute();
+
+        importJobService.resumeInterruptedJobs();
+        await().atMost(10, SECONDS).untilAsserted(() -> assertThat(importJobService.getJob(jobId))
+                .hasValueSatisfying(job -> assertThat(job.status()).isEqualTo(ImportJobStatus.COMPLETED)));
+        assertThat(userService.getUserCount()).isEqualTo(userCount + USER_COUNT - JSONImporter.BATCH_SIZE);
+        assertThat(jobFile).doesNotExist();
+    }
+
+    @Test
+    void resumeOnlyJobsWithStaleHeartbeat() throws Exception {
+        final var otherNode = UUID.randomUUID();
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        final var activeJobId = insertJob(otherNode, now);
+        final var staleJobId = insertJob(otherNode, now.minus(ImportJobService.HEARTBEAT_TIMEOUT).minusMinutes(1));
+
+        importJobService.resumeInterruptedJobs();
+        await().atMost(10, SECONDS).untilAsserted(() -> assertThat(importJobService.getJob(staleJobId))
+                .hasValueSatisfying(job -> assertThat(job.status()).isEqualTo(ImportJobStatus.COMPLETED)));
+
+        // the other node is still running this job, so it is left alone
+        assertThat(importJobService.getJob(activeJobId)).hasValueSatisfying(job ->
+                assertThat(job.status()).isEqualTo(ImportJobStatus.RUNNING));
+        assertThat(dsl.select(IMPORT_JOB.CLAIM_ID).from(IMPORT_JOB).where(IMPORT_JOB.ID.eq(activeJobId))
+                .fetchOne(IMPORT_JOB.CLAIM_ID)).isEqualTo(otherNode);
+        Files.delete(Path.of(importJobService.getJob(activeJobId).orElseThrow().source()));
+        dsl.deleteFrom(IMPORT_JOB).where(IMPORT_JOB.ID.eq(activeJobId)).execute();
+    }
+
+    @Test
+    void takeOverJobWithMissingUploadedFile() throws Exception {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        final var jobId = insertJob(UUID.randomUUID(), now.minus(ImportJobService.HEARTBEAT_TIMEOUT).minusMinutes(1));
+        final var jobFile = Path.of(importJobService.getJob(jobId).orElseThrow().source());
+        Files.delete(jobFile); // the file was uploaded to the file storage of the stopped node
+
+        importJobService.resumeInterruptedJobs();
+        await().atMost(10, SECONDS).untilAsserted(() -> assertThat(importJobService.getJob(jobId))
+                .hasValueSatisfying(job -> assertThat(job.status()).isEqualTo(ImportJobStatus.FAILED)));
+    }
+
+    @Test
+    void shutdownInterruptsRunningJob() {
+        final var service = applicationContext.getAutowireCapableBeanFactory().createBean(ImportJobService.class);
+        final var blocked = new AtomicBoolean(false);
+        final var released = new AtomicBoolean(false);
+        final var listener = new RecordingListener() {
+            @Override
+            public void log(final @NotNull String message) {
+                super.log(message);
+                if (Thread.currentThread().getName().equals("import-job")) {
+                    blocked.set(true);
+                    while (!released.get()) {
+                        Thread.onSpinWait();
+                    }
+                    throw new IllegalStateException("Simulated shutdown");
+                }
+            }
+        };
+
+        final var job = service.startImport(DATA_URL);
+        final var otherListener = new RecordingListener();
+        service.subscribe(job.id(), otherListener).run(); // detaches right away
+        service.subscribe(job.id(), listener);
+        await().atMost(10, SECONDS).untilTrue(blocked);
+
+        // the job is running, so other sessions can attach to it
+        assertThat(service.getRunningJob()).hasValueSatisfying(runningJob ->
+                assertThat(runningJob.id()).isEqualTo(job.id()));
+
+        // a running job is not started a second time
+        service.resumeInterruptedJobs();
+
+        service.shutdown();
+        released.set(true);
+
+        final var finishedJob = listener.awaitFinished();
+        assertThat(finishedJob.status()).isEqualTo(ImportJobStatus.RUNNING);
+        assertThat(otherListener.finishedJob.get()).isNull();
+        assertThat(importJobService.getJob(job.id())).hasValueSatisfying(storedJob ->
+                assertThat(storedJob.status()).isEqualTo(ImportJobStatus.RUNNING));
+        assertThat(service.getRunningJob()).isEmpty();
+    }
+
+    private @NotNull UUID insertJob(final @NotNull UUID claimId,
+                                    final @NotNull ZonedDateTime heartbeat) throws Exception {
+        final var jobId = UUID.randomUUID();
+        final var jobFile = appConfig.files().basedir().resolve("imports").resolve(jobId.toString());
+        Files.createDirectories(jobFile.getParent());
+        Files.writeString(jobFile, "{}");
+        dsl.insertInto(IMPORT_JOB)
+                .set(IMPORT_JOB.ID, jobId)
+                .set(IMPORT_JOB.CREATED, heartbeat)
+                .set(IMPORT_JOB.UPDATED, heartbeat)
+                .set(IMPORT_JOB.SOURCE, jobFile.toString())
+                .set(IMPORT_JOB.UPLOADED, true)
+                .set(IMPORT_JOB.STATUS, ImportJobStatus.RUNNING.name())
+                .set(IMPORT_JOB.CLAIM_ID, claimId)
+                .execute();
+        return jobId;
+    }
+
+    private static @NotNull File createUsersFile(final @NotNull Path tempDir) {
+        final var objectMapper = new ObjectMapper();
+        final var root = objectMapper.createObjectNode();
+        final var users = root.putArray("users");
+        for (var i = 0; i < USER_COUNT; i++) {
+            users.addObject()
+                    .put("userId", UUID.randomUUID().toString())
+                    .put("profile", "@import%d@example.com".formatted(i))
+                    .put("email", "import%d@example.com".formatted(i))
+                    .put("name", "Import User %d".formatted(i))
+                    .put("bio", "")
+                    .put("imageId", "")
+                    .put("role", "USER")
+                    .put("type", "LOCAL");
+        }
+        final var file = tempDir.resolve("users.json").toFile();
+        objectMapper.writeValue(file, root);
+        return file;
+    }
+
+    private static class RecordingListener implements ImportJobListener {
+
+        private final @NotNull List<String> messages = new CopyOnWriteArrayList<>();
+        private final @NotNull AtomicReference<ImportJobDto> finishedJob = new AtomicReference<>();
+
+        @Override
+        public void log(final @NotNull String message) {
+            messages.add(message);
+        }
+
+        @Override
+        public void finished(final @NotNull ImportJobDto job) {
+            finishedJob.set(job);
+        }
+
+        @NotNull ImportJobDto awaitFinished() {
+            return await().atMost(10, SECONDS).until(finishedJob::get, job -> job != null);
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.importer.control;
+
+import app.komunumo.domain.core.importer.entity.ImportJobDto;
+import app.komunumo.domain.core.importer.entity.ImportJobStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ImportJobServiceTest {
+
+    @Test
+    void runningJobNotifiesAttachedListeners() {
+        final var runningJob = new ImportJobService.RunningJob();
+        final var job = createJob();
+        final var listener = mock(ImportJobListener.class);
+        final var detachedListener = mock(ImportJobListener.class);
+
+        runningJob.log("first");
+        runningJob.subscribe(listener);
+        runningJob.subscribe(detachedListener).run();
+        runningJob.log("second");
+        runningJob.finish(job);
+
+        final var inOrder = inOrder(listener);
+        inOrder.verify(listener).log("first");
+        inOrder.verify(listener).log("second");
+        inOrder.verify(listener).finished(job);
+        verify(detachedListener).log("first");
+        verify(detachedListener, never()).log("second");
+        verify(detachedListener, never()).finished(job);
+    }
+
+    @Test
+    void runningJobReplaysLogToLateListeners() {
+        final var runningJob = new ImportJobService.RunningJob();
+        final var job = createJob();
+        final var listener = mock(ImportJobListener.class);
+
+        runningJob.log("message");
+        runningJob.finish(job);
+        runningJob.subscribe(listener).run();
+
+        final var inOrder = inOrder(listener);
+        inOrder.verify(listener).log("message");
+        inOrder.verify(listener).finished(job);
+    }
+
+    @Test
+    void runningJobKeepsOnlyLatestMessages() {
+        final var runningJob = new ImportJobService.RunningJob();
+        final var listener = mock(ImportJobListener.class);
+
+        for (var i = 0; i <= ImportJobService.RunningJob.MAX_MESSAGES; i++) {
+            runningJob.log("message " + i);
+        }
+        runningJob.subscribe(listener);
+
+        verify(listener, never()).log("message 0");
+        verify(listener).log("message 1");
+        verify(listener).log("message " + ImportJobService.RunningJob.MAX_MESSAGES);
+    }
+
+    private static ImportJobDto createJob() {
+        final var now = ZonedDateTime.now();
+        return new ImportJobDto(UUID.randomUUID(), now, now, "https://example.com/data.json",
+                false, ImportJobStatus.COMPLETED, null);
+    }
+
+}
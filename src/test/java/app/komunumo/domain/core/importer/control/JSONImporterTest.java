@@ -20,32 +20,56 @@ package app.komunumo.domain.core.importer.control;
 import app.komunumo.KomunumoException;
 import app.komunumo.domain.community.control.CommunityService;
 import app.komunumo.domain.core.config.control.ConfigurationService;
+import app.komunumo.domain.core.config.entity.ConfigurationSetting;
 import app.komunumo.domain.core.image.control.ImageService;
+import app.komunumo.domain.core.importer.entity.ImportCheckpoint;
 import app.komunumo.domain.core.mail.control.MailService;
+import app.komunumo.domain.core.tombstone.control.TombstoneService;
+import app.komunumo.domain.core.tombstone.entity.TombstoneDto;
+import app.komunumo.domain.core.tombstone.entity.TombstoneType;
 import app.komunumo.domain.event.control.EventService;
 import app.komunumo.domain.event.entity.EventDto;
 import app.komunumo.domain.member.control.MemberService;
 import app.komunumo.domain.page.control.GlobalPageService;
 import app.komunumo.domain.participant.control.ParticipantService;
 import app.komunumo.domain.user.control.UserService;
+import app.komunumo.infra.config.AppConfig;
+import app.komunumo.infra.config.FilesConfig;
 import app.komunumo.util.ImageUtil;
 import nl.altindag.log.LogCaptor;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 class JSONImporterTest {
 
@@ -70,6 +94,84 @@ class JSONImporterTest {
                 .hasMessage(expectedMessage);
     }
 
+    @Test
+    void testImporterWithFile() {
+        final var jsonFile = Path.of("src/test/resources/import/data.json").toFile();
+        final var userService = mock(UserService.class);
+        try (var importer = new JSONImporter(new ImporterLog(null), jsonFile)) {
+            importer.importUsers(userService);
+        }
+        verify(userService).storeUsers(argThat(users -> users.size() == 6));
+        verify(userService, never()).storeUser(any());
+        assertThat(jsonFile).exists();
+    }
+
+    @Test
+    void testImporterWithArchive(final @TempDir Path tempDir) throws IOException {
+        final var appConfig = mock(AppConfig.class);
+        when(appConfig.files()).thenReturn(new FilesConfig(tempDir));
+        ImageUtil.initialize(appConfig);
+
+        final var embeddedData = Base64.getEncoder().encodeToString("embedded".getBytes(UTF_8));
+        final var archiveFile = createArchive(tempDir, Map.of(
+                "data.json", """
+                        {
+                          "images": [
+                            {"imageId": "11111111-1111-1111-1111-111111111111", "contentType": "image/png",
+                             "url": "images/11111111-1111-1111-1111-111111111111.png"},
+                            {"imageId": "22222222-2222-2222-2222-222222222222", "contentType": "image/png",
+                             "url": "http://localhost:8082/import/test.png"},
+                            {"imageId": "33333333-3333-3333-3333-333333333333", "contentType": "image/png",
+                             "data": "%s"}
+                          ]
+                        }""".formatted(embeddedData),
+                "images/11111111-1111-1111-1111-111111111111.png", "archived"));
+        final var imageService = mock(ImageService.class);
+
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class);
+             var importer = new JSONImporter(new ImporterLog(null), archiveFile)) {
+            importer.importImages(imageService, 2);
+            assertThat(logCaptor.getInfoLogs()).containsExactlyInAnyOrder(
+                    "Identified 0 settings, 3 images, 0 users, 0 communities, 0 events, 0 members, 0 participants, 0 global pages, and 0 mail templates.",
+                    "Start importing images...",
+                    "Loaded image 1 of 3.",
+                    "Loaded image 2 of 3.",
+                    "Loaded image 3 of 3.",
+                    "...finished importing 3 images.");
+        }
+
+        verify(imageService).storeImages(argThat(images -> images.size() == 3));
+        verify(imageService, never()).storeImage(any());
+        final var imagePath = tempDir.resolve("uploads/images");
+        assertThat(imagePath.resolve("11/11/11111111-1111-1111-1111-111111111111.png")).hasContent("archived");
+        assertThat(imagePath.resolve("22/22/22222222-2222-2222-2222-222222222222.png")).exists();
+        assertThat(imagePath.resolve("33/33/33333333-3333-3333-3333-333333333333.png")).hasContent("embedded");
+    }
+
+    @Test
+    void testImporterWithArchiveWithoutData(final @TempDir Path tempDir) throws IOException {
+        final var archiveFile = createArchive(tempDir, Map.of("readme.txt", "no data"));
+        assertThatThrownBy(() -> new JSONImporter(new ImporterLog(null), archiveFile))
+                .isInstanceOf(KomunumoException.class)
+                .hasMessage("Failed to load JSON data from file: " + archiveFile.getName())
+                .rootCause()
+                .hasMessage("The archive does not contain 'data.json'.");
+    }
+
+    @Test
+    void testImporterWithSectionNotAnArray() {
+        final var jsonUrl = "http://localhost:8082/import/null-data.json";
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class);
+             var importer = new JSONImporter(new ImporterLog(null), jsonUrl)) {
+            importer.importUsers(mock(UserService.class));
+            assertThat(logCaptor.getInfoLogs()).containsExactly(
+                    "Identified 0 settings, 0 images, 0 users, 0 communities, 0 events, 0 members, 0 participants, 0 global pages, and 0 mail templates.",
+                    "Start importing users...",
+                    "...finished importing 0 users.");
+            assertThat(logCaptor.getWarnLogs()).isEmpty();
+        }
+    }
+
     @Test
     void testSettingsNotFound() {
         final var jsonUrl = "http://localhost:8082/import/no-data.json";
@@ -87,7 +189,7 @@ class JSONImporterTest {
         final var expectedMessage = "No images found in JSON data.";
         try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
             final var importer = new JSONImporter(new ImporterLog(null), jsonUrl);
-            importer.importImages(mock(ImageService.class));
+            importer.importImages(mock(ImageService.class), 1);
             assertThat(logCaptor.getWarnLogs()).contains(expectedMessage);
         }
     }
@@ -181,9 +283,34 @@ class JSONImporterTest {
     @Test
     void testImportSettings() {
         final var configurationService = mock(ConfigurationService.class);
+        final var jsonUrl = "http://localhost:8082/import/data.json";
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
+            final var importer = new JSONImporter(new ImporterLog(null), jsonUrl);
+            importer.importSettings(configurationService);
+            verify(configurationService).setConfigurations(argThat(values -> values.size() == 4));
+            verify(configurationService, never()).setConfiguration(any(), any(), any());
+            verify(configurationService).clearCache();
+            assertThat(logCaptor.getInfoLogs()).containsExactly(
+                    IDENTIFIED_COUNTS_MESSAGE,
+                    "Start importing settings...",
+                    "...finished importing 4 settings.");
+            assertThat(logCaptor.getWarnLogs()).containsExactly(
+                    "Skipping setting 'instance.slogan' because it is language-dependent but no language was provided.",
+                    "Skipping setting 'instance.createCommunityAllowed' because it is not language-dependent but a language was provided.",
+                    "Skipping setting '{\"setting\":\"simulated.failure\",\"value\":\"The test will throw an exception if this setting is read.\"}': Unknown setting: simulated.failure");
+            assertThat(logCaptor.getErrorLogs()).isEmpty();
+        }
+    }
+
+    @Test
+    void testImportSettingsWithBatchFailure() {
+        final var configurationService = mock(ConfigurationService.class);
+        doThrow(new RuntimeException("Batch failure"))
+                .when(configurationService)
+                .setConfigurations(any());
         doThrow(new RuntimeException("Simulated failure"))
                 .when(configurationService)
-                .setConfiguration(argThat(setting -> "simulated.failure".equals(setting.setting())), any());
+                .setConfiguration(eq(ConfigurationSetting.INSTANCE_NAME), any(), any());
         final var jsonUrl = "http://localhost:8082/import/data.json";
         try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
             final var importer = new JSONImporter(new ImporterLog(null), jsonUrl);
@@ -192,35 +319,177 @@ class JSONImporterTest {
             assertThat(logCaptor.getInfoLogs()).containsExactly(
                     IDENTIFIED_COUNTS_MESSAGE,
                     "Start importing settings...",
-                    "...finished importing 4 settings.");
+                    "...finished importing 3 settings.");
             assertThat(logCaptor.getWarnLogs()).containsExactly(
                     "Skipping setting 'instance.slogan' because it is language-dependent but no language was provided.",
                     "Skipping setting 'instance.createCommunityAllowed' because it is not language-dependent but a language was provided.",
-                    "Skipping setting '{\"setting\":\"simulated.failure\",\"value\":\"The test will throw an exception if this setting is read.\"}': Unknown setting: simulated.failure");
+                    "Skipping setting '{\"setting\":\"simulated.failure\",\"value\":\"The test will throw an exception if this setting is read.\"}': Unknown setting: simulated.failure",
+                    "Skipping setting '{\"setting\":\"instance.name\",\"value\":\"Komunumo Test\"}': Simulated failure");
             assertThat(logCaptor.getErrorLogs()).isEmpty();
         }
     }
 
     @Test
-    void testImportImages() {
+    void testImportInBatches() {
+        final var objectMapper = new ObjectMapper();
+        final var root = objectMapper.createObjectNode();
+        final var participants = root.putArray("participants");
+        for (var i = 0; i <= JSONImporter.BATCH_SIZE; i++) {
+            participants.addObject()
+                    .put("eventId", UUID.randomUUID().toString())
+                    .put("userId", UUID.randomUUID().toString())
+                    .put("registered", "");
+        }
+        final var batchSizes = new ArrayList<Integer>();
+        final var participantService = mock(ParticipantService.class);
+        doAnswer(invocation -> batchSizes.add(invocation.getArgument(0, List.class).size()))
+                .when(participantService).storeParticipants(any());
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
+            final var importer = new JSONImporter(new ImporterLog(null), root, ImageLoader.DOWNLOAD);
+            importer.importParticipants(participantService);
+            assertThat(batchSizes).containsExactly(JSONImporter.BATCH_SIZE, 1);
+            verify(participantService, never()).storeParticipant(any());
+            assertThat(logCaptor.getInfoLogs()).endsWith(
+                    "...finished importing %d participants.".formatted(JSONImporter.BATCH_SIZE + 1));
+            assertThat(logCaptor.getWarnLogs()).isEmpty();
+        }
+    }
+
+    @Test
+    void testImportReportsCheckpoints() {
+        final var root = createParticipants(2 * JSONImporter.BATCH_SIZE + 1);
+        final var participantService = mock(ParticipantService.class);
+        final var checkpoints = new ArrayList<ImportCheckpoint>();
+        final var importer = new JSONImporter(new ImporterLog(null), root, ImageLoader.DOWNLOAD);
+        importer.resumeFrom(new ImportCheckpoint("users", 5)); // other sections are not affected
+        importer.onCheckpoint(checkpoints::add);
+        importer.importParticipants(participantService);
+        assertThat(checkpoints).containsExactly(
+                new ImportCheckpoint("participants", JSONImporter.BATCH_SIZE),
+                new ImportCheckpoint("participants", 2 * JSONImporter.BATCH_SIZE));
+        verify(participantService, times(3)).storeParticipants(any());
+    }
+
+    @Test
+    void testImportResumesFromCheckpoint() {
+        final var root = createParticipants(2 * JSONImporter.BATCH_SIZE + 1);
+        final var batchSizes = new ArrayList<Integer>();
+        final var participantService = mock(ParticipantService.class);
+        doAnswer(invocation -> batchSizes.add(invocation.getArgument(0, List.class).size()))
+                .when(participantService).storeParticipants(any());
+        final var checkpoints = new ArrayList<ImportCheckpoint>();
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
+            final var importer = new JSONImporter(new ImporterLog(null), root, ImageLoader.DOWNLOAD);
+            importer.resumeFrom(new ImportCheckpoint("participants", JSONImporter.BATCH_SIZE));
+            importer.onCheckpoint(checkpoints::add);
+            importer.importParticipants(participantService);
+            assertThat(batchSizes).containsExactly(JSONImporter.BATCH_SIZE, 1);
+            assertThat(checkpoints).containsExactly(
+                    new ImportCheckpoint("participants", 2 * JSONImporter.BATCH_SIZE));
+            assertThat(logCaptor.getInfoLogs()).containsSequence(
+                    "Resume importing participants after %d elements...".formatted(JSONImporter.BATCH_SIZE),
+                    "...finished importing %d participants.".formatted(JSONImporter.BATCH_SIZE + 1));
+        }
+    }
+
+    private static @NotNull JsonNode createParticipants(final int count) {
+        final var root = new ObjectMapper().createObjectNode();
+        final var participants = root.putArray("participants");
+        for (var i = 0; i < count; i++) {
+            participants.addObject()
+                    .put("eventId", UUID.randomUUID().toString())
+                    .put("userId", UUID.randomUUID().toString())
+                    .put("registered", "");
+        }
+        return root;
+    }
+
+    @Test
+    void testImportTombstones() {
+        final var objectMapper = new ObjectMapper();
+        final var root = objectMapper.createObjectNode();
+        final var tombstones = root.putArray("tombstones");
+        tombstones.addObject()
+                .put("type", "MEMBER")
+                .put("key", UUID_ZERO + "/" + UUID_ZERO)
+                .put("deleted", "2025-02-01T12:00Z");
+        tombstones.addObject()
+                .put("type", "USER")
+                .put("key", UUID_ZERO.toString())
+                .put("deleted", "2025-02-01T12:00Z");
+        tombstones.addObject()
+                .put("type", "UNKNOWN")
+                .put("key", UUID_ZERO.toString())
+                .put("deleted", "2025-02-01T12:00Z");
+        final var tombstoneService = mock(TombstoneService.class);
+        doThrow(new RuntimeException("Batch failure"))
+                .when(tombstoneService)
+                .applyTombstones(any());
+        doThrow(new RuntimeException("Simulated failure"))
+                .when(tombstoneService)
+                .applyTombstone(argThat(tombstone -> tombstone.type() == TombstoneType.USER));
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
+            final var importer = new JSONImporter(new ImporterLog(null), root, ImageLoader.DOWNLOAD);
+            importer.importTombstones(tombstoneService);
+            verify(tombstoneService).applyTombstone(new TombstoneDto(TombstoneType.MEMBER,
+                    UUID_ZERO + "/" + UUID_ZERO, ZonedDateTime.parse("2025-02-01T12:00Z")));
+            assertThat(logCaptor.getInfoLogs()).endsWith(
+                    "Start importing tombstones...",
+                    "...finished importing 1 tombstones.");
+            assertThat(logCaptor.getWarnLogs()).containsExactly(
+                    "Skipping tombstone '{\"type\":\"UNKNOWN\",\"key\":\"00000000-0000-0000-0000-000000000000\",\"deleted\":\"2025-02-01T12:00Z\"}': No enum constant app.komunumo.domain.core.tombstone.entity.TombstoneType.UNKNOWN",
+                    "Skipping tombstone '{\"type\":\"USER\",\"key\":\"00000000-0000-0000-0000-000000000000\",\"deleted\":\"2025-02-01T12:00Z\"}': Simulated failure");
+        }
+    }
+
+    @Test
+    void testImportTombstonesOfFullExport() {
+        final var tombstoneService = mock(TombstoneService.class);
+        final var jsonUrl = "http://localhost:8082/import/data.json";
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
+            final var importer = new JSONImporter(new ImporterLog(null), jsonUrl);
+            importer.importTombstones(tombstoneService);
+            verifyNoInteractions(tombstoneService);
+            assertThat(logCaptor.getInfoLogs()).containsExactly(IDENTIFIED_COUNTS_MESSAGE);
+            assertThat(logCaptor.getWarnLogs()).isEmpty();
+        }
+    }
+
+    @Test
+    void testImportImages(final @TempDir Path tempDir) {
+        final var appConfig = mock(AppConfig.class);
+        when(appConfig.files()).thenReturn(new FilesConfig(tempDir));
+        ImageUtil.initialize(appConfig);
+
         final var imageService = mock(ImageService.class);
+        doThrow(new RuntimeException("Batch failure"))
+                .when(imageService)
+                .storeImages(any());
+        doThrow(new RuntimeException("Simulated failure"))
+                .when(imageService)
+                .storeImage(argThat(image -> image.id().toString().equals("4ca05a55-de1e-4571-a833-c9e5e4f4bfba")));
         final var jsonUrl = "http://localhost:8082/import/data.json";
-        try (var logCaptor = LogCaptor.forClass(ImporterLog.class);
-             var mockedImageUtil = mockStatic(ImageUtil.class)) {
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
 
             final var importer = new JSONImporter(new ImporterLog(null), jsonUrl);
-            importer.importImages(imageService);
+            importer.importImages(imageService, 4);
 
-            mockedImageUtil.verify(() -> ImageUtil.storeImage(any(), any()), times(2));
             verify(imageService, times(2)).storeImage(any());
-
-            assertThat(logCaptor.getInfoLogs()).containsExactly(
-                    IDENTIFIED_COUNTS_MESSAGE,
-                    "Start importing images...",
-                    "...finished importing 2 images.");
-            assertThat(logCaptor.getWarnLogs()).containsExactly(
+            assertThat(tempDir.resolve("uploads/images/02/78/0278ec5a-9fe1-4882-85f9-845ca72c2795.svg")).exists();
+
+            assertThat(logCaptor.getInfoLogs())
+                    .startsWith(IDENTIFIED_COUNTS_MESSAGE, "Start importing images...")
+                    .endsWith("...finished importing 1 images.")
+                    .containsExactlyInAnyOrder(
+                            IDENTIFIED_COUNTS_MESSAGE,
+                            "Start importing images...",
+                            "Loaded image 1 of 4.",
+                            "Loaded image 2 of 4.",
+                            "...finished importing 1 images.");
+            assertThat(logCaptor.getWarnLogs()).containsExactlyInAnyOrder(
                     "Skipping image '{\"imageId\":\"d7bd2d09-3310-4e37-ad0a-c7c4c43389ad\",\"contentType\":\"image/svg+xml\",\"url\":\"http://localhost:8082/import/non-existing.svg\"}': Failed to download file from 'http://localhost:8082/import/non-existing.svg': HTTP status code 404",
-                    "Skipping image '{\"imageId\":\"c81bca0e-6a1f-422c-b03f-aee75bee6779\",\"contentType\":\"image/png\",\"url\":\"data:broken\"}': Invalid data URL: data:broken");
+                    "Skipping image '{\"imageId\":\"c81bca0e-6a1f-422c-b03f-aee75bee6779\",\"contentType\":\"image/png\",\"url\":\"data:broken\"}': Invalid data URL: data:broken",
+                    "Skipping image '{\"imageId\":\"4ca05a55-de1e-4571-a833-c9e5e4f4bfba\",\"contentType\":\"image/svg+xml\",\"url\":\"data:image/svg+xml;base64,PHN2ZyB4bWxucz0iaHR0cDovL3d3dy53My5vcmcvMjAwMC9zdmciIHdpZHRoPSI0MDAiIGhlaWdodD0iMjI1IiB2aWV3Qm94PSIwIDAgNDAwIDIyNSIgcm9sZT0iaW1nIiBhcmlhLWxhYmVsPSJEZW1vIj4KICA8dGV4dCB4PSIyMDAiIHk9IjExMi41IiB0ZXh0LWFuY2hvcj0ibWlkZGxlIiBkb21pbmFudC1iYXNlbGluZT0ibWlkZGxlIgogICAgICAgIGZvbnQtZmFtaWx5PSJzYW5zLXNlcmlmIiBmb250LXNpemU9IjU2IiBmaWxsPSIjMDAwIj5EZW1vPC90ZXh0Pgo8L3N2Zz4=\"}': Simulated failure");
             assertThat(logCaptor.getErrorLogs()).isEmpty();
         }
     }
@@ -228,6 +497,9 @@ class JSONImporterTest {
     @Test
     void testImportUsers() {
         final var userService = mock(UserService.class);
+        doThrow(new RuntimeException("Batch failure"))
+                .when(userService)
+                .storeUsers(any());
         doThrow(new RuntimeException("Simulated failure"))
                 .when(userService)
                 .storeUser(argThat(user -> UUID_ZERO.equals(user.id())));
@@ -249,6 +521,9 @@ class JSONImporterTest {
     @Test
     void testImportCommunities() {
         final var communityService = mock(CommunityService.class);
+        doThrow(new RuntimeException("Batch failure"))
+                .when(communityService)
+                .storeCommunities(any());
         doThrow(new RuntimeException("Simulated failure"))
                 .when(communityService)
                 .storeCommunity(argThat(community -> UUID_ZERO.equals(community.id())));
@@ -271,6 +546,9 @@ class JSONImporterTest {
     void testImportEvents() {
         final var eventStore = new ArrayList<EventDto>();
         final var eventService = mock(EventService.class);
+        doThrow(new RuntimeException("Batch failure"))
+                .when(eventService)
+                .storeEvents(any());
         doAnswer(invocation -> {
             final var event = invocation.getArgument(0, EventDto.class);
             eventStore.add(event);
@@ -305,6 +583,9 @@ class JSONImporterTest {
     @Test
     void testImportMembers() {
         final var memberService = mock(MemberService.class);
+        doThrow(new RuntimeException("Batch failure"))
+                .when(memberService)
+                .storeMembers(any());
         doThrow(new RuntimeException("Simulated failure"))
                 .when(memberService)
                 .storeMember(argThat(member -> UUID_ZERO.equals(member.userId())));
@@ -326,6 +607,9 @@ class JSONImporterTest {
     @Test
     void testImportParticipants() {
         final var participantService = mock(ParticipantService.class);
+        doThrow(new RuntimeException("Batch failure"))
+                .when(participantService)
+                .storeParticipants(any());
         doThrow(new RuntimeException("Simulated failure"))
                 .when(participantService)
                 .storeParticipant(argThat(participant -> UUID_ZERO.equals(participant.eventId())));
@@ -347,6 +631,9 @@ class JSONImporterTest {
     @Test
     void testImportGlobalPages() {
         final var globalPageService = mock(GlobalPageService.class);
+        doThrow(new RuntimeException("Batch failure"))
+                .when(globalPageService)
+                .storeGlobalPages(any());
         final var jsonUrl = "http://localhost:8082/import/data.json";
         try (var logCaptor = LogCaptor.forClass(ImporterLog.class)) {
             final var importer = new JSONImporter(new ImporterLog(null), jsonUrl);
@@ -366,6 +653,9 @@ class JSONImporterTest {
     @Test
     void testImportMailTemplates() {
         final var mailService = mock(MailService.class);
+        doThrow(new RuntimeException("Batch failure"))
+                .when(mailService)
+                .storeMailTemplates(any());
         doThrow(new RuntimeException("Simulated failure"))
                 .when(mailService)
                 .storeMailTemplate(argThat(template -> "TEST".equals(template.id().name())));
@@ -406,4 +696,17 @@ class JSONImporterTest {
         }
     }
 
+    private static @NotNull File createArchive(final @NotNull Path directory,
+                                               final @NotNull Map<String, String> entries) throws IOException {
+        final var archiveFile = directory.resolve("export.zip");
+        try (var archive = new ZipOutputStream(Files.newOutputStream(archiveFile))) {
+            for (final var entry : entries.entrySet()) {
+                archive.putNextEntry(new ZipEntry(entry.getKey()));
+                archive.write(entry.getValue().getBytes(UTF_8));
+                archive.closeEntry();
+            }
+        }
+        return archiveFile.toFile();
+    }
+
 }
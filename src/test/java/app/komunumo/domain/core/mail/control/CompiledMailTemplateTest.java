@@ -0,0 +1,79 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.mail.control;
+
+import app.komunumo.domain.core.mail.entity.MailTemplate;
+import app.komunumo.domain.core.mail.entity.MailTemplateId;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledMailTemplateTest {
+
+    private static CompiledMailTemplate compile(final String subject, final String markdown) {
+        return CompiledMailTemplate.compile(new MailTemplate(MailTemplateId.TEST, Locale.ENGLISH, subject, markdown));
+    }
+
+    @Test
+    void renderWithoutVariables() {
+        final var template = compile("Subject", "Hello,\n\nno variables here.");
+        assertThat(template.renderSubject(Map.of("name", "Anna"))).isEqualTo("Subject");
+        assertThat(template.renderBody(Map.of())).isEqualTo("Hello,\n\nno variables here.");
+    }
+
+    @Test
+    void renderWithVariables() {
+        final var template = compile("Welcome ${name}", "${greeting} ${name},\n\nwelcome to ${instanceName}!");
+        final var variables = Map.of("name", "Anna", "greeting", "Hello", "instanceName", "Komunumo");
+        assertThat(template.renderSubject(variables)).isEqualTo("Welcome Anna");
+        assertThat(template.renderBody(variables)).isEqualTo("Hello Anna,\n\nwelcome to Komunumo!");
+    }
+
+    @Test
+    void keepUnknownVariables() {
+        final var template = compile("${unknown}", "Hello ${name}, ${unknown}");
+        assertThat(template.renderSubject(Map.of())).isEqualTo("${unknown}");
+        assertThat(template.renderBody(Map.of("name", "Anna"))).isEqualTo("Hello Anna, ${unknown}");
+    }
+
+    @Test
+    void valuesAreNotRenderedAgain() {
+        final var template = compile("${first}", "${first}${second}");
+        final var variables = Map.of("first", "${second}", "second", "$1 \\ done");
+        assertThat(template.renderSubject(variables)).isEqualTo("${second}");
+        assertThat(template.renderBody(variables)).isEqualTo("${second}$1 \\ done");
+    }
+
+    @Test
+    void missingVariablesOfSubjectAndBody() {
+        final var template = compile("${first} ${second}", "${second} ${third}");
+        assertThat(template.getMissingVariables(Map.of("second", "2"))).containsExactly("first", "third");
+        assertThat(template.getMissingVariables(Map.of("first", "1", "second", "2", "third", "3"))).isEmpty();
+    }
+
+    @Test
+    void keepUnterminatedSlot() {
+        final var template = compile("Price in ${currency", "Costs $5 or ${amount} ${");
+        assertThat(template.renderSubject(Map.of("currency", "CHF"))).isEqualTo("Price in ${currency");
+        assertThat(template.renderBody(Map.of("amount", "5"))).isEqualTo("Costs $5 or 5 ${");
+    }
+
+}
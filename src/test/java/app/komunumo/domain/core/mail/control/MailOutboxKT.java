@@ -0,0 +1,178 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.mail.control;
+
+import app.komunumo.data.db.tables.records.MailOutboxRecord;
+import app.komunumo.domain.core.mail.entity.MailOutboxStatus;
+import app.komunumo.test.KaribuTest;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import nl.altindag.log.LogCaptor;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static app.komunumo.data.db.tables.MailOutbox.MAIL_OUTBOX;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class MailOutboxKT extends KaribuTest {
+
+    @Autowired
+    private @NotNull MailOutbox mailOutbox;
+
+    @Autowired
+    private @NotNull DSLContext dsl;
+
+    @Autowired
+    private @NotNull MeterRegistry meterRegistry;
+
+    @Test
+    void sendMailAndRemoveItFromOutbox() throws MessagingException {
+        mailOutbox.enqueue("Outbox test", "Hello from the outbox.", false, "test@komunumo.app");
+
+        final var receivedMessage = getEmailBySubject("Outbox test");
+        assertThat(receivedMessage.getContentType()).isEqualTo("text/plain; charset=UTF-8");
+        assertThat(receivedMessage.getFrom()[0]).hasToString("sender@localhost");
+        assertThat(receivedMessage.getReplyTo()[0]).hasToString("reply@localhost");
+        assertThat(GreenMailUtil.getBody(receivedMessage)).isEqualTo("Hello from the outbox.");
+
+        await().atMost(2, SECONDS).until(() -> dsl.fetchCount(MAIL_OUTBOX) == 0);
+    }
+
+    @Test
+    void sendMailAfterCommit() throws MessagingException {
+        dsl.transaction(_ -> {
+            mailOutbox.enqueue("Committed", "<p>Committed</p>", true, "test@komunumo.app");
+            assertThat(dsl.fetchCount(MAIL_OUTBOX)).isEqualTo(1);
+        });
+
+        final var receivedMessage = getEmailBySubject("Committed");
+        assertThat(receivedMessage.getContentType()).isEqualTo("text/html;charset=UTF-8");
+        assertThat(GreenMailUtil.getBody(receivedMessage)).isEqualTo("<p>Committed</p>");
+    }
+
+    @Test
+    void sendBurstOverReusedConnections() {
+        final var connections = meterRegistry.get("komunumo.mail.outbox.connections").counter();
+        final var connectionsBefore = connections.count();
+
+        dsl.transaction(_ -> {
+            for (var i = 1; i <= 20; i++) {
+                mailOutbox.enqueue("Burst " + i, "One of many mails.", false, "test@komunumo.app");
+            }
+        });
+
+        await().atMost(10, SECONDS).until(() -> getGreenMail().getReceivedMessages().length == 20);
+        await().atMost(2, SECONDS).until(() -> dsl.fetchCount(MAIL_OUTBOX) == 0);
+        // every worker opens at most one connection for the whole burst
+        assertThat(connections.count() - connectionsBefore).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void discardMailOnRollback() {
+        final var pending = meterRegistry.get("komunumo.mail.outbox.pending").gauge();
+        final var pendingBefore = pending.value();
+
+        assertThatThrownBy(() -> dsl.transaction(_ -> {
+            mailOutbox.enqueue("Rolled back", "Never sent.", false, "test@komunumo.app");
+            throw new IllegalStateException("Simulated failure");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(dsl.fetchCount(MAIL_OUTBOX)).isZero();
+        assertThat(pending.value()).isEqualTo(pendingBefore);
+    }
+
+    @Test
+    void giveUpOnInvalidAddress() {
+        try (var logCaptor = LogCaptor.forClass(MailOutbox.class)) {
+            mailOutbox.enqueue("Invalid address", "Never sent.", false, "@@@");
+
+            await().atMost(2, SECONDS).until(() -> MailOutboxStatus.FAILED.name().equals(getMail().getStatus()));
+            final var mail = getMail();
+            assertThat(mail.getAttempts()).isEqualTo(1);
+            assertThat(mail.getLastError()).isEqualTo("Missing local name");
+            assertThat(mail.getClaimId()).isNull();
+            assertThat(logCaptor.getErrorLogs()).containsExactly(
+                    "Unable to send mail with subject 'Invalid address' to [@@@], giving up after 1 attempts: "
+                            + "Missing local name");
+        }
+    }
+
+    @Test
+    void retryWhileMailServerIsUnavailable() {
+        final var greenMail = getGreenMail();
+        greenMail.stop();
+        try (var logCaptor = LogCaptor.forClass(MailOutbox.class)) {
+            final var enqueued = ZonedDateTime.now(ZoneOffset.UTC);
+            mailOutbox.enqueue("Mail server unavailable", "Sent later.", false, "test@komunumo.app");
+
+            // the first attempt fails and the mail is retried after the initial backoff
+            await().atMost(10, SECONDS).until(() -> getMail().getAttempts() == 1);
+            final var mail = getMail();
+            assertThat(mail.getStatus()).isEqualTo(MailOutboxStatus.PENDING.name());
+            assertThat(mail.getNextAttempt()).isAfter(enqueued.plus(MailOutbox.INITIAL_BACKOFF).minusSeconds(2));
+            assertThat(mail.getLastError()).isNotBlank();
+            assertThat(logCaptor.getWarnLogs()).anyMatch(message -> message.startsWith(
+                    "Unable to send mail with subject 'Mail server unavailable' to [test@komunumo.app], retrying in"));
+
+            // after the last attempt fails, the mail is kept as failed
+            dsl.update(MAIL_OUTBOX)
+                    .set(MAIL_OUTBOX.ATTEMPTS, MailOutbox.MAX_ATTEMPTS - 1)
+                    .set(MAIL_OUTBOX.NEXT_ATTEMPT, ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(1))
+                    .execute();
+            mailOutbox.wakeUp();
+            await().atMost(10, SECONDS).until(() -> MailOutboxStatus.FAILED.name().equals(getMail().getStatus()));
+            assertThat(getMail().getAttempts()).isEqualTo(MailOutbox.MAX_ATTEMPTS);
+        } finally {
+            greenMail.start();
+        }
+    }
+
+    @Test
+    void releaseStaleMails() {
+        final var stale = ZonedDateTime.now(ZoneOffset.UTC).minus(MailOutbox.SENDING_TIMEOUT).minusMinutes(1);
+        try (var logCaptor = LogCaptor.forClass(MailOutbox.class)) {
+            // a mail claimed by a node which stopped while sending it
+            dsl.transaction(_ -> {
+                mailOutbox.enqueue("Stale", "Sent after the claim expired.", false, "test@komunumo.app");
+                dsl.update(MAIL_OUTBOX)
+                        .set(MAIL_OUTBOX.STATUS, MailOutboxStatus.SENDING.name())
+                        .set(MAIL_OUTBOX.UPDATED, stale)
+                        .execute();
+            });
+
+            // the housekeeping releases the mail and wakes up the workers to send it
+            mailOutbox.housekeeping();
+            assertThat(logCaptor.getWarnLogs()).contains("Released 1 mails which were not sent within PT10M.");
+            getEmailBySubject("Stale");
+        }
+    }
+
+    private @NotNull MailOutboxRecord getMail() {
+        return dsl.selectFrom(MAIL_OUTBOX).fetchSingle();
+    }
+
+}
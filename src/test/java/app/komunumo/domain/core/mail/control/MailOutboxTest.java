@@ -0,0 +1,84 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.mail.control;
+
+import app.komunumo.infra.config.AppConfig;
+import app.komunumo.infra.config.MailConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nl.altindag.log.LogCaptor;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Table;
+import org.jooq.exception.DataAccessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.Duration;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MailOutboxTest {
+
+    @Test
+    void backoffDoublesUpToMaximum() {
+        assertThat(MailOutbox.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(MailOutbox.backoff(2)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(MailOutbox.backoff(3)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(MailOutbox.backoff(7)).isEqualTo(Duration.ofMinutes(32));
+        assertThat(MailOutbox.backoff(8)).isEqualTo(MailOutbox.MAX_BACKOFF);
+        assertThat(MailOutbox.backoff(100)).isEqualTo(MailOutbox.MAX_BACKOFF);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void workersSurviveDatabaseErrors() {
+        final var dsl = mock(DSLContext.class, RETURNS_DEEP_STUBS);
+        // the counts are read on start, but every update fails, so no mail can be claimed
+        when(dsl.fetchCount(any(Table.class), any(Condition.class))).thenReturn(3, 1);
+        when(dsl.update(any(Table.class))).thenThrow(new DataAccessException("Simulated database failure"));
+        final var meterRegistry = new SimpleMeterRegistry();
+        final var mailOutbox = new MailOutbox(createAppConfig(), dsl, mock(JavaMailSender.class), meterRegistry);
+
+        try (var logCaptor = LogCaptor.forClass(MailOutbox.class)) {
+            mailOutbox.start();
+            mailOutbox.start(); // starting again has no effect
+            assertThat(logCaptor.getInfoLogs()).containsExactly("Mail outbox started with 1 workers, 3 mails pending.");
+            assertThat(meterRegistry.get("komunumo.mail.outbox.pending").gauge().value()).isEqualTo(3);
+            assertThat(meterRegistry.get("komunumo.mail.outbox.failed").gauge().value()).isEqualTo(1);
+
+            assertThat(logCaptor.getWarnLogs()).contains("Unable to clean up the mail outbox: Simulated database failure");
+            await().atMost(2, SECONDS).until(() -> logCaptor.getWarnLogs().contains(
+                    "Unable to process the mail outbox: Simulated database failure"));
+        } finally {
+            mailOutbox.shutdown();
+        }
+    }
+
+    private static AppConfig createAppConfig() {
+        final var appConfig = mock(AppConfig.class);
+        when(appConfig.mail()).thenReturn(new MailConfig("sender@localhost", "", 0, 10));
+        return appConfig;
+    }
+
+}
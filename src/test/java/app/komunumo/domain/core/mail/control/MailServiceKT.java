@@ -28,10 +28,13 @@ import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 class MailServiceKT extends KaribuTest {
 
@@ -169,6 +172,106 @@ class MailServiceKT extends KaribuTest {
         }
     }
 
+    @Test
+    void sendMailWithErrorWithoutRecipients() {
+        try (var logCaptor = LogCaptor.forClass(MailService.class)) {
+            final var result = mailService.sendMail(
+                    MailTemplateId.TEST, Locale.ENGLISH, MailFormat.MARKDOWN,
+                    null);
+            assertThat(result).isFalse();
+            assertThat(logCaptor.getErrorLogs()).containsExactly(
+                    "Unable to send mail with subject '[Komunumo Test] Test mail' to []: No recipient addresses");
+        }
+    }
+
+    @Test
+    void sendMailWarnsAboutMissingVariables() {
+        mailService.storeMailTemplate(new MailTemplate(MailTemplateId.TEST, Locale.ENGLISH,
+                "Test mail for ${name}", "Hello ${name},\n\nyour code is ${code}."));
+        try (var logCaptor = LogCaptor.forClass(MailService.class)) {
+            final var result = mailService.sendMail(
+                    MailTemplateId.TEST, Locale.ENGLISH, MailFormat.MARKDOWN,
+                    Map.of("code", "1234"), "test@komunumo.app");
+            assertThat(result).isTrue();
+            assertThat(logCaptor.getWarnLogs()).containsExactly(
+                    "Mail template TEST (en) uses variables without a value: [name]");
+        }
+
+        final var receivedMessage = getEmailBySubject("[Komunumo Test] Test mail for ${name}");
+        assertThat(GreenMailUtil.getBody(receivedMessage))
+                .isEqualTo("Hello ${name},\r\n\r\nyour code is 1234.");
+    }
+
+    @Test
+    void prepareBulkMailRendersEveryRecipient() throws MessagingException {
+        mailService.storeMailTemplate(new MailTemplate(MailTemplateId.TEST, Locale.ENGLISH,
+                "News from ${instanceName}", "Hello ${name},\n\nyour code is ${code}."));
+        final var bulkMail = mailService.prepareBulkMail(MailTemplateId.TEST, Locale.ENGLISH, MailFormat.MARKDOWN,
+                Map.of("code", "1234"));
+
+        assertThat(bulkMail.send("alice@komunumo.app", Map.of("name", "Alice"))).isTrue();
+        assertThat(bulkMail.send("bob@komunumo.app", Map.of("name", "Bob"))).isTrue();
+
+        await().atMost(10, SECONDS).until(() -> getGreenMail().getReceivedMessages().length == 2);
+        for (final var receivedMessage : getGreenMail().getReceivedMessages()) {
+            assertThat(receivedMessage.getSubject()).isEqualTo("[Komunumo Test] News from Komunumo Test");
+            assertThat(receivedMessage.getAllRecipients()).hasSize(1);
+            final var name = receivedMessage.getAllRecipients()[0].toString().startsWith("alice") ? "Alice" : "Bob";
+            assertThat(GreenMailUtil.getBody(receivedMessage))
+                    .isEqualTo("Hello " + name + ",\r\n\r\nyour code is 1234.");
+        }
+    }
+
+    @Test
+    void prepareBulkMailDoesNotCompileSharedValues() throws MessagingException {
+        mailService.storeMailTemplate(new MailTemplate(MailTemplateId.TEST, Locale.ENGLISH,
+                "News from ${instanceName}", "Hello ${name},\n\n${message}"));
+        final var bulkMail = mailService.prepareBulkMail(MailTemplateId.TEST, Locale.ENGLISH, MailFormat.MARKDOWN,
+                Map.of("message", "Write ${name} or ${instanceUrl} on your badge."));
+
+        assertThat(bulkMail.send("alice@komunumo.app", Map.of("name", "Alice"))).isTrue();
+
+        await().atMost(10, SECONDS).until(() -> getGreenMail().getReceivedMessages().length == 1);
+        assertThat(GreenMailUtil.getBody(getGreenMail().getReceivedMessages()[0]))
+                .isEqualTo("Hello Alice,\r\n\r\nWrite ${name} or ${instanceUrl} on your badge.");
+    }
+
+    @Test
+    void prepareBulkMailSkipsInvalidAddress() {
+        final var bulkMail = mailService.prepareBulkMail(MailTemplateId.TEST, Locale.ENGLISH, MailFormat.MARKDOWN,
+                null);
+        try (var logCaptor = LogCaptor.forClass(BulkMail.class)) {
+            assertThat(bulkMail.send("@@@", Map.of())).isFalse();
+            assertThat(bulkMail.send("alice@komunumo.app, bob@komunumo.app", Map.of())).isFalse();
+            assertThat(logCaptor.getErrorLogs()).containsExactly(
+                    "Unable to send mail with subject '[Komunumo Test] Test mail' to @@@: Missing local name",
+                    "Unable to send mail with subject '[Komunumo Test] Test mail' to "
+                            + "alice@komunumo.app, bob@komunumo.app: Expected exactly one recipient address");
+        }
+    }
+
+    @Test
+    void sendMailUsesStoredTemplate() {
+        assertThat(mailService.sendMail(MailTemplateId.TEST, Locale.ENGLISH, MailFormat.MARKDOWN,
+                null, "test@komunumo.app")).isTrue();
+        getEmailBySubject("[Komunumo Test] Test mail");
+
+        // storing a template replaces the cached version
+        mailService.storeMailTemplate(new MailTemplate(MailTemplateId.TEST, Locale.ENGLISH,
+                "Changed test mail", "Hello,\n\nthis is a changed test mail."));
+        assertThat(mailService.sendMail(MailTemplateId.TEST, Locale.ENGLISH, MailFormat.MARKDOWN,
+                null, "test@komunumo.app")).isTrue();
+        assertThat(GreenMailUtil.getBody(getEmailBySubject("[Komunumo Test] Changed test mail")))
+                .isEqualTo("Hello,\r\n\r\nthis is a changed test mail.");
+
+        // storing templates in a batch replaces the cached versions too
+        mailService.storeMailTemplates(List.of(new MailTemplate(MailTemplateId.TEST, Locale.ENGLISH,
+                "Imported test mail", "Hello,\n\nthis is an imported test mail.")));
+        assertThat(mailService.sendMail(MailTemplateId.TEST, Locale.ENGLISH, MailFormat.MARKDOWN,
+                null, "test@komunumo.app")).isTrue();
+        getEmailBySubject("[Komunumo Test] Imported test mail");
+    }
+
     @Test
     void storeMailTemplateCreatesNewTemplate() {
         final var subjectFrench = "Nouvel e-mail test";
@@ -214,4 +317,19 @@ class MailServiceKT extends KaribuTest {
         assertThat(retrievedTemplate.markdown()).isEqualTo(markdownEnglish);
     }
 
+    @Test
+    void storeMailTemplatesCreatesAndUpdatesTemplates() {
+        final var count = mailService.getMailTemplateCount();
+        mailService.storeMailTemplates(List.of(
+                new MailTemplate(MailTemplateId.TEST, Locale.FRENCH, "Test", "Bonjour"),
+                new MailTemplate(MailTemplateId.TEST, Locale.ENGLISH, "Updated", "Hello")));
+
+        assertThat(mailService.getMailTemplateCount()).isEqualTo(count + 1);
+        final var frenchTemplate = mailService.getMailTemplate(MailTemplateId.TEST, Locale.FRENCH).orElseThrow();
+        assertThat(frenchTemplate.subject()).isEqualTo("Test");
+        assertThat(frenchTemplate.markdown()).isEqualTo("Bonjour");
+        final var englishTemplate = mailService.getMailTemplate(MailTemplateId.TEST, Locale.ENGLISH).orElseThrow();
+        assertThat(englishTemplate.subject()).isEqualTo("Updated");
+        assertThat(englishTemplate.markdown()).isEqualTo("Hello");
+    }
 }
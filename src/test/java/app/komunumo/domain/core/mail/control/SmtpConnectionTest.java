@@ -0,0 +1,198 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.mail.control;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SmtpConnectionTest {
+
+    private final @NotNull AtomicLong clock = new AtomicLong();
+    private final @NotNull AtomicInteger connects = new AtomicInteger();
+    private final @NotNull Transport firstTransport = mock(Transport.class);
+    private final @NotNull Transport secondTransport = mock(Transport.class);
+    private final @NotNull JavaMailSenderImpl mailSender = mock(JavaMailSenderImpl.class);
+
+    private SmtpConnection connection;
+
+    @BeforeEach
+    void setUp() throws MessagingException {
+        final var session = mock(Session.class);
+        when(session.getTransport("smtp")).thenReturn(firstTransport, secondTransport);
+        when(mailSender.getSession()).thenReturn(session);
+        when(mailSender.getProtocol()).thenReturn("smtp");
+        when(mailSender.getHost()).thenReturn("localhost");
+        when(mailSender.getPort()).thenReturn(25);
+        when(mailSender.getUsername()).thenReturn("komunumo");
+        when(mailSender.getPassword()).thenReturn("s3cr3t");
+        when(firstTransport.isConnected()).thenReturn(true);
+        when(secondTransport.isConnected()).thenReturn(true);
+        connection = new SmtpConnection(mailSender, connects::incrementAndGet, clock::get);
+    }
+
+    @Test
+    void reuseConnectionForSeveralMails() throws MessagingException {
+        for (var i = 0; i < 3; i++) {
+            connection.send(createMessage());
+        }
+
+        assertThat(connects.get()).isEqualTo(1);
+        assertThat(connection.isOpen()).isTrue();
+        verify(firstTransport).connect("localhost", 25, "komunumo", "s3cr3t");
+        verify(firstTransport, times(3)).sendMessage(any(MimeMessage.class), any(Address[].class));
+        verify(firstTransport, never()).close();
+    }
+
+    @Test
+    void reconnectAfterMaximumNumberOfMails() throws MessagingException {
+        for (var i = 0; i <= SmtpConnection.MAX_MESSAGES; i++) {
+            connection.send(createMessage());
+        }
+
+        assertThat(connects.get()).isEqualTo(2);
+        verify(firstTransport, times(SmtpConnection.MAX_MESSAGES))
+                .sendMessage(any(MimeMessage.class), any(Address[].class));
+        verify(firstTransport).close();
+        verify(secondTransport).sendMessage(any(MimeMessage.class), any(Address[].class));
+    }
+
+    @Test
+    void closeIdleConnection() throws MessagingException {
+        connection.send(createMessage());
+
+        clock.addAndGet(SmtpConnection.IDLE_TIMEOUT.toNanos() - 1);
+        connection.closeIfIdle();
+        assertThat(connection.isOpen()).isTrue();
+
+        clock.addAndGet(1);
+        connection.closeIfIdle();
+        assertThat(connection.isOpen()).isFalse();
+        verify(firstTransport).close();
+    }
+
+    @Test
+    void validateConnectionAfterValidationInterval() throws MessagingException {
+        connection.send(createMessage());
+        connection.send(createMessage());
+        verify(firstTransport, never()).isConnected();
+
+        // the mail server closed the connection in the meantime
+        when(firstTransport.isConnected()).thenReturn(false);
+        clock.addAndGet(SmtpConnection.VALIDATION_INTERVAL.toNanos());
+        connection.send(createMessage());
+
+        assertThat(connects.get()).isEqualTo(2);
+        verify(firstTransport).close();
+        verify(secondTransport).sendMessage(any(MimeMessage.class), any(Address[].class));
+    }
+
+    @Test
+    void resendOverNewConnectionIfReusedConnectionFails() throws MessagingException {
+        connection.send(createMessage());
+        doThrow(new MessagingException("Connection reset"))
+                .when(firstTransport).sendMessage(any(MimeMessage.class), any(Address[].class));
+
+        connection.send(createMessage());
+
+        assertThat(connects.get()).isEqualTo(2);
+        verify(firstTransport).close();
+        verify(secondTransport).sendMessage(any(MimeMessage.class), any(Address[].class));
+    }
+
+    @Test
+    void failIfNewConnectionFails() throws MessagingException {
+        doThrow(new MessagingException("Authentication failed"))
+                .when(firstTransport).sendMessage(any(MimeMessage.class), any(Address[].class));
+
+        assertThatThrownBy(() -> connection.send(createMessage()))
+                .isInstanceOf(MessagingException.class)
+                .hasMessage("Authentication failed");
+        assertThat(connection.isOpen()).isFalse();
+        assertThat(connects.get()).isEqualTo(1);
+        verify(firstTransport).close();
+    }
+
+    @Test
+    void keepConnectionIfMailIsRejected() throws MessagingException {
+        connection.send(createMessage());
+        doThrow(new SendFailedException("Recipient rejected"))
+                .when(firstTransport).sendMessage(any(MimeMessage.class), any(Address[].class));
+
+        assertThatThrownBy(() -> connection.send(createMessage()))
+                .isInstanceOf(SendFailedException.class);
+        assertThat(connection.isOpen()).isTrue();
+        assertThat(connects.get()).isEqualTo(1);
+        verify(firstTransport, never()).close();
+    }
+
+    @Test
+    void closeConnection() throws MessagingException {
+        connection.send(createMessage());
+        connection.close();
+        connection.close(); // closing again has no effect
+
+        assertThat(connection.isOpen()).isFalse();
+        verify(firstTransport).close();
+    }
+
+    @Test
+    void sendWithOtherMailSenders() throws MessagingException {
+        final var otherMailSender = mock(JavaMailSender.class);
+        final var message = createMessage();
+        try (var otherConnection = new SmtpConnection(otherMailSender, connects::incrementAndGet)) {
+            otherConnection.send(message);
+            assertThat(otherConnection.isOpen()).isFalse();
+        }
+
+        verify(otherMailSender).send(message);
+        assertThat(connects.get()).isZero();
+    }
+
+    private static @NotNull MimeMessage createMessage() throws MessagingException {
+        final var message = new MimeMessage(Session.getInstance(new Properties()));
+        message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("test@komunumo.app"));
+        message.setSubject("Test mail");
+        message.setText("Hello.");
+        return message;
+    }
+
+}
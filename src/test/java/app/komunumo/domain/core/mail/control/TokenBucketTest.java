@@ -0,0 +1,87 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.mail.control;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void fullBucketAllowsBurstUpToRate() {
+        final var clock = new AtomicLong();
+        final var tokenBucket = new TokenBucket(10, clock::get);
+        for (var i = 0; i < 10; i++) {
+            assertThat(tokenBucket.tryAcquire()).isZero();
+        }
+        assertThat(tokenBucket.tryAcquire()).isEqualTo(100 * MILLIS);
+    }
+
+    @Test
+    void bucketRefillsOverTime() {
+        final var clock = new AtomicLong();
+        final var tokenBucket = new TokenBucket(10, clock::get);
+        for (var i = 0; i < 10; i++) {
+            tokenBucket.tryAcquire();
+        }
+
+        clock.addAndGet(50 * MILLIS);
+        assertThat(tokenBucket.tryAcquire()).isEqualTo(50 * MILLIS);
+
+        clock.addAndGet(50 * MILLIS);
+        assertThat(tokenBucket.tryAcquire()).isZero();
+        assertThat(tokenBucket.tryAcquire()).isEqualTo(100 * MILLIS);
+    }
+
+    @Test
+    void bucketHoldsAtMostOneSecondOfTokens() {
+        final var clock = new AtomicLong();
+        final var tokenBucket = new TokenBucket(5, clock::get);
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        for (var i = 0; i < 5; i++) {
+            assertThat(tokenBucket.tryAcquire()).isZero();
+        }
+        assertThat(tokenBucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    void rateBelowOneIsTreatedAsOne() {
+        final var clock = new AtomicLong();
+        final var tokenBucket = new TokenBucket(0, clock::get);
+        assertThat(tokenBucket.tryAcquire()).isZero();
+        assertThat(tokenBucket.tryAcquire()).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void acquireWaitsForNextToken() throws InterruptedException {
+        final var tokenBucket = new TokenBucket(100);
+        final var start = System.nanoTime();
+        for (var i = 0; i < 110; i++) {
+            tokenBucket.acquire();
+        }
+        // the first 100 tokens are available right away, the next 10 take 10 ms each
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(90 * MILLIS);
+    }
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.core.tombstone.control;
+
+import app.komunumo.domain.community.control.CommunityService;
+import app.komunumo.domain.community.entity.CommunityDto;
+import app.komunumo.domain.core.config.control.ConfigurationService;
+import app.komunumo.domain.core.tombstone.entity.TombstoneDto;
+import app.komunumo.domain.core.tombstone.entity.TombstoneType;
+import app.komunumo.domain.event.control.EventService;
+import app.komunumo.domain.event.entity.EventDto;
+import app.komunumo.domain.event.entity.EventStatus;
+import app.komunumo.domain.event.entity.EventVisibility;
+import app.komunumo.domain.member.control.MemberService;
+import app.komunumo.domain.member.entity.MemberDto;
+import app.komunumo.domain.member.entity.MemberRole;
+import app.komunumo.domain.page.control.GlobalPageService;
+import app.komunumo.domain.page.entity.GlobalPageDto;
+import app.komunumo.domain.participant.control.ParticipantService;
+import app.komunumo.domain.participant.entity.ParticipantDto;
+import app.komunumo.domain.user.control.UserService;
+import app.komunumo.domain.user.entity.UserDto;
+import app.komunumo.domain.user.entity.UserRole;
+import app.komunumo.domain.user.entity.UserType;
+import app.komunumo.test.KaribuTest;
+import org.jetbrains.annotations.NotNull;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static app.komunumo.data.db.tables.Tombstone.TOMBSTONE;
+import static app.komunumo.domain.core.config.entity.ConfigurationSetting.TOMBSTONE_RETENTION_DAYS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TombstoneServiceKT extends KaribuTest {
+
+    @Autowired
+    private @NotNull TombstoneService tombstoneService;
+
+    @Autowired
+    private @NotNull UserService userService;
+
+    @Autowired
+    private @NotNull CommunityService communityService;
+
+    @Autowired
+    private @NotNull MemberService memberService;
+
+    @Autowired
+    private @NotNull EventService eventService;
+
+    @Autowired
+    private @NotNull ParticipantService participantService;
+
+    @Autowired
+    private @NotNull GlobalPageService globalPageService;
+
+    @Autowired
+    private @NotNull ConfigurationService configurationService;
+
+    @Autowired
+    private @NotNull DSLContext dsl;
+
+    @Test
+    void deletionsAreRecordedAndApplied() {
+        final var since = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+
+        // create one entity of every type
+        final var user = userService.storeUser(new UserDto(null, null, null, "@tombstoneUser",
+                "tombstone@example.eu", "Tombstone User", "", null, UserRole.USER, UserType.LOCAL));
+        final var community = communityService.storeCommunity(new CommunityDto(null, "@tombstoneCommunity",
+                null, null, "Tombstone Community", "", null));
+        final var member = memberService.storeMember(new MemberDto(user.id(), community.id(), MemberRole.MEMBER, null));
+        final var event = eventService.storeEvent(new EventDto(null, community.id(), null, null, "Tombstone Event",
+                "", "", null, null, null, true, EventVisibility.PUBLIC, EventStatus.DRAFT));
+        participantService.storeParticipant(new ParticipantDto(event.id(), user.id(), null));
+        globalPageService.storeGlobalPage(new GlobalPageDto("tombstone", Locale.ENGLISH, null, null,
+                "Tombstone", "Tombstone Page"));
+        assertThat(collectTombstones(since)).isEmpty();
+
+        // apply tombstones for all of them
+        tombstoneService.applyTombstones(List.of(
+                new TombstoneDto(TombstoneType.PARTICIPANT, event.id() + "/" + user.id(), since),
+                new TombstoneDto(TombstoneType.MEMBER, member.communityId() + "/" + member.userId(), since),
+                new TombstoneDto(TombstoneType.EVENT, String.valueOf(event.id()), since),
+                new TombstoneDto(TombstoneType.COMMUNITY, String.valueOf(community.id()), since),
+                new TombstoneDto(TombstoneType.USER, String.valueOf(user.id()), since),
+                new TombstoneDto(TombstoneType.GLOBAL_PAGE, "tombstone/en", since)));
+
+        //noinspection DataFlowIssue // IDs are never null for stored entities
+        assertThat(userService.getUserById(user.id())).isEmpty();
+        assertThat(communityService.getCommunity(community.id())).isEmpty();
+        assertThat(eventService.getEvent(event.id())).isEmpty();
+        assertThat(globalPageService.getGlobalPage("tombstone", Locale.ENGLISH)).isEmpty();
+
+        // the deletions have been recorded in the order they must be applied
+        final var tombstones = collectTombstones(since);
+        assertThat(tombstones).extracting(TombstoneDto::type).containsExactly(TombstoneType.values());
+        assertThat(tombstones).extracting(TombstoneDto::key).containsExactly(
+                event.id() + "/" + user.id(),
+                community.id() + "/" + user.id(),
+                String.valueOf(event.id()),
+                String.valueOf(community.id()),
+                String.valueOf(user.id()),
+                "tombstone/en");
+
+        // tombstones of entities which no longer exist are ignored
+        assertThat(tombstoneService.applyTombstone(tombstones.getFirst())).isFalse();
+
+        // older tombstones are not included
+        assertThat(collectTombstones(since.plusDays(1))).isEmpty();
+    }
+
+    @Test
+    void applySingleTombstone() {
+        final var user = userService.storeUser(new UserDto(null, null, null, "@tombstoneUser",
+                "tombstone@example.eu", "Tombstone User", "", null, UserRole.USER, UserType.LOCAL));
+        final var tombstone = new TombstoneDto(TombstoneType.USER, String.valueOf(user.id()),
+                ZonedDateTime.now(ZoneOffset.UTC));
+
+        assertThat(tombstoneService.applyTombstone(tombstone)).isTrue();
+        //noinspection DataFlowIssue // ID is never null for a stored user
+        assertThat(userService.getUserById(user.id())).isEmpty();
+    }
+
+    @Test
+    void applyTombstoneWithInvalidKey() {
+        final var tombstone = new TombstoneDto(TombstoneType.MEMBER, "invalid", ZonedDateTime.now(ZoneOffset.UTC));
+        assertThatThrownBy(() -> tombstoneService.applyTombstone(tombstone))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid tombstone key: invalid");
+    }
+
+    @Test
+    void pruneTombstonesOlderThanRetention() {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+        storeTombstone("old", now.minusDays(91));
+        storeTombstone("recent", now.minusDays(89));
+
+        tombstoneService.pruneTombstones();
+
+        assertThat(collectTombstones(now.minusYears(1)))
+                .extracting(TombstoneDto::key)
+                .containsExactly("recent");
+    }
+
+    @Test
+    void pruneTombstonesWithConfiguredRetention() {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+        storeTombstone("old", now.minusDays(8));
+        storeTombstone("recent", now.minusDays(6));
+        configurationService.setConfiguration(TOMBSTONE_RETENTION_DAYS, 7);
+
+        tombstoneService.pruneTombstones();
+
+        assertThat(collectTombstones(now.minusYears(1)))
+                .extracting(TombstoneDto::key)
+                .containsExactly("recent");
+    }
+
+    @Test
+    void pruneTombstonesDisabled() {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+        storeTombstone("old", now.minusYears(2));
+        configurationService.setConfiguration(TOMBSTONE_RETENTION_DAYS, 0);
+
+        tombstoneService.pruneTombstones();
+
+        assertThat(collectTombstones(now.minusYears(3)))
+                .extracting(TombstoneDto::key)
+                .containsExactly("old");
+    }
+
+    @Test
+    void deleteAllTombstones() {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+        storeTombstone("first", now);
+        storeTombstone("second", now.minusDays(1));
+
+        assertThat(tombstoneService.deleteAllTombstones()).isEqualTo(2);
+        assertThat(collectTombstones(now.minusYears(1))).isEmpty();
+    }
+
+    private void storeTombstone(final @NotNull String key, final @NotNull ZonedDateTime deleted) {
+        dsl.insertInto(TOMBSTONE)
+                .set(TOMBSTONE.TYPE, TombstoneType.USER.name())
+                .set(TOMBSTONE.ENTITY_KEY, key)
+                .set(TOMBSTONE.DELETED, deleted)
+                .execute();
+    }
+
+    private @NotNull List<TombstoneDto> collectTombstones(final @NotNull ZonedDateTime since) {
+        final var tombstones = new ArrayList<TombstoneDto>();
+        tombstoneService.forEachTombstone(since, tombstones::add);
+        return tombstones;
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.demo.control;
+
+import app.komunumo.KomunumoException;
+import app.komunumo.domain.core.demo.control.DemoDataCache;
+import app.komunumo.domain.core.image.entity.ContentType;
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.infra.config.AppConfig;
+import app.komunumo.infra.config.DatabaseConfig;
+import app.komunumo.infra.config.DemoConfig;
+import app.komunumo.infra.config.FilesConfig;
+import app.komunumo.infra.config.ImporterConfig;
+import app.komunumo.infra.config.InstanceConfig;
+import app.komunumo.infra.config.MailConfig;
+import app.komunumo.util.ImageUtil;
+import nl.altindag.log.LogCaptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DemoDataCacheTest {
+
+    private static final String DATA_URL = "http://localhost:8082/import/data.json";
+    private static final String IMAGE_URL = "http://localhost:8082/import/test.png";
+    private static final FileTime OLD_FILE_TIME = FileTime.fromMillis(0);
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        final var databaseConfig = new DatabaseConfig(List.of(), Duration.ZERO);
+        final var demoConfig = new DemoConfig(false, "");
+        final var filesConfig = new FilesConfig(tempDir);
+        final var importerConfig = new ImporterConfig(1);
+        final var mailConfig = new MailConfig("noreply@foo.bar", "support@foo.bar", 1, 10);
+        final var instanceConfig = new InstanceConfig("admin@foo.bar");
+        final var appConfig = new AppConfig("0.0.0", databaseConfig, demoConfig, filesConfig, importerConfig, instanceConfig, mailConfig);
+        ImageUtil.initialize(appConfig);
+    }
+
+    @Test
+    void datasetIsCachedUntilChanged() {
+        final var demoDataCache = new DemoDataCache();
+        try (var logCaptor = LogCaptor.forClass(DemoDataCache.class)) {
+            final var first = demoDataCache.getDataset(DATA_URL);
+            assertThat(first.has("users")).isTrue();
+            assertThat(logCaptor.getInfoLogs()).isEmpty();
+
+            final var second = demoDataCache.getDataset(DATA_URL);
+            assertThat(second).isSameAs(first);
+            assertThat(logCaptor.getInfoLogs()).containsExactly(
+                    "Demo data at '%s' is unchanged, using cached dataset.".formatted(DATA_URL));
+        }
+    }
+
+    @Test
+    void datasetFromFileIsAlwaysParsed() {
+        final var location = Path.of("src/test/resources/import/data.json").toUri().toString();
+        final var demoDataCache = new DemoDataCache();
+        final var first = demoDataCache.getDataset(location);
+        final var second = demoDataCache.getDataset(location);
+        assertThat(first.has("users")).isTrue();
+        assertThat(second).isNotSameAs(first).isEqualTo(first);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "http://localhost:8082/import/non-existing.json",
+            "http://localhost:8888/data.json",
+            "http://invalid host/data.json",
+            "file:non-existing.json"
+    })
+    void datasetFailsForInvalidOrUnreachableUrls(final String location) {
+        final var demoDataCache = new DemoDataCache();
+        demoDataCache.getDataset(DATA_URL);
+        assertThatThrownBy(() -> demoDataCache.getDataset(location))
+                .isInstanceOf(KomunumoException.class)
+                .hasMessage("Failed to download JSON data from URL: " + location);
+    }
+
+    @Test
+    void datasetFailsWhenInterrupted() {
+        final var demoDataCache = new DemoDataCache();
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> demoDataCache.getDataset(DATA_URL))
+                    .isInstanceOf(KomunumoException.class);
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void unchangedHttpImageIsNotStoredAgain() throws Exception {
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_PNG);
+        final var target = requireNonNull(ImageUtil.resolveImagePath(image));
+        final var demoDataCache = new DemoDataCache();
+
+        demoDataCache.loadImage(image, IMAGE_URL);
+        assertThat(target).hasSameBinaryContentAs(Path.of("src/test/resources/import/test.png"));
+
+        // not modified according to the server
+        Files.setLastModifiedTime(target, OLD_FILE_TIME);
+        demoDataCache.loadImage(image, IMAGE_URL);
+        assertThat(Files.getLastModifiedTime(target)).isEqualTo(OLD_FILE_TIME);
+
+        // downloaded again by a new cache, but matched by content hash
+        try (var logCaptor = LogCaptor.forClass(DemoDataCache.class)) {
+            new DemoDataCache().loadImage(image, IMAGE_URL);
+            assertThat(Files.getLastModifiedTime(target)).isEqualTo(OLD_FILE_TIME);
+            assertThat(logCaptor.getInfoLogs()).containsExactly(
+                    "Image '%s' is unchanged, keeping stored file.".formatted(image.id()));
+        }
+
+        // stored again if the file is missing
+        Files.delete(target);
+        demoDataCache.loadImage(image, IMAGE_URL);
+        assertThat(target).hasSameBinaryContentAs(Path.of("src/test/resources/import/test.png"));
+    }
+
+    @Test
+    void inlineImageIsOnlyStoredWhenChanged() throws Exception {
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_SVG);
+        final var target = requireNonNull(ImageUtil.resolveImagePath(image));
+        final var demoDataCache = new DemoDataCache();
+
+        demoDataCache.loadImage(image, "data:image/svg+xml,%3Csvg%2F%3E");
+        assertThat(target).hasContent("<svg/>");
+
+        Files.setLastModifiedTime(target, OLD_FILE_TIME);
+        demoDataCache.loadImage(image, "data:image/svg+xml,%3Csvg%2F%3E");
+        assertThat(Files.getLastModifiedTime(target)).isEqualTo(OLD_FILE_TIME);
+
+        demoDataCache.loadImage(image, "data:image/svg+xml,%3Csvg%3E%3C%2Fsvg%3E");
+        assertThat(target).hasContent("<svg></svg>");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "http://localhost:8082/import/non-existing.png",
+            "http://invalid host/image.png",
+            "data:invalid"
+    })
+    void imageFailsForInvalidOrUnreachableUrls(final String url) {
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_PNG);
+        assertThatThrownBy(() -> new DemoDataCache().loadImage(image, url))
+                .isInstanceOf(KomunumoException.class);
+    }
+
+    @Test
+    void imageFailsWhenInterrupted() {
+        final var image = new ImageDto(UUID.randomUUID(), ContentType.IMAGE_PNG);
+        final var demoDataCache = new DemoDataCache();
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> demoDataCache.loadImage(image, IMAGE_URL))
+                    .isInstanceOf(KomunumoException.class);
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void imageWithoutIdIsRejected() {
+        final var image = new ImageDto(null, ContentType.IMAGE_PNG);
+        assertThatThrownBy(() -> new DemoDataCache().loadImage(image, IMAGE_URL))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("ImageDto must have an ID!");
+    }
+
+}
@@ -48,6 +48,7 @@ import java.util.Locale;
 import java.util.UUID;
 
 import static app.komunumo.data.db.Tables.MAIL_TEMPLATE;
+import static app.komunumo.data.db.Tables.TOMBSTONE;
 import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -97,7 +98,7 @@ class DemoModeKT extends KaribuTest {
         assertThat(eventService.getEventCount()).isEqualTo(6);
         assertThat(participantService.getParticipantCount()).isEqualTo(6);
         assertThat(globalPageService.getGlobalPageCount()).isEqualTo(2);
-        assertThat(mailService.getMailTemplateCount()).isEqualTo(18);
+        assertThat(mailService.getMailTemplateCount()).isEqualTo(26);
 
         imageService.storeImage(new ImageDto(null, ContentType.IMAGE_PNG));
         assertThat(imageService.getImageCount()).isEqualTo(3);
@@ -139,7 +140,7 @@ class DemoModeKT extends KaribuTest {
         dsl.deleteFrom(MAIL_TEMPLATE)
                 .where(MAIL_TEMPLATE.ID.eq("TEST"))
                 .execute();
-        assertThat(mailService.getMailTemplateCount()).isEqualTo(16);
+        assertThat(mailService.getMailTemplateCount()).isEqualTo(24);
 
         demoMode.resetDemoData();
 
@@ -152,7 +153,8 @@ class DemoModeKT extends KaribuTest {
         assertThat(eventService.getEventCount()).isEqualTo(6);
         assertThat(participantService.getParticipantCount()).isEqualTo(6);
         assertThat(globalPageService.getGlobalPageCount()).isEqualTo(2);
-        assertThat(mailService.getMailTemplateCount()).isEqualTo(18);
+        assertThat(mailService.getMailTemplateCount()).isEqualTo(26);
+        assertThat(dsl.fetchCount(TOMBSTONE)).isZero();
     }
 
 }
@@ -26,6 +26,7 @@ import app.komunumo.domain.user.control.UserService;
 import app.komunumo.domain.user.entity.UserRole;
 import app.komunumo.infra.ui.vaadin.components.ImageUpload;
 import app.komunumo.infra.ui.vaadin.components.MarkdownEditor;
+import app.komunumo.infra.ui.vaadin.components.RenderedMarkdown;
 import app.komunumo.test.KaribuTest;
 import app.komunumo.test.TestConstants;
 import com.vaadin.flow.component.UI;
@@ -35,7 +36,6 @@ import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.component.html.Paragraph;
-import com.vaadin.flow.component.markdown.Markdown;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.select.Select;
@@ -166,7 +166,7 @@ class CreateEventViewKT extends KaribuTest {
                 .isEqualTo("Begin: Monday, July 1, 2030, 8:00 AM UTC");
         assertThat(_get(Paragraph.class, spec -> spec.withClasses("event-date-end")).getText())
                 .isEqualTo("End: Monday, July 1, 2030, 10:00 AM UTC");
-        assertThat(_get(Markdown.class, spec -> spec.withClasses("event-description")).getContent())
+        assertThat(_get(RenderedMarkdown.class, spec -> spec.withClasses("event-description")).getMarkdown())
                 .isEqualTo("Test Event Description");
         assertThat(_find(Image.class, spec -> spec.withClasses("event-image")))
                 .isEmpty();
@@ -224,7 +224,7 @@ class CreateEventViewKT extends KaribuTest {
                 .isEqualTo("Begin: Monday, July 1, 2030, 8:00 AM UTC");
         assertThat(_get(Paragraph.class, spec -> spec.withClasses("event-date-end")).getText())
                 .isEqualTo("End: Monday, July 1, 2030, 10:00 AM UTC");
-        assertThat(_get(Markdown.class, spec -> spec.withClasses("event-description")).getContent())
+        assertThat(_get(RenderedMarkdown.class, spec -> spec.withClasses("event-description")).getMarkdown())
                 .isEqualTo("Test Event Description");
         assertThat(_get(Image.class, spec -> spec.withClasses("event-image")).getSrc())
                 .isEqualTo("/images/%s.svg".formatted(communityWithImage.imageId().toString()));
@@ -282,7 +282,7 @@ class CreateEventViewKT extends KaribuTest {
                 .isEqualTo("Begin: Monday, July 1, 2030, 8:00 AM UTC");
         assertThat(_get(Paragraph.class, spec -> spec.withClasses("event-date-end")).getText())
                 .isEqualTo("End: Monday, July 1, 2030, 10:00 AM UTC");
-        assertThat(_get(Markdown.class, spec -> spec.withClasses("event-description")).getContent())
+        assertThat(_get(RenderedMarkdown.class, spec -> spec.withClasses("event-description")).getMarkdown())
                 .isEqualTo("Test Event Description");
         assertThat(_get(Image.class, spec -> spec.withClasses("event-image")).getSrc())
                 .isEqualTo("/images/%s.svg".formatted(imageId));
@@ -345,7 +345,7 @@ class CreateEventViewKT extends KaribuTest {
                 .isEqualTo("Begin: Monday, July 1, 2030, 8:00 AM UTC");
         assertThat(_get(Paragraph.class, spec -> spec.withClasses("event-date-end")).getText())
                 .isEqualTo("End: Monday, July 1, 2030, 10:00 AM UTC");
-        assertThat(_get(Markdown.class, spec -> spec.withClasses("event-description")).getContent())
+        assertThat(_get(RenderedMarkdown.class, spec -> spec.withClasses("event-description")).getMarkdown())
                 .isEqualTo("Test Event Description");
         assertThat(_find(Image.class, spec -> spec.withClasses("event-image")))
                 .isEmpty();
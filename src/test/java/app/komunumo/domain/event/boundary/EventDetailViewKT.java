@@ -23,6 +23,7 @@ import app.komunumo.domain.event.entity.EventDto;
 import app.komunumo.domain.event.entity.EventWithImageDto;
 import app.komunumo.domain.user.boundary.LoginView;
 import app.komunumo.infra.ui.vaadin.components.KomunumoMessageBox;
+import app.komunumo.infra.ui.vaadin.components.RenderedMarkdown;
 import app.komunumo.test.KaribuTest;
 import app.komunumo.util.DateTimeUtil;
 import com.github.mvysny.kaributesting.v10.MockVaadin;
@@ -58,7 +59,7 @@ class EventDetailViewKT extends KaribuTest {
         final var testEvent = testEventWithImage.event();
         final var testImage = testEventWithImage.image();
 
-        UI.getCurrent().navigate("events/" + testEvent.id());
+        navigateWithinStatementBudget("events/" + testEvent.id(), 25);
 
         final var title = _get(H2.class, spec -> spec.withClasses("event-title"));
         assertThat(title).isNotNull();
@@ -76,9 +77,9 @@ class EventDetailViewKT extends KaribuTest {
         assertThat(endDate).isNotNull();
         assertThat(endDate.getText()).isEqualTo("End: " + DateTimeUtil.getLocalizedDateTimeString(testEvent.end()));
 
-        final var description = _get(Markdown.class, spec -> spec.withClasses("event-description"));
+        final var description = _get(RenderedMarkdown.class, spec -> spec.withClasses("event-description"));
         assertThat(description).isNotNull();
-        assertThat(description.getContent()).isEqualTo(testEvent.description());
+        assertThat(description.getMarkdown()).isEqualTo(testEvent.description());
 
         final var participantCount = _get(Paragraph.class, spec -> spec.withClasses("event-participant-count"));
         assertThat(participantCount).isNotNull();
@@ -0,0 +1,270 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.domain.event.control;
+
+import app.komunumo.data.db.tables.records.EventReminderRecord;
+import app.komunumo.domain.community.control.CommunityService;
+import app.komunumo.domain.community.entity.CommunityDto;
+import app.komunumo.domain.core.config.control.ConfigurationService;
+import app.komunumo.domain.event.entity.EventDto;
+import app.komunumo.domain.event.entity.EventReminderStatus;
+import app.komunumo.domain.event.entity.EventStatus;
+import app.komunumo.domain.event.entity.EventVisibility;
+import app.komunumo.domain.participant.control.ParticipantService;
+import app.komunumo.domain.participant.entity.ParticipantDto;
+import app.komunumo.domain.user.control.UserService;
+import app.komunumo.domain.user.entity.UserDto;
+import app.komunumo.domain.user.entity.UserRole;
+import app.komunumo.domain.user.entity.UserType;
+import app.komunumo.test.KaribuTest;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import jakarta.mail.MessagingException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static app.komunumo.data.db.tables.EventReminder.EVENT_REMINDER;
+import static app.komunumo.domain.core.config.entity.ConfigurationSetting.EVENT_REMINDER_HOURS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventReminderServiceKT extends KaribuTest {
+
+    @Autowired
+    private @NotNull EventReminderService eventReminderService;
+
+    @Autowired
+    private @NotNull CommunityService communityService;
+
+    @Autowired
+    private @NotNull ConfigurationService configurationService;
+
+    @Autowired
+    private @NotNull EventService eventService;
+
+    @Autowired
+    private @NotNull ParticipantService participantService;
+
+    @Autowired
+    private @NotNull UserService userService;
+
+    @Autowired
+    private @NotNull DSLContext dsl;
+
+    @Test
+    void remindParticipantsOnce() throws MessagingException {
+        final var event = createEvent("Upcoming Event", 2);
+        final var users = createParticipants(event, 2);
+        participantService.storeParticipant(new ParticipantDto(event.id(),
+                createUser(null, "Remote User", UserType.REMOTE).id(), null));
+
+        eventReminderService.sendDueReminders();
+
+        final var reminder = getReminder(event);
+        assertThat(reminder.getStatus()).isEqualTo(EventReminderStatus.COMPLETED.name());
+        assertThat(reminder.getSentCount()).isEqualTo(2);
+        assertThat(reminder.getEventBegin()).isEqualTo(event.begin());
+
+        final var messages = getEmailsBySubject("[Komunumo Test] Reminder: \"Upcoming Event\"", 2);
+        final var recipients = new ArrayList<String>();
+        for (final var message : messages) {
+            recipients.add(message.getAllRecipients()[0].toString());
+        }
+        assertThat(recipients).containsExactlyInAnyOrderElementsOf(users.stream().map(UserDto::email).toList());
+        assertThat(messages)
+                .extracting(GreenMailUtil::getBody)
+                .allSatisfy(body -> assertThat(body)
+                        .startsWith("Hello Participant ")
+                        .contains("the event \"Upcoming Event\" you registered for")
+                        .contains("Location: Online")
+                        .contains("/events/" + event.id()));
+
+        // a second run must not remind anybody again
+        eventReminderService.sendDueReminders();
+        assertThat(getReminder(event).getUpdated()).isEqualTo(reminder.getUpdated());
+    }
+
+    @Test
+    void ignoreEventsOutsideTheWindow() {
+        final var later = createEvent("Later Event", 48);
+        createParticipants(later, 1);
+        final var past = createEvent("Past Event", -1);
+        createParticipants(past, 1);
+
+        eventReminderService.sendDueReminders();
+
+        assertThat(dsl.fetchCount(EVENT_REMINDER)).isZero();
+    }
+
+    @Test
+    void ignoreUnpublishedEvents() {
+        final var event = eventService.storeEvent(new EventDto(null, createCommunity().id(), null, null,
+                "Draft Event", "", "Online", beginIn(2), null, null, true,
+                EventVisibility.PUBLIC, EventStatus.DRAFT));
+        createParticipants(event, 1);
+
+        eventReminderService.sendDueReminders();
+
+        assertThat(dsl.fetchCount(EVENT_REMINDER)).isZero();
+    }
+
+    @Test
+    void remindersDisabled() {
+        configurationService.setConfiguration(EVENT_REMINDER_HOURS, 0);
+        final var event = createEvent("Upcoming Event", 2);
+        createParticipants(event, 1);
+
+        eventReminderService.sendDueReminders();
+
+        assertThat(dsl.fetchCount(EVENT_REMINDER)).isZero();
+    }
+
+    @Test
+    void configuredReminderHours() {
+        configurationService.setConfiguration(EVENT_REMINDER_HOURS, 72);
+        final var event = createEvent("Distant Event", 48);
+        createParticipants(event, 1);
+
+        eventReminderService.sendDueReminders();
+
+        assertThat(getReminder(event).getStatus()).isEqualTo(EventReminderStatus.COMPLETED.name());
+        getEmailsBySubject("[Komunumo Test] Reminder: \"Distant Event\"", 1);
+    }
+
+    @Test
+    void resumeStaleReminder() throws MessagingException {
+        final var event = createEvent("Interrupted Event", 2);
+        final var users = new ArrayList<>(createParticipants(event, 3));
+        // the participants are reminded in the order of their IDs
+        users.sort(Comparator.comparing(user -> String.valueOf(user.id())));
+
+        // simulate a node that stopped after reminding the first participant
+        insertReminder(event, event.begin(), EventReminderStatus.RUNNING,
+                ZonedDateTime.now(ZoneOffset.UTC).minus(EventReminderService.CLAIM_TIMEOUT).minusMinutes(1));
+        dsl.update(EVENT_REMINDER)
+                .set(EVENT_REMINDER.SENT_COUNT, 1)
+                .set(EVENT_REMINDER.LAST_USER_ID, users.getFirst().id())
+                .where(EVENT_REMINDER.EVENT_ID.eq(event.id()))
+                .execute();
+
+        eventReminderService.sendDueReminders();
+
+        final var reminder = getReminder(event);
+        assertThat(reminder.getStatus()).isEqualTo(EventReminderStatus.COMPLETED.name());
+        assertThat(reminder.getSentCount()).isEqualTo(3);
+        assertThat(reminder.getLastUserId()).isEqualTo(users.getLast().id());
+
+        final var recipients = new ArrayList<String>();
+        for (final var message : getEmailsBySubject("[Komunumo Test] Reminder: \"Interrupted Event\"", 2)) {
+            recipients.add(message.getAllRecipients()[0].toString());
+        }
+        assertThat(recipients).containsExactlyInAnyOrder(users.get(1).email(), users.get(2).email());
+    }
+
+    @Test
+    void doNotTakeOverRunningReminder() {
+        final var event = createEvent("Busy Event", 2);
+        createParticipants(event, 1);
+        insertReminder(event, event.begin(), EventReminderStatus.RUNNING, ZonedDateTime.now(ZoneOffset.UTC));
+
+        eventReminderService.sendDueReminders();
+
+        final var reminder = getReminder(event);
+        assertThat(reminder.getStatus()).isEqualTo(EventReminderStatus.RUNNING.name());
+        assertThat(reminder.getSentCount()).isZero();
+    }
+
+    @Test
+    void remindAgainAfterRescheduling() {
+        final var event = createEvent("Moved Event", 2);
+        createParticipants(event, 2);
+        final var previousBegin = event.begin().minusDays(1);
+        insertReminder(event, previousBegin, EventReminderStatus.COMPLETED, previousBegin.minusHours(2));
+
+        eventReminderService.sendDueReminders();
+
+        final var reminder = getReminder(event);
+        assertThat(reminder.getStatus()).isEqualTo(EventReminderStatus.COMPLETED.name());
+        assertThat(reminder.getEventBegin()).isEqualTo(event.begin());
+        assertThat(reminder.getSentCount()).isEqualTo(2);
+        getEmailsBySubject("[Komunumo Test] Reminder: \"Moved Event\"", 2);
+    }
+
+    private @NotNull CommunityDto createCommunity() {
+        return communityService.storeCommunity(new CommunityDto(null, "@reminder", null, null,
+                "Reminder Community", "", null));
+    }
+
+    private @NotNull EventDto createEvent(final @NotNull String title, final int hours) {
+        final var begin = beginIn(hours);
+        return eventService.storeEvent(new EventDto(null, createCommunity().id(), null, null,
+                title, "", "Online", begin, begin.plusHours(2), null, true,
+                EventVisibility.PUBLIC, EventStatus.PUBLISHED));
+    }
+
+    private static @NotNull ZonedDateTime beginIn(final int hours) {
+        return ZonedDateTime.now(ZoneOffset.UTC).plusHours(hours).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private @NotNull List<UserDto> createParticipants(final @NotNull EventDto event, final int count) {
+        final var users = new ArrayList<UserDto>();
+        for (var i = 1; i <= count; i++) {
+            final var user = createUser("participant-%d-%s@example.com".formatted(i, event.id()),
+                    "Participant " + i, UserType.LOCAL);
+            participantService.storeParticipant(new ParticipantDto(event.id(), user.id(), null));
+            users.add(user);
+        }
+        return users;
+    }
+
+    private @NotNull UserDto createUser(final @Nullable String email,
+                                        final @NotNull String name,
+                                        final @NotNull UserType type) {
+        return userService.storeUser(new UserDto(null, null, null, null, email, name, "", null,
+                UserRole.USER, type));
+    }
+
+    private void insertReminder(final @NotNull EventDto event,
+                                final @NotNull ZonedDateTime eventBegin,
+                                final @NotNull EventReminderStatus status,
+                                final @NotNull ZonedDateTime updated) {
+        dsl.insertInto(EVENT_REMINDER)
+                .set(EVENT_REMINDER.EVENT_ID, event.id())
+                .set(EVENT_REMINDER.EVENT_BEGIN, eventBegin)
+                .set(EVENT_REMINDER.CREATED, updated)
+                .set(EVENT_REMINDER.UPDATED, updated)
+                .set(EVENT_REMINDER.STATUS, status.name())
+                .execute();
+    }
+
+    private @NotNull EventReminderRecord getReminder(final @NotNull EventDto event) {
+        return dsl.selectFrom(EVENT_REMINDER)
+                .where(EVENT_REMINDER.EVENT_ID.eq(event.id()))
+                .fetchSingle();
+    }
+
+}
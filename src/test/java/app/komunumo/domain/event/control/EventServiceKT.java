@@ -29,6 +29,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -297,4 +299,23 @@ class EventServiceKT extends KaribuTest {
         }
     }
 
+    @Test
+    void storeMultipleEvents() {
+        final var communityId = communityService.getCommunities().getFirst().id();
+        final var count = eventService.getEventCount();
+        final var eventId = UUID.randomUUID();
+        eventService.storeEvents(List.of(
+                new EventDto(eventId, communityId, null, null, "Batch Event 1", "", "", null, null,
+                        null, false, EventVisibility.PRIVATE, EventStatus.DRAFT),
+                new EventDto(UUID.randomUUID(), communityId, null, null, "Batch Event 2", "", "", null, null,
+                        null, true, EventVisibility.PUBLIC, EventStatus.DRAFT)));
+        assertThat(eventService.getEventCount()).isEqualTo(count + 2);
+
+        final var event = eventService.getEvent(eventId).orElseThrow();
+        assertThat(event.communityId()).isEqualTo(communityId);
+        assertThat(event.title()).isEqualTo("Batch Event 1");
+        assertThat(event.anonymousParticipationAllowed()).isFalse();
+        assertThat(event.visibility()).isEqualTo(EventVisibility.PRIVATE);
+        assertThat(event.created()).isNotNull();
+    }
 }
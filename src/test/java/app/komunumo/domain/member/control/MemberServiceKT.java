@@ -30,6 +30,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Locale;
 
 import static app.komunumo.domain.member.entity.MemberRole.ORGANIZER;
@@ -114,4 +115,30 @@ public class MemberServiceKT extends KaribuTest {
             assertThat(testOrganizerDto.since()).isEqualTo(member.since());
         });
     }
+
+    @Test
+    void storeMultipleMembers() {
+        final var community = communityService.getCommunities().getFirst();
+        assertThat(community.id()).isNotNull();
+        assertThat(memberService.getMembersByCommunityId(community.id())).hasSize(4);
+
+        final var member = memberService.getMembersByCommunityId(community.id(), MemberRole.MEMBER).getFirst();
+        final var user = createRandomUser(UserRole.USER, UserType.LOCAL);
+        assertThat(user.id()).isNotNull();
+        memberService.storeMembers(List.of(
+                new MemberDto(member.userId(), member.communityId(), ORGANIZER, null),
+                new MemberDto(user.id(), community.id(), MemberRole.MEMBER, null)));
+
+        final var members = memberService.getMembersByCommunityId(community.id());
+        assertThat(members).hasSize(5);
+        assertThat(members).filteredOn(testee -> testee.userId().equals(member.userId()))
+                .singleElement()
+                .satisfies(testee -> {
+                    assertThat(testee.role()).isEqualTo(ORGANIZER);
+                    assertThat(testee.since()).isEqualTo(member.since());
+                });
+        assertThat(members).filteredOn(testee -> testee.userId().equals(user.id()))
+                .singleElement()
+                .satisfies(testee -> assertThat(testee.since()).isBeforeOrEqualTo(ZonedDateTime.now()));
+    }
 }
@@ -21,6 +21,7 @@ import app.komunumo.domain.page.control.GlobalPageService;
 import app.komunumo.domain.page.entity.GlobalPageDto;
 import app.komunumo.domain.user.entity.UserRole;
 import app.komunumo.infra.ui.vaadin.components.PersistentNotification;
+import app.komunumo.infra.ui.vaadin.components.RenderedMarkdown;
 import app.komunumo.test.KaribuTest;
 import com.github.mvysny.kaributesting.v10.MockVaadin;
 import com.vaadin.flow.component.HtmlContainer;
@@ -58,9 +59,9 @@ class GlobalPageEditorDialogKT extends KaribuTest {
 
             // verify that the page is loaded correctly
             final var view = _get(GlobalPageView.class);
-            final var markdown = findComponent(view, Markdown.class);
+            final var markdown = findComponent(view, RenderedMarkdown.class);
             assertThat(markdown).isNotNull();
-            assertThat(markdown.getContent()).startsWith("## Legal Notice");
+            assertThat(markdown.getMarkdown()).startsWith("## Legal Notice");
 
             // verify that no context menu is attached to the page content
             final var contextMenu = view.getContextMenu();
@@ -83,9 +84,9 @@ class GlobalPageEditorDialogKT extends KaribuTest {
             // verify that the page is loaded correctly
             final var view = _get(GlobalPageView.class,
                     spec -> spec.withClasses("global-page-view"));
-            final var markdown = findComponent(view, Markdown.class);
+            final var markdown = findComponent(view, RenderedMarkdown.class);
             assertThat(markdown).isNotNull();
-            assertThat(markdown.getContent()).startsWith("## Legal Notice");
+            assertThat(markdown.getMarkdown()).startsWith("## Legal Notice");
 
             // verify that no context menu is attached to the page content
             final var contextMenu = view.getContextMenu();
@@ -110,14 +111,14 @@ class GlobalPageEditorDialogKT extends KaribuTest {
             // verify that the page is loaded correctly
             final var view = _get(GlobalPageView.class,
                     spec -> spec.withClasses("global-page-view"));
-            final var markdown = findComponent(view, Markdown.class);
+            final var markdown = findComponent(view, RenderedMarkdown.class);
             assertThat(markdown).isNotNull();
-            assertThat(markdown.getContent()).startsWith("## Legal Notice");
+            assertThat(markdown.getMarkdown()).startsWith("## Legal Notice");
 
             // verify that a context menu is attached to the markdown content
             final var pageContent = _get(HtmlContainer.class,
                     spec -> spec.withClasses("global-page-content"));
-            final var markdownContent = _get(pageContent, Markdown.class);
+            final var markdownContent = _get(pageContent, RenderedMarkdown.class);
             final var contextMenu = view.getContextMenu();
             assertThat(contextMenu).isNotNull();
             assertThat(contextMenu.getTarget()).isSameAs(markdownContent);
@@ -143,12 +144,12 @@ class GlobalPageEditorDialogKT extends KaribuTest {
             // verify that the page is loaded correctly
             final var view = _get(GlobalPageView.class,
                     spec -> spec.withClasses("global-page-view"));
-            assertThat(_get(view, Markdown.class).getContent()).startsWith("## Legal Notice");
+            assertThat(_get(view, RenderedMarkdown.class).getMarkdown()).startsWith("## Legal Notice");
 
             // verify that a context menu is attached to the markdown content
             final var pageContent = _get(HtmlContainer.class,
                     spec -> spec.withClasses("global-page-content"));
-            final var markdownContent = _get(pageContent, Markdown.class);
+            final var markdownContent = _get(pageContent, RenderedMarkdown.class);
             final var contextMenu = view.getContextMenu();
             assertThat(contextMenu).isNotNull();
             assertThat(contextMenu.getTarget()).isSameAs(markdownContent);
@@ -193,7 +194,7 @@ class GlobalPageEditorDialogKT extends KaribuTest {
             assertThat(dialog.isOpened()).isFalse();
 
             // check that the view has not changed
-            assertThat(_get(view, Markdown.class).getContent()).startsWith("## Legal Notice");
+            assertThat(_get(view, RenderedMarkdown.class).getMarkdown()).startsWith("## Legal Notice");
 
             logout();
         } finally {
@@ -216,12 +217,12 @@ class GlobalPageEditorDialogKT extends KaribuTest {
             // verify that the page is loaded correctly
             final var view = _get(GlobalPageView.class,
                     spec -> spec.withClasses("global-page-view"));
-            assertThat(_get(view, Markdown.class).getContent()).startsWith("## Legal Notice");
+            assertThat(_get(view, RenderedMarkdown.class).getMarkdown()).startsWith("## Legal Notice");
 
             // verify that a context menu is attached to the markdown content
             final var pageContent = _get(HtmlContainer.class,
                     spec -> spec.withClasses("global-page-content"));
-            final var markdownContent = _get(pageContent, Markdown.class);
+            final var markdownContent = _get(pageContent, RenderedMarkdown.class);
             final var contextMenu = view.getContextMenu();
             assertThat(contextMenu).isNotNull();
             assertThat(contextMenu.getTarget()).isSameAs(markdownContent);
@@ -263,7 +264,7 @@ class GlobalPageEditorDialogKT extends KaribuTest {
             assertThat(dialog.isOpened()).isFalse();
 
             // check that the view has not changed
-            assertThat(_get(view, Markdown.class).getContent()).startsWith("## Legal Notice");
+            assertThat(_get(view, RenderedMarkdown.class).getMarkdown()).startsWith("## Legal Notice");
 
             logout();
         } finally {
@@ -287,12 +288,12 @@ class GlobalPageEditorDialogKT extends KaribuTest {
             // verify that the page is loaded correctly
             final var view = _get(GlobalPageView.class,
                     spec -> spec.withClasses("global-page-view"));
-            assertThat(_get(view, Markdown.class).getContent()).startsWith("## Legal Notice");
+            assertThat(_get(view, RenderedMarkdown.class).getMarkdown()).startsWith("## Legal Notice");
 
             // verify that a context menu is attached to the markdown content
             final var pageContent = _get(HtmlContainer.class,
                     spec -> spec.withClasses("global-page-content"));
-            final var markdownContent = _get(pageContent, Markdown.class);
+            final var markdownContent = _get(pageContent, RenderedMarkdown.class);
             final var contextMenu = view.getContextMenu();
             assertThat(contextMenu).isNotNull();
             assertThat(contextMenu.getTarget()).isSameAs(markdownContent);
@@ -339,7 +340,7 @@ class GlobalPageEditorDialogKT extends KaribuTest {
             assertThat(dialog.isOpened()).isFalse();
 
             // check that the view has changed
-            assertThat(_get(view, Markdown.class).getContent()).startsWith("## New Legal Notice");
+            assertThat(_get(view, RenderedMarkdown.class).getMarkdown()).startsWith("## New Legal Notice");
         } finally {
             globalPageService.storeGlobalPage(originalPage);
             SecurityContextHolder.clearContext();
@@ -445,7 +446,7 @@ class GlobalPageEditorDialogKT extends KaribuTest {
             assertThat(dialog.isOpened()).isFalse();
 
             // check that the view has not changed
-            assertThat(_get(view, Markdown.class).getContent()).startsWith("## Legal Notice");
+            assertThat(_get(view, RenderedMarkdown.class).getMarkdown()).startsWith("## Legal Notice");
         } finally {
             SecurityContextHolder.clearContext();
         }
@@ -500,7 +501,7 @@ class GlobalPageEditorDialogKT extends KaribuTest {
             assertThat(dialog.isOpened()).isFalse();
 
             // check that the view has not changed
-            assertThat(_get(view, Markdown.class).getContent()).startsWith("## New Legal Notice");
+            assertThat(_get(view, RenderedMarkdown.class).getMarkdown()).startsWith("## New Legal Notice");
         } finally {
             globalPageService.storeGlobalPage(originalPage);
             SecurityContextHolder.clearContext();
@@ -651,12 +652,12 @@ class GlobalPageEditorDialogKT extends KaribuTest {
             // verify that the page is loaded correctly
             final var view = _get(GlobalPageView.class,
                     spec -> spec.withClasses("global-page-view"));
-            assertThat(_get(view, Markdown.class).getContent()).startsWith("## Legal Notice");
+            assertThat(_get(view, RenderedMarkdown.class).getMarkdown()).startsWith("## Legal Notice");
 
             // verify that a context menu is attached to the markdown content
             final var pageContent = _get(HtmlContainer.class,
                     spec -> spec.withClasses("global-page-content"));
-            final var markdownContent = _get(pageContent, Markdown.class);
+            final var markdownContent = _get(pageContent, RenderedMarkdown.class);
             final var contextMenu = view.getContextMenu();
             assertThat(contextMenu).isNotNull();
             assertThat(contextMenu.getTarget()).isSameAs(markdownContent);
@@ -725,12 +726,12 @@ class GlobalPageEditorDialogKT extends KaribuTest {
             // verify that the page is loaded correctly
             final var view = _get(GlobalPageView.class,
                     spec -> spec.withClasses("global-page-view"));
-            assertThat(_get(view, Markdown.class).getContent()).startsWith("## Legal Notice");
+            assertThat(_get(view, RenderedMarkdown.class).getMarkdown()).startsWith("## Legal Notice");
 
             // verify that a context menu is attached to the markdown content
             final var pageContent = _get(HtmlContainer.class,
                     spec -> spec.withClasses("global-page-content"));
-            final var markdownContent = _get(pageContent, Markdown.class);
+            final var markdownContent = _get(pageContent, RenderedMarkdown.class);
             final var contextMenu = view.getContextMenu();
             assertThat(contextMenu).isNotNull();
             assertThat(contextMenu.getTarget()).isSameAs(markdownContent);
@@ -17,12 +17,12 @@
  */
 package app.komunumo.domain.page.boundary;
 
+import app.komunumo.infra.ui.vaadin.components.RenderedMarkdown;
 import app.komunumo.infra.ui.vaadin.layout.AbstractView;
 import app.komunumo.test.KaribuTest;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.Main;
-import com.vaadin.flow.component.markdown.Markdown;
 import org.junit.jupiter.api.Test;
 
 import static app.komunumo.test.TestUtil.findComponent;
@@ -36,9 +36,9 @@ class GlobalPageViewKT extends KaribuTest {
         UI.getCurrent().navigate("page/imprint");
 
         final var view = _get(AbstractView.class, spec -> spec.withClasses("global-page-view"));
-        final var component = findComponent(view, Markdown.class);
+        final var component = findComponent(view, RenderedMarkdown.class);
         assertThat(component).isNotNull();
-        assertThat(component.getContent()).startsWith("## Legal Notice");
+        assertThat(component.getMarkdown()).startsWith("## Legal Notice");
     }
 
     @Test
@@ -26,6 +26,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Locale;
 import java.util.function.Function;
 
@@ -266,4 +267,26 @@ class GlobalPageServiceKT extends KaribuTest {
             SecurityContextHolder.clearContext();
         }
     }
+
+    @Test
+    void storeMultipleGlobalPages() {
+        final var count = globalPageService.getGlobalPageCount();
+        globalPageService.storeGlobalPages(List.of(
+                new GlobalPageDto("batch", Locale.ENGLISH, null, null, "Batch", "## Batch"),
+                new GlobalPageDto("batch", Locale.GERMAN, null, null, "Stapel", "## Stapel")));
+        assertThat(globalPageService.getGlobalPageCount()).isEqualTo(count + 2);
+
+        final var englishPage = globalPageService.getGlobalPage("batch", Locale.ENGLISH).orElseThrow();
+        assertThat(englishPage.title()).isEqualTo("Batch");
+        assertThat(englishPage.markdown()).isEqualTo("## Batch");
+        assertThat(englishPage.created()).isNotNull();
+        assertThat(englishPage.updated()).isEqualTo(englishPage.created());
+
+        // replacing an existing page
+        globalPageService.storeGlobalPages(List.of(new GlobalPageDto("batch", Locale.GERMAN,
+                englishPage.created(), englishPage.updated(), "Stapel", "## Ersetzt")));
+        assertThat(globalPageService.getGlobalPageCount()).isEqualTo(count + 2);
+        assertThat(globalPageService.getGlobalPage("batch", Locale.GERMAN).orElseThrow().markdown())
+                .isEqualTo("## Ersetzt");
+    }
 }
@@ -172,7 +172,7 @@ class EventParticipantViewKT extends KaribuTest {
         login(admin);
 
         assertThat(testEvent.id()).isNotNull();
-        UI.getCurrent().navigate("events/" + testEvent.id() + "/participants");
+        navigateWithinStatementBudget("events/" + testEvent.id() + "/participants", 30);
 
         final var title = _get(H2.class, spec -> spec.withText("Participants of Demo Event 2"));
         assertThat(title).isNotNull();
@@ -26,6 +26,7 @@ import app.komunumo.domain.core.mail.entity.MailTemplateId;
 import app.komunumo.domain.event.control.EventService;
 import app.komunumo.domain.event.entity.EventDto;
 import app.komunumo.domain.member.entity.MemberRole;
+import app.komunumo.domain.participant.entity.ParticipantDto;
 import app.komunumo.domain.user.control.LoginService;
 import app.komunumo.domain.user.control.UserService;
 import app.komunumo.domain.user.entity.UserDto;
@@ -33,22 +34,28 @@ import app.komunumo.domain.user.entity.UserRole;
 import app.komunumo.domain.user.entity.UserType;
 import app.komunumo.infra.ui.i18n.TranslationProvider;
 import app.komunumo.test.KaribuTest;
+import com.icegreen.greenmail.util.GreenMailUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jooq.DSLContext;
 import org.junit.jupiter.api.Test;
 import org.mockito.invocation.Invocation;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 import static app.komunumo.data.db.Tables.MEMBER;
+import static app.komunumo.data.db.Tables.PARTICIPANT_NOTIFICATION;
 import static app.komunumo.data.db.Tables.USER;
 import static app.komunumo.domain.participant.control.ParticipantService.CONTEXT_KEY_EVENT;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockingDetails;
@@ -330,6 +337,12 @@ class ParticipantServiceKT extends KaribuTest {
         final var confirmationResponse = service.handleConfirmationResponse(email, context, locale);
 
         assertThat(confirmationResponse.confirmationStatus()).isEqualTo(ConfirmationStatus.SUCCESS);
+        verify(mailServiceMock, never()).sendMail(eq(MailTemplateId.EVENT_REGISTRATION_NOTIFY_MANAGERS),
+                any(), any(), any(), any(String[].class));
+
+        // the managers are notified once the notification window has passed
+        expireNotificationWindow();
+        service.notifyEventManagers();
         final var expectedParticipantCount = Integer.toString(service.getParticipantCount(event));
         assertManagerNotificationMail(mailServiceMock, locale, event.title(), "Alice",
                 expectedParticipantCount, expectedRecipientEmails);
@@ -367,11 +380,24 @@ class ParticipantServiceKT extends KaribuTest {
         final var confirmationResponse = service.handleConfirmationResponse(email, context, locale);
 
         assertThat(confirmationResponse.confirmationStatus()).isEqualTo(ConfirmationStatus.SUCCESS);
+        verify(mailServiceMock, never()).sendMail(eq(MailTemplateId.EVENT_REGISTRATION_NOTIFY_MANAGERS),
+                any(), any(), any(), any(String[].class));
+
+        // the managers are notified once the notification window has passed
+        expireNotificationWindow();
+        service.notifyEventManagers();
         final var expectedParticipantCount = Integer.toString(service.getParticipantCount(event));
         assertManagerNotificationMail(mailServiceMock, locale, event.title(), "Someone",
                 expectedParticipantCount, expectedRecipientEmails);
     }
 
+    private void expireNotificationWindow() {
+        dsl.update(PARTICIPANT_NOTIFICATION)
+                .set(PARTICIPANT_NOTIFICATION.CREATED, ZonedDateTime.now(ZoneOffset.UTC)
+                        .minus(ParticipantService.NOTIFICATION_WINDOW).minusMinutes(1))
+                .execute();
+    }
+
     private void assertManagerNotificationMail(final @NotNull MailService mailServiceMock,
                                                final @NotNull Locale locale,
                                                final @NotNull String eventTitle,
@@ -525,4 +551,116 @@ class ParticipantServiceKT extends KaribuTest {
         verify(mailServiceMock, never()).sendMail(any(), any(), any(), any(), any());
     }
 
+    @Test
+    void notifyEventManagers_shouldWaitForNotificationWindow() {
+        final var event = eventService.getUpcomingEventsWithImage().getFirst().event();
+        final var mailServiceMock = mock(MailService.class);
+        final var service = createParticipantService(mailServiceMock);
+
+        assertThat(service.registerForEvent(event, createUser("early@example.com", "Early"), Locale.ENGLISH)).isTrue();
+        service.notifyEventManagers();
+
+        verify(mailServiceMock, never()).sendMail(eq(MailTemplateId.EVENT_REGISTRATION_NOTIFY_MANAGERS),
+                any(), any(), any(), any(String[].class));
+        assertThat(dsl.fetchCount(PARTICIPANT_NOTIFICATION)).isOne();
+    }
+
+    @Test
+    void notifyEventManagers_shouldSendDigest_forSeveralRegistrations() {
+        final var event = eventService.getUpcomingEventsWithImage().getFirst().event();
+        final var locale = Locale.ENGLISH;
+        participantService.registerForEvent(event, createUser("alice@example.com", "Alice"), locale);
+        participantService.registerForEvent(event, createUser("bob@example.com", "Bob"), locale);
+        participantService.registerForEvent(event, createUser("anonymous@example.com", ""), locale);
+
+        expireNotificationWindow();
+        participantService.notifyEventManagers();
+        assertThat(dsl.fetchCount(PARTICIPANT_NOTIFICATION)).isZero();
+
+        final var digest = getEmailBySubject("[Komunumo Test] 3 new registrations for \"" + event.title() + "\"");
+        assertThat(GreenMailUtil.getBody(digest))
+                .contains("3 people just registered for \"" + event.title() + "\":")
+                .contains("- Alice", "- Bob", "- Someone")
+                .contains("Current number of registrations: "
+                        + participantService.getParticipantCount(event));
+    }
+
+    @Test
+    void notifyEventManagers_shouldNotWait_afterThreshold() {
+        final var event = eventService.getUpcomingEventsWithImage().getFirst().event();
+        final var mailServiceMock = mock(MailService.class);
+        final var service = createParticipantService(mailServiceMock);
+        for (var i = 1; i <= ParticipantService.NOTIFICATION_THRESHOLD; i++) {
+            service.registerForEvent(event, createUser("burst-%d@example.com".formatted(i), "Burst " + i),
+                    Locale.ENGLISH);
+        }
+
+        service.notifyEventManagers();
+
+        final var digestInvocations = mockingDetails(mailServiceMock).getInvocations().stream()
+                .filter(invocation -> "sendMail".equals(invocation.getMethod().getName()))
+                .filter(invocation -> invocation.getArguments()[0] == MailTemplateId.EVENT_REGISTRATION_DIGEST)
+                .toList();
+        assertThat(digestInvocations).hasSize(1);
+        @SuppressWarnings("unchecked")
+        final var variables = (Map<String, String>) digestInvocations.getFirst().getArguments()[3];
+        assertThat(variables)
+                .containsEntry("eventTitle", event.title())
+                .containsEntry("newParticipantCount", Integer.toString(ParticipantService.NOTIFICATION_THRESHOLD))
+                .containsEntry("participantCount", Integer.toString(service.getParticipantCount(event)));
+        assertThat(variables.get("participantNames").lines())
+                .hasSize(ParticipantService.NOTIFICATION_THRESHOLD)
+                .contains("- Burst 1", "- Burst " + ParticipantService.NOTIFICATION_THRESHOLD);
+        assertThat(dsl.fetchCount(PARTICIPANT_NOTIFICATION)).isZero();
+    }
+
+    @Test
+    void unregisterFromEvent_shouldDiscardPendingNotification() {
+        final var event = eventService.getUpcomingEventsWithImage().getFirst().event();
+        final var user = createUser("undecided@example.com", "Undecided");
+        participantService.registerForEvent(event, user, Locale.ENGLISH);
+        assertThat(dsl.fetchCount(PARTICIPANT_NOTIFICATION)).isOne();
+
+        assertThat(participantService.unregisterFromEvent(user, event, Locale.ENGLISH)).isTrue();
+        assertThat(dsl.fetchCount(PARTICIPANT_NOTIFICATION)).isZero();
+    }
+
+    private @NotNull UserDto createUser(final @NotNull String email, final @NotNull String name) {
+        return userService.storeUser(new UserDto(null, null, null, null, email, name, "",
+                null, UserRole.USER, UserType.LOCAL));
+    }
+
+    private @NotNull ParticipantService createParticipantService(final @NotNull MailService mailService) {
+        return new ParticipantService(
+                dsl,
+                mailService,
+                userService,
+                loginService,
+                confirmationService,
+                translationProvider
+        );
+    }
+
+    @Test
+    void storeMultipleParticipants() {
+        assertThat(participantService.getAllParticipants()).hasSize(6);
+
+        final var event = eventService.getUpcomingEventsWithImage().getFirst().event();
+        final var registered = ZonedDateTime.of(2025, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        final var user1 = userService.storeUser(new UserDto(null, null, null, null, "batch1@example.com", "", "",
+                null, UserRole.USER, UserType.ANONYMOUS));
+        final var user2 = userService.storeUser(new UserDto(null, null, null, null, "batch2@example.com", "", "",
+                null, UserRole.USER, UserType.ANONYMOUS));
+        assertThat(event.id()).isNotNull();
+        assertThat(user1.id()).isNotNull();
+        assertThat(user2.id()).isNotNull();
+
+        participantService.storeParticipants(List.of(
+                new ParticipantDto(event.id(), user1.id(), registered),
+                new ParticipantDto(event.id(), user2.id(), null)));
+
+        assertThat(participantService.getAllParticipants()).hasSize(8);
+        assertThat(participantService.getParticipant(event, user1).orElseThrow().registered()).isEqualTo(registered);
+        assertThat(participantService.getParticipant(event, user2).orElseThrow().registered()).isAfter(registered);
+    }
 }
@@ -25,8 +25,15 @@ import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class UserServiceKT extends KaribuTest {
 
@@ -191,4 +198,66 @@ class UserServiceKT extends KaribuTest {
                 .withMessageContaining("User ID must not be null! Maybe the user is not stored yet?");
     }
 
+    @Test
+    void storeMultipleUsers() {
+        final var created = ZonedDateTime.of(2025, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        final var userId = UUID.randomUUID();
+        userService.storeUsers(List.of(
+                new UserDto(null, null, null, "@batchUser1", "batch1@example.eu", "Batch User 1", "",
+                        null, UserRole.USER, UserType.LOCAL),
+                new UserDto(userId, created, null, "@batchUser2", "batch2@example.eu", "Batch User 2", "",
+                        null, UserRole.USER, UserType.LOCAL)));
+
+        final var user1 = userService.getUserByEmail("batch1@example.eu").orElseThrow();
+        assertThat(user1.id()).isNotNull();
+        assertThat(user1.name()).isEqualTo("Batch User 1");
+        assertThat(user1.updated()).isEqualTo(user1.created());
+
+        final var user2 = userService.getUserByEmail("batch2@example.eu").orElseThrow();
+        assertThat(user2.id()).isEqualTo(userId);
+        assertThat(user2.created()).isEqualTo(created);
+        assertThat(user2.updated()).isAfter(created);
+
+        // updating an existing user
+        userService.storeUsers(List.of(new UserDto(userId, user2.created(), user2.updated(), user2.profile(),
+                user2.email(), "Batch User Modified", user2.bio(), null, user2.role(), user2.type())));
+        assertThat(userService.getUserByEmail("batch2@example.eu").orElseThrow().name())
+                .isEqualTo("Batch User Modified");
+    }
+
+    @Test
+    void storeMultipleUsersIsAtomic() {
+        userService.storeUser(new UserDto(null, null, null, "@existingUser", "existing@example.eu", "Existing User",
+                "", null, UserRole.USER, UserType.LOCAL));
+        final var users = List.of(
+                new UserDto(null, null, null, "@newUser", "new@example.eu", "New User", "",
+                        null, UserRole.USER, UserType.LOCAL),
+                new UserDto(null, null, null, "@duplicateUser", "existing@example.eu", "Duplicate User", "",
+                        null, UserRole.USER, UserType.LOCAL));
+
+        assertThatThrownBy(() -> userService.storeUsers(users))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(userService.getUserByEmail("new@example.eu")).isEmpty();
+        assertThat(userService.getUserByEmail("existing@example.eu").orElseThrow().name())
+                .isEqualTo("Existing User");
+    }
+
+    @Test
+    void forEachUserChangedSince() {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        final var user = userService.storeUser(new UserDto(null, null, null, "@changedUser", "changed@example.eu",
+                "Changed User", "", null, UserRole.USER, UserType.LOCAL));
+
+        final var allUsers = new ArrayList<UserDto>();
+        userService.forEachUser(null, allUsers::add);
+        assertThat(allUsers).hasSizeGreaterThan(1).contains(user);
+
+        final var changedUsers = new ArrayList<UserDto>();
+        userService.forEachUser(now.minusMinutes(1), changedUsers::add);
+        assertThat(changedUsers).contains(user);
+
+        final var futureUsers = new ArrayList<UserDto>();
+        userService.forEachUser(now.plusDays(1), futureUsers::add);
+        assertThat(futureUsers).isEmpty();
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.persistence.jooq;
+
+import app.komunumo.domain.community.entity.CommunityDto;
+import app.komunumo.domain.core.image.entity.ImageDto;
+import app.komunumo.domain.event.entity.EventDto;
+import app.komunumo.domain.participant.entity.ParticipantDto;
+import app.komunumo.domain.user.entity.UserDto;
+import app.komunumo.test.KaribuTest;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static app.komunumo.data.db.tables.Community.COMMUNITY;
+import static app.komunumo.data.db.tables.Event.EVENT;
+import static app.komunumo.data.db.tables.Image.IMAGE;
+import static app.komunumo.data.db.tables.Participant.PARTICIPANT;
+import static app.komunumo.data.db.tables.User.USER;
+import static app.komunumo.domain.community.control.CommunityRecordMapper.COMMUNITY_MAPPER;
+import static app.komunumo.domain.core.image.control.ImageRecordMapper.IMAGE_MAPPER;
+import static app.komunumo.domain.event.control.EventRecordMapper.EVENT_MAPPER;
+import static app.komunumo.domain.participant.control.ParticipantRecordMapper.PARTICIPANT_MAPPER;
+import static app.komunumo.domain.user.control.UserRecordMapper.USER_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * <p>Makes sure the hand-written record mappers produce exactly the same DTOs as jOOQ's reflective
+ * {@code DefaultRecordMapper}, so a column added to a table and a DTO cannot be forgotten in a mapper.</p>
+ */
+class RecordMapperKT extends KaribuTest {
+
+    @Autowired
+    private DSLContext dsl;
+
+    @Test
+    void eventMapper() {
+        final var records = dsl.selectFrom(EVENT).fetch();
+        assertThat(records).isNotEmpty();
+        assertThat(records.map(EVENT_MAPPER)).isEqualTo(records.into(EventDto.class));
+    }
+
+    @Test
+    void userMapper() {
+        final var records = dsl.selectFrom(USER).fetch();
+        assertThat(records).isNotEmpty();
+        assertThat(records.map(USER_MAPPER)).isEqualTo(records.into(UserDto.class));
+    }
+
+    @Test
+    void communityMapper() {
+        final var records = dsl.selectFrom(COMMUNITY).fetch();
+        assertThat(records).isNotEmpty();
+        assertThat(records.map(COMMUNITY_MAPPER)).isEqualTo(records.into(CommunityDto.class));
+    }
+
+    @Test
+    void imageMapper() {
+        final var records = dsl.selectFrom(IMAGE).fetch();
+        assertThat(records).isNotEmpty();
+        assertThat(records.map(IMAGE_MAPPER)).isEqualTo(records.into(ImageDto.class));
+    }
+
+    @Test
+    void participantMapper() {
+        final var records = dsl.selectFrom(PARTICIPANT).fetch();
+        assertThat(records).isNotEmpty();
+        assertThat(records.map(PARTICIPANT_MAPPER)).isEqualTo(records.into(ParticipantDto.class));
+    }
+
+}
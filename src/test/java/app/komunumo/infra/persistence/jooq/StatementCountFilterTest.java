@@ -0,0 +1,128 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.persistence.jooq;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import nl.altindag.log.LogCaptor;
+import org.jooq.ExecuteContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static app.komunumo.infra.persistence.jooq.StatementCountFilter.STATEMENT_COUNT_HEADER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StatementCountFilterTest {
+
+    @AfterEach
+    void clearCounter() {
+        StatementCounter.clearStatementCount();
+    }
+
+    @Test
+    void counterCountsStatementsPerThread() throws InterruptedException {
+        final var counter = new StatementCounter();
+        StatementCounter.resetStatementCount();
+        counter.executeStart(mock(ExecuteContext.class));
+        counter.executeStart(mock(ExecuteContext.class));
+        assertThat(StatementCounter.getStatementCount()).isEqualTo(2);
+
+        final var otherThread = Thread.ofVirtual().start(() -> {
+            assertThat(StatementCounter.getStatementCount()).isZero();
+            counter.executeStart(mock(ExecuteContext.class));
+        });
+        otherThread.join();
+        assertThat(StatementCounter.getStatementCount()).isEqualTo(2);
+
+        StatementCounter.resetStatementCount();
+        assertThat(StatementCounter.getStatementCount()).isZero();
+    }
+
+    @Test
+    void filterReportsStatementCountInDebugMode() throws Exception {
+        final var request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/events");
+        final var response = mock(HttpServletResponse.class);
+        final var filterChain = mockFilterChain(3);
+
+        try (var logCaptor = LogCaptor.forClass(StatementCountFilter.class)) {
+            logCaptor.setLogLevelToDebug();
+            StatementCounter.resetStatementCount();
+            new StatementCountFilter().doFilter(request, response, filterChain);
+
+            assertThat(logCaptor.getDebugLogs()).containsExactly("Request GET /events executed 3 SQL statements");
+            verify(response).setIntHeader(STATEMENT_COUNT_HEADER, 3);
+        }
+    }
+
+    @Test
+    void filterDoesNotSetHeaderOnCommittedResponse() throws Exception {
+        final var request = mock(HttpServletRequest.class);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/");
+        final var response = mock(HttpServletResponse.class);
+        when(response.isCommitted()).thenReturn(true);
+        final var filterChain = mockFilterChain(1);
+
+        try (var logCaptor = LogCaptor.forClass(StatementCountFilter.class)) {
+            logCaptor.setLogLevelToDebug();
+            new StatementCountFilter().doFilter(request, response, filterChain);
+
+            assertThat(logCaptor.getDebugLogs()).containsExactly("Request GET / executed 1 SQL statements");
+            verify(response, never()).setIntHeader(anyString(), anyInt());
+        }
+    }
+
+    @Test
+    void filterIsSilentWithoutDebugMode() throws Exception {
+        final var request = mock(HttpServletRequest.class);
+        final var response = mock(HttpServletResponse.class);
+        final var filterChain = mockFilterChain(5);
+
+        try (var logCaptor = LogCaptor.forClass(StatementCountFilter.class)) {
+            logCaptor.setLogLevelToInfo();
+            new StatementCountFilter().doFilter(request, response, filterChain);
+
+            assertThat(logCaptor.getLogs()).isEmpty();
+            verify(response, never()).setIntHeader(anyString(), anyInt());
+        }
+    }
+
+    private static FilterChain mockFilterChain(final int statements) throws Exception {
+        final var filterChain = mock(FilterChain.class);
+        doAnswer(_ -> {
+            final var counter = new StatementCounter();
+            for (int i = 0; i < statements; i++) {
+                counter.executeStart(mock(ExecuteContext.class));
+            }
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+        return filterChain;
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.persistence.replica;
+
+import app.komunumo.infra.config.AppConfig;
+import app.komunumo.infra.config.DatabaseConfig;
+import app.komunumo.infra.config.DemoConfig;
+import app.komunumo.infra.config.FilesConfig;
+import app.komunumo.infra.config.ImporterConfig;
+import app.komunumo.infra.config.InstanceConfig;
+import app.komunumo.infra.config.MailConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.sql.Connection;
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourcePostProcessorTest {
+
+    @SuppressWarnings("unchecked")
+    private static ReplicaRoutingDataSourcePostProcessor createPostProcessor(final List<String> replicaUrls) {
+        final var appConfig = new AppConfig("0.0.0",
+                new DatabaseConfig(replicaUrls, Duration.ofSeconds(5)),
+                new DemoConfig(false, ""),
+                new FilesConfig(Path.of("/tmp")),
+                new ImporterConfig(1),
+                new InstanceConfig(""),
+                new MailConfig("", "", 1, 10));
+        final var appConfigProvider = (ObjectProvider<AppConfig>) mock(ObjectProvider.class);
+        when(appConfigProvider.getObject()).thenReturn(appConfig);
+        return new ReplicaRoutingDataSourcePostProcessor(appConfigProvider);
+    }
+
+    @Test
+    void otherBeansAreNotWrapped() {
+        final var postProcessor = createPostProcessor(List.of("jdbc:mariadb://replica/komunumo"));
+        final var bean = mock(DataSource.class);
+        assertThat(postProcessor.postProcessAfterInitialization(bean, "dataSource")).isSameAs(bean);
+        assertThat(postProcessor.requiresDestruction(bean)).isFalse();
+    }
+
+    @Test
+    void dataSourceIsNotWrappedWithoutReplicas() {
+        final var postProcessor = createPostProcessor(List.of(" "));
+        try (var primary = new HikariDataSource()) {
+            assertThat(postProcessor.postProcessAfterInitialization(primary, "dataSource")).isSameAs(primary);
+        }
+    }
+
+    @Test
+    void dataSourceIsWrappedWithReplicas() {
+        final var postProcessor = createPostProcessor(
+                List.of("jdbc:mariadb://replica1/komunumo", "jdbc:mariadb://replica2/komunumo"));
+        final var primary = new HikariDataSource();
+        primary.setDriverClassName("org.mariadb.jdbc.Driver");
+        primary.setUsername("komunumo");
+        primary.setPassword("secret");
+        primary.setTransactionIsolation("TRANSACTION_READ_COMMITTED");
+
+        final var bean = postProcessor.postProcessAfterInitialization(primary, "dataSource");
+        assertThat(bean).isInstanceOf(LazyConnectionDataSourceProxy.class);
+        final var proxy = (LazyConnectionDataSourceProxy) bean;
+        assertThat(proxy.getTargetDataSource()).isInstanceOf(ReplicaRoutingDataSource.class);
+
+        assertThat(postProcessor.requiresDestruction(bean)).isTrue();
+        postProcessor.postProcessBeforeDestruction(bean, "dataSource");
+        assertThat(primary.isClosed()).isTrue();
+    }
+
+    @Test
+    void replicasWithoutExplicitDriverAreSupported() {
+        final var postProcessor = createPostProcessor(List.of("jdbc:mariadb://replica/komunumo"));
+        final var primary = new HikariDataSource();
+
+        final var bean = postProcessor.postProcessAfterInitialization(primary, "dataSource");
+        assertThat(bean).isInstanceOf(LazyConnectionDataSourceProxy.class);
+        postProcessor.postProcessBeforeDestruction(bean, "dataSource");
+        assertThat(primary.isClosed()).isTrue();
+    }
+
+    @Test
+    void otherBeansAreNotClosed() {
+        final var postProcessor = createPostProcessor(List.of());
+        final var proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(mock(DataSource.class));
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        proxy.afterPropertiesSet();
+        assertThat(postProcessor.requiresDestruction(proxy)).isFalse();
+        postProcessor.postProcessBeforeDestruction(proxy, "dataSource");
+    }
+
+}
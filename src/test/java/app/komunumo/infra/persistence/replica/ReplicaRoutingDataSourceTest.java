@@ -0,0 +1,198 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.persistence.replica;
+
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection1 = mock(Connection.class);
+    private final Connection replicaConnection2 = mock(Connection.class);
+
+    @AfterEach
+    void cleanUp() {
+        ReplicaRoutingUtil.clearThread();
+        RequestContextHolder.resetRequestAttributes();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.clear();
+    }
+
+    private ReplicaRoutingDataSource createDataSource(final Duration stickiness) throws SQLException {
+        final var primary = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        final var replica1 = mock(DataSource.class);
+        when(replica1.getConnection()).thenReturn(replicaConnection1);
+        final var replica2 = mock(DataSource.class);
+        when(replica2.getConnection()).thenReturn(replicaConnection2);
+        return new ReplicaRoutingDataSource(primary, List.of(replica1, replica2), stickiness);
+    }
+
+    private static ExecuteContext statement(final ExecuteType type) {
+        final var ctx = mock(ExecuteContext.class);
+        when(ctx.type()).thenReturn(type);
+        return ctx;
+    }
+
+    @Test
+    void replicasAreRequired() {
+        final var primary = mock(DataSource.class);
+        final var replicas = List.<DataSource>of();
+        assertThatThrownBy(() -> new ReplicaRoutingDataSource(primary, replicas, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At least one replica data source is required");
+    }
+
+    @Test
+    void connectionsWithoutStatementUsePrimary() throws SQLException {
+        final var dataSource = createDataSource(Duration.ZERO);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void readStatementsUseReplicasRoundRobin() throws SQLException {
+        final var dataSource = createDataSource(Duration.ZERO);
+        final var listener = new ReplicaRoutingListener();
+
+        final var ctx = statement(ExecuteType.READ);
+        listener.start(ctx);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection1);
+        listener.end(ctx);
+
+        listener.start(ctx);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection2);
+        listener.end(ctx);
+
+        listener.start(ctx);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection1);
+        listener.end(ctx);
+    }
+
+    @Test
+    void writeStatementsUsePrimary() throws SQLException {
+        final var dataSource = createDataSource(Duration.ZERO);
+        final var listener = new ReplicaRoutingListener();
+
+        final var ctx = statement(ExecuteType.WRITE);
+        listener.start(ctx);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        listener.end(ctx);
+        assertThat(ReplicaRoutingUtil.isReadStatement()).isFalse();
+    }
+
+    @Test
+    void readsAfterWriteStickToPrimaryInSameThread() throws SQLException {
+        final var dataSource = createDataSource(Duration.ofMinutes(1));
+        final var listener = new ReplicaRoutingListener();
+
+        final var write = statement(ExecuteType.WRITE);
+        listener.start(write);
+        listener.end(write);
+
+        final var read = statement(ExecuteType.READ);
+        listener.start(read);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        listener.end(read);
+    }
+
+    @Test
+    void readsAfterWriteStickToPrimaryInSameSession() throws SQLException {
+        final var dataSource = createDataSource(Duration.ofMinutes(1));
+        final var listener = new ReplicaRoutingListener();
+        final var request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        final var read = statement(ExecuteType.READ);
+        listener.start(read);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection1);
+        listener.end(read);
+
+        final var write = statement(ExecuteType.WRITE);
+        listener.start(write);
+        listener.end(write);
+        assertThat(request.getSession().getAttribute(ReplicaRoutingUtil.LAST_WRITE_ATTRIBUTE)).isNotNull();
+
+        listener.start(read);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        listener.end(read);
+
+        // another session reads from the replicas
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        listener.start(read);
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection2);
+        listener.end(read);
+    }
+
+    @Test
+    void readWriteTransactionsUsePrimary() throws SQLException {
+        final var dataSource = createDataSource(Duration.ZERO);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        final var listener = new ReplicaRoutingListener();
+        final var read = statement(ExecuteType.READ);
+        listener.start(read);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        listener.end(read);
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicas() throws SQLException {
+        final var dataSource = createDataSource(Duration.ZERO);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection1);
+    }
+
+    @Test
+    void closeClosesAllDataSources() throws Exception {
+        final var primary = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+        final var replica = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+        final var unclosable = mock(DataSource.class);
+        doThrow(new IllegalStateException("boom")).when((AutoCloseable) primary).close();
+
+        new ReplicaRoutingDataSource(primary, List.of(replica, unclosable), Duration.ZERO).close();
+
+        verify((AutoCloseable) primary).close();
+        verify((AutoCloseable) replica).close();
+    }
+
+}
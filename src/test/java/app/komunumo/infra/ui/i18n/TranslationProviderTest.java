@@ -23,8 +23,11 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.text.NumberFormat;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import static java.util.Locale.ENGLISH;
@@ -65,6 +68,17 @@ class TranslationProviderTest {
                 .isEqualTo("Veranstaltungen");
     }
 
+    @Test
+    void testRegionalVariantsUseProvidedBundle() {
+        final var params = Map.of("count", 2);
+        for (final var languageTag : new String[]{"de-CH", "de-AT", "en-US", "fr-FR"}) {
+            final var locale = Locale.forLanguageTag(languageTag);
+            final var provided = locale.getLanguage().equals("de") ? GERMAN : ENGLISH;
+            assertThat(translationProvider.getTranslation("community.boundary.CommunityDetailView.memberCount", locale, params))
+                    .isEqualTo(translationProvider.getTranslation("community.boundary.CommunityDetailView.memberCount", provided, params));
+        }
+    }
+
     @Test
     void testFallbackToEnglish() {
         assertThat(translationProvider.getTranslation("event.boundary.EventGridView.title", Locale.ITALIAN))
@@ -114,6 +128,38 @@ class TranslationProviderTest {
                 .isEqualTo("Events");
     }
 
+    @Test
+    void testRepeatedTranslationWithPlaceholder() {
+        for (final var name : new String[]{"foo", "bar", "foo"}) {
+            assertThat(translationProvider.getTranslation("community.boundary.CommunityDetailView.profileImage", GERMAN, name))
+                    .isEqualTo(translationProvider.getTranslation("community.boundary.CommunityDetailView.profileImage", GERMAN)
+                            .replace("{0}", name));
+        }
+    }
+
+    @Test
+    void testConcurrentTranslationsWithPlaceholder() {
+        final var failures = new AtomicInteger();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var i = 0; i < 1_000; i++) {
+                final var count = i;
+                executor.execute(() -> {
+                    final var text = translationProvider.getTranslation(
+                            "community.boundary.CommunityDetailView.memberCount", ENGLISH, Map.of("count", count));
+                    final var expected = switch (count) {
+                        case 0 -> "no members";
+                        case 1 -> "one member";
+                        default -> NumberFormat.getIntegerInstance(ENGLISH).format(count) + " members";
+                    };
+                    if (!expected.equals(text)) {
+                        failures.incrementAndGet();
+                    }
+                });
+            }
+        }
+        assertThat(failures).hasValue(0);
+    }
+
     @Test
     void testMissingTranslation() {
         assertThat(translationProvider.getTranslation("test.missing.translation", ENGLISH))
@@ -0,0 +1,75 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.ui.vaadin.components;
+
+import app.komunumo.test.KaribuTest;
+import com.github.mvysny.kaributesting.v10.MockVaadin;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.virtuallist.VirtualList;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.github.mvysny.kaributesting.v10.LocatorJ._get;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class LogViewerKT extends KaribuTest {
+
+    @Test
+    void messagesAreShownInBatchesAndCapped() {
+        final var logViewer = new LogViewer("test.log", 3);
+        UI.getCurrent().add(logViewer);
+
+        for (var i = 1; i <= 5; i++) {
+            logViewer.log("Message " + i);
+        }
+        assertThat(getVisibleMessages(logViewer)).isEmpty(); // not flushed yet
+
+        await().atMost(2, SECONDS).untilAsserted(() -> {
+            MockVaadin.clientRoundtrip(false);
+            assertThat(getVisibleMessages(logViewer)).containsExactly("Message 3", "Message 4", "Message 5");
+        });
+        assertThat(logViewer.getMessages()).containsExactly(
+                "Message 1", "Message 2", "Message 3", "Message 4", "Message 5");
+
+        logViewer.clear();
+        assertThat(getVisibleMessages(logViewer)).isEmpty();
+        assertThat(logViewer.getMessages()).isEmpty();
+    }
+
+    @Test
+    void messagesLoggedWhileDetachedAreShownWhenAttached() throws InterruptedException {
+        final var logViewer = new LogViewer("test.log", 10);
+        logViewer.log("Message");
+        Thread.sleep(2 * LogViewer.FLUSH_INTERVAL.toMillis()); // the scheduled batch finds no UI
+        assertThat(getVisibleMessages(logViewer)).isEmpty();
+
+        UI.getCurrent().add(logViewer);
+        assertThat(getVisibleMessages(logViewer)).containsExactly("Message");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @NotNull List<String> getVisibleMessages(final @NotNull LogViewer logViewer) {
+        final VirtualList<String> messageList = _get(logViewer, VirtualList.class);
+        return messageList.getListDataView().getItems().toList();
+    }
+
+}
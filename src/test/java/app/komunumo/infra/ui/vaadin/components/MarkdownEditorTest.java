@@ -87,6 +87,15 @@ class MarkdownEditorTest {
         assertThat(markdownEditor.getValueChangeMode()).isEqualTo(ValueChangeMode.ON_BLUR);
     }
 
+    @Test
+    void setValueChangeTimeout() {
+        markdownEditor.setValueChangeMode(ValueChangeMode.LAZY);
+        markdownEditor.setValueChangeTimeout(1_000);
+        assertThat(markdownEditor.getValueChangeTimeout()).isEqualTo(1_000);
+        markdownEditor.setValueChangeTimeout(200);
+        assertThat(markdownEditor.getValueChangeTimeout()).isEqualTo(200);
+    }
+
     @Test
     void getEmptyValue() {
         assertThat(markdownEditor.getEmptyValue()).isEqualTo("");
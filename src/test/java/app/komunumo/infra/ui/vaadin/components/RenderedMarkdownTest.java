@@ -0,0 +1,49 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.infra.ui.vaadin.components;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RenderedMarkdownTest {
+
+    @Test
+    void rendersMarkdown() {
+        final var renderedMarkdown = new RenderedMarkdown("Hello **world**!");
+        assertThat(renderedMarkdown.getMarkdown()).isEqualTo("Hello **world**!");
+        assertThat(renderedMarkdown.getInnerHtml()).contains("<strong>world</strong>");
+        assertThat(renderedMarkdown.getClassNames()).contains("rendered-markdown");
+    }
+
+    @Test
+    void removesScripts() {
+        final var renderedMarkdown = new RenderedMarkdown("Hello <script>alert('XSS')</script>world!");
+        assertThat(renderedMarkdown.getInnerHtml())
+                .contains("Hello")
+                .doesNotContain("script");
+    }
+
+    @Test
+    void rendersEmptyMarkdown() {
+        final var renderedMarkdown = new RenderedMarkdown("");
+        assertThat(renderedMarkdown.getMarkdown()).isEmpty();
+        assertThat(renderedMarkdown.getInnerHtml()).isEmpty();
+    }
+
+}
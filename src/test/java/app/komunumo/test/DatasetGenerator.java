@@ -0,0 +1,485 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.test;
+
+import app.komunumo.domain.event.entity.EventStatus;
+import app.komunumo.domain.event.entity.EventVisibility;
+import app.komunumo.domain.member.entity.MemberRole;
+import org.jetbrains.annotations.NotNull;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * <p>Generates large synthetic datasets in the JSON data format read by the {@code JSONImporter},
+ * to fill an instance for load and scale tests.</p>
+ *
+ * <p>The generated data follows realistic distributions: the popularity of communities and
+ * events follows a Zipf-like distribution, so a few communities have most of the members and
+ * events, and a few events have most of the participants. Most events are in the past, some
+ * are upcoming. The output is fully determined by the seed, the volumes, and the reference
+ * time: every value is derived from a random generator seeded with the seed and the index of
+ * the element, and all IDs are computed from the seed and the index as well.</p>
+ *
+ * <p>The data is written with a streaming generator and no element is kept in memory. Only
+ * the cumulative popularity of the communities is precomputed, so the memory usage depends on
+ * the number of communities, but not on the number of events or participants.</p>
+ *
+ * <p>The generator can be run from the command line with the test classpath:</p>
+ *
+ * <pre>{@code
+ * java -cp <test classpath> app.komunumo.test.DatasetGenerator large.json 42 events=500000 participants=5000000
+ * }</pre>
+ *
+ * <p>Without a {@code reference=<ISO instant>} argument, the fixed {@link #DEFAULT_REFERENCE} is
+ * used, so the same arguments always produce the same file.</p>
+ */
+public final class DatasetGenerator {
+
+    /**
+     * <p>The reference time used by {@link #main(String[])} if none is specified.</p>
+     */
+    public static final @NotNull ZonedDateTime DEFAULT_REFERENCE = ZonedDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private static final @NotNull ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * <p>The exponent of the Zipf-like popularity distribution.</p>
+     */
+    private static final double ZIPF_EXPONENT = 1.1;
+
+    private static final double PAST_EVENT_RATIO = 0.8;
+    private static final long PAST_DAYS = 5 * 365;
+    private static final long UPCOMING_DAYS = 365;
+    private static final long REGISTRATION_DAYS = 60;
+
+    private static final @NotNull List<String> FIRST_NAMES = List.of(
+            "Anna", "Ben", "Chiara", "David", "Elena", "Felix", "Greta", "Hugo", "Ines", "Jonas",
+            "Klara", "Luca", "Mia", "Noah", "Olivia", "Paul", "Rosa", "Simon", "Tara", "Yannick");
+    private static final @NotNull List<String> LAST_NAMES = List.of(
+            "Bachmann", "Keller", "Meier", "Müller", "Rossi", "Schmid", "Suter", "Weber", "Wyss", "Zimmermann");
+    private static final @NotNull List<String> TOPICS = List.of(
+            "Java", "Open Source", "Cloud", "Security", "Testing", "Databases", "Frontend", "Accessibility",
+            "Performance", "Architecture", "Machine Learning", "DevOps");
+    private static final @NotNull List<String> LOCATIONS = List.of(
+            "Basel", "Bern", "Geneva", "Lausanne", "Lucerne", "St. Gallen", "Zurich", "Online");
+
+    private static final @NotNull String IMAGE_TEMPLATE = """
+            <svg xmlns="http://www.w3.org/2000/svg" width="400" height="225">\
+            <rect width="400" height="225" fill="#%s"/></svg>""";
+
+    private static final long IMAGE_SALT = 0x1111_1111_1111_1111L;
+    private static final long USER_SALT = 0x2222_2222_2222_2222L;
+    private static final long COMMUNITY_SALT = 0x3333_3333_3333_3333L;
+    private static final long EVENT_SALT = 0x4444_4444_4444_4444L;
+    private static final long MEMBER_SALT = 0x5555_5555_5555_5555L;
+    private static final long PARTICIPANT_SALT = 0x6666_6666_6666_6666L;
+
+    /**
+     * <p>The number of elements to generate per section. The number of members and participants
+     * is an approximation; the exact number depends on the random rounding per community and event.</p>
+     *
+     * @param users the number of users
+     * @param communities the number of communities
+     * @param members the approximate number of memberships
+     * @param events the number of events
+     * @param participants the approximate number of participations
+     * @param images the number of images, referenced by communities, events, and users
+     * @throws IllegalArgumentException if a volume is negative, or if there are no users or no
+     *                                  communities, because every community needs an owner and
+     *                                  every event a community
+     */
+    public record Volumes(int users, int communities, int members, int events, int participants, int images) {
+
+        public Volumes {
+            if (users < 1 || communities < 1) {
+                throw new IllegalArgumentException("At least one user and one community are required");
+            }
+            if (members < 0 || events < 0 || participants < 0 || images < 0) {
+                throw new IllegalArgumentException("Volumes must not be negative");
+            }
+        }
+
+        /**
+         * <p>The volumes of a big instance, used if no volumes are specified.</p>
+         */
+        public static final @NotNull Volumes LARGE = new Volumes(
+                250_000, 10_000, 1_000_000, 500_000, 5_000_000, 50_000);
+
+        /**
+         * <p>Returns these volumes with one volume replaced.</p>
+         *
+         * @param name the name of the volume, as used by the record components
+         * @param value the new value
+         * @return the changed volumes
+         */
+        public @NotNull Volumes with(final @NotNull String name, final int value) {
+            return switch (name) {
+                case "users" -> new Volumes(value, communities, members, events, participants, images);
+                case "communities" -> new Volumes(users, value, members, events, participants, images);
+                case "members" -> new Volumes(users, communities, value, events, participants, images);
+                case "events" -> new Volumes(users, communities, members, value, participants, images);
+                case "participants" -> new Volumes(users, communities, members, events, value, images);
+                case "images" -> new Volumes(users, communities, members, events, participants, value);
+                default -> throw new IllegalArgumentException("Unknown volume: " + name);
+            };
+        }
+    }
+
+    private final @NotNull Volumes volumes;
+    private final long seed;
+    private final @NotNull ZonedDateTime reference;
+
+    private final int communityImages;
+    private final int eventImages;
+    private final int userImages;
+    private final double @NotNull [] communityPopularity;
+
+    /**
+     * <p>Creates a generator for the specified volumes.</p>
+     *
+     * @param volumes the number of elements to generate per section
+     * @param seed the seed all generated values are derived from
+     * @param reference the time which separates past and upcoming events
+     */
+    public DatasetGenerator(final @NotNull Volumes volumes, final long seed, final @NotNull ZonedDateTime reference) {
+        this.volumes = volumes;
+        this.seed = seed;
+        this.reference = reference.withZoneSameInstant(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+
+        // the images are shared by communities, events, and users in this order
+        this.communityImages = Math.min(volumes.communities(), volumes.images() / 5);
+        this.eventImages = Math.min(volumes.events(), volumes.images() * 2 / 5);
+        this.userImages = Math.min(volumes.users(), volumes.images() - communityImages - eventImages);
+
+        this.communityPopularity = cumulativeZipf(volumes.communities());
+    }
+
+    /**
+     * <p>Writes the dataset to the specified stream. The stream is not closed.</p>
+     *
+     * @param outputStream the stream to write the JSON data to
+     */
+    public void generate(final @NotNull OutputStream outputStream) {
+        try (var generator = OBJECT_MAPPER.writer()
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .createGenerator(outputStream)) {
+            generator.writeStartObject();
+            writeImages(generator);
+            writeUsers(generator);
+            writeCommunities(generator);
+            writeEvents(generator);
+            writeMembers(generator);
+            writeParticipants(generator);
+            generator.writeEndObject();
+        }
+    }
+
+    private void writeImages(final @NotNull JsonGenerator generator) {
+        generator.writeArrayPropertyStart("images");
+        final var total = communityImages + eventImages + userImages;
+        for (var index = 0; index < total; index++) {
+            final var random = random(IMAGE_SALT, index);
+            final var color = "%06x".formatted(random.nextInt(0x1000000));
+            generator.writeStartObject();
+            generator.writeStringProperty("imageId", id(IMAGE_SALT, index).toString());
+            generator.writeStringProperty("contentType", "image/svg+xml");
+            generator.writeStringProperty("data", Base64.getEncoder().encodeToString(
+                    IMAGE_TEMPLATE.formatted(color).getBytes(StandardCharsets.UTF_8)));
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeUsers(final @NotNull JsonGenerator generator) {
+        generator.writeArrayPropertyStart("users");
+        for (var index = 0; index < volumes.users(); index++) {
+            final var random = random(USER_SALT, index);
+            final var name = pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES);
+            final var imageIndex = index < userImages ? communityImages + eventImages + index : -1;
+            generator.writeStartObject();
+            generator.writeStringProperty("userId", id(USER_SALT, index).toString());
+            generator.writeStringProperty("profile", "@user" + index);
+            generator.writeStringProperty("email", "user" + index + "@example.com");
+            generator.writeStringProperty("name", name);
+            generator.writeStringProperty("bio", random.nextInt(4) == 0 ? "Interested in " + pick(random, TOPICS) + "." : "");
+            generator.writeStringProperty("imageId", imageId(imageIndex));
+            generator.writeStringProperty("role", "USER");
+            generator.writeStringProperty("type", "LOCAL");
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeCommunities(final @NotNull JsonGenerator generator) {
+        generator.writeArrayPropertyStart("communities");
+        for (var index = 0; index < volumes.communities(); index++) {
+            final var random = random(COMMUNITY_SALT, index);
+            final var topic = pick(random, TOPICS);
+            generator.writeStartObject();
+            generator.writeStringProperty("communityId", id(COMMUNITY_SALT, index).toString());
+            generator.writeStringProperty("profile", "@community" + index);
+            generator.writeStringProperty("name", topic + " Community " + index);
+            generator.writeStringProperty("description", "A community about " + topic + " in " + pick(random, LOCATIONS) + ".");
+            generator.writeStringProperty("imageId", imageId(index < communityImages ? index : -1));
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeEvents(final @NotNull JsonGenerator generator) {
+        generator.writeArrayPropertyStart("events");
+        for (var index = 0; index < volumes.events(); index++) {
+            final var event = event(index);
+            final var random = event.random();
+            final var topic = pick(random, TOPICS);
+            generator.writeStartObject();
+            generator.writeStringProperty("eventId", id(EVENT_SALT, index).toString());
+            generator.writeStringProperty("communityId", id(COMMUNITY_SALT, event.community()).toString());
+            generator.writeStringProperty("title", topic + " Meetup " + index);
+            generator.writeStringProperty("description", "Talks and discussions about " + topic + ".");
+            generator.writeStringProperty("location", pick(random, LOCATIONS));
+            generator.writeStringProperty("begin", event.begin().toString());
+            generator.writeStringProperty("end", event.begin().plusHours(1 + random.nextInt(4)).toString());
+            generator.writeStringProperty("imageId", imageId(index < eventImages ? communityImages + index : -1));
+            generator.writeBooleanProperty("anonymousParticipationAllowed", random.nextBoolean());
+            generator.writeStringProperty("visibility",
+                    (random.nextInt(10) == 0 ? EventVisibility.PRIVATE : EventVisibility.PUBLIC).name());
+            generator.writeStringProperty("status", eventStatus(random, event.begin()).name());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private @NotNull EventStatus eventStatus(final @NotNull SplittableRandom random, final @NotNull ZonedDateTime begin) {
+        final var chance = random.nextInt(100);
+        if (chance < 3) {
+            return EventStatus.CANCELED;
+        }
+        return begin.isAfter(reference) && chance < 13 ? EventStatus.DRAFT : EventStatus.PUBLISHED;
+    }
+
+    private void writeMembers(final @NotNull JsonGenerator generator) {
+        generator.writeArrayPropertyStart("members");
+        final var normalization = zipfNormalization(volumes.communities());
+        for (var community = 0; community < volumes.communities(); community++) {
+            final var random = random(MEMBER_SALT, community);
+            final var expected = volumes.members() * zipfWeight(community) / normalization;
+            final var count = Math.max(1, Math.min(volumes.users(), randomRound(random, expected)));
+            final var communityId = id(COMMUNITY_SALT, community).toString();
+            final var users = new DistinctIndexes(random, volumes.users());
+            for (var member = 0; member < count; member++) {
+                final var role = member == 0 ? MemberRole.OWNER : member <= 2 ? MemberRole.ORGANIZER : MemberRole.MEMBER;
+                final var since = reference.minusSeconds(random.nextLong(Duration.ofDays(PAST_DAYS).toSeconds()));
+                generator.writeStartObject();
+                generator.writeStringProperty("userId", id(USER_SALT, users.next()).toString());
+                generator.writeStringProperty("communityId", communityId);
+                generator.writeStringProperty("role", role.name());
+                generator.writeStringProperty("since", since.toString());
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeParticipants(final @NotNull JsonGenerator generator) {
+        generator.writeArrayPropertyStart("participants");
+        final var normalization = zipfNormalization(volumes.events());
+        // spread the popular events over all communities and times instead of the first indexes
+        final var ranks = new DistinctIndexes(random(PARTICIPANT_SALT, -1), volumes.events());
+        for (var index = 0; index < volumes.events(); index++) {
+            final var random = random(PARTICIPANT_SALT, index);
+            final var expected = volumes.participants() * zipfWeight(ranks.next()) / normalization;
+            final var count = Math.min(volumes.users(), randomRound(random, expected));
+            final var eventId = id(EVENT_SALT, index).toString();
+            final var begin = event(index).begin();
+            final var latestRegistration = begin.isAfter(reference) ? reference : begin;
+            final var users = new DistinctIndexes(random, volumes.users());
+            for (var participant = 0; participant < count; participant++) {
+                final var registered = latestRegistration.minusSeconds(
+                        1 + random.nextLong(Duration.ofDays(REGISTRATION_DAYS).toSeconds()));
+                generator.writeStartObject();
+                generator.writeStringProperty("eventId", eventId);
+                generator.writeStringProperty("userId", id(USER_SALT, users.next()).toString());
+                generator.writeStringProperty("registered", registered.toString());
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * <p>Derives the community and the begin of an event from its index, so the participants
+     * can be generated without keeping the events in memory.</p>
+     */
+    private @NotNull GeneratedEvent event(final int index) {
+        final var random = random(EVENT_SALT, index);
+        final var community = Math.min(volumes.communities() - 1,
+                -Arrays.binarySearch(communityPopularity, random.nextDouble()) - 1);
+        final var begin = random.nextDouble() < PAST_EVENT_RATIO
+                ? reference.minusHours(1 + random.nextLong(PAST_DAYS * 24))
+                : reference.plusHours(1 + random.nextLong(UPCOMING_DAYS * 24));
+        return new GeneratedEvent(random, community, begin);
+    }
+
+    private record GeneratedEvent(@NotNull SplittableRandom random, int community, @NotNull ZonedDateTime begin) { }
+
+    private @NotNull SplittableRandom random(final long salt, final int index) {
+        return new SplittableRandom(mix(seed ^ salt) + index);
+    }
+
+    /**
+     * <p>Computes a version 4 UUID from the seed, the kind of element, and its index.</p>
+     */
+    private @NotNull UUID id(final long salt, final int index) {
+        final var mostSignificantBits = (mix(seed ^ salt) & 0xFFFF_FFFF_FFFF_0FFFL) | 0x0000_0000_0000_4000L;
+        final var leastSignificantBits = (mix(seed + salt + index) & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    private @NotNull String imageId(final int imageIndex) {
+        return imageIndex < 0 ? "" : id(IMAGE_SALT, imageIndex).toString();
+    }
+
+    /**
+     * <p>The finalizer of the SplitMix64 generator, which spreads the bits of the input.</p>
+     */
+    private static long mix(final long value) {
+        var result = value + 0x9E37_79B9_7F4A_7C15L;
+        result = (result ^ (result >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        result = (result ^ (result >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return result ^ (result >>> 31);
+    }
+
+    private static double zipfWeight(final int rank) {
+        return 1.0 / Math.pow(rank + 1.0, ZIPF_EXPONENT);
+    }
+
+    private static double zipfNormalization(final int size) {
+        var sum = 0.0;
+        for (var rank = 0; rank < size; rank++) {
+            sum += zipfWeight(rank);
+        }
+        return sum;
+    }
+
+    private static double @NotNull [] cumulativeZipf(final int size) {
+        final var normalization = zipfNormalization(size);
+        final var cumulative = new double[size];
+        var sum = 0.0;
+        for (var rank = 0; rank < size; rank++) {
+            sum += zipfWeight(rank) / normalization;
+            cumulative[rank] = sum;
+        }
+        return cumulative;
+    }
+
+    /**
+     * <p>Rounds up or down at random, so the expected value is preserved for small values.</p>
+     */
+    private static int randomRound(final @NotNull SplittableRandom random, final double value) {
+        final var floor = Math.floor(value);
+        return (int) floor + (random.nextDouble() < value - floor ? 1 : 0);
+    }
+
+    private static @NotNull String pick(final @NotNull SplittableRandom random, final @NotNull List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    /**
+     * <p>Returns distinct indexes below a bound in a random order without keeping track of the
+     * returned indexes, by stepping through the indexes with a random stride coprime to the bound.</p>
+     */
+    private static final class DistinctIndexes {
+
+        private final int bound;
+        private final long stride;
+        private long current;
+
+        DistinctIndexes(final @NotNull SplittableRandom random, final int bound) {
+            this.bound = bound;
+            var candidate = 1L + random.nextLong(Math.max(1, bound));
+            while (gcd(candidate, bound) != 1) {
+                candidate++;
+            }
+            this.stride = candidate;
+            this.current = random.nextLong(Math.max(1, bound));
+        }
+
+        int next() {
+            final var result = (int) current;
+            current = (current + stride) % bound;
+            return result;
+        }
+
+        private static long gcd(final long a, final long b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+    }
+
+    /**
+     * <p>Writes a dataset to a file.</p>
+     *
+     * @param args the output file, optionally followed by the seed, the reference time like
+     *             {@code reference=2026-01-01T00:00:00Z}, and volumes like {@code events=1000}
+     * @throws IOException if the file could not be written
+     */
+    public static void main(final @NotNull String @NotNull [] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: DatasetGenerator <output file> [seed] [reference=<ISO instant>] "
+                    + "[users|communities|members|events|participants|images=<count> ...]");
+            return;
+        }
+        final var output = Path.of(args[0]);
+        var seed = 0L;
+        var reference = DEFAULT_REFERENCE;
+        var volumes = Volumes.LARGE;
+        for (final var arg : Arrays.copyOfRange(args, 1, args.length)) {
+            final var separator = arg.indexOf('=');
+            if (separator < 0) {
+                seed = Long.parseLong(arg);
+            } else if (arg.startsWith("reference=")) {
+                reference = Instant.parse(arg.substring(separator + 1)).atZone(ZoneOffset.UTC);
+            } else {
+                volumes = volumes.with(arg.substring(0, separator), Integer.parseInt(arg.substring(separator + 1)));
+            }
+        }
+        try (var outputStream = new BufferedOutputStream(Files.newOutputStream(output))) {
+            new DatasetGenerator(volumes, seed, reference).generate(outputStream);
+        }
+        System.out.printf("Generated %s with seed %d, reference %s, and %s.%n", output, seed, reference, volumes);
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.test;
+
+import app.komunumo.domain.community.control.CommunityService;
+import app.komunumo.domain.core.importer.control.ImporterLog;
+import app.komunumo.domain.core.importer.control.JSONImporter;
+import app.komunumo.domain.event.control.EventService;
+import app.komunumo.domain.event.entity.EventDto;
+import app.komunumo.domain.member.control.MemberService;
+import app.komunumo.domain.member.entity.MemberDto;
+import app.komunumo.domain.member.entity.MemberRole;
+import app.komunumo.domain.participant.control.ParticipantService;
+import app.komunumo.domain.participant.entity.ParticipantDto;
+import app.komunumo.domain.user.control.UserService;
+import nl.altindag.log.LogCaptor;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class DatasetGeneratorTest {
+
+    private static final DatasetGenerator.Volumes VOLUMES =
+            new DatasetGenerator.Volumes(500, 20, 1_000, 300, 3_000, 50);
+    private static final ZonedDateTime REFERENCE = ZonedDateTime.of(2026, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void testSameSeedGeneratesSameData() {
+        assertThat(generate(42)).isEqualTo(generate(42));
+        assertThat(generate(42)).isNotEqualTo(generate(43));
+    }
+
+    @Test
+    void testVolumesCanBeChanged() {
+        assertThat(VOLUMES.with("users", 1).users()).isEqualTo(1);
+        assertThat(VOLUMES.with("communities", 2).communities()).isEqualTo(2);
+        assertThat(VOLUMES.with("members", 3).members()).isEqualTo(3);
+        assertThat(VOLUMES.with("events", 4).events()).isEqualTo(4);
+        assertThat(VOLUMES.with("participants", 5).participants()).isEqualTo(5);
+        assertThat(VOLUMES.with("images", 6).images()).isEqualTo(6);
+    }
+
+    @Test
+    void testInvalidVolumesAreRejected() {
+        assertThatThrownBy(() -> VOLUMES.with("users", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> VOLUMES.with("communities", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> VOLUMES.with("participants", -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(VOLUMES.with("events", 0).events()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGeneratedDataCanBeImported(final @TempDir Path tempDir) throws IOException {
+        final var jsonFile = tempDir.resolve("data.json");
+        Files.write(jsonFile, generate(42));
+
+        final var events = new ArrayList<EventDto>();
+        final var members = new ArrayList<MemberDto>();
+        final var participants = new ArrayList<ParticipantDto>();
+        final var eventService = mock(EventService.class);
+        doAnswer(invocation -> events.addAll(invocation.getArgument(0, List.class)))
+                .when(eventService).storeEvents(any());
+        final var memberService = mock(MemberService.class);
+        doAnswer(invocation -> members.addAll(invocation.getArgument(0, List.class)))
+                .when(memberService).storeMembers(any());
+        final var participantService = mock(ParticipantService.class);
+        doAnswer(invocation -> participants.addAll(invocation.getArgument(0, List.class)))
+                .when(participantService).storeParticipants(any());
+
+        try (var logCaptor = LogCaptor.forClass(ImporterLog.class);
+             var importer = new JSONImporter(new ImporterLog(null), jsonFile.toFile())) {
+            importer.importUsers(mock(UserService.class));
+            importer.importCommunities(mock(CommunityService.class));
+            importer.importEvents(eventService);
+            importer.importMembers(memberService);
+            importer.importParticipants(participantService);
+
+            assertThat(logCaptor.getInfoLogs()).contains(
+                    "...finished importing 500 users.",
+                    "...finished importing 20 communities.",
+                    "...finished importing 300 events.");
+            assertThat(logCaptor.getWarnLogs()).isEmpty();
+            assertThat(logCaptor.getErrorLogs()).isEmpty();
+        }
+
+        assertThat(events).hasSize(300);
+        final var pastEvents = events.stream().filter(event -> event.begin().isBefore(REFERENCE)).count();
+        assertThat(pastEvents).isBetween(200L, 280L);
+
+        // every community has exactly one owner and the membership is skewed to the popular communities
+        assertThat(members.size()).isBetween(800, 1_200);
+        assertThat(members.stream().filter(member -> member.role() == MemberRole.OWNER).count()).isEqualTo(20);
+        final var membersPerCommunity = members.stream()
+                .collect(Collectors.groupingBy(MemberDto::communityId, Collectors.counting()));
+        assertThat(membersPerCommunity).hasSize(20);
+        assertThat(max(membersPerCommunity)).isGreaterThan(members.size() / 5);
+        assertThat(new HashSet<>(members.stream().map(member -> member.communityId() + "/" + member.userId()).toList()))
+                .hasSameSizeAs(members);
+
+        // the participants are skewed to the popular events, registered before the begin, and never twice
+        assertThat(participants.size()).isBetween(2_500, 3_500);
+        final var participantsPerEvent = participants.stream()
+                .collect(Collectors.groupingBy(ParticipantDto::eventId, Collectors.counting()));
+        assertThat(max(participantsPerEvent)).isGreaterThan(participants.size() / 10);
+        assertThat(new HashSet<>(participants.stream().map(p -> p.eventId() + "/" + p.userId()).toList()))
+                .hasSameSizeAs(participants);
+        final var eventsById = events.stream().collect(Collectors.toMap(EventDto::id, Function.identity()));
+        assertThat(participants).allSatisfy(participant -> {
+            assertThat(participant.registered()).isBefore(eventsById.get(participant.eventId()).begin());
+            assertThat(participant.registered()).isBeforeOrEqualTo(REFERENCE);
+        });
+    }
+
+    private static long max(final @NotNull Map<?, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    private static byte @NotNull [] generate(final long seed) {
+        final var outputStream = new ByteArrayOutputStream();
+        new DatasetGenerator(VOLUMES, seed, REFERENCE).generate(outputStream);
+        return outputStream.toByteArray();
+    }
+
+}
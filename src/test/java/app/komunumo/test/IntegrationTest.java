@@ -20,6 +20,7 @@ package app.komunumo.test;
 import app.komunumo.domain.core.config.control.ConfigurationService;
 import app.komunumo.domain.core.config.entity.ConfigurationSetting;
 import app.komunumo.domain.core.demo.control.DemoMode;
+import app.komunumo.domain.core.mail.control.MailService;
 import com.icegreen.greenmail.configuration.GreenMailConfiguration;
 import com.icegreen.greenmail.junit5.GreenMailExtension;
 import com.icegreen.greenmail.store.FolderException;
@@ -35,10 +36,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 
 /**
@@ -64,6 +67,12 @@ public abstract class IntegrationTest {
      */
     private static final int GREENMAIL_WAIT_TIMEOUT = 2;
 
+    /**
+     * <p>Defines the maximum number of seconds to wait for emails sent in bulk, which are added to the outbox at the
+     * rate configured for bulk mails.</p>
+     */
+    private static final int BULK_MAIL_WAIT_TIMEOUT = 10;
+
     /**
      * <p>Injected service responsible for managing application configuration settings within the test environment.</p>
      *
@@ -76,6 +85,14 @@ public abstract class IntegrationTest {
     @Autowired
     private ConfigurationService configurationService;
 
+    /**
+     * <p>Injected service responsible for sending mails, used to reset the cached mail templates between tests.</p>
+     *
+     * @see MailService
+     */
+    @Autowired
+    private MailService mailService;
+
     /**
      * <p>Injected Flyway instance used to manage the test database schema during integration tests.</p>
      *
@@ -173,7 +190,8 @@ public abstract class IntegrationTest {
      * via Flyway, recreating demo data, and configuring the instance URL based on the dynamically assigned test port.</p>
      *
      * <p>The configuration is updated within an administrative context to apply changes immediately and clear any
-     * cached configuration values. This guarantees that every test starts from a known, reproducible state.</p>
+     * cached configuration values and mail templates. This guarantees that every test starts from a known, reproducible
+     * state.</p>
      *
      * @throws FolderException if an error occurs while purging emails from the mailboxes
      *
@@ -192,6 +210,7 @@ public abstract class IntegrationTest {
         instanceUrl = "http://localhost:%d/".formatted(getPort());
         configurationService.setConfiguration(ConfigurationSetting.INSTANCE_URL, instanceUrl);
         configurationService.clearCache();
+        mailService.clearCache();
     }
 
     /**
@@ -227,6 +246,36 @@ public abstract class IntegrationTest {
         return found.get();
     }
 
+    /**
+     * <p>Retrieves all emails received by GreenMail whose subject matches the provided value. The method actively
+     * waits until the expected number of such emails has arrived, which is intended for mails sent in bulk from the
+     * outbox at a limited rate, and fails if more emails than expected have arrived.</p>
+     *
+     * @param subject the subject line to match against incoming emails
+     * @param count the expected number of matching emails
+     * @return all {@link Message} instances whose subject matches the provided value
+     */
+    protected @NotNull List<Message> getEmailsBySubject(final @NotNull String subject, final int count) {
+        final var found = new AtomicReference<List<Message>>();
+
+        await().atMost(BULK_MAIL_WAIT_TIMEOUT, SECONDS).until(() -> {
+            final var messages = Stream.of(greenMail.getReceivedMessages())
+                    .filter(m -> {
+                        try {
+                            return subject.equals(m.getSubject());
+                        } catch (MessagingException e) {
+                            throw new RuntimeException(e);
+                        }
+                    })
+                    .toList();
+            found.set(messages);
+            return messages.size() >= count;
+        });
+
+        assertThat(found.get()).hasSize(count);
+        return found.get();
+    }
+
     /**
      * <p>Generates a random email address using the current system time in milliseconds to ensure uniqueness.</p>
      *
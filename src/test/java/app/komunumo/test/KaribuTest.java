@@ -24,6 +24,7 @@ import app.komunumo.domain.user.entity.UserPrincipal;
 import app.komunumo.domain.user.entity.UserRole;
 import app.komunumo.domain.user.entity.UserType;
 import app.komunumo.infra.config.AppConfig;
+import app.komunumo.infra.persistence.jooq.StatementCounter;
 import com.github.mvysny.fakeservlet.FakeRequest;
 import com.github.mvysny.kaributesting.v10.MockVaadin;
 import com.github.mvysny.kaributesting.v10.Routes;
@@ -59,6 +60,7 @@ import java.util.stream.Stream;
 
 import static app.komunumo.test.TestUtil.TEST_TIME_ZONE;
 import static app.komunumo.util.TimeZoneUtil.SESSION_TIME_ZONE_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * An abstract class which sets up Spring, Karibu-Testing and our app.
@@ -176,6 +178,43 @@ public abstract class KaribuTest extends IntegrationTest {
         throw new IllegalStateException("No concrete view found (only RouterLayouts present)");
     }
 
+    /**
+     * <p>Executes the given action and returns the number of SQL statements it issued.</p>
+     *
+     * <p>Karibu-Testing runs the complete UI code (layouts, views, services) on the test thread, so the
+     * {@link StatementCounter} sees exactly the statements caused by the action.</p>
+     *
+     * @param action the action to measure, for example a navigation or a button click
+     * @return the number of SQL statements executed while running the action
+     */
+    protected static int countStatements(final @NotNull Runnable action) {
+        final var before = StatementCounter.getStatementCount();
+        action.run();
+        return StatementCounter.getStatementCount() - before;
+    }
+
+    /**
+     * <p>Navigates to the given route and asserts that the navigation does not execute more SQL statements than
+     * the given budget.</p>
+     *
+     * <p>The budget covers everything rendered for the route, including the {@code WebsiteLayout}. It is meant to
+     * catch N+1 query regressions: a view that suddenly loads data per row exceeds its budget and fails the test.</p>
+     *
+     * <p>Example usage:</p>
+     * <pre>{@code
+     * navigateWithinStatementBudget("events/" + eventId, 25);
+     * }</pre>
+     *
+     * @param location the route to navigate to
+     * @param maxStatements the maximum number of SQL statements the navigation may execute
+     */
+    protected static void navigateWithinStatementBudget(final @NotNull String location, final int maxStatements) {
+        final var statementCount = countStatements(() -> UI.getCurrent().navigate(location));
+        assertThat(statementCount)
+                .as("SQL statements executed when navigating to '%s'", location)
+                .isLessThanOrEqualTo(maxStatements);
+    }
+
     /**
      * Returns the predefined test user for the given role.
      *
@@ -0,0 +1,88 @@
+/*
+ * Komunumo - Open Source Community Manager
+ * Copyright (C) Marcus Fihlon and the individual contributors to Komunumo.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package app.komunumo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledTemplateTest {
+
+    @Test
+    void renderWithoutPlaceholders() {
+        final var template = TemplateUtil.compile("Hello, World!");
+        assertThat(template.getVariableNames()).isEmpty();
+        assertThat(template.render(Map.of("name", "World"))).isEqualTo("Hello, World!");
+    }
+
+    @Test
+    void renderWithPlaceholders() {
+        final var template = TemplateUtil.compile("${greeting}, ${name}! Bye, ${name}.");
+        assertThat(template.getVariableNames()).containsExactly("greeting", "name");
+        assertThat(template.render(Map.of("greeting", "Hello", "name", "World")))
+                .isEqualTo("Hello, World! Bye, World.");
+    }
+
+    @Test
+    void renderKeepsPlaceholdersWithoutValue() {
+        final var template = TemplateUtil.compile("Hello, ${name}${suffix}");
+        assertThat(template.render(Map.of("suffix", "!"))).isEqualTo("Hello, ${name}!");
+        assertThat(template.render(null)).isEqualTo("Hello, ${name}${suffix}");
+    }
+
+    @Test
+    void renderDoesNotRenderValues() {
+        final var template = TemplateUtil.compile("${first}|${second}");
+        assertThat(template.render(Map.of("first", "${second}", "second", "$1 \\")))
+                .isEqualTo("${second}|$1 \\");
+    }
+
+    @Test
+    void renderKeepsUnterminatedPlaceholder() {
+        final var template = TemplateUtil.compile("Costs $5, ${amount} or ${amount");
+        assertThat(template.getVariableNames()).containsExactly("amount");
+        assertThat(template.render(Map.of("amount", "10"))).isEqualTo("Costs $5, 10 or ${amount");
+    }
+
+    @Test
+    void renderWithEscaper() {
+        final var template = TemplateUtil.compile("<b>${name}</b> ${missing}");
+        assertThat(template.render(Map.of("name", "<World>"),
+                value -> value.replace("<", "&lt;").replace(">", "&gt;")))
+                .isEqualTo("<b>&lt;World&gt;</b> ${missing}");
+    }
+
+    @Test
+    void missingVariables() {
+        final var template = TemplateUtil.compile("${greeting}, ${name}!");
+        assertThat(template.getMissingVariables(Map.of("name", "World"))).containsExactly("greeting");
+        assertThat(template.getMissingVariables(Map.of("greeting", "Hello", "name", "World"))).isEmpty();
+        assertThat(template.getMissingVariables(null)).containsExactly("greeting", "name");
+    }
+
+    @Test
+    void unknownVariables() {
+        final var template = TemplateUtil.compile("Hello, ${name}!");
+        assertThat(template.getUnknownVariables(Map.of("name", "World", "age", "42"))).containsExactly("age");
+        assertThat(template.getUnknownVariables(Map.of("name", "World"))).isEmpty();
+        assertThat(template.getUnknownVariables(null)).isEmpty();
+    }
+
+}
@@ -18,10 +18,19 @@
 package app.komunumo.util;
 
 import app.komunumo.KomunumoException;
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -33,12 +42,49 @@ class DownloadUtilTest {
         assertThat(string).startsWith("body::after {").endsWith("}");
     }
 
+    @Test
+    void downloadToTempFile() throws Exception {
+        final var path = DownloadUtil.downloadToTempFile("http://localhost:8082/custom-styles/styles.css");
+        assertThat(path).exists().hasSameTextualContentAs(Path.of("src/test/resources/custom-styles/styles.css"));
+    }
+
     @Test
     void downloadFileSuccess() {
         final var path = DownloadUtil.downloadFile("http://localhost:8082/custom-styles/styles.css");
         assertThat(path).isNotNull().exists();
     }
 
+    @Test
+    void downloadFileTooLarge() {
+        assertThatThrownBy(() -> DownloadUtil.downloadFile("http://localhost:8082/custom-styles/styles.css", 10))
+                .isInstanceOf(KomunumoException.class)
+                .hasMessage("Failed to download file from 'http://localhost:8082/custom-styles/styles.css': "
+                        + "the file exceeds 10 bytes");
+    }
+
+    @Test
+    void downloadFileRetriesTransientFailures() throws IOException {
+        final var server = startServer(503, 502, 200);
+        try {
+            final var path = DownloadUtil.downloadFile(getUrl(server));
+            assertThat(path).hasContent("retried");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void downloadFileGivesUpAfterRetries() throws IOException {
+        final var server = startServer(503, 503, 503, 200);
+        try {
+            assertThatThrownBy(() -> DownloadUtil.downloadFile(getUrl(server)))
+                    .isInstanceOf(KomunumoException.class)
+                    .hasMessageEndingWith("HTTP status code 503");
+        } finally {
+            server.stop(0);
+        }
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
             "http://localhost:8082/99",
@@ -51,4 +97,26 @@ class DownloadUtilTest {
                 .isInstanceOf(KomunumoException.class);
     }
 
+    /**
+     * <p>Starts a server answering the requests with the specified status codes one after another.</p>
+     */
+    private static @NotNull HttpServer startServer(final int... statusCodes) throws IOException {
+        final var responses = new ArrayDeque<Integer>();
+        Arrays.stream(statusCodes).forEach(responses::add);
+        final var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            final var body = "retried".getBytes(UTF_8);
+            exchange.sendResponseHeaders(responses.remove(), body.length);
+            try (var outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static @NotNull String getUrl(final @NotNull HttpServer server) {
+        return "http://localhost:%d/image.png".formatted(server.getAddress().getPort());
+    }
+
 }
@@ -18,9 +18,13 @@
 package app.komunumo.util;
 
 import app.komunumo.domain.core.image.control.ImageService;
+import app.komunumo.domain.core.image.entity.ContentType;
+import app.komunumo.domain.core.image.entity.ImageDto;
 import app.komunumo.infra.config.AppConfig;
+import app.komunumo.infra.config.DatabaseConfig;
 import app.komunumo.infra.config.DemoConfig;
 import app.komunumo.infra.config.FilesConfig;
+import app.komunumo.infra.config.ImporterConfig;
 import app.komunumo.infra.config.InstanceConfig;
 import app.komunumo.infra.config.MailConfig;
 import nl.altindag.log.LogCaptor;
@@ -33,13 +37,16 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Stream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -55,11 +62,13 @@ class ImageUtilTest {
 
     @BeforeEach
     void setUp() {
+        final var databaseConfig = new DatabaseConfig(List.of(), Duration.ZERO);
         final var demoConfig = new DemoConfig(false, "");
         final var filesConfig = new FilesConfig(tempDir);
-        final var mailConfig = new MailConfig("noreply@foo.bar", "support@foo.bar");
+        final var importerConfig = new ImporterConfig(1);
+        final var mailConfig = new MailConfig("noreply@foo.bar", "support@foo.bar", 1, 10);
         final var instanceConfig = new InstanceConfig("admin@foo.bar");
-        final var appConfig = new AppConfig("0.0.0", demoConfig, filesConfig, instanceConfig, mailConfig);
+        final var appConfig = new AppConfig("0.0.0", databaseConfig, demoConfig, filesConfig, importerConfig, instanceConfig, mailConfig);
         ImageUtil.initialize(appConfig);
         uploadImagePath = tempDir.resolve("uploads/images");
     }
@@ -191,6 +200,16 @@ class ImageUtilTest {
         );
     }
 
+    @Test
+    void storeImageFromStream() throws IOException {
+        final var image = new ImageDto(UUID.fromString("0b1c2d3e-0000-0000-0000-000000000001"), ContentType.IMAGE_PNG);
+        ImageUtil.storeImage(image, new ByteArrayInputStream("first".getBytes(UTF_8)));
+        ImageUtil.storeImage(image, new ByteArrayInputStream("second".getBytes(UTF_8)));
+
+        final var storedFile = uploadImagePath.resolve("0b/1c/0b1c2d3e-0000-0000-0000-000000000001.png");
+        assertThat(storedFile).hasContent("second");
+    }
+
     @ParameterizedTest
     @MethodSource("provideTestData_convertToPixels")
     void convertToPixels(final @NotNull String dimension, final double viewBoxReference, final long expectedValue) {
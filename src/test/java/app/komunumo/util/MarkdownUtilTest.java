@@ -69,4 +69,52 @@ class MarkdownUtilTest {
         assertThat(html).isEqualTo("<p><a href=\"https://komunumo.org\">Komunumo</a></p>\n");
     }
 
+    @Test
+    void convertsToSafeHtml() {
+        final var html = MarkdownUtil.convertMarkdownToSafeHtml("""
+                ## Agenda
+
+                This is ~~deleted~~ and **bold** text with a [link](https://komunumo.org).
+
+                ---
+                """);
+        assertThat(html)
+                .contains("<h2>Agenda</h2>")
+                .contains("<del>deleted</del>")
+                .contains("<strong>bold</strong>")
+                .contains("<a href=\"https://komunumo.org\">link</a>")
+                .contains("<hr>");
+    }
+
+    @Test
+    void removesScriptsFromSafeHtml() {
+        final var html = MarkdownUtil.convertMarkdownToSafeHtml("""
+                Hello <script>alert('XSS')</script> world!
+
+                <img src="https://komunumo.org/logo.png" onerror="alert('XSS')">
+
+                [Click me](javascript:alert('XSS'))
+                """);
+        assertThat(html)
+                .contains("Hello")
+                .contains("world!")
+                .contains("<img src=\"https://komunumo.org/logo.png\">")
+                .doesNotContain("script")
+                .doesNotContain("onerror")
+                .doesNotContain("javascript");
+    }
+
+    @Test
+    void keepsRelativeLinksInSafeHtml() {
+        final var html = MarkdownUtil.convertMarkdownToSafeHtml("[Events](/events)");
+        assertThat(html).contains("<a href=\"/events\">Events</a>");
+    }
+
+    @Test
+    void cachesSafeHtml() {
+        final var markdown = "Cached **content**";
+        assertThat(MarkdownUtil.convertMarkdownToSafeHtml(markdown))
+                .isSameAs(MarkdownUtil.convertMarkdownToSafeHtml(markdown));
+    }
+
 }